@@ -109,6 +109,7 @@ public class ARCoreActivity extends AppCompatActivity implements GLSurfaceView.R
 
         // Application specific scene - must be set exactly here
         AssetPath.getInstance().init(getAssets());
+        AssetPath.getInstance().setCacheDirectory(getCacheDir());
         scene = new DefaultARCoreScene();
 
         mSurfaceView = (GLSurfaceView) findViewById(R.id.surfaceview);
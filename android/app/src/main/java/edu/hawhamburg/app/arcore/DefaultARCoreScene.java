@@ -51,6 +51,7 @@ public class DefaultARCoreScene extends ARCoreScene {
             public void run() {
                 // Building
                 ObjReader reader = new ObjReader();
+                reader.setUseCache(true);
                 List<ITriangleMesh> meshes = reader.read("meshes/building.obj");
                 InnerNode buildingNode = new InnerNode();
                 for (ITriangleMesh mesh : meshes) {
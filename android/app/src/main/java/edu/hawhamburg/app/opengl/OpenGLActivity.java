@@ -46,6 +46,7 @@ public class OpenGLActivity extends Activity {
 
         // onSetup OpenGL
         AssetPath.getInstance().init(getAssets());
+        AssetPath.getInstance().setCacheDirectory(getCacheDir());
 
         // Application specific scene - must be set exactly here
         //scene = new DefaultOpenGLScene();
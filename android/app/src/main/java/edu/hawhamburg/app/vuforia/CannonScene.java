@@ -6,7 +6,6 @@ import edu.hawhamburg.shared.datastructures.CollisionUtils;
 import edu.hawhamburg.shared.datastructures.Particle;
 import edu.hawhamburg.shared.datastructures.mesh.ITriangleMesh;
 import edu.hawhamburg.shared.datastructures.mesh.ObjReader;
-import edu.hawhamburg.shared.datastructures.mesh.TriangleMesh;
 import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshFactory;
 import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshTools;
 import edu.hawhamburg.shared.math.AxisAlignedBoundingBox;
@@ -38,7 +37,9 @@ public class CannonScene extends Scene {
         // place the cannon on its marker
         VuforiaMarkerNode cannonMarker = new VuforiaMarkerNode("elphi");
         rootNode.addChild(cannonMarker);
-        List<ITriangleMesh> cannonMeshes = new ObjReader().read("meshes/cannon.obj");
+        ObjReader reader = new ObjReader();
+        reader.setUseCache(true);
+        List<ITriangleMesh> cannonMeshes = reader.read("meshes/cannon.obj");
         TriangleMeshTools.fitToUnitBox(cannonMeshes);
         TriangleMeshTools.placeOnXZPlane(cannonMeshes);
         for (ITriangleMesh cannonMesh : cannonMeshes) {
@@ -47,8 +48,7 @@ public class CannonScene extends Scene {
         }
 
         // set ball into the cannon coordinate system
-        ITriangleMesh sphereMesh = new TriangleMesh();
-        TriangleMeshFactory.createSphere(sphereMesh, CANNON_BALL_RADIUS, 10);
+        ITriangleMesh sphereMesh = TriangleMeshFactory.getSphere(CANNON_BALL_RADIUS, 10);
         TriangleMeshTools.placeOnXZPlane(sphereMesh);
         TriangleMeshNode sphereMeshNode = new TriangleMeshNode(sphereMesh);
         // ... with a translation to be able to move it
@@ -59,7 +59,7 @@ public class CannonScene extends Scene {
         // place a target on its marker
         VuforiaMarkerNode targetMarker = new VuforiaMarkerNode("campus");
         rootNode.addChild(targetMarker);
-        ITriangleMesh targetMesh = new ObjReader().read("meshes/chest.obj").get(0);
+        ITriangleMesh targetMesh = reader.read("meshes/chest.obj").get(0);
         TriangleMeshTools.fitToUnitBox(targetMesh);
         TriangleMeshTools.placeOnXZPlane(targetMesh);
         TriangleMeshNode targetMeshNode = new TriangleMeshNode(targetMesh);
@@ -93,11 +93,8 @@ public class CannonScene extends Scene {
         cannonBallTranslationNode.setTranslation(cannonBall.getNextPosition());
 
         // check collision via bounding boxes
-        boolean doBoxesCollide = CollisionUtils.doBoxesCollide(
-                targetBoxNode.getBoundingBox(),
-                targetBoxNode.getTransformation(),
-                cannonBallTranslationNode.getBoundingBox(),
-                cannonBallTranslationNode.getTransformation());
+        boolean doBoxesCollide = CollisionUtils.doBoxesCollide(targetBoxNode,
+                cannonBallTranslationNode);
         targetBoxNode.setColor(doBoxesCollide ? COLOR_RED : COLOR_GREEN);
     }
 
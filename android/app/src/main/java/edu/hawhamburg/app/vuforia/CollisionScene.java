@@ -3,15 +3,15 @@ package edu.hawhamburg.app.vuforia;
 import edu.hawhamburg.shared.datastructures.CollisionUtils;
 import edu.hawhamburg.shared.datastructures.mesh.ITriangleMesh;
 import edu.hawhamburg.shared.datastructures.mesh.ObjReader;
-import edu.hawhamburg.shared.datastructures.mesh.TriangleMesh;
 import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshFactory;
 import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshTools;
 import edu.hawhamburg.shared.math.AxisAlignedBoundingBox;
-import edu.hawhamburg.shared.math.Matrix;
 import edu.hawhamburg.shared.math.Vector;
 import edu.hawhamburg.shared.misc.Scene;
 import edu.hawhamburg.shared.scenegraph.BoundingBoxNode;
+import edu.hawhamburg.shared.scenegraph.INode;
 import edu.hawhamburg.shared.scenegraph.InnerNode;
+import edu.hawhamburg.shared.scenegraph.LodNode;
 import edu.hawhamburg.shared.scenegraph.TranslationNode;
 import edu.hawhamburg.shared.scenegraph.TriangleMeshNode;
 import edu.hawhamburg.vuforia.VuforiaMarkerNode;
@@ -22,9 +22,19 @@ public class CollisionScene extends Scene {
     private final static Vector YELLOW = new Vector(1, 1, 0, 1);
     private final static Vector RED = new Vector(1, 0, 0, 1);
     private final static double SPHERE_RADIUS = 0.3;
+    /**
+     * Detail levels of the object (ratios of the triangles), chosen by the distance.
+     */
+    private final static double[] LOD_RATIOS = {0.5, 0.25, 0.1};
+    /**
+     * Collisions are tested against the simplified mesh of this detail level (LOD_RATIOS[1],
+     * level 0 is the original mesh).
+     */
+    private final static int COLLISION_LEVEL = 2;
 
     private BoundingBoxNode objectBoxNode;
     private ITriangleMesh objectMesh;
+    private ITriangleMesh objectCollisionMesh;
 
     private BoundingBoxNode sphereBoxNode;
 
@@ -32,23 +42,25 @@ public class CollisionScene extends Scene {
     public void onSetup(InnerNode rootNode) {
         // bind two mesh objects with their markers
         // ... any mesh object
-        objectMesh = new ObjReader().read("meshes/max_planck.obj")
-                .get(0);
+        ObjReader reader = new ObjReader();
+        reader.setUseCache(true);
+        objectMesh = reader.read("meshes/max_planck.obj").get(0);
         TriangleMeshTools.fitToUnitBox(objectMesh);
         TriangleMeshTools.placeOnXZPlane(objectMesh);
-        objectBoxNode = addObjectWithBoxToRoot(rootNode, objectMesh, "campus");
+        LodNode objectLodNode = new LodNode(objectMesh, LOD_RATIOS);
+        objectCollisionMesh = objectLodNode.getLevelMesh(COLLISION_LEVEL);
+        objectBoxNode = addObjectWithBoxToRoot(rootNode, objectLodNode, "campus");
 
         // ... sphere
-        ITriangleMesh sphereMesh = new TriangleMesh();
-        TriangleMeshFactory.createSphere(sphereMesh, SPHERE_RADIUS, 100);
+        ITriangleMesh sphereMesh = TriangleMeshFactory.getSphere(SPHERE_RADIUS, 100);
         TriangleMeshTools.placeOnXZPlane(sphereMesh);
-        sphereBoxNode = addObjectWithBoxToRoot(rootNode, sphereMesh, "elphi");
+        sphereBoxNode = addObjectWithBoxToRoot(rootNode, new TriangleMeshNode(sphereMesh),
+                "elphi");
     }
 
-    private BoundingBoxNode addObjectWithBoxToRoot(InnerNode rootNode, ITriangleMesh mesh, String markerName) {
+    private BoundingBoxNode addObjectWithBoxToRoot(InnerNode rootNode, INode meshNode, String markerName) {
         // object with box
-        TriangleMeshNode meshNode = new TriangleMeshNode(mesh);
-        AxisAlignedBoundingBox box = new AxisAlignedBoundingBox(mesh.getBoundingBox());
+        AxisAlignedBoundingBox box = new AxisAlignedBoundingBox(meshNode.getBoundingBox());
         BoundingBoxNode boxNode = new BoundingBoxNode(box);
 
         // position in relation to marker
@@ -78,17 +90,13 @@ public class CollisionScene extends Scene {
 
     private Vector getBoxColor() {
         // check bounding box collision
-        AxisAlignedBoundingBox objectBox = objectBoxNode.getBoundingBox();
-        AxisAlignedBoundingBox sphereBox = sphereBoxNode.getBoundingBox();
-        Matrix objectTransformation = objectBoxNode.getTransformation();
-        Matrix sphereTransformation = sphereBoxNode.getTransformation();
-        if (!CollisionUtils.doBoxesCollide(objectBox, objectTransformation, sphereBox, sphereTransformation)) {
+        if (!CollisionUtils.doBoxesCollide(objectBoxNode, sphereBoxNode)) {
             return GREEN;
         }
 
         // check mesh collision
-        if (CollisionUtils.doesMeshCollideWithSphere(objectMesh, objectTransformation,
-                sphereBox.getCenter(), SPHERE_RADIUS, sphereTransformation)) {
+        if (CollisionUtils.doesMeshCollideWithSphere(objectCollisionMesh, objectBoxNode,
+                sphereBoxNode.getBoundingBox().getCenter(), SPHERE_RADIUS, sphereBoxNode)) {
             return RED;
         }
 
@@ -39,7 +39,9 @@ public class DefaultVuforiaScene extends Scene {
     public void onSetup(InnerNode rootNode) {
         // create scene graph
         // ... object to draw
-        List<ITriangleMesh> objectMeshes = new ObjReader().read("meshes/plane.obj");
+        ObjReader reader = new ObjReader();
+        reader.setUseCache(true);
+        List<ITriangleMesh> objectMeshes = reader.read("meshes/plane.obj");
         TriangleMeshTools.fitToUnitBox(objectMeshes);
         TriangleMeshTools.placeOnXZPlane(objectMeshes);
 
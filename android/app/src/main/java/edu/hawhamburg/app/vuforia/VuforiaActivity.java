@@ -94,6 +94,7 @@ public class VuforiaActivity extends Activity implements SessionControllable {
         vuforiaAppSession = new Session(this);
         requestCameraPermission();
         AssetPath.getInstance().init(getAssets());
+        AssetPath.getInstance().setCacheDirectory(getCacheDir());
 
         // Application specific scene - must be set exactly here
         //scene = new DefaultVuforiaScene();
@@ -0,0 +1,51 @@
+package edu.hawhamburg.shared.benchmark;
+
+import java.io.File;
+import java.util.List;
+
+import edu.hawhamburg.shared.datastructures.mesh.ITriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.ObjReader;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshTools;
+import edu.hawhamburg.shared.misc.AssetPath;
+
+/**
+ * Access to the assets of the app (android/assets) for the benchmarks. The directory can be
+ * changed with the system property assets.dir, the default is relative to the benchmark project
+ * directory (working directory of the JMH task).
+ */
+final class BenchmarkAssets {
+
+    static final String COW = "meshes/cow.obj";
+    static final String VAN = "meshes/van.obj";
+
+    private BenchmarkAssets() {
+    }
+
+    static void init() {
+        AssetPath.getInstance().init(getDirectory());
+    }
+
+    /**
+     * File of an asset, e.g. for reading it directly from the file system.
+     */
+    static File getFile(String filename) {
+        return new File(getDirectory(), filename);
+    }
+
+    private static File getDirectory() {
+        return new File(System.getProperty("assets.dir", "../assets"));
+    }
+
+    /**
+     * Read the OBJ file and unite all its meshes into one.
+     */
+    static TriangleMesh readMesh(String filename) {
+        init();
+        List<ITriangleMesh> meshes = new ObjReader().read(filename);
+        if (meshes.isEmpty()) {
+            throw new IllegalStateException("Failed to read " + filename);
+        }
+        return TriangleMeshTools.unite(meshes);
+    }
+}
@@ -0,0 +1,56 @@
+package edu.hawhamburg.shared.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.hawhamburg.shared.datastructures.CollisionUtils;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMesh;
+import edu.hawhamburg.shared.math.AxisAlignedBoundingBox;
+import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Vector;
+
+/**
+ * Collision tests between bounding boxes and between a mesh (cow) and a sphere. The sphere does
+ * not touch the mesh, so that all vertices are tested.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionBenchmark {
+
+    private TriangleMesh mesh;
+    private Matrix meshTransformation;
+    private Matrix sphereTransformation;
+    private AxisAlignedBoundingBox box;
+    private Matrix boxTransformation;
+
+    private final Vector sphereCenter = new Vector(0, 0, 0);
+
+    @Setup
+    public void setup() {
+        mesh = BenchmarkAssets.readMesh(BenchmarkAssets.COW);
+        meshTransformation = Matrix.createRotationMatrix4(new Vector(0, 1, 0), 0.3);
+        sphereTransformation = Matrix.createTranslationMatrix4(new Vector(100, 0, 0));
+        box = new AxisAlignedBoundingBox(mesh.getBoundingBox());
+        boxTransformation = Matrix.createTranslationMatrix4(new Vector(0.1, 0.2, 0))
+                .multiply(Matrix.createRotationMatrix4(new Vector(0, 0, 1), 0.5));
+    }
+
+    @Benchmark
+    public boolean doBoxesCollide() {
+        return CollisionUtils.doBoxesCollide(box, meshTransformation, box, boxTransformation);
+    }
+
+    @Benchmark
+    public boolean doesMeshCollideWithSphere() {
+        return CollisionUtils.doesMeshCollideWithSphere(mesh, meshTransformation, sphereCenter,
+                0.5, sphereTransformation);
+    }
+}
@@ -0,0 +1,192 @@
+package edu.hawhamburg.shared.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.hawhamburg.shared.math.Mat4;
+import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Vec3;
+import edu.hawhamburg.shared.math.Vector;
+
+/**
+ * Vector and matrix operations, allocating (Vector, Matrix) and allocation-free (Vec3, Mat4).
+ * The matrix inverse is compared with the former Jama implementation (jama* benchmarks).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MathBenchmark {
+
+    private static final int NUMBER_OF_POINTS = 1024;
+
+    private Vector a;
+    private Vector b;
+    private Matrix transformation;
+    private Matrix rotation;
+    private Matrix general;
+    private Vector point;
+    private double[][] transformationValues;
+    private double[][] generalValues;
+
+    private Vec3 a3;
+    private Vec3 b3;
+    private Vec3 result3;
+    private Mat4 transformation4;
+    private Mat4 rotation4;
+    private Mat4 result4;
+
+    private double[] points;
+    private double[] transformedPoints;
+
+    @Setup
+    public void setup() {
+        a = new Vector(1, 2, 3);
+        b = new Vector(-0.5, 0.25, 4);
+        rotation = Matrix.createRotationMatrix4(new Vector(0, 0.6, 0.8), 0.7);
+        transformation = Matrix.createTranslationMatrix4(new Vector(1, -2, 3)).multiply(rotation);
+        general = new Matrix(2, 0.5, 0, 1, 0.25, 3, 1, 0, 1, 0, 4, 2, 0.5, 0.25, 0, 1);
+        point = new Vector(0.5, -1, 2, 1);
+        transformationValues = toArray(transformation);
+        generalValues = toArray(general);
+
+        a3 = new Vec3(a);
+        b3 = new Vec3(b);
+        result3 = new Vec3();
+        transformation4 = new Mat4(transformation);
+        rotation4 = new Mat4(rotation);
+        result4 = new Mat4();
+
+        points = new double[3 * NUMBER_OF_POINTS];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = Math.sin(i);
+        }
+        transformedPoints = new double[3 * NUMBER_OF_POINTS];
+    }
+
+    @Benchmark
+    public Vector vectorAdd() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public Vector vectorCross() {
+        return a.cross(b);
+    }
+
+    @Benchmark
+    public Vector vectorNormalized() {
+        return a.getNormalized();
+    }
+
+    @Benchmark
+    public double vectorDot() {
+        return a.multiply(b);
+    }
+
+    @Benchmark
+    public Vec3 vec3Cross() {
+        return Vec3.cross(a3, b3, result3);
+    }
+
+    @Benchmark
+    public Vec3 vec3Normalize() {
+        return result3.set(a3).normalize();
+    }
+
+    @Benchmark
+    public Matrix matrixMultiply() {
+        return transformation.multiply(rotation);
+    }
+
+    @Benchmark
+    public Vector matrixMultiplyVector() {
+        return transformation.multiply(point);
+    }
+
+    @Benchmark
+    public Matrix matrixInverseRigid() {
+        return transformation.getInverse();
+    }
+
+    @Benchmark
+    public Matrix matrixInverseGeneral() {
+        return general.getInverse();
+    }
+
+    @Benchmark
+    public Matrix jamaInverseRigid() {
+        return getInverseWithJama(transformationValues);
+    }
+
+    @Benchmark
+    public Matrix jamaInverseGeneral() {
+        return getInverseWithJama(generalValues);
+    }
+
+    @Benchmark
+    public Matrix matrixTransposed() {
+        return transformation.getTransposed();
+    }
+
+    @Benchmark
+    public Mat4 mat4Multiply() {
+        return Mat4.multiply(transformation4, rotation4, result4);
+    }
+
+    @Benchmark
+    public boolean mat4Invert() {
+        return Mat4.invert(transformation4, result4);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double[] matrixTransformPoints() {
+        transformation.transformPoints(points, transformedPoints, NUMBER_OF_POINTS);
+        return transformedPoints;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double[] matrixTransformPointsPerVector() {
+        for (int i = 0; i < NUMBER_OF_POINTS; i++) {
+            Vector p = transformation.multiply(
+                    new Vector(points[3 * i], points[3 * i + 1], points[3 * i + 2], 1));
+            transformedPoints[3 * i] = p.x();
+            transformedPoints[3 * i + 1] = p.y();
+            transformedPoints[3 * i + 2] = p.z();
+        }
+        return transformedPoints;
+    }
+
+    private static double[][] toArray(Matrix matrix) {
+        double[][] values = new double[matrix.getNumberOfRows()][matrix.getNumberOfColumns()];
+        for (int row = 0; row < matrix.getNumberOfRows(); row++) {
+            for (int col = 0; col < matrix.getNumberOfColumns(); col++) {
+                values[row][col] = matrix.get(row, col);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Former implementation of Matrix.getInverse() for 4x4 matrices (values: the row arrays of
+     * the matrix).
+     */
+    private static Matrix getInverseWithJama(double[][] values) {
+        Jama.Matrix invM = new Jama.Matrix(values).inverse();
+        Matrix result = new Matrix(values.length, values.length);
+        for (int rowIndex = 0; rowIndex < values.length; rowIndex++) {
+            for (int columnIndex = 0; columnIndex < values.length; columnIndex++) {
+                result.set(rowIndex, columnIndex, invM.getArray()[rowIndex][columnIndex]);
+            }
+        }
+        return result;
+    }
+}
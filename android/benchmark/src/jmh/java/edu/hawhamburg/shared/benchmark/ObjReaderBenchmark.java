@@ -0,0 +1,112 @@
+package edu.hawhamburg.shared.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import edu.hawhamburg.shared.datastructures.mesh.ITriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.ObjReader;
+import edu.hawhamburg.shared.datastructures.mesh.ObjStreamReader;
+import edu.hawhamburg.shared.datastructures.mesh.ObjVisitorAdapter;
+import edu.hawhamburg.shared.misc.AssetPath;
+
+/**
+ * Reading the bundled OBJ files (including the normal computation of the reader). readRegex() is
+ * the baseline of the former line based reader, readCached() the warm start from the binary mesh
+ * cache, streamBoundingBox() a streaming pass which does not create any mesh.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ObjReaderBenchmark {
+
+    @Param({BenchmarkAssets.COW, BenchmarkAssets.VAN})
+    public String filename;
+
+    private File file;
+
+    private File cacheDirectory;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkAssets.init();
+        file = BenchmarkAssets.getFile(filename);
+
+        cacheDirectory = File.createTempFile("meshcache", "");
+        if (!cacheDirectory.delete() || !cacheDirectory.mkdir()) {
+            throw new IOException("Failed to create " + cacheDirectory);
+        }
+        AssetPath.getInstance().setCacheDirectory(cacheDirectory);
+        readCached();
+    }
+
+    @TearDown
+    public void tearDown() {
+        AssetPath.getInstance().setCacheDirectory(null);
+        for (File cacheFile : cacheDirectory.listFiles()) {
+            cacheFile.delete();
+        }
+        cacheDirectory.delete();
+    }
+
+    @Benchmark
+    public List<ITriangleMesh> readRegex() {
+        return new RegexObjReader().read(filename);
+    }
+
+    @Benchmark
+    public List<ITriangleMesh> read() {
+        return new ObjReader().read(filename);
+    }
+
+    @Benchmark
+    public List<ITriangleMesh> readPacked() {
+        return new ObjReader(true).read(filename);
+    }
+
+    @Benchmark
+    public List<ITriangleMesh> readMappedFile() {
+        return new ObjReader().read(file);
+    }
+
+    @Benchmark
+    public List<ITriangleMesh> readParallel() {
+        return new ObjReader(false, Runtime.getRuntime().availableProcessors()).read(filename);
+    }
+
+    @Benchmark
+    public List<ITriangleMesh> readCached() {
+        ObjReader reader = new ObjReader();
+        reader.setUseCache(true);
+        return reader.read(filename);
+    }
+
+    @Benchmark
+    public float[] streamBoundingBox() {
+        final float[] bounds = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE,
+                -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        new ObjStreamReader().read(filename, new ObjVisitorAdapter() {
+            @Override
+            public void onVertex(float x, float y, float z) {
+                bounds[0] = Math.min(bounds[0], x);
+                bounds[1] = Math.min(bounds[1], y);
+                bounds[2] = Math.min(bounds[2], z);
+                bounds[3] = Math.max(bounds[3], x);
+                bounds[4] = Math.max(bounds[4], y);
+                bounds[5] = Math.max(bounds[5], z);
+            }
+        });
+        return bounds;
+    }
+}
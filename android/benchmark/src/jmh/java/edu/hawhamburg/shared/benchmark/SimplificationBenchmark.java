@@ -0,0 +1,38 @@
+package edu.hawhamburg.shared.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import edu.hawhamburg.shared.datastructures.mesh.MeshSimplifier;
+import edu.hawhamburg.shared.datastructures.mesh.PackedTriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshFactory;
+
+/**
+ * LOD chain of a large mesh (sphere with 1M triangles).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SimplificationBenchmark {
+
+    private PackedTriangleMesh mesh;
+
+    @Setup
+    public void setup() {
+        mesh = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 710);
+    }
+
+    @Benchmark
+    public List<PackedTriangleMesh> createLodChain() {
+        return MeshSimplifier.createLodChain(mesh, 0.5, 0.25, 0.1, 0.01);
+    }
+}
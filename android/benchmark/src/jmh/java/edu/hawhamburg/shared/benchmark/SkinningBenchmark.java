@@ -0,0 +1,37 @@
+package edu.hawhamburg.shared.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.hawhamburg.shared.misc.SkeletonScene;
+
+/**
+ * One animation frame of the skeleton scene: bone transformations, weighted vertex skinning,
+ * normal computation and the update of the render vertices (the GL calls do nothing here).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SkinningBenchmark {
+
+    private SkeletonScene scene;
+
+    @Setup
+    public void setup() {
+        scene = new SkeletonScene();
+        scene.onSetup(scene.getRoot());
+    }
+
+    @Benchmark
+    public SkeletonScene onSceneRedraw() {
+        scene.onSceneRedraw();
+        return scene;
+    }
+}
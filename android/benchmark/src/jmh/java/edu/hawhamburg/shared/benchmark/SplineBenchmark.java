@@ -0,0 +1,51 @@
+package edu.hawhamburg.shared.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import edu.hawhamburg.shared.curves.Orientation;
+import edu.hawhamburg.shared.curves.Spline;
+import edu.hawhamburg.shared.math.Vector;
+
+/**
+ * Evaluation of a closed spline, e.g. for an object moving along a path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SplineBenchmark {
+
+    private static final int NUMBER_OF_CONTROL_POINTS = 16;
+
+    private Spline spline;
+
+    private double t = 0;
+
+    @Setup
+    public void setup() {
+        List<Vector> points = new ArrayList<Vector>();
+        for (int i = 0; i < NUMBER_OF_CONTROL_POINTS; i++) {
+            double angle = 2 * Math.PI * i / NUMBER_OF_CONTROL_POINTS;
+            points.add(new Vector(Math.cos(angle), 0.1 * Math.sin(3 * angle), Math.sin(angle)));
+        }
+        spline = new Spline(points);
+    }
+
+    @Benchmark
+    public Orientation getOrientation() {
+        t += 0.001;
+        if (t >= 1) {
+            t = 0;
+        }
+        return spline.getOrientation(t);
+    }
+}
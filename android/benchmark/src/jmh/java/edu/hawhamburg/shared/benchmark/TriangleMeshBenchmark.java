@@ -0,0 +1,81 @@
+package edu.hawhamburg.shared.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import edu.hawhamburg.shared.datastructures.mesh.Edge;
+import edu.hawhamburg.shared.datastructures.mesh.PackedTriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshTools;
+import edu.hawhamburg.shared.math.Vector;
+
+/**
+ * Per-frame mesh computations: normals after a deformation and the silhouette for the shadow
+ * volumes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TriangleMeshBenchmark {
+
+    @Param({BenchmarkAssets.COW, BenchmarkAssets.VAN})
+    public String filename;
+
+    private TriangleMesh mesh;
+    private PackedTriangleMesh packedMesh;
+
+    private final Vector lightPosition = new Vector(1, 2, 1);
+
+    @Setup
+    public void setup() {
+        mesh = BenchmarkAssets.readMesh(filename);
+        packedMesh = new PackedTriangleMesh(mesh);
+    }
+
+    @Benchmark
+    public TriangleMesh computeTriangleNormals() {
+        mesh.computeTriangleNormals();
+        return mesh;
+    }
+
+    @Benchmark
+    public List<Edge> getSilhouette() {
+        return mesh.getSilhouette(lightPosition);
+    }
+
+    @Benchmark
+    public PackedTriangleMesh computeTriangleNormalsPacked() {
+        packedMesh.computeTriangleNormals();
+        return packedMesh;
+    }
+
+    @Benchmark
+    public List<Edge> getSilhouettePacked() {
+        return packedMesh.getSilhouette(lightPosition);
+    }
+
+    @Benchmark
+    public int computeSilhouette() {
+        return mesh.computeSilhouette(lightPosition, 1);
+    }
+
+    @Benchmark
+    public int computeSilhouettePacked() {
+        return packedMesh.computeSilhouette(lightPosition, 1);
+    }
+
+    @Benchmark
+    public PackedTriangleMesh computeVertexNormalsPacked() {
+        TriangleMeshTools.computeVertexNormals(packedMesh, 1);
+        return packedMesh;
+    }
+}
@@ -0,0 +1,42 @@
+package edu.hawhamburg.shared.benchmark;
+
+import java.util.List;
+import java.util.Locale;
+
+import edu.hawhamburg.shared.datastructures.mesh.ITriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.MeshOptimizer;
+import edu.hawhamburg.shared.datastructures.mesh.ObjReader;
+
+/**
+ * Vertex cache metrics (ACMR and ATVR of a FIFO cache with MeshOptimizer.DEFAULT_CACHE_SIZE
+ * vertices) of the meshes in the assets before and after the MeshOptimizer (not a JMH benchmark,
+ * run with ./gradlew :benchmark:vertexCacheReport).
+ */
+public final class VertexCacheReport {
+
+    private static final String[] FILENAMES = {BenchmarkAssets.COW, BenchmarkAssets.VAN,
+            "meshes/max_planck.obj", "meshes/deer.obj", "meshes/building.obj"};
+
+    private VertexCacheReport() {
+    }
+
+    public static void main(String[] args) {
+        BenchmarkAssets.init();
+        MeshOptimizer optimizer = new MeshOptimizer();
+        System.out.println(String.format(Locale.US, "%-24s %9s %15s %15s", "mesh", "triangles",
+                "ACMR", "ATVR"));
+        for (String filename : FILENAMES) {
+            List<ITriangleMesh> meshes = new ObjReader(true).read(filename);
+            for (int i = 0; i < meshes.size(); i++) {
+                ITriangleMesh mesh = meshes.get(i);
+                double acmr = optimizer.computeAcmr(mesh);
+                double atvr = optimizer.computeAtvr(mesh);
+                optimizer.optimize(mesh);
+                System.out.println(String.format(Locale.US,
+                        "%-24s %9d %6.3f -> %5.3f %6.3f -> %5.3f", filename + "[" + i + "]",
+                        mesh.getNumberOfTriangles(), acmr, optimizer.computeAcmr(mesh), atvr,
+                        optimizer.computeAtvr(mesh)));
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package edu.hawhamburg.shared.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.hawhamburg.shared.datastructures.mesh.PackedTriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshFactory;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshTools;
+
+/**
+ * Vertex normals of a large mesh (sphere with 2M triangles) with different numbers of threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VertexNormalsBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int numberOfThreads;
+
+    private PackedTriangleMesh mesh;
+
+    @Setup
+    public void setup() {
+        mesh = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 1000);
+    }
+
+    @Benchmark
+    public PackedTriangleMesh computeVertexNormals() {
+        TriangleMeshTools.computeVertexNormals(mesh, numberOfThreads);
+        return mesh;
+    }
+}
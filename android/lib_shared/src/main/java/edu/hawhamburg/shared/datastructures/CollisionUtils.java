@@ -1,17 +1,38 @@
 package edu.hawhamburg.shared.datastructures;
 
 import edu.hawhamburg.shared.datastructures.mesh.ITriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshTools;
 import edu.hawhamburg.shared.math.AxisAlignedBoundingBox;
+import edu.hawhamburg.shared.math.Mat4;
 import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Vec3;
 import edu.hawhamburg.shared.math.Vector;
+import edu.hawhamburg.shared.scenegraph.INode;
 
 public class CollisionUtils {
 
+    /**
+     * Number of vertices transformed at once in doesMeshCollideWithSphere().
+     */
+    private static final int VERTEX_CHUNK_SIZE = 256;
+
     public static boolean doBoxesCollide(AxisAlignedBoundingBox box1, Matrix transformation1,
                                    AxisAlignedBoundingBox box2, Matrix transformation2) {
+        return doBoxesCollide(box1, box2, transformation1.getInverse().multiply(transformation2));
+    }
+
+    /**
+     * Same as doBoxesCollide() for the bounding boxes and transformations of the nodes, but uses
+     * the cached inverse transformation of node1 (recomputed only if node1 moved).
+     */
+    public static boolean doBoxesCollide(INode node1, INode node2) {
+        return doBoxesCollide(node1.getBoundingBox(), node2.getBoundingBox(),
+                node1.getInverseTransformation().multiply(node2.getTransformation()));
+    }
+
+    private static boolean doBoxesCollide(AxisAlignedBoundingBox box1, AxisAlignedBoundingBox box2,
+                                          Matrix transformationBox2ToBox1System) {
         // translate box2 to the box1 coordinate system
-        Matrix transformationBox2ToBox1System = transformation1.getInverse()
-                .multiply(transformation2);
         AxisAlignedBoundingBox box2InBox1System = new AxisAlignedBoundingBox(box2);
         box2InBox1System.transform(transformationBox2ToBox1System);
 
@@ -33,18 +54,43 @@ public class CollisionUtils {
 
     public static boolean doesMeshCollideWithSphere(ITriangleMesh mesh, Matrix meshTransformation,
                                               Vector sphereCenterInSphereSystem, double radius, Matrix sphereTransformation) {
-        Matrix transformationToSphereSystem = sphereTransformation.getInverse()
-                .multiply(meshTransformation);
-        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
-            Vector vertexPosition = mesh.getVertex(i)
-                    .getPosition();
-            Vector vertexPositionInSphereSystem = transformationToSphereSystem
-                    .multiply(Vector.makeHomogenious(vertexPosition))
-                    .xyz();
-            double distanceFromCenter = vertexPositionInSphereSystem.subtract(sphereCenterInSphereSystem)
-                    .getNorm();
-            if (distanceFromCenter <= radius) {
-                return true;
+        return doesMeshCollideWithSphere(mesh, sphereCenterInSphereSystem, radius,
+                sphereTransformation.getInverse().multiply(meshTransformation));
+    }
+
+    /**
+     * Same as doesMeshCollideWithSphere() for the transformations of the nodes, but uses the
+     * cached inverse transformation of the sphere node (recomputed only if it moved).
+     */
+    public static boolean doesMeshCollideWithSphere(ITriangleMesh mesh, INode meshNode,
+                                                    Vector sphereCenterInSphereSystem, double radius,
+                                                    INode sphereNode) {
+        return doesMeshCollideWithSphere(mesh, sphereCenterInSphereSystem, radius,
+                sphereNode.getInverseTransformation().multiply(meshNode.getTransformation()));
+    }
+
+    private static boolean doesMeshCollideWithSphere(ITriangleMesh mesh,
+                                                     Vector sphereCenterInSphereSystem,
+                                                     double radius,
+                                                     Matrix meshToSphereSystem) {
+        Mat4 transformationToSphereSystem = new Mat4(meshToSphereSystem);
+        Vec3 sphereCenter = new Vec3(sphereCenterInSphereSystem);
+        double squaredRadius = radius * radius;
+
+        // transform the vertex positions in chunks, so that a collision found early skips the rest
+        int numberOfVertices = mesh.getNumberOfVertices();
+        double[] positions = new double[3 * Math.min(numberOfVertices, VERTEX_CHUNK_SIZE)];
+        for (int first = 0; first < numberOfVertices; first += VERTEX_CHUNK_SIZE) {
+            int count = Math.min(VERTEX_CHUNK_SIZE, numberOfVertices - first);
+            TriangleMeshTools.copyPositions(mesh, first, count, positions);
+            transformationToSphereSystem.transformPoints(positions, positions, count);
+            for (int i = 0; i < 3 * count; i += 3) {
+                double dx = positions[i] - sphereCenter.x;
+                double dy = positions[i + 1] - sphereCenter.y;
+                double dz = positions[i + 2] - sphereCenter.z;
+                if (dx * dx + dy * dy + dz * dz <= squaredRadius) {
+                    return true;
+                }
             }
         }
 
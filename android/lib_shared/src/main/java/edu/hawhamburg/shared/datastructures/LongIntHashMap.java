@@ -0,0 +1,131 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from long keys to int values with open addressing in primitive arrays (no boxing,
+ * no objects per entry), e.g. for edges keyed by their two vertex indices.
+ */
+public class LongIntHashMap {
+
+    /**
+     * Returned by get() if the key is not contained.
+     */
+    public static final int NOT_FOUND = -1;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size = 0;
+
+    /**
+     * The map grows when it is half full, expectedSize entries fit without growing.
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(2 * expectedSize - 1, 1)) << 1);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * Return the value of the key or NOT_FOUND.
+     */
+    public int get(long key) {
+        int slot = findSlot(key);
+        return used[slot] ? values[slot] : NOT_FOUND;
+    }
+
+    public boolean containsKey(long key) {
+        return used[findSlot(key)];
+    }
+
+    /**
+     * Set the value of the key. Returns the previous value or NOT_FOUND.
+     */
+    public int put(long key, int value) {
+        int slot = findSlot(key);
+        if (used[slot]) {
+            int previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(slot, key, value);
+        return NOT_FOUND;
+    }
+
+    /**
+     * Set the value of the key if the key is not contained yet. Returns the current value of the
+     * key (NOT_FOUND if the value was inserted).
+     */
+    public int putIfAbsent(long key, int value) {
+        int slot = findSlot(key);
+        if (used[slot]) {
+            return values[slot];
+        }
+        insert(slot, key, value);
+        return NOT_FOUND;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private void insert(int slot, long key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        used[slot] = true;
+        size++;
+        if (2 * size > keys.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(2 * oldKeys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+
+    /**
+     * Slot of the key or the empty slot where it would be inserted.
+     */
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
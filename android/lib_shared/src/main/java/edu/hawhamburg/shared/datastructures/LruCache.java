@@ -0,0 +1,69 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe cache with a maximum number of entries: the least recently used entry is removed
+ * if a new entry exceeds the size.
+ */
+public class LruCache<K, V> {
+
+    private final int maxSize;
+
+    /**
+     * Entries in access order (least recently used first).
+     */
+    private final LinkedHashMap<K, V> entries;
+
+    public LruCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Return the value of the key (and mark it as recently used) or null.
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Set the value of the key, may remove the least recently used entry.
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
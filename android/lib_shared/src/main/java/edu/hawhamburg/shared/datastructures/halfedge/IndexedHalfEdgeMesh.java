@@ -0,0 +1,278 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.halfedge;
+
+import java.util.Arrays;
+
+import edu.hawhamburg.shared.datastructures.LongIntHashMap;
+import edu.hawhamburg.shared.datastructures.mesh.ITriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.PackedTriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.Triangle;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshTools;
+import edu.hawhamburg.shared.math.Vec3;
+
+/**
+ * Half-edge data structure for triangle meshes in index arrays instead of one object per
+ * half-edge, vertex and facet.
+ * <p>
+ * Half-edges, vertices and facets are given by their index. The half-edges of facet f are
+ * 3 * f, 3 * f + 1 and 3 * f + 2 (in the order of the triangle corners), so the next half-edge
+ * and the facet follow from the index and only the start vertex and the opposite half-edge are
+ * stored. Half-edges at the boundary have no opposite half-edge (NONE).
+ * <p>
+ * The circulators (e.g. getNextOutgoingHalfEdge(), getOneRing()) do not allocate. Non-manifold
+ * edges (more than two facets) are treated as boundary edges for all but the first two facets.
+ * At a non-manifold vertex (several facet fans) only one fan is visited.
+ */
+public class IndexedHalfEdgeMesh {
+
+    /**
+     * Index of a missing half-edge (no opposite half-edge, isolated vertex).
+     */
+    public static final int NONE = -1;
+
+    private final int numberOfVertices;
+    private final int numberOfFacets;
+
+    /**
+     * Vertex positions (x, y, z).
+     */
+    private final float[] positions;
+
+    /**
+     * Start vertex and opposite half-edge of each half-edge.
+     */
+    private final int[] startVertices;
+    private final int[] opposites;
+
+    /**
+     * One outgoing half-edge per vertex, a boundary half-edge for boundary vertices.
+     */
+    private final int[] vertexHalfEdges;
+
+    /**
+     * Create the half-edge structure of the mesh in O(number of triangles).
+     */
+    public IndexedHalfEdgeMesh(ITriangleMesh mesh) {
+        this(getPositions(mesh), mesh.getNumberOfVertices(), getVertexIndices(mesh),
+                mesh.getNumberOfTriangles());
+    }
+
+    /**
+     * Create the half-edge structure from the vertex positions (x, y, z) and the triangle vertex
+     * indices (three per triangle). The arrays are copied.
+     */
+    public IndexedHalfEdgeMesh(float[] positions, int numberOfVertices, int[] vertexIndices,
+                               int numberOfTriangles) {
+        this.numberOfVertices = numberOfVertices;
+        this.numberOfFacets = numberOfTriangles;
+        this.positions = Arrays.copyOf(positions, 3 * numberOfVertices);
+        int numberOfHalfEdges = 3 * numberOfTriangles;
+        startVertices = Arrays.copyOf(vertexIndices, numberOfHalfEdges);
+        opposites = new int[numberOfHalfEdges];
+        Arrays.fill(opposites, NONE);
+        vertexHalfEdges = new int[numberOfVertices];
+        Arrays.fill(vertexHalfEdges, NONE);
+
+        // Half-edges by (start vertex, end vertex)
+        LongIntHashMap halfEdges = new LongIntHashMap(numberOfHalfEdges);
+        for (int h = 0; h < numberOfHalfEdges; h++) {
+            halfEdges.putIfAbsent(getKey(startVertices[h], getEndVertex(h)), h);
+        }
+        for (int h = 0; h < numberOfHalfEdges; h++) {
+            if (opposites[h] != NONE) {
+                continue;
+            }
+            int opposite = halfEdges.get(getKey(getEndVertex(h), startVertices[h]));
+            if (opposite != LongIntHashMap.NOT_FOUND && opposite != h
+                    && opposites[opposite] == NONE) {
+                opposites[h] = opposite;
+                opposites[opposite] = h;
+            }
+        }
+
+        for (int h = 0; h < numberOfHalfEdges; h++) {
+            int v = startVertices[h];
+            if (vertexHalfEdges[v] == NONE || opposites[h] == NONE) {
+                vertexHalfEdges[v] = h;
+            }
+        }
+    }
+
+    private static long getKey(int startVertex, int endVertex) {
+        return ((long) startVertex << 32) | (endVertex & 0xffffffffL);
+    }
+
+    private static float[] getPositions(ITriangleMesh mesh) {
+        if (mesh instanceof PackedTriangleMesh) {
+            return ((PackedTriangleMesh) mesh).getPositions();
+        }
+        double[] positions = new double[3 * mesh.getNumberOfVertices()];
+        TriangleMeshTools.copyPositions(mesh, 0, mesh.getNumberOfVertices(), positions);
+        float[] result = new float[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            result[i] = (float) positions[i];
+        }
+        return result;
+    }
+
+    private static int[] getVertexIndices(ITriangleMesh mesh) {
+        if (mesh instanceof PackedTriangleMesh) {
+            return ((PackedTriangleMesh) mesh).getTriangleVertexIndices();
+        }
+        int[] vertexIndices = new int[3 * mesh.getNumberOfTriangles()];
+        for (int i = 0; i < mesh.getNumberOfTriangles(); i++) {
+            Triangle t = (Triangle) mesh.getTriangle(i);
+            for (int j = 0; j < 3; j++) {
+                vertexIndices[3 * i + j] = t.getVertexIndex(j);
+            }
+        }
+        return vertexIndices;
+    }
+
+    public int getNumberOfVertices() {
+        return numberOfVertices;
+    }
+
+    public int getNumberOfFacets() {
+        return numberOfFacets;
+    }
+
+    public int getNumberOfHalfEdges() {
+        return startVertices.length;
+    }
+
+    public Vec3 getPosition(int vertex, Vec3 out) {
+        return out.set(positions[3 * vertex], positions[3 * vertex + 1],
+                positions[3 * vertex + 2]);
+    }
+
+    /**
+     * First half-edge of the facet.
+     */
+    public int getHalfEdge(int facet) {
+        return 3 * facet;
+    }
+
+    /**
+     * One outgoing half-edge of the vertex (a boundary half-edge if the vertex is at the
+     * boundary), NONE for isolated vertices.
+     */
+    public int getOutgoingHalfEdge(int vertex) {
+        return vertexHalfEdges[vertex];
+    }
+
+    public int getNext(int halfEdge) {
+        return (halfEdge % 3 == 2) ? halfEdge - 2 : halfEdge + 1;
+    }
+
+    public int getPrevious(int halfEdge) {
+        return (halfEdge % 3 == 0) ? halfEdge + 2 : halfEdge - 1;
+    }
+
+    /**
+     * Opposite half-edge, NONE at the boundary.
+     */
+    public int getOpposite(int halfEdge) {
+        return opposites[halfEdge];
+    }
+
+    public int getFacet(int halfEdge) {
+        return halfEdge / 3;
+    }
+
+    public int getStartVertex(int halfEdge) {
+        return startVertices[halfEdge];
+    }
+
+    public int getEndVertex(int halfEdge) {
+        return startVertices[getNext(halfEdge)];
+    }
+
+    /**
+     * Next outgoing half-edge of the start vertex of the half-edge (in the order of the facet
+     * fan), NONE if the boundary is reached. Starting with getOutgoingHalfEdge(), all outgoing
+     * half-edges are visited until the start is reached again (or NONE at the boundary).
+     */
+    public int getNextOutgoingHalfEdge(int halfEdge) {
+        return opposites[getPrevious(halfEdge)];
+    }
+
+    public boolean isBoundary(int halfEdge) {
+        return opposites[halfEdge] == NONE;
+    }
+
+    public boolean isBoundaryVertex(int vertex) {
+        int halfEdge = vertexHalfEdges[vertex];
+        return halfEdge == NONE || opposites[halfEdge] == NONE;
+    }
+
+    /**
+     * Write the neighbors of the vertex (in the order of the facet fan) into neighbors, which
+     * must be large enough (see getValence()). Returns the number of neighbors.
+     */
+    public int getOneRing(int vertex, int[] neighbors) {
+        int start = vertexHalfEdges[vertex];
+        if (start == NONE) {
+            return 0;
+        }
+        int count = 0;
+        int halfEdge = start;
+        while (true) {
+            neighbors[count++] = getEndVertex(halfEdge);
+            int previous = getPrevious(halfEdge);
+            int next = opposites[previous];
+            if (next == NONE) {
+                // Boundary: the incoming boundary half-edge starts at the last neighbor
+                neighbors[count++] = startVertices[previous];
+                return count;
+            }
+            if (next == start) {
+                return count;
+            }
+            halfEdge = next;
+        }
+    }
+
+    /**
+     * Number of neighbors of the vertex.
+     */
+    public int getValence(int vertex) {
+        int start = vertexHalfEdges[vertex];
+        if (start == NONE) {
+            return 0;
+        }
+        int count = 1;
+        for (int halfEdge = getNextOutgoingHalfEdge(start); halfEdge != start;
+             halfEdge = getNextOutgoingHalfEdge(halfEdge)) {
+            count++;
+            if (halfEdge == NONE) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of half-edges without opposite half-edge (0 for a closed manifold mesh).
+     */
+    public int getNumberOfBoundaryHalfEdges() {
+        int count = 0;
+        for (int opposite : opposites) {
+            if (opposite == NONE) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
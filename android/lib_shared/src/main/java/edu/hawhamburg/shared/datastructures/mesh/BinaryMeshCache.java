@@ -0,0 +1,303 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import edu.hawhamburg.shared.math.Vector;
+import edu.hawhamburg.shared.misc.Constants;
+
+/**
+ * Binary cache file for the meshes read from an OBJ file (see ObjReader). Reading the cache
+ * skips the text parsing and the computation of the triangle and vertex normals.
+ * <p>
+ * The file is little-endian: a header (magic number, version and the key of the source file:
+ * size, modification time, CRC32 of the content) followed by the raw sections of each mesh.
+ * All sections are 4-byte aligned, so they can be bulk-copied from the memory mapped file into
+ * the arrays of a PackedTriangleMesh.
+ * <pre>
+ * int magic, int version, long sourceSize, long sourceLastModified, long sourceHash
+ * int numberOfMeshes
+ * per mesh:
+ *   int numberOfVertices, int numberOfTextureCoordinates, int numberOfTriangles
+ *   int textureNameLength (-1: no texture), textureName (UTF-8, padded to 4 bytes)
+ *   float[3 * numberOfVertices] positions, float[3 * numberOfVertices] normals
+ *   float[2 * numberOfTextureCoordinates] textureCoordinates
+ *   int[3 * numberOfTriangles] vertexIndices, int[3 * numberOfTriangles] texCoordIndices
+ *   float[3 * numberOfTriangles] triangleNormals, float[4 * numberOfTriangles] triangleColors
+ * </pre>
+ */
+public final class BinaryMeshCache {
+
+    private static final int MAGIC = 0x4d455348; // "MESH"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 4;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private BinaryMeshCache() {
+    }
+
+    /**
+     * CRC32 of the content (position 0 ... limit) of the buffer.
+     */
+    public static long computeHash(ByteBuffer data) {
+        CRC32 crc = new CRC32();
+        if (data.hasArray()) {
+            crc.update(data.array(), data.arrayOffset(), data.limit());
+        } else {
+            ByteBuffer source = data.duplicate();
+            source.position(0);
+            byte[] block = new byte[1 << 16];
+            while (source.hasRemaining()) {
+                int length = Math.min(block.length, source.remaining());
+                source.get(block, 0, length);
+                crc.update(block, 0, length);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Read the meshes from the cache file. Returns null if the file does not exist, cannot be
+     * read or was created for a different source file (size, modification time or hash differ).
+     */
+    public static List<ITriangleMesh> read(File cacheFile, long sourceSize,
+                                           long sourceLastModified, long sourceHash,
+                                           boolean createPackedMeshes) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try {
+            ByteBuffer data;
+            RandomAccessFile randomAccessFile = new RandomAccessFile(cacheFile, "r");
+            try {
+                FileChannel channel = randomAccessFile.getChannel();
+                data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } finally {
+                randomAccessFile.close();
+            }
+            data.order(ByteOrder.LITTLE_ENDIAN);
+            if (data.getInt() != MAGIC || data.getInt() != VERSION
+                    || data.getLong() != sourceSize || data.getLong() != sourceLastModified
+                    || data.getLong() != sourceHash) {
+                return null;
+            }
+            int numberOfMeshes = data.getInt();
+            List<ITriangleMesh> meshes = new ArrayList<ITriangleMesh>();
+            for (int i = 0; i < numberOfMeshes; i++) {
+                meshes.add(createPackedMeshes ? readPackedMesh(data) : readMesh(data));
+            }
+            return meshes;
+        } catch (IOException e) {
+            Log.i(Constants.LOGTAG, "Failed to read mesh cache file " + cacheFile + ".");
+        } catch (BufferUnderflowException e) {
+            Log.i(Constants.LOGTAG, "Invalid mesh cache file " + cacheFile + ".");
+        } catch (IllegalArgumentException e) {
+            Log.i(Constants.LOGTAG, "Invalid mesh cache file " + cacheFile + ".");
+        }
+        return null;
+    }
+
+    private static PackedTriangleMesh readPackedMesh(ByteBuffer data) {
+        int numberOfVertices = data.getInt();
+        int numberOfTextureCoordinates = data.getInt();
+        int numberOfTriangles = data.getInt();
+        PackedTriangleMesh mesh = new PackedTriangleMesh(readTextureName(data));
+        mesh.ensureVertexCapacity(numberOfVertices);
+        mesh.ensureTextureCoordinateCapacity(numberOfTextureCoordinates);
+        mesh.ensureTriangleCapacity(numberOfTriangles);
+        readFloats(data, mesh.editPositions(), 3 * numberOfVertices);
+        readFloats(data, mesh.editNormals(), 3 * numberOfVertices);
+        readFloats(data, mesh.editTextureCoordinates(), 2 * numberOfTextureCoordinates);
+        readInts(data, mesh.editTriangleVertexIndices(), 3 * numberOfTriangles);
+        readInts(data, mesh.editTriangleTexCoordIndices(), 3 * numberOfTriangles);
+        readFloats(data, mesh.editTriangleNormals(), 3 * numberOfTriangles);
+        readFloats(data, mesh.editTriangleColors(), 4 * numberOfTriangles);
+        mesh.setSize(numberOfVertices, numberOfTextureCoordinates, numberOfTriangles);
+        return mesh;
+    }
+
+    /**
+     * The triangle normals are recomputed (double precision, same result as reading the OBJ
+     * file).
+     */
+    private static TriangleMesh readMesh(ByteBuffer data) {
+        int numberOfVertices = data.getInt();
+        int numberOfTextureCoordinates = data.getInt();
+        int numberOfTriangles = data.getInt();
+        TriangleMesh mesh = new TriangleMesh(readTextureName(data));
+        float[] values = new float[3 * numberOfVertices];
+        readFloats(data, values, values.length);
+        float[] normals = new float[3 * numberOfVertices];
+        readFloats(data, normals, normals.length);
+        for (int i = 0; i < numberOfVertices; i++) {
+            mesh.addVertex(new Vertex(new Vector(values[3 * i], values[3 * i + 1],
+                    values[3 * i + 2]), new Vector(normals[3 * i], normals[3 * i + 1],
+                    normals[3 * i + 2])));
+        }
+        values = new float[2 * numberOfTextureCoordinates];
+        readFloats(data, values, values.length);
+        for (int i = 0; i < numberOfTextureCoordinates; i++) {
+            mesh.addTextureCoordinate(new Vector(values[2 * i], values[2 * i + 1], 0));
+        }
+        int[] vertexIndices = new int[3 * numberOfTriangles];
+        int[] texCoordIndices = new int[3 * numberOfTriangles];
+        readInts(data, vertexIndices, vertexIndices.length);
+        readInts(data, texCoordIndices, texCoordIndices.length);
+        data.position(data.position() + 4 * 3 * numberOfTriangles);
+        float[] colors = new float[4 * numberOfTriangles];
+        readFloats(data, colors, colors.length);
+        Vector color = null;
+        for (int i = 0; i < numberOfTriangles; i++) {
+            int t = 3 * i;
+            int c = 4 * i;
+            // Share the color vector between consecutive triangles (like the material color)
+            if (color == null || color.x() != colors[c] || color.y() != colors[c + 1]
+                    || color.z() != colors[c + 2] || color.w() != colors[c + 3]) {
+                color = new Vector(colors[c], colors[c + 1], colors[c + 2], colors[c + 3]);
+            }
+            Triangle triangle = new Triangle(vertexIndices[t], vertexIndices[t + 1],
+                    vertexIndices[t + 2], texCoordIndices[t], texCoordIndices[t + 1],
+                    texCoordIndices[t + 2]);
+            triangle.setColor(color);
+            mesh.addTriangle(triangle);
+        }
+        mesh.computeTriangleNormals();
+        return mesh;
+    }
+
+    /**
+     * Write the meshes into the cache file. The file is written to a temporary file first and
+     * then renamed, so a concurrent reader never sees a partial file. Returns false if the file
+     * cannot be written.
+     */
+    public static boolean write(File cacheFile, long sourceSize, long sourceLastModified,
+                                long sourceHash, List<ITriangleMesh> meshes) {
+        List<PackedTriangleMesh> packedMeshes = new ArrayList<PackedTriangleMesh>();
+        List<byte[]> textureNames = new ArrayList<byte[]>();
+        int size = HEADER_SIZE;
+        for (ITriangleMesh mesh : meshes) {
+            PackedTriangleMesh packedMesh = (mesh instanceof PackedTriangleMesh)
+                    ? (PackedTriangleMesh) mesh : new PackedTriangleMesh(mesh);
+            String textureName = packedMesh.getTextureName();
+            byte[] textureNameBytes = (textureName != null) ? textureName.getBytes(UTF8) : null;
+            packedMeshes.add(packedMesh);
+            textureNames.add(textureNameBytes);
+            size += 4 * 4 + ((textureNameBytes != null) ? align(textureNameBytes.length) : 0)
+                    + 4 * (3 * 2 * packedMesh.getNumberOfVertices()
+                    + 2 * packedMesh.getNumberOfTextureCoordinates()
+                    + (3 + 3 + 3 + 4) * packedMesh.getNumberOfTriangles());
+        }
+
+        ByteBuffer data = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(MAGIC).putInt(VERSION).putLong(sourceSize).putLong(sourceLastModified)
+                .putLong(sourceHash).putInt(packedMeshes.size());
+        for (int i = 0; i < packedMeshes.size(); i++) {
+            PackedTriangleMesh mesh = packedMeshes.get(i);
+            byte[] textureName = textureNames.get(i);
+            data.putInt(mesh.getNumberOfVertices()).putInt(mesh.getNumberOfTextureCoordinates())
+                    .putInt(mesh.getNumberOfTriangles());
+            if (textureName != null) {
+                data.putInt(textureName.length).put(textureName);
+                data.position(data.position() + align(textureName.length) - textureName.length);
+            } else {
+                data.putInt(-1);
+            }
+            writeFloats(data, mesh.getPositions(), 3 * mesh.getNumberOfVertices());
+            writeFloats(data, mesh.getNormals(), 3 * mesh.getNumberOfVertices());
+            writeFloats(data, mesh.getTextureCoordinates(),
+                    2 * mesh.getNumberOfTextureCoordinates());
+            writeInts(data, mesh.getTriangleVertexIndices(), 3 * mesh.getNumberOfTriangles());
+            writeInts(data, mesh.getTriangleTexCoordIndices(), 3 * mesh.getNumberOfTriangles());
+            writeFloats(data, mesh.getTriangleNormals(), 3 * mesh.getNumberOfTriangles());
+            writeFloats(data, mesh.getTriangleColors(), 4 * mesh.getNumberOfTriangles());
+        }
+        data.position(0);
+
+        File temporaryFile = new File(cacheFile.getPath() + ".tmp");
+        try {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(temporaryFile, "rw");
+            try {
+                randomAccessFile.setLength(0);
+                FileChannel channel = randomAccessFile.getChannel();
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            } finally {
+                randomAccessFile.close();
+            }
+            if (!temporaryFile.renameTo(cacheFile)) {
+                cacheFile.delete();
+                if (!temporaryFile.renameTo(cacheFile)) {
+                    throw new IOException("Failed to rename " + temporaryFile);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            temporaryFile.delete();
+            Log.i(Constants.LOGTAG, "Failed to write mesh cache file " + cacheFile + ".");
+            return false;
+        }
+    }
+
+    private static String readTextureName(ByteBuffer data) {
+        int length = data.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.get(bytes);
+        data.position(data.position() + align(length) - length);
+        return new String(bytes, UTF8);
+    }
+
+    private static void readFloats(ByteBuffer data, float[] values, int length) {
+        data.asFloatBuffer().get(values, 0, length);
+        data.position(data.position() + 4 * length);
+    }
+
+    private static void readInts(ByteBuffer data, int[] values, int length) {
+        data.asIntBuffer().get(values, 0, length);
+        data.position(data.position() + 4 * length);
+    }
+
+    private static void writeFloats(ByteBuffer data, float[] values, int length) {
+        data.asFloatBuffer().put(values, 0, length);
+        data.position(data.position() + 4 * length);
+    }
+
+    private static void writeInts(ByteBuffer data, int[] values, int length) {
+        data.asIntBuffer().put(values, 0, length);
+        data.position(data.position() + 4 * length);
+    }
+
+    /**
+     * Round up to a multiple of 4.
+     */
+    private static int align(int length) {
+        return (length + 3) & ~3;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import java.util.Arrays;
+
+import edu.hawhamburg.shared.datastructures.LongIntHashMap;
+
+/**
+ * Edges of a mesh shared by two triangles with their vertices and triangles, stored in one int
+ * array. Used to extract the silhouette for the shadow volumes in each frame without building
+ * an edge map each time. The adjacency is not updated when the triangles of the mesh change.
+ * <p>
+ * The edges are paired like in the original silhouette algorithm: the second triangle with an
+ * edge is paired with the first one, a third triangle starts a new pair.
+ */
+public class EdgeAdjacency {
+
+    /**
+     * Minimum number of edges per thread in computeSilhouette().
+     */
+    static final int MIN_EDGES_PER_THREAD = 1 << 15;
+
+    /**
+     * Four entries per edge: start and end vertex (as in the second triangle), second and first
+     * triangle.
+     */
+    private final int[] edges;
+    private final int numberOfEdges;
+
+    /**
+     * Number of edges with only one triangle (never silhouette edges).
+     */
+    private final int numberOfBoundaryEdges;
+
+    /**
+     * Create the adjacency from the triangle vertex indices (three per triangle).
+     */
+    public EdgeAdjacency(int[] vertexIndices, int numberOfTriangles) {
+        // Edge (ordered vertex indices) -> first half edge (3 * triangle + corner) without pair
+        LongIntHashMap openEdges = new LongIntHashMap(3 * numberOfTriangles / 2);
+        int[] pairedEdges = new int[4 * (3 * numberOfTriangles / 2)];
+        int count = 0;
+        int numberOfOpenEdges = 0;
+        for (int t = 0; t < numberOfTriangles; t++) {
+            for (int i = 0; i < 3; i++) {
+                int a = vertexIndices[3 * t + i];
+                int b = vertexIndices[3 * t + (i + 1) % 3];
+                long key = (a < b) ? ((long) a << 32) | b : ((long) b << 32) | a;
+                int halfEdge = openEdges.get(key);
+                if (halfEdge == LongIntHashMap.NOT_FOUND) {
+                    openEdges.put(key, 3 * t + i);
+                    numberOfOpenEdges++;
+                } else {
+                    openEdges.put(key, LongIntHashMap.NOT_FOUND);
+                    numberOfOpenEdges--;
+                    pairedEdges[4 * count] = a;
+                    pairedEdges[4 * count + 1] = b;
+                    pairedEdges[4 * count + 2] = t;
+                    pairedEdges[4 * count + 3] = halfEdge / 3;
+                    count++;
+                }
+            }
+        }
+        edges = Arrays.copyOf(pairedEdges, 4 * count);
+        numberOfEdges = count;
+        numberOfBoundaryEdges = numberOfOpenEdges;
+    }
+
+    /**
+     * Create the adjacency of the current triangles of the mesh.
+     */
+    public EdgeAdjacency(ITriangleMesh mesh) {
+        this(TriangleMeshTools.getTriangleVertexIndices(mesh), mesh.getNumberOfTriangles());
+    }
+
+    /**
+     * Number of edges shared by two triangles.
+     */
+    public int getNumberOfEdges() {
+        return numberOfEdges;
+    }
+
+    public int getNumberOfBoundaryEdges() {
+        return numberOfBoundaryEdges;
+    }
+
+    public int getStartVertex(int edgeIndex) {
+        return edges[4 * edgeIndex];
+    }
+
+    public int getEndVertex(int edgeIndex) {
+        return edges[4 * edgeIndex + 1];
+    }
+
+    /**
+     * Triangle i (0 or 1) of the edge.
+     */
+    public int getTriangle(int edgeIndex, int i) {
+        return edges[4 * edgeIndex + 2 + i];
+    }
+
+    /**
+     * Write the silhouette edges into silhouette (start and end vertex index of each edge) and
+     * return their number. A silhouette edge is shared by a triangle facing the viewer/light
+     * (faceSigns[triangle] > 0) and a triangle facing away (< 0), it is oriented as in the
+     * triangle facing the viewer. silhouette must have space for getNumberOfEdges() edges.
+     */
+    public int computeSilhouette(byte[] faceSigns, int[] silhouette) {
+        return computeSilhouette(faceSigns, silhouette, 0, numberOfEdges, 0);
+    }
+
+    /**
+     * Same as computeSilhouette(byte[], int[]), large meshes are processed with up to
+     * numberOfThreads threads.
+     */
+    public int computeSilhouette(final byte[] faceSigns, final int[] silhouette,
+                                 int numberOfThreads) {
+        int numberOfRanges = ParallelRanges.getNumberOfRanges(numberOfEdges,
+                MIN_EDGES_PER_THREAD, numberOfThreads);
+        if (numberOfRanges == 1) {
+            return computeSilhouette(faceSigns, silhouette);
+        }
+
+        // Each range writes its edges at its start, then the results are moved together
+        final int[] starts = new int[numberOfRanges];
+        final int[] counts = new int[numberOfRanges];
+        ParallelRanges.run(numberOfEdges, numberOfRanges, new ParallelRanges.RangeTask() {
+            @Override
+            public void run(int range, int start, int end) {
+                starts[range] = start;
+                counts[range] = computeSilhouette(faceSigns, silhouette, start, end, start);
+            }
+        });
+        int count = counts[0];
+        for (int i = 1; i < numberOfRanges; i++) {
+            System.arraycopy(silhouette, 2 * starts[i], silhouette, 2 * count, 2 * counts[i]);
+            count += counts[i];
+        }
+        return count;
+    }
+
+    /**
+     * Silhouette edges of the edges start ... end - 1, written at position offset. Returns the
+     * number of silhouette edges.
+     */
+    private int computeSilhouette(byte[] faceSigns, int[] silhouette, int start, int end,
+                                  int offset) {
+        int count = offset;
+        for (int e = start; e < end; e++) {
+            int sign = faceSigns[edges[4 * e + 2]];
+            if (sign * faceSigns[edges[4 * e + 3]] < 0) {
+                int first = (sign > 0) ? 0 : 1;
+                silhouette[2 * count] = edges[4 * e + first];
+                silhouette[2 * count + 1] = edges[4 * e + 1 - first];
+                count++;
+            }
+        }
+        return count - offset;
+    }
+}
@@ -73,6 +73,12 @@ public interface ITriangleMesh {
      */
     public void computeTriangleNormals();
 
+    /**
+     * Compute the vertex normals from the (area-weighted) normals of the adjacent triangles, see
+     * TriangleMeshTools.computeVertexNormals().
+     */
+    public void computeVertexNormals();
+
 
     public Vector getTextureCoordinate(int index);
 
@@ -92,6 +98,21 @@ public interface ITriangleMesh {
     public void createShadowPolygons(Vector lightPosition, float extend,
                                      ITriangleMesh shadowPolygonMesh);
 
+    /**
+     * Compute the silhouette edges for the position: edges between a triangle facing the
+     * position and a triangle facing away, oriented as in the triangle facing the position. The
+     * edges are written into the array returned by getSilhouetteVertexIndices() (two vertex
+     * indices per edge), the number of edges is returned. The edge adjacency is computed once
+     * and reused until the triangles change. Large meshes are processed with up to
+     * numberOfThreads threads.
+     */
+    public int computeSilhouette(Vector position, int numberOfThreads);
+
+    /**
+     * Silhouette edges of the last computeSilhouette() call, valid until the next call.
+     */
+    public int[] getSilhouetteVertexIndices();
+
     /**
      * Return the number of texture coordinates in the mesh.
      */
@@ -110,6 +131,11 @@ public interface ITriangleMesh {
 
     void setTextureName(String textureFilename);
 
+    /**
+     * Name of the texture (see TextureManager), null if no texture is used.
+     */
+    public String getTextureName();
+
     /**
      * Set color to all triangles and all vertices of the mesh.
      */
@@ -0,0 +1,400 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.hawhamburg.shared.math.Vector;
+
+/**
+ * Reorders the triangles and vertices of a mesh for indexed rendering: the triangles are sorted
+ * for the post-transform vertex cache of the GPU (Forsyth, "Linear-Speed Vertex Cache
+ * Optimisation", 2006), then the vertices are sorted by their first use in the triangles, so the
+ * vertex data is fetched sequentially.
+ * <p>
+ * The result is measured by the average cache miss ratio (ACMR: transformed vertices per
+ * triangle, 3 without reuse, ~0.5 is optimal for large regular meshes) and the average
+ * transform to vertex ratio (ATVR: transformed vertices per vertex, 1 is optimal) of a simulated
+ * FIFO cache.
+ */
+public class MeshOptimizer {
+
+    /**
+     * Cache size used for the optimization and the metrics, typical for current GPUs.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 32;
+
+    /**
+     * Score parameters, values from the paper.
+     */
+    private static final double CACHE_DECAY_POWER = 1.5;
+    private static final double LAST_TRIANGLE_SCORE = 0.75;
+    private static final double VALENCE_BOOST_SCALE = 2.0;
+    private static final double VALENCE_BOOST_POWER = 0.5;
+    private static final int MAX_PRECOMPUTED_VALENCE = 32;
+
+    private final int cacheSize;
+
+    /**
+     * Score of a vertex by its position in the cache and by its number of remaining triangles.
+     */
+    private final double[] cachePositionScores;
+    private final double[] valenceScores = new double[MAX_PRECOMPUTED_VALENCE];
+
+    public MeshOptimizer() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public MeshOptimizer(int cacheSize) {
+        if (cacheSize < 4) {
+            throw new IllegalArgumentException("Invalid cache size: " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+        cachePositionScores = new double[cacheSize];
+        for (int i = 0; i < cacheSize; i++) {
+            if (i < 3) {
+                // Vertices of the last triangle: same score, the order is arbitrary
+                cachePositionScores[i] = LAST_TRIANGLE_SCORE;
+            } else {
+                cachePositionScores[i] = Math.pow(1.0 - (double) (i - 3) / (cacheSize - 3),
+                        CACHE_DECAY_POWER);
+            }
+        }
+        for (int i = 1; i < MAX_PRECOMPUTED_VALENCE; i++) {
+            valenceScores[i] = VALENCE_BOOST_SCALE * Math.pow(i, -VALENCE_BOOST_POWER);
+        }
+    }
+
+    /**
+     * Reorder the triangles and the vertices of the mesh. The geometry is not changed, so
+     * normals, colors and texture coordinates stay valid.
+     */
+    public void optimize(ITriangleMesh mesh) {
+        int numberOfTriangles = mesh.getNumberOfTriangles();
+        int numberOfVertices = mesh.getNumberOfVertices();
+        int[] vertexIndices = TriangleMeshTools.getTriangleVertexIndices(mesh);
+        int[] triangleOrder = new int[numberOfTriangles];
+        computeTriangleOrder(vertexIndices, numberOfTriangles, numberOfVertices, triangleOrder);
+        int[] orderedVertexIndices = new int[3 * numberOfTriangles];
+        for (int i = 0; i < numberOfTriangles; i++) {
+            System.arraycopy(vertexIndices, 3 * triangleOrder[i], orderedVertexIndices, 3 * i, 3);
+        }
+        int[] vertexMap = new int[numberOfVertices];
+        computeVertexMap(orderedVertexIndices, numberOfTriangles, numberOfVertices, vertexMap);
+
+        if (mesh instanceof PackedTriangleMesh) {
+            reorderPackedMesh((PackedTriangleMesh) mesh, triangleOrder, vertexMap);
+        } else {
+            reorderMesh(mesh, triangleOrder, vertexMap);
+        }
+    }
+
+    /**
+     * Compute the order of the triangles (given by their vertex indices, three per triangle) for
+     * the vertex cache: triangleOrder[i] is the index of the i-th triangle in the new order.
+     */
+    public void computeTriangleOrder(int[] vertexIndices, int numberOfTriangles,
+                                     int numberOfVertices, int[] triangleOrder) {
+        if (numberOfTriangles == 0) {
+            return;
+        }
+
+        // Remaining triangles of each vertex: adjacentTriangles[offsets[v]] ... (remaining[v])
+        int[] offsets = new int[numberOfVertices + 1];
+        for (int i = 0; i < 3 * numberOfTriangles; i++) {
+            offsets[vertexIndices[i] + 1]++;
+        }
+        for (int i = 0; i < numberOfVertices; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] remaining = new int[numberOfVertices];
+        int[] adjacentTriangles = new int[3 * numberOfTriangles];
+        for (int i = 0; i < 3 * numberOfTriangles; i++) {
+            int v = vertexIndices[i];
+            adjacentTriangles[offsets[v] + remaining[v]++] = i / 3;
+        }
+
+        double[] vertexScores = new double[numberOfVertices];
+        for (int v = 0; v < numberOfVertices; v++) {
+            vertexScores[v] = computeVertexScore(-1, remaining[v]);
+        }
+        int[] cachePositions = new int[numberOfVertices];
+        Arrays.fill(cachePositions, -1);
+        boolean[] added = new boolean[numberOfTriangles];
+
+        // Start with the best triangle
+        int bestTriangle = 0;
+        double bestScore = -1;
+        for (int t = 0; t < numberOfTriangles; t++) {
+            double score = computeTriangleScore(vertexIndices, t, vertexScores);
+            if (score > bestScore) {
+                bestScore = score;
+                bestTriangle = t;
+            }
+        }
+
+        // Simulated LRU cache, vertices of the last triangle in front
+        int[] cache = new int[cacheSize + 3];
+        int[] newCache = new int[cacheSize + 3];
+        int cacheCount = 0;
+        int scanPosition = 0;
+        for (int i = 0; i < numberOfTriangles; i++) {
+            if (bestTriangle < 0) {
+                // No triangle at the cached vertices left: continue with the next one
+                while (added[scanPosition]) {
+                    scanPosition++;
+                }
+                bestTriangle = scanPosition;
+            }
+            int triangle = bestTriangle;
+            added[triangle] = true;
+            triangleOrder[i] = triangle;
+
+            int newCacheCount = 0;
+            for (int j = 0; j < 3; j++) {
+                int v = vertexIndices[3 * triangle + j];
+                removeTriangle(adjacentTriangles, offsets[v], remaining[v]--, triangle);
+                if (!contains(newCache, newCacheCount, v)) {
+                    newCache[newCacheCount++] = v;
+                }
+            }
+            for (int k = 0; k < cacheCount; k++) {
+                int v = cache[k];
+                if (!contains(newCache, newCacheCount, v)) {
+                    newCache[newCacheCount++] = v;
+                }
+            }
+
+            // Update the scores of the vertices in the cache and of the evicted vertices
+            for (int k = 0; k < newCacheCount; k++) {
+                int v = newCache[k];
+                cachePositions[v] = (k < cacheSize) ? k : -1;
+                vertexScores[v] = computeVertexScore(cachePositions[v], remaining[v]);
+            }
+            int[] swap = cache;
+            cache = newCache;
+            newCache = swap;
+            cacheCount = Math.min(newCacheCount, cacheSize);
+
+            // Best remaining triangle at the cached vertices
+            bestTriangle = -1;
+            bestScore = -1;
+            for (int k = 0; k < cacheCount; k++) {
+                int v = cache[k];
+                for (int l = 0; l < remaining[v]; l++) {
+                    int t = adjacentTriangles[offsets[v] + l];
+                    double score = computeTriangleScore(vertexIndices, t, vertexScores);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestTriangle = t;
+                    }
+                }
+            }
+        }
+    }
+
+    private double computeVertexScore(int cachePosition, int numberOfRemainingTriangles) {
+        if (numberOfRemainingTriangles == 0) {
+            // Not used anymore
+            return -1;
+        }
+        double score = (cachePosition < 0) ? 0 : cachePositionScores[cachePosition];
+        if (numberOfRemainingTriangles < MAX_PRECOMPUTED_VALENCE) {
+            score += valenceScores[numberOfRemainingTriangles];
+        } else {
+            score += VALENCE_BOOST_SCALE
+                    * Math.pow(numberOfRemainingTriangles, -VALENCE_BOOST_POWER);
+        }
+        return score;
+    }
+
+    private static double computeTriangleScore(int[] vertexIndices, int t, double[] vertexScores) {
+        return vertexScores[vertexIndices[3 * t]] + vertexScores[vertexIndices[3 * t + 1]]
+                + vertexScores[vertexIndices[3 * t + 2]];
+    }
+
+    /**
+     * Remove the triangle from the count triangles starting at start (swap with the last).
+     */
+    private static void removeTriangle(int[] triangles, int start, int count, int triangle) {
+        for (int i = start; i < start + count; i++) {
+            if (triangles[i] == triangle) {
+                triangles[i] = triangles[start + count - 1];
+                return;
+            }
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compute the new vertex indices in the order of their first use by the triangles (vertices
+     * not used by any triangle are moved to the end). Returns the number of used vertices.
+     */
+    public int computeVertexMap(int[] vertexIndices, int numberOfTriangles, int numberOfVertices,
+                                int[] vertexMap) {
+        Arrays.fill(vertexMap, 0, numberOfVertices, -1);
+        int numberOfMappedVertices = 0;
+        for (int i = 0; i < 3 * numberOfTriangles; i++) {
+            int v = vertexIndices[i];
+            if (vertexMap[v] < 0) {
+                vertexMap[v] = numberOfMappedVertices++;
+            }
+        }
+        int numberOfUsedVertices = numberOfMappedVertices;
+        for (int v = 0; v < numberOfVertices; v++) {
+            if (vertexMap[v] < 0) {
+                vertexMap[v] = numberOfMappedVertices++;
+            }
+        }
+        return numberOfUsedVertices;
+    }
+
+    /**
+     * Average cache miss ratio of the mesh: transformed vertices per triangle.
+     */
+    public double computeAcmr(ITriangleMesh mesh) {
+        return computeAcmr(TriangleMeshTools.getTriangleVertexIndices(mesh),
+                mesh.getNumberOfTriangles(), mesh.getNumberOfVertices());
+    }
+
+    /**
+     * Average transform to vertex ratio of the mesh: transformed vertices per used vertex.
+     */
+    public double computeAtvr(ITriangleMesh mesh) {
+        return computeAtvr(TriangleMeshTools.getTriangleVertexIndices(mesh),
+                mesh.getNumberOfTriangles(), mesh.getNumberOfVertices());
+    }
+
+    public double computeAcmr(int[] vertexIndices, int numberOfTriangles, int numberOfVertices) {
+        if (numberOfTriangles == 0) {
+            return 0;
+        }
+        return (double) countCacheMisses(vertexIndices, numberOfTriangles, numberOfVertices)
+                / numberOfTriangles;
+    }
+
+    public double computeAtvr(int[] vertexIndices, int numberOfTriangles, int numberOfVertices) {
+        boolean[] used = new boolean[numberOfVertices];
+        int numberOfUsedVertices = 0;
+        for (int i = 0; i < 3 * numberOfTriangles; i++) {
+            if (!used[vertexIndices[i]]) {
+                used[vertexIndices[i]] = true;
+                numberOfUsedVertices++;
+            }
+        }
+        if (numberOfUsedVertices == 0) {
+            return 0;
+        }
+        return (double) countCacheMisses(vertexIndices, numberOfTriangles, numberOfVertices)
+                / numberOfUsedVertices;
+    }
+
+    /**
+     * Number of vertex transformations with a FIFO cache of cacheSize vertices.
+     */
+    private int countCacheMisses(int[] vertexIndices, int numberOfTriangles,
+                                 int numberOfVertices) {
+        // A vertex is in the cache if less than cacheSize vertices were added since its insertion
+        int[] insertionTimes = new int[numberOfVertices];
+        int time = cacheSize + 1;
+        int numberOfMisses = 0;
+        for (int i = 0; i < 3 * numberOfTriangles; i++) {
+            int v = vertexIndices[i];
+            if (time - insertionTimes[v] > cacheSize) {
+                insertionTimes[v] = time++;
+                numberOfMisses++;
+            }
+        }
+        return numberOfMisses;
+    }
+
+    private void reorderPackedMesh(PackedTriangleMesh mesh, int[] triangleOrder,
+                                   int[] vertexMap) {
+        int numberOfTriangles = mesh.getNumberOfTriangles();
+        int numberOfVertices = mesh.getNumberOfVertices();
+        int[] vertexIndices = mesh.editTriangleVertexIndices();
+        int[] texCoordIndices = mesh.editTriangleTexCoordIndices();
+        float[] triangleNormals = mesh.editTriangleNormals();
+        float[] triangleColors = mesh.editTriangleColors();
+        int[] oldVertexIndices = Arrays.copyOf(vertexIndices, 3 * numberOfTriangles);
+        int[] oldTexCoordIndices = Arrays.copyOf(texCoordIndices, 3 * numberOfTriangles);
+        float[] oldTriangleNormals = Arrays.copyOf(triangleNormals, 3 * numberOfTriangles);
+        float[] oldTriangleColors = Arrays.copyOf(triangleColors, 4 * numberOfTriangles);
+        for (int i = 0; i < numberOfTriangles; i++) {
+            int t = triangleOrder[i];
+            for (int j = 0; j < 3; j++) {
+                vertexIndices[3 * i + j] = vertexMap[oldVertexIndices[3 * t + j]];
+            }
+            System.arraycopy(oldTexCoordIndices, 3 * t, texCoordIndices, 3 * i, 3);
+            System.arraycopy(oldTriangleNormals, 3 * t, triangleNormals, 3 * i, 3);
+            System.arraycopy(oldTriangleColors, 4 * t, triangleColors, 4 * i, 4);
+        }
+        mesh.trianglesChanged();
+
+        float[] positions = mesh.editPositions();
+        float[] normals = mesh.editNormals();
+        float[] oldPositions = Arrays.copyOf(positions, 3 * numberOfVertices);
+        float[] oldNormals = Arrays.copyOf(normals, 3 * numberOfVertices);
+        for (int v = 0; v < numberOfVertices; v++) {
+            System.arraycopy(oldPositions, 3 * v, positions, 3 * vertexMap[v], 3);
+            System.arraycopy(oldNormals, 3 * v, normals, 3 * vertexMap[v], 3);
+        }
+    }
+
+    private void reorderMesh(ITriangleMesh mesh, int[] triangleOrder, int[] vertexMap) {
+        Vertex[] vertices = new Vertex[mesh.getNumberOfVertices()];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[vertexMap[i]] = new Vertex(mesh.getVertex(i));
+        }
+        List<Vector> textureCoordinates = new ArrayList<Vector>();
+        for (int i = 0; i < mesh.getNumberOfTextureCoordinates(); i++) {
+            textureCoordinates.add(new Vector(mesh.getTextureCoordinate(i)));
+        }
+        List<Triangle> triangles = new ArrayList<Triangle>(mesh.getNumberOfTriangles());
+        for (int i = 0; i < triangleOrder.length; i++) {
+            Triangle t = (Triangle) mesh.getTriangle(triangleOrder[i]);
+            Triangle triangle = new Triangle(vertexMap[t.getVertexIndex(0)],
+                    vertexMap[t.getVertexIndex(1)], vertexMap[t.getVertexIndex(2)],
+                    t.getTexCoordIndex(0), t.getTexCoordIndex(1), t.getTexCoordIndex(2),
+                    t.getNormal());
+            triangle.setColor(t.getColor());
+            triangles.add(triangle);
+        }
+
+        mesh.clear();
+        for (Vertex vertex : vertices) {
+            if (mesh instanceof TriangleMesh) {
+                ((TriangleMesh) mesh).addVertex(vertex);
+            } else {
+                int index = mesh.addVertex(vertex.getPosition());
+                mesh.getVertex(index).getNormal().copy(vertex.getNormal());
+            }
+        }
+        for (Vector textureCoordinate : textureCoordinates) {
+            mesh.addTextureCoordinate(textureCoordinate);
+        }
+        for (Triangle triangle : triangles) {
+            mesh.addTriangle(triangle);
+        }
+    }
+}
@@ -0,0 +1,763 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.hawhamburg.shared.math.Vector;
+import edu.hawhamburg.shared.misc.Constants;
+
+/**
+ * Mesh simplification by edge collapses ordered by the quadric error metric (Garland and
+ * Heckbert, "Surface Simplification Using Quadric Error Metrics", 1997).
+ * <p>
+ * Each vertex has a quadric (sum of the squared distances to the planes of its triangles), an
+ * edge is collapsed into the position which minimizes the sum of the quadrics of its vertices.
+ * The candidate edges are kept in a binary heap, entries of edges whose vertices changed are not
+ * removed but skipped when they come up (version stamps). Collapses which would flip a triangle
+ * or make the mesh non-manifold are rejected, boundary edges are preserved by additional planes.
+ * <p>
+ * The simplification is progressive: simplify() can be called with decreasing targets to get a
+ * chain of detail levels in one pass (see createLodChain()). Vertices are only merged if they
+ * are shared by the triangles, so weld the mesh first if needed (see MeshWelder).
+ */
+public class MeshSimplifier {
+
+    /**
+     * Weight of the planes perpendicular to boundary edges.
+     */
+    private static final double BOUNDARY_WEIGHT = 100;
+
+    /**
+     * Collapses which rotate a triangle normal by more than ~80 degrees are rejected.
+     */
+    private static final double MIN_NORMAL_DOT = 0.2;
+
+    /**
+     * Vertices closer than this fraction of the bounding box diagonal are merged before a shadow
+     * proxy is simplified.
+     */
+    public static final double SHADOW_PROXY_WELD_EPSILON = 1e-5;
+
+    /**
+     * Vertex positions (x, y, z) and quadrics (symmetric 4x4 matrix: a2, ab, ac, ad, b2, bc, bd,
+     * c2, cd, d2) per vertex.
+     */
+    private final double[] positions;
+    private final double[] quadrics;
+    private final boolean[] removedVertices;
+
+    /**
+     * Incremented when the vertex changes, heap entries with an old version are skipped.
+     */
+    private final int[] vertexVersions;
+
+    /**
+     * Triangle vertex indices (three per triangle), updated by the collapses.
+     */
+    private final int[] triangles;
+    private final boolean[] removedTriangles;
+    private int numberOfTriangles;
+
+    /**
+     * Triangles of each vertex: references[referenceStart[v]] ... (referenceCount[v] entries),
+     * may contain removed triangles. The list of a vertex is moved to the end of the array when
+     * it grows.
+     */
+    private int[] references;
+    private int numberOfReferences = 0;
+    private final int[] referenceStart;
+    private final int[] referenceCount;
+
+    /**
+     * Heap of the candidate edges ordered by cost, with the versions of the vertices at the time
+     * the entry was created.
+     */
+    private double[] heapCosts = new double[16];
+    private int[] heapVertices = new int[2 * 16];
+    private int[] heapVersions = new int[2 * 16];
+    private int heapSize = 0;
+
+    /**
+     * Marks for the neighborhood queries: a vertex is marked if marks[vertex] == markStamp.
+     */
+    private final int[] marks;
+    private int markStamp = 0;
+
+    /**
+     * Attributes of the input mesh copied to the simplified meshes.
+     */
+    private final int[] texCoordIndices;
+    private final float[] triangleColors;
+    private final float[] textureCoordinates;
+    private final String textureName;
+
+    /**
+     * Largest error (square root of the quadric error, approximately a distance) of all
+     * collapses so far.
+     */
+    private double maxError = 0;
+
+    // Temporary arrays for the collapse computations
+    private final double[] quadric = new double[10];
+    private final double[] target = new double[3];
+    private final double[] normal = new double[3];
+    private final double[] oldNormal = new double[3];
+    private final double[] newNormal = new double[3];
+    private final double[] trianglePositions = new double[9];
+
+    /**
+     * Prepare the simplification of the mesh, the mesh itself is not changed.
+     */
+    public MeshSimplifier(ITriangleMesh mesh) {
+        int numberOfVertices = mesh.getNumberOfVertices();
+        positions = new double[3 * numberOfVertices];
+        TriangleMeshTools.copyPositions(mesh, 0, numberOfVertices, positions);
+        quadrics = new double[10 * numberOfVertices];
+        removedVertices = new boolean[numberOfVertices];
+        vertexVersions = new int[numberOfVertices];
+        marks = new int[numberOfVertices];
+
+        numberOfTriangles = mesh.getNumberOfTriangles();
+        triangles = new int[3 * numberOfTriangles];
+        texCoordIndices = new int[3 * numberOfTriangles];
+        triangleColors = new float[4 * numberOfTriangles];
+        removedTriangles = new boolean[numberOfTriangles];
+        readTriangles(mesh);
+        textureCoordinates = new float[2 * mesh.getNumberOfTextureCoordinates()];
+        for (int i = 0; i < mesh.getNumberOfTextureCoordinates(); i++) {
+            Vector t = mesh.getTextureCoordinate(i);
+            textureCoordinates[2 * i] = (float) t.get(0);
+            textureCoordinates[2 * i + 1] = (float) t.get(1);
+        }
+        textureName = mesh.getTextureName();
+
+        // Remove degenerate input triangles
+        for (int t = 0; t < removedTriangles.length; t++) {
+            int a = triangles[3 * t];
+            int b = triangles[3 * t + 1];
+            int c = triangles[3 * t + 2];
+            if (a == b || b == c || c == a) {
+                removedTriangles[t] = true;
+                numberOfTriangles--;
+            }
+        }
+
+        referenceStart = new int[numberOfVertices];
+        referenceCount = new int[numberOfVertices];
+        createReferences(3 * numberOfTriangles);
+
+        for (int t = 0; t < removedTriangles.length; t++) {
+            if (!removedTriangles[t]) {
+                addTrianglePlane(t);
+            }
+        }
+        addBoundaryPlanes();
+        for (int v = 0; v < numberOfVertices; v++) {
+            pushEdges(v, true);
+        }
+    }
+
+    private void readTriangles(ITriangleMesh mesh) {
+        if (mesh instanceof PackedTriangleMesh) {
+            PackedTriangleMesh packedMesh = (PackedTriangleMesh) mesh;
+            System.arraycopy(packedMesh.getTriangleVertexIndices(), 0, triangles, 0,
+                    triangles.length);
+            System.arraycopy(packedMesh.getTriangleTexCoordIndices(), 0, texCoordIndices, 0,
+                    texCoordIndices.length);
+            System.arraycopy(packedMesh.getTriangleColors(), 0, triangleColors, 0,
+                    triangleColors.length);
+            return;
+        }
+        for (int t = 0; t < numberOfTriangles; t++) {
+            Triangle triangle = (Triangle) mesh.getTriangle(t);
+            for (int j = 0; j < 3; j++) {
+                triangles[3 * t + j] = triangle.getVertexIndex(j);
+                texCoordIndices[3 * t + j] = triangle.getTexCoordIndex(j);
+            }
+            for (int j = 0; j < 4; j++) {
+                triangleColors[4 * t + j] = (float) triangle.getColor().get(j);
+            }
+        }
+    }
+
+    /**
+     * Number of triangles of the current (simplified) mesh.
+     */
+    public int getNumberOfTriangles() {
+        return numberOfTriangles;
+    }
+
+    /**
+     * Largest error of all collapses so far, approximately the largest distance between the
+     * simplified and the original surface (larger at the boundary).
+     */
+    public double getMaxError() {
+        return maxError;
+    }
+
+    /**
+     * Collapse edges until the mesh has at most targetNumberOfTriangles triangles (or no valid
+     * collapse is left) and return the simplified mesh. Can be called again with a smaller
+     * target to continue the simplification.
+     */
+    public PackedTriangleMesh simplify(int targetNumberOfTriangles) {
+        while (numberOfTriangles > targetNumberOfTriangles && heapSize > 0) {
+            double cost = heapCosts[0];
+            int v0 = heapVertices[0];
+            int v1 = heapVertices[1];
+            int version0 = heapVersions[0];
+            int version1 = heapVersions[1];
+            popHeap();
+            if (removedVertices[v0] || removedVertices[v1] || vertexVersions[v0] != version0
+                    || vertexVersions[v1] != version1) {
+                // Outdated entry
+                continue;
+            }
+            computeCollapse(v0, v1);
+            if (!isCollapseValid(v0, v1)) {
+                continue;
+            }
+            collapse(v0, v1);
+            maxError = Math.max(maxError, Math.sqrt(cost));
+        }
+        return createMesh();
+    }
+
+    /**
+     * Create a chain of simplified meshes with the given ratios of the number of triangles of
+     * the mesh (decreasing, e.g. 0.5, 0.25, 0.1).
+     */
+    public static List<PackedTriangleMesh> createLodChain(ITriangleMesh mesh, double... ratios) {
+        MeshSimplifier simplifier = new MeshSimplifier(mesh);
+        List<PackedTriangleMesh> meshes = new ArrayList<PackedTriangleMesh>();
+        for (double ratio : ratios) {
+            meshes.add(simplifier.simplify((int) (ratio * mesh.getNumberOfTriangles())));
+        }
+        return meshes;
+    }
+
+    /**
+     * Create a low-polygon proxy of the mesh with about ratio (0 ... 1] times its triangles, used
+     * instead of the mesh to create the shadow volumes (see TriangleMeshNode). The mesh is welded
+     * first, so vertices duplicated at texture or normal seams do not open the silhouette; the
+     * shadow volume is only closed if the proxy is.
+     */
+    public static PackedTriangleMesh createShadowProxy(ITriangleMesh mesh, double ratio) {
+        if (!(ratio > 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("Invalid ratio: " + ratio);
+        }
+        PackedTriangleMesh weldedMesh = new PackedTriangleMesh(mesh);
+        if (weldedMesh.getNumberOfVertices() > 0) {
+            double diagonal = weldedMesh.getBoundingBox().getExtend().getNorm();
+            if (diagonal > 0) {
+                new MeshWelder(SHADOW_PROXY_WELD_EPSILON * diagonal).weld(weldedMesh);
+            }
+        }
+        PackedTriangleMesh proxy = new MeshSimplifier(weldedMesh).simplify(
+                (int) Math.ceil(ratio * weldedMesh.getNumberOfTriangles()));
+        int numberOfBoundaryEdges = proxy.getEdgeAdjacency().getNumberOfBoundaryEdges();
+        if (numberOfBoundaryEdges > 0) {
+            Log.i(Constants.LOGTAG, "Shadow proxy is not closed (" + numberOfBoundaryEdges
+                    + " boundary edges).");
+        }
+        return proxy;
+    }
+
+    /**
+     * Add the plane of the triangle to the quadrics of its vertices.
+     */
+    private void addTrianglePlane(int t) {
+        int a = 3 * triangles[3 * t];
+        int b = 3 * triangles[3 * t + 1];
+        int c = 3 * triangles[3 * t + 2];
+        double abX = positions[b] - positions[a];
+        double abY = positions[b + 1] - positions[a + 1];
+        double abZ = positions[b + 2] - positions[a + 2];
+        double acX = positions[c] - positions[a];
+        double acY = positions[c + 1] - positions[a + 1];
+        double acZ = positions[c + 2] - positions[a + 2];
+        double nX = abY * acZ - abZ * acY;
+        double nY = abZ * acX - abX * acZ;
+        double nZ = abX * acY - abY * acX;
+        double norm = Math.sqrt(nX * nX + nY * nY + nZ * nZ);
+        if (norm == 0) {
+            return;
+        }
+        nX /= norm;
+        nY /= norm;
+        nZ /= norm;
+        double d = -(nX * positions[a] + nY * positions[a + 1] + nZ * positions[a + 2]);
+        for (int j = 0; j < 3; j++) {
+            addPlane(triangles[3 * t + j], nX, nY, nZ, d, 1);
+        }
+    }
+
+    /**
+     * Add the planes through the boundary edges perpendicular to their triangle, so the
+     * boundary is kept in place.
+     */
+    private void addBoundaryPlanes() {
+        int[] edgeTriangleCounts = new int[removedVertices.length];
+        int[] edgeTriangles = new int[removedVertices.length];
+        for (int v = 0; v < removedVertices.length; v++) {
+            // Count the triangles of the edges (v, w)
+            markStamp++;
+            for (int i = 0; i < referenceCount[v]; i++) {
+                int t = references[referenceStart[v] + i];
+                for (int j = 0; j < 3; j++) {
+                    int w = triangles[3 * t + j];
+                    if (w == v) {
+                        continue;
+                    }
+                    if (marks[w] != markStamp) {
+                        marks[w] = markStamp;
+                        edgeTriangleCounts[w] = 0;
+                    }
+                    edgeTriangleCounts[w]++;
+                    edgeTriangles[w] = t;
+                }
+            }
+            for (int i = 0; i < referenceCount[v]; i++) {
+                int t = references[referenceStart[v] + i];
+                for (int j = 0; j < 3; j++) {
+                    int w = triangles[3 * t + j];
+                    if (w > v && edgeTriangleCounts[w] == 1) {
+                        addBoundaryPlane(v, w, edgeTriangles[w]);
+                        edgeTriangleCounts[w] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    private void addBoundaryPlane(int v, int w, int t) {
+        computeNormal(t, -1, null, normal);
+        double eX = positions[3 * w] - positions[3 * v];
+        double eY = positions[3 * w + 1] - positions[3 * v + 1];
+        double eZ = positions[3 * w + 2] - positions[3 * v + 2];
+        double nX = eY * normal[2] - eZ * normal[1];
+        double nY = eZ * normal[0] - eX * normal[2];
+        double nZ = eX * normal[1] - eY * normal[0];
+        double norm = Math.sqrt(nX * nX + nY * nY + nZ * nZ);
+        if (norm == 0) {
+            return;
+        }
+        nX /= norm;
+        nY /= norm;
+        nZ /= norm;
+        double d = -(nX * positions[3 * v] + nY * positions[3 * v + 1]
+                + nZ * positions[3 * v + 2]);
+        addPlane(v, nX, nY, nZ, d, BOUNDARY_WEIGHT);
+        addPlane(w, nX, nY, nZ, d, BOUNDARY_WEIGHT);
+    }
+
+    private void addPlane(int v, double a, double b, double c, double d, double weight) {
+        int q = 10 * v;
+        quadrics[q] += weight * a * a;
+        quadrics[q + 1] += weight * a * b;
+        quadrics[q + 2] += weight * a * c;
+        quadrics[q + 3] += weight * a * d;
+        quadrics[q + 4] += weight * b * b;
+        quadrics[q + 5] += weight * b * c;
+        quadrics[q + 6] += weight * b * d;
+        quadrics[q + 7] += weight * c * c;
+        quadrics[q + 8] += weight * c * d;
+        quadrics[q + 9] += weight * d * d;
+    }
+
+    /**
+     * Compute the target position of the collapse of the edge (v0, v1) into target and return
+     * the quadric error at the target position.
+     */
+    private double computeCollapse(int v0, int v1) {
+        for (int i = 0; i < 10; i++) {
+            quadric[i] = quadrics[10 * v0 + i] + quadrics[10 * v1 + i];
+        }
+        double a2 = quadric[0], ab = quadric[1], ac = quadric[2], ad = quadric[3];
+        double b2 = quadric[4], bc = quadric[5], bd = quadric[6];
+        double c2 = quadric[7], cd = quadric[8];
+
+        // Minimum of the quadric: solve A x = -b (Cramer's rule)
+        double det = a2 * (b2 * c2 - bc * bc) - ab * (ab * c2 - bc * ac)
+                + ac * (ab * bc - b2 * ac);
+        double trace = a2 + b2 + c2;
+        if (Math.abs(det) > 1e-9 * trace * trace * trace) {
+            double x = -(ad * (b2 * c2 - bc * bc) - ab * (bd * c2 - bc * cd)
+                    + ac * (bd * bc - b2 * cd)) / det;
+            double y = -(a2 * (bd * c2 - cd * bc) - ad * (ab * c2 - bc * ac)
+                    + ac * (ab * cd - bd * ac)) / det;
+            double z = -(a2 * (b2 * cd - bc * bd) - ab * (ab * cd - bd * ac)
+                    + ad * (ab * bc - b2 * ac)) / det;
+            // Only use the minimum if it is close to the edge (ill-conditioned otherwise)
+            double mX = 0.5 * (positions[3 * v0] + positions[3 * v1]) - x;
+            double mY = 0.5 * (positions[3 * v0 + 1] + positions[3 * v1 + 1]) - y;
+            double mZ = 0.5 * (positions[3 * v0 + 2] + positions[3 * v1 + 2]) - z;
+            double eX = positions[3 * v1] - positions[3 * v0];
+            double eY = positions[3 * v1 + 1] - positions[3 * v0 + 1];
+            double eZ = positions[3 * v1 + 2] - positions[3 * v0 + 2];
+            if (mX * mX + mY * mY + mZ * mZ <= 4 * (eX * eX + eY * eY + eZ * eZ)) {
+                target[0] = x;
+                target[1] = y;
+                target[2] = z;
+                return evaluateQuadric(x, y, z);
+            }
+        }
+
+        // Best of the end points and the midpoint
+        double bestError = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < 3; i++) {
+            double s = 0.5 * i;
+            double x = positions[3 * v0] + s * (positions[3 * v1] - positions[3 * v0]);
+            double y = positions[3 * v0 + 1] + s * (positions[3 * v1 + 1] - positions[3 * v0 + 1]);
+            double z = positions[3 * v0 + 2] + s * (positions[3 * v1 + 2] - positions[3 * v0 + 2]);
+            double error = evaluateQuadric(x, y, z);
+            if (error < bestError) {
+                bestError = error;
+                target[0] = x;
+                target[1] = y;
+                target[2] = z;
+            }
+        }
+        return bestError;
+    }
+
+    private double evaluateQuadric(double x, double y, double z) {
+        double error = quadric[0] * x * x + 2 * quadric[1] * x * y + 2 * quadric[2] * x * z
+                + 2 * quadric[3] * x + quadric[4] * y * y + 2 * quadric[5] * y * z
+                + 2 * quadric[6] * y + quadric[7] * z * z + 2 * quadric[8] * z + quadric[9];
+        return Math.max(error, 0);
+    }
+
+    /**
+     * A collapse of (v0, v1) into target is valid if the neighborhood stays manifold (the common
+     * neighbors of v0 and v1 are the vertices opposite to the edge) and no triangle flips.
+     */
+    private boolean isCollapseValid(int v0, int v1) {
+        markStamp++;
+        markNeighbors(v0);
+        int numberOfCommonNeighbors = 0;
+        int numberOfEdgeTriangles = 0;
+        for (int i = 0; i < referenceCount[v1]; i++) {
+            int t = references[referenceStart[v1] + i];
+            if (removedTriangles[t]) {
+                continue;
+            }
+            boolean hasV0 = false;
+            for (int j = 0; j < 3; j++) {
+                int w = triangles[3 * t + j];
+                if (w == v0) {
+                    hasV0 = true;
+                } else if (w != v1 && marks[w] == markStamp) {
+                    // Count each common neighbor once
+                    marks[w] = markStamp - 1;
+                    numberOfCommonNeighbors++;
+                }
+            }
+            if (hasV0) {
+                numberOfEdgeTriangles++;
+            }
+        }
+        if (numberOfCommonNeighbors != numberOfEdgeTriangles) {
+            return false;
+        }
+        // Collapsing a tetrahedron would leave two triangles with the same vertices
+        if (countTriangles(v0) + countTriangles(v1) - 2 * numberOfEdgeTriangles < 3) {
+            return false;
+        }
+        return !flips(v0, v1) && !flips(v1, v0);
+    }
+
+    private int countTriangles(int v) {
+        int count = 0;
+        for (int i = 0; i < referenceCount[v]; i++) {
+            if (!removedTriangles[references[referenceStart[v] + i]]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void markNeighbors(int v) {
+        for (int i = 0; i < referenceCount[v]; i++) {
+            int t = references[referenceStart[v] + i];
+            if (!removedTriangles[t]) {
+                for (int j = 0; j < 3; j++) {
+                    marks[triangles[3 * t + j]] = markStamp;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if one of the triangles of v (without the other vertex of the edge) flips or
+     * degenerates if v is moved to target.
+     */
+    private boolean flips(int v, int other) {
+        for (int i = 0; i < referenceCount[v]; i++) {
+            int t = references[referenceStart[v] + i];
+            if (removedTriangles[t] || triangles[3 * t] == other || triangles[3 * t + 1] == other
+                    || triangles[3 * t + 2] == other) {
+                continue;
+            }
+            computeNormal(t, -1, null, oldNormal);
+            if (!computeNormal(t, v, target, newNormal)) {
+                return true;
+            }
+            if (oldNormal[0] * newNormal[0] + oldNormal[1] * newNormal[1]
+                    + oldNormal[2] * newNormal[2] < MIN_NORMAL_DOT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compute the normalized normal of the triangle, with the vertex v moved to position (if
+     * position is not null). Returns false if the triangle is degenerate.
+     */
+    private boolean computeNormal(int t, int v, double[] position, double[] normal) {
+        double[] p = trianglePositions;
+        for (int j = 0; j < 3; j++) {
+            int w = triangles[3 * t + j];
+            for (int k = 0; k < 3; k++) {
+                p[3 * j + k] = (w == v) ? position[k] : positions[3 * w + k];
+            }
+        }
+        double abX = p[3] - p[0];
+        double abY = p[4] - p[1];
+        double abZ = p[5] - p[2];
+        double acX = p[6] - p[0];
+        double acY = p[7] - p[1];
+        double acZ = p[8] - p[2];
+        normal[0] = abY * acZ - abZ * acY;
+        normal[1] = abZ * acX - abX * acZ;
+        normal[2] = abX * acY - abY * acX;
+        double norm = Math.sqrt(normal[0] * normal[0] + normal[1] * normal[1]
+                + normal[2] * normal[2]);
+        if (norm < 1e-20) {
+            return false;
+        }
+        normal[0] /= norm;
+        normal[1] /= norm;
+        normal[2] /= norm;
+        return true;
+    }
+
+    /**
+     * Collapse v1 into v0 at the target position.
+     */
+    private void collapse(int v0, int v1) {
+        positions[3 * v0] = target[0];
+        positions[3 * v0 + 1] = target[1];
+        positions[3 * v0 + 2] = target[2];
+        for (int i = 0; i < 10; i++) {
+            quadrics[10 * v0 + i] += quadrics[10 * v1 + i];
+        }
+        removedVertices[v1] = true;
+        vertexVersions[v0]++;
+
+        // Remove the triangles of the edge, move the other triangles of v1 to v0
+        for (int i = 0; i < referenceCount[v1]; i++) {
+            int t = references[referenceStart[v1] + i];
+            if (removedTriangles[t]) {
+                continue;
+            }
+            int v1Corner = -1;
+            boolean hasV0 = false;
+            for (int j = 0; j < 3; j++) {
+                int w = triangles[3 * t + j];
+                if (w == v1) {
+                    v1Corner = j;
+                } else if (w == v0) {
+                    hasV0 = true;
+                }
+            }
+            if (hasV0) {
+                removedTriangles[t] = true;
+                numberOfTriangles--;
+            } else {
+                triangles[3 * t + v1Corner] = v0;
+            }
+        }
+
+        // Triangles of v0 are the remaining triangles of v0 and v1
+        int count = countTriangles(v0) + countTriangles(v1);
+        if (numberOfReferences + count > references.length) {
+            createReferences(2 * 3 * numberOfTriangles + count);
+        }
+        int start = numberOfReferences;
+        for (int k = 0; k < 2; k++) {
+            int v = (k == 0) ? v0 : v1;
+            for (int i = 0; i < referenceCount[v]; i++) {
+                int t = references[referenceStart[v] + i];
+                if (!removedTriangles[t]) {
+                    references[numberOfReferences++] = t;
+                }
+            }
+        }
+        referenceStart[v0] = start;
+        referenceCount[v0] = count;
+        referenceCount[v1] = 0;
+
+        pushEdges(v0, false);
+    }
+
+    /**
+     * Create the triangle references of all vertices from the remaining triangles with space for
+     * capacity references.
+     */
+    private void createReferences(int capacity) {
+        Arrays.fill(referenceCount, 0);
+        for (int t = 0; t < removedTriangles.length; t++) {
+            if (!removedTriangles[t]) {
+                for (int j = 0; j < 3; j++) {
+                    referenceCount[triangles[3 * t + j]]++;
+                }
+            }
+        }
+        numberOfReferences = 0;
+        for (int v = 0; v < referenceCount.length; v++) {
+            referenceStart[v] = numberOfReferences;
+            numberOfReferences += referenceCount[v];
+        }
+        references = new int[Math.max(capacity, numberOfReferences)];
+        Arrays.fill(referenceCount, 0);
+        for (int t = 0; t < removedTriangles.length; t++) {
+            if (!removedTriangles[t]) {
+                for (int j = 0; j < 3; j++) {
+                    int v = triangles[3 * t + j];
+                    references[referenceStart[v] + referenceCount[v]++] = t;
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the edges of v to the heap (only to neighbors with a larger index if
+     * onlyLargerNeighbors is set, so each edge is added once).
+     */
+    private void pushEdges(int v, boolean onlyLargerNeighbors) {
+        markStamp++;
+        for (int i = 0; i < referenceCount[v]; i++) {
+            int t = references[referenceStart[v] + i];
+            if (removedTriangles[t]) {
+                continue;
+            }
+            for (int j = 0; j < 3; j++) {
+                int w = triangles[3 * t + j];
+                if (w == v || marks[w] == markStamp || (onlyLargerNeighbors && w < v)) {
+                    continue;
+                }
+                marks[w] = markStamp;
+                pushHeap(computeCollapse(v, w), v, w);
+            }
+        }
+    }
+
+    private void pushHeap(double cost, int v0, int v1) {
+        if (heapSize == heapCosts.length) {
+            heapCosts = Arrays.copyOf(heapCosts, 2 * heapSize);
+            heapVertices = Arrays.copyOf(heapVertices, 4 * heapSize);
+            heapVersions = Arrays.copyOf(heapVersions, 4 * heapSize);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heapCosts[parent] <= cost) {
+                break;
+            }
+            moveHeapEntry(parent, i);
+            i = parent;
+        }
+        heapCosts[i] = cost;
+        heapVertices[2 * i] = v0;
+        heapVertices[2 * i + 1] = v1;
+        heapVersions[2 * i] = vertexVersions[v0];
+        heapVersions[2 * i + 1] = vertexVersions[v1];
+    }
+
+    private void popHeap() {
+        heapSize--;
+        if (heapSize == 0) {
+            return;
+        }
+        // Sift the last entry down from the root
+        int last = heapSize;
+        double cost = heapCosts[last];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapCosts[child + 1] < heapCosts[child]) {
+                child++;
+            }
+            if (cost <= heapCosts[child]) {
+                break;
+            }
+            moveHeapEntry(child, i);
+            i = child;
+        }
+        moveHeapEntry(last, i);
+    }
+
+    private void moveHeapEntry(int from, int to) {
+        heapCosts[to] = heapCosts[from];
+        heapVertices[2 * to] = heapVertices[2 * from];
+        heapVertices[2 * to + 1] = heapVertices[2 * from + 1];
+        heapVersions[2 * to] = heapVersions[2 * from];
+        heapVersions[2 * to + 1] = heapVersions[2 * from + 1];
+    }
+
+    /**
+     * Create a mesh of the remaining triangles and their vertices.
+     */
+    private PackedTriangleMesh createMesh() {
+        PackedTriangleMesh mesh = new PackedTriangleMesh(textureName);
+        int[] vertexMap = new int[removedVertices.length];
+        Arrays.fill(vertexMap, -1);
+        mesh.ensureTriangleCapacity(numberOfTriangles);
+        mesh.ensureTextureCoordinateCapacity(textureCoordinates.length / 2);
+        for (int i = 0; i < textureCoordinates.length / 2; i++) {
+            mesh.addTextureCoordinate(textureCoordinates[2 * i], textureCoordinates[2 * i + 1]);
+        }
+        int[] corners = new int[3];
+        for (int t = 0; t < removedTriangles.length; t++) {
+            if (removedTriangles[t]) {
+                continue;
+            }
+            for (int j = 0; j < 3; j++) {
+                int v = triangles[3 * t + j];
+                if (vertexMap[v] < 0) {
+                    vertexMap[v] = mesh.addVertex(positions[3 * v], positions[3 * v + 1],
+                            positions[3 * v + 2]);
+                }
+                corners[j] = vertexMap[v];
+            }
+            int index = mesh.getNumberOfTriangles();
+            mesh.addTriangle(corners[0], corners[1], corners[2], texCoordIndices[3 * t],
+                    texCoordIndices[3 * t + 1], texCoordIndices[3 * t + 2]);
+            mesh.setTriangleColor(index, triangleColors[4 * t], triangleColors[4 * t + 1],
+                    triangleColors[4 * t + 2], triangleColors[4 * t + 3]);
+        }
+        mesh.computeTriangleNormals();
+        mesh.computeVertexNormals();
+        return mesh;
+    }
+}
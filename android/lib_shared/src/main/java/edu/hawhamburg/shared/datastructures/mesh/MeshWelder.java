@@ -0,0 +1,310 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.hawhamburg.shared.math.Vector;
+
+/**
+ * Merges coincident vertices of a mesh (e.g. after TriangleMeshTools.unite() or for OBJ files
+ * which are split into several objects), so that neighboring triangles share their vertices
+ * again.
+ * <p>
+ * Vertices are put into a hash grid with cell size epsilon, so only the vertices in the 27
+ * neighboring cells are compared (expected O(n)). A vertex is merged into the vertex with the
+ * lowest index within distance epsilon (transitively, i.e. the merged vertices form chains).
+ * The result does not depend on the number of threads.
+ */
+public class MeshWelder {
+
+    /**
+     * Meshes are only split into ranges of at least this number of vertices, smaller ranges do
+     * not pay off the thread overhead.
+     */
+    static final int MIN_VERTICES_PER_THREAD = 1 << 14;
+
+    private static final int EMPTY = -1;
+
+    /**
+     * Maximum distance of merged vertices.
+     */
+    private final double epsilon;
+
+    /**
+     * Maximum number of threads used to weld a mesh.
+     */
+    private final int numberOfThreads;
+
+    // Vertex positions (x, y, z) of the current mesh
+    private double[] positions;
+
+    // Hash grid: open addressing table of cell keys, each with the first vertex of a list of
+    // vertices (ascending order, linked by next)
+    private long[] cellKeys;
+    private int[] cellFirstVertex;
+    private int[] next;
+
+    public MeshWelder(double epsilon) {
+        this(epsilon, 1);
+    }
+
+    /**
+     * Large meshes are welded with up to numberOfThreads threads (e.g.
+     * Runtime.getRuntime().availableProcessors()), 1 welds sequentially.
+     */
+    public MeshWelder(double epsilon, int numberOfThreads) {
+        if (!(epsilon > 0)) {
+            throw new IllegalArgumentException("Invalid epsilon: " + epsilon);
+        }
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + numberOfThreads);
+        }
+        this.epsilon = epsilon;
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * Merge the vertices of the mesh closer than epsilon and remap the triangles. Triangles which
+     * become degenerate (two equal vertex indices) are removed. The triangle and vertex normals
+     * are not recomputed. Returns the number of removed vertices.
+     */
+    public int weld(ITriangleMesh mesh) {
+        int numberOfVertices = mesh.getNumberOfVertices();
+        double[] positions = new double[3 * numberOfVertices];
+        TriangleMeshTools.copyPositions(mesh, 0, numberOfVertices, positions);
+        int[] vertexMap = new int[numberOfVertices];
+        int numberOfWeldedVertices = computeVertexMap(positions, numberOfVertices, vertexMap);
+        if (numberOfWeldedVertices == numberOfVertices) {
+            return 0;
+        }
+
+        if (mesh instanceof PackedTriangleMesh) {
+            weldPackedMesh((PackedTriangleMesh) mesh, vertexMap, numberOfWeldedVertices);
+        } else {
+            weldMesh(mesh, vertexMap, numberOfWeldedVertices);
+        }
+        return numberOfVertices - numberOfWeldedVertices;
+    }
+
+    /**
+     * Compute the index of the merged vertex for each of the vertices (given as packed (x, y, z)
+     * triples). The merged vertices keep the order of the vertices. Returns the number of merged
+     * vertices.
+     */
+    public int computeVertexMap(double[] positions, final int numberOfVertices, int[] vertexMap) {
+        this.positions = positions;
+        int numberOfRanges = ParallelRanges.getNumberOfRanges(numberOfVertices,
+                MIN_VERTICES_PER_THREAD, numberOfThreads);
+        try {
+            final long[] vertexCellKeys = new long[numberOfVertices];
+            ParallelRanges.run(numberOfVertices, numberOfRanges, new ParallelRanges.RangeTask() {
+                @Override
+                public void run(int range, int start, int end) {
+                    computeCellKeys(start, end, vertexCellKeys);
+                }
+            });
+            buildGrid(vertexCellKeys, numberOfVertices);
+
+            // Lowest vertex index within distance epsilon
+            final int[] target = new int[numberOfVertices];
+            ParallelRanges.run(numberOfVertices, numberOfRanges, new ParallelRanges.RangeTask() {
+                @Override
+                public void run(int range, int start, int end) {
+                    findTargets(start, end, target);
+                }
+            });
+
+            // Targets have a lower index, so their merged index is already known
+            int numberOfWeldedVertices = 0;
+            for (int i = 0; i < numberOfVertices; i++) {
+                vertexMap[i] = (target[i] == i) ? numberOfWeldedVertices++ : vertexMap[target[i]];
+            }
+            return numberOfWeldedVertices;
+        } finally {
+            this.positions = null;
+            cellKeys = null;
+            cellFirstVertex = null;
+            next = null;
+        }
+    }
+
+    private void computeCellKeys(int start, int end, long[] vertexCellKeys) {
+        for (int i = start; i < end; i++) {
+            vertexCellKeys[i] = getCellKey(getCell(positions[3 * i]),
+                    getCell(positions[3 * i + 1]), getCell(positions[3 * i + 2]));
+        }
+    }
+
+    /**
+     * Insert the vertices into the hash grid.
+     */
+    private void buildGrid(long[] vertexCellKeys, int numberOfVertices) {
+        int capacity = Integer.highestOneBit(Math.max(2 * numberOfVertices - 1, 1)) << 1;
+        cellKeys = new long[capacity];
+        cellFirstVertex = new int[capacity];
+        Arrays.fill(cellFirstVertex, EMPTY);
+        next = new int[numberOfVertices];
+
+        // Insert in reverse order, so the lists are sorted ascending
+        for (int i = numberOfVertices - 1; i >= 0; i--) {
+            int slot = findSlot(vertexCellKeys[i]);
+            cellKeys[slot] = vertexCellKeys[i];
+            next[i] = cellFirstVertex[slot];
+            cellFirstVertex[slot] = i;
+        }
+    }
+
+    private void findTargets(int start, int end, int[] target) {
+        double epsilonSquared = epsilon * epsilon;
+        for (int i = start; i < end; i++) {
+            double x = positions[3 * i];
+            double y = positions[3 * i + 1];
+            double z = positions[3 * i + 2];
+            long cellX = getCell(x);
+            long cellY = getCell(y);
+            long cellZ = getCell(z);
+            int best = i;
+            for (long dx = -1; dx <= 1; dx++) {
+                for (long dy = -1; dy <= 1; dy++) {
+                    for (long dz = -1; dz <= 1; dz++) {
+                        int slot = findSlot(getCellKey(cellX + dx, cellY + dy, cellZ + dz));
+                        for (int j = cellFirstVertex[slot]; j != EMPTY && j < best; j = next[j]) {
+                            double distX = positions[3 * j] - x;
+                            double distY = positions[3 * j + 1] - y;
+                            double distZ = positions[3 * j + 2] - z;
+                            if (distX * distX + distY * distY + distZ * distZ <= epsilonSquared) {
+                                best = j;
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+            target[i] = best;
+        }
+    }
+
+    private long getCell(double coordinate) {
+        return (long) Math.floor(coordinate / epsilon);
+    }
+
+    /**
+     * Hash of the cell coordinates. Different cells may get the same key, this only adds vertices
+     * to compare.
+     */
+    private static long getCellKey(long cellX, long cellY, long cellZ) {
+        return (cellX * 73856093L) ^ (cellY * 19349663L) ^ (cellZ * 83492791L);
+    }
+
+    /**
+     * Slot of the cell key in the hash grid or the empty slot where it would be inserted.
+     */
+    private int findSlot(long key) {
+        int mask = cellKeys.length - 1;
+        int slot = (int) (key ^ (key >>> 32)) * 0x9E3779B9 & mask;
+        while (cellFirstVertex[slot] != EMPTY && cellKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Compact the backing arrays of the packed mesh.
+     */
+    private void weldPackedMesh(PackedTriangleMesh mesh, int[] vertexMap,
+                                int numberOfWeldedVertices) {
+        // Merged indices are ascending, so the vertices can be moved to the front in place
+        float[] meshPositions = mesh.editPositions();
+        float[] normals = mesh.editNormals();
+        int numberOfCopiedVertices = 0;
+        for (int i = 0; i < vertexMap.length; i++) {
+            if (vertexMap[i] == numberOfCopiedVertices) {
+                System.arraycopy(meshPositions, 3 * i, meshPositions, 3 * numberOfCopiedVertices, 3);
+                System.arraycopy(normals, 3 * i, normals, 3 * numberOfCopiedVertices, 3);
+                numberOfCopiedVertices++;
+            }
+        }
+
+        int[] vertexIndices = mesh.editTriangleVertexIndices();
+        int[] texCoordIndices = mesh.editTriangleTexCoordIndices();
+        float[] triangleNormals = mesh.editTriangleNormals();
+        float[] triangleColors = mesh.editTriangleColors();
+        int numberOfTriangles = 0;
+        for (int i = 0; i < mesh.getNumberOfTriangles(); i++) {
+            int a = vertexMap[vertexIndices[3 * i]];
+            int b = vertexMap[vertexIndices[3 * i + 1]];
+            int c = vertexMap[vertexIndices[3 * i + 2]];
+            if (a == b || b == c || c == a) {
+                continue;
+            }
+            vertexIndices[3 * numberOfTriangles] = a;
+            vertexIndices[3 * numberOfTriangles + 1] = b;
+            vertexIndices[3 * numberOfTriangles + 2] = c;
+            System.arraycopy(texCoordIndices, 3 * i, texCoordIndices, 3 * numberOfTriangles, 3);
+            System.arraycopy(triangleNormals, 3 * i, triangleNormals, 3 * numberOfTriangles, 3);
+            System.arraycopy(triangleColors, 4 * i, triangleColors, 4 * numberOfTriangles, 4);
+            numberOfTriangles++;
+        }
+        mesh.setSize(numberOfWeldedVertices, mesh.getNumberOfTextureCoordinates(),
+                numberOfTriangles);
+    }
+
+    /**
+     * Rebuild the mesh from the merged vertices and the remapped triangles.
+     */
+    private void weldMesh(ITriangleMesh mesh, int[] vertexMap, int numberOfWeldedVertices) {
+        List<Vertex> vertices = new ArrayList<Vertex>(numberOfWeldedVertices);
+        for (int i = 0; i < vertexMap.length; i++) {
+            if (vertexMap[i] == vertices.size()) {
+                vertices.add(new Vertex(mesh.getVertex(i)));
+            }
+        }
+        List<Vector> textureCoordinates = new ArrayList<Vector>();
+        for (int i = 0; i < mesh.getNumberOfTextureCoordinates(); i++) {
+            textureCoordinates.add(new Vector(mesh.getTextureCoordinate(i)));
+        }
+        List<Triangle> triangles = new ArrayList<Triangle>(mesh.getNumberOfTriangles());
+        for (int i = 0; i < mesh.getNumberOfTriangles(); i++) {
+            Triangle t = (Triangle) mesh.getTriangle(i);
+            int a = vertexMap[t.getVertexIndex(0)];
+            int b = vertexMap[t.getVertexIndex(1)];
+            int c = vertexMap[t.getVertexIndex(2)];
+            if (a == b || b == c || c == a) {
+                continue;
+            }
+            Triangle triangle = new Triangle(a, b, c, t.getTexCoordIndex(0),
+                    t.getTexCoordIndex(1), t.getTexCoordIndex(2), t.getNormal());
+            triangle.setColor(t.getColor());
+            triangles.add(triangle);
+        }
+
+        mesh.clear();
+        for (Vertex vertex : vertices) {
+            if (mesh instanceof TriangleMesh) {
+                ((TriangleMesh) mesh).addVertex(vertex);
+            } else {
+                int index = mesh.addVertex(vertex.getPosition());
+                mesh.getVertex(index).getNormal().copy(vertex.getNormal());
+            }
+        }
+        for (Vector textureCoordinate : textureCoordinates) {
+            mesh.addTextureCoordinate(textureCoordinate);
+        }
+        for (Triangle triangle : triangles) {
+            mesh.addTriangle(triangle);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Parsed content of a line-aligned part of an OBJ file. The chunk only depends on its own bytes,
+ * so several chunks can be parsed concurrently. Everything which depends on the preceding content
+ * (index offsets of the objects, current material) is resolved when the chunks are added to the
+ * meshes in file order (see ObjReader).
+ * <p>
+ * The vertices, texture coordinates and facets are stored in primitive arrays. The statements
+ * which change the state (o, mtllib, usemtl) are stored with the number of vertices, texture
+ * coordinates and triangles parsed before them.
+ */
+class ObjChunk implements ObjVisitor {
+
+    static final int STATEMENT_NEW_OBJECT = 0;
+    static final int STATEMENT_MATERIAL_LIBRARY = 1;
+    static final int STATEMENT_USE_MATERIAL = 2;
+
+    // Vertex positions (x, y, z)
+    float[] positions = new float[3 * 256];
+    int numberOfVertices = 0;
+
+    // Texture coordinates (u, v) as given in the file
+    float[] textureCoordinates = new float[2 * 256];
+    int numberOfTextureCoordinates = 0;
+
+    // Per triangle 3 vertex indices and 3 texture coordinate indices as given in the file (OBJ
+    // index, not yet shifted by the object offsets) or ObjVisitor.NO_INDEX
+    int[] corners = new int[6 * 256];
+    int numberOfTriangles = 0;
+
+    // Statements (type, line) and the number of vertices, texture coordinates and triangles
+    // before them
+    int[] statementTypes = new int[4];
+    String[] statementLines = new String[4];
+    int[] statementCounts = new int[3 * 4];
+    int numberOfStatements = 0;
+
+    // Set if the chunk could not be parsed completely (invalid vertex or texture coordinate)
+    Exception error = null;
+
+    /**
+     * Parse the lines in the bytes start ... end - 1. Stops at the first invalid vertex or texture
+     * coordinate line, see error.
+     */
+    void parse(ByteBuffer data, int start, int end) {
+        try {
+            new ObjParser(this).parse(data, start, end);
+        } catch (Exception e) {
+            error = e;
+        }
+    }
+
+    @Override
+    public void onVertex(float x, float y, float z) {
+        if (3 * numberOfVertices == positions.length) {
+            positions = Arrays.copyOf(positions, 2 * positions.length);
+        }
+        positions[3 * numberOfVertices] = x;
+        positions[3 * numberOfVertices + 1] = y;
+        positions[3 * numberOfVertices + 2] = z;
+        numberOfVertices++;
+    }
+
+    @Override
+    public void onTexCoord(float u, float v) {
+        if (2 * numberOfTextureCoordinates == textureCoordinates.length) {
+            textureCoordinates = Arrays.copyOf(textureCoordinates, 2 * textureCoordinates.length);
+        }
+        textureCoordinates[2 * numberOfTextureCoordinates] = u;
+        textureCoordinates[2 * numberOfTextureCoordinates + 1] = v;
+        numberOfTextureCoordinates++;
+    }
+
+    @Override
+    public void onFace(int[] vertexIndices, int[] texCoordIndices) {
+        if (6 * numberOfTriangles == corners.length) {
+            corners = Arrays.copyOf(corners, 2 * corners.length);
+        }
+        int i = 6 * numberOfTriangles;
+        corners[i] = vertexIndices[0];
+        corners[i + 1] = vertexIndices[1];
+        corners[i + 2] = vertexIndices[2];
+        corners[i + 3] = texCoordIndices[0];
+        corners[i + 4] = texCoordIndices[1];
+        corners[i + 5] = texCoordIndices[2];
+        numberOfTriangles++;
+    }
+
+    @Override
+    public void onObject(String name) {
+        addStatement(STATEMENT_NEW_OBJECT, null);
+    }
+
+    @Override
+    public void onMaterialLibrary(String filename) {
+        addStatement(STATEMENT_MATERIAL_LIBRARY, "mtllib " + filename);
+    }
+
+    @Override
+    public void onMaterial(String materialName) {
+        addStatement(STATEMENT_USE_MATERIAL, "usemtl " + materialName);
+    }
+
+    private void addStatement(int type, String line) {
+        if (numberOfStatements == statementTypes.length) {
+            statementTypes = Arrays.copyOf(statementTypes, 2 * numberOfStatements);
+            statementLines = Arrays.copyOf(statementLines, 2 * numberOfStatements);
+            statementCounts = Arrays.copyOf(statementCounts, 6 * numberOfStatements);
+        }
+        statementTypes[numberOfStatements] = type;
+        statementLines[numberOfStatements] = line;
+        statementCounts[3 * numberOfStatements] = numberOfVertices;
+        statementCounts[3 * numberOfStatements + 1] = numberOfTextureCoordinates;
+        statementCounts[3 * numberOfStatements + 2] = numberOfTriangles;
+        numberOfStatements++;
+    }
+}
@@ -0,0 +1,373 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Byte level parser for the lines of an OBJ file, the statements are passed to an ObjVisitor.
+ * The vertex, texture coordinate and facet lines are tokenized and parsed without creating
+ * Strings. Not thread-safe, use one parser per thread.
+ */
+class ObjParser {
+
+    private static final byte[] OP_MAT_LIB = {'m', 't', 'l', 'l', 'i', 'b'};
+    private static final byte[] OP_VERTEX = {'v'};
+    private static final byte[] OP_FACET = {'f'};
+    private static final byte[] OP_TEXTURE_COORDINATE = {'v', 't'};
+    private static final byte[] OP_NEW_OBJECT = {'o'};
+    private static final byte[] OP_USE_MTL = {'u', 's', 'e', 'm', 't', 'l'};
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Exactly representable powers of ten for the float parser.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final ObjVisitor visitor;
+
+    // Tokens of the current line: [tokenStarts[i], tokenEnds[i]) in the buffer
+    private int[] tokenStarts = new int[8];
+    private int[] tokenEnds = new int[8];
+
+    // Corner indices of the current facet
+    private final int[] cornerVertexIndices = new int[4];
+    private final int[] cornerTexCoordIndices = new int[4];
+
+    // Indices of the current triangle passed to the visitor
+    private final int[] faceVertexIndices = new int[3];
+    private final int[] faceTexCoordIndices = new int[3];
+
+    // Copy of a token if it must be parsed by the Java library
+    private byte[] tokenBytes = new byte[32];
+
+    ObjParser(ObjVisitor visitor) {
+        this.visitor = visitor;
+    }
+
+    /**
+     * Parse the lines in the bytes start ... end - 1. Exceptions for invalid vertex or texture
+     * coordinate lines are passed to the caller, invalid facets are skipped.
+     */
+    void parse(ByteBuffer data, int start, int end) {
+        int position = start;
+        while (position < end) {
+            int lineEnd = position;
+            while (lineEnd < end && data.get(lineEnd) != '\n' && data.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            // \r\n creates an additional empty line, which is ignored
+            parseLine(data, position, lineEnd);
+            position = lineEnd + 1;
+        }
+    }
+
+    /**
+     * Start of the line which contains the byte at position (or end).
+     */
+    static int findNextLineStart(ByteBuffer data, int position, int end) {
+        if (position <= 0) {
+            return 0;
+        }
+        while (position < end && data.get(position - 1) != '\n' && data.get(position - 1) != '\r') {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Einlesen einer Zeile (Bytes start ... end - 1) aus der OBJ-Datei.
+     */
+    private void parseLine(ByteBuffer data, int start, int end) {
+        // trim (same as String.trim())
+        int trimmedStart = start;
+        while (trimmedStart < end && (data.get(trimmedStart) & 0xff) <= ' ') {
+            trimmedStart++;
+        }
+        int trimmedEnd = end;
+        while (trimmedEnd > trimmedStart && (data.get(trimmedEnd - 1) & 0xff) <= ' ') {
+            trimmedEnd--;
+        }
+        int operatorEnd = trimmedStart;
+        while (operatorEnd < trimmedEnd && !isWhitespace(data.get(operatorEnd))) {
+            operatorEnd++;
+        }
+
+        if (isOperator(data, trimmedStart, operatorEnd, OP_VERTEX)) {
+            // Lesen eines Vertex
+            if (tokenize(data, trimmedStart, trimmedEnd) >= 4) {
+                visitor.onVertex(parseFloat(data, tokenStarts[1], tokenEnds[1]),
+                        parseFloat(data, tokenStarts[2], tokenEnds[2]),
+                        parseFloat(data, tokenStarts[3], tokenEnds[3]));
+            }
+        } else if (isOperator(data, trimmedStart, operatorEnd, OP_FACET)) {
+            try {
+                // Lesen einer Facette (Dreieck)
+                parseFacet(data, trimmedStart, trimmedEnd);
+            } catch (NumberFormatException e) {
+                System.out.println("Failed to parse facet.");
+            }
+        } else if (isOperator(data, trimmedStart, operatorEnd, OP_TEXTURE_COORDINATE)) {
+            // Lesen einer Texturkoordinate
+            if (tokenize(data, trimmedStart, trimmedEnd) >= 3) {
+                visitor.onTexCoord(parseFloat(data, tokenStarts[1], tokenEnds[1]),
+                        parseFloat(data, tokenStarts[2], tokenEnds[2]));
+            }
+        } else if (isOperator(data, trimmedStart, operatorEnd, OP_NEW_OBJECT)) {
+            visitor.onObject(getArguments(data, operatorEnd, trimmedEnd));
+        } else if (isOperator(data, trimmedStart, operatorEnd, OP_MAT_LIB)) {
+            visitor.onMaterialLibrary(getArguments(data, operatorEnd, trimmedEnd));
+        } else if (isOperator(data, trimmedStart, operatorEnd, OP_USE_MTL)) {
+            visitor.onMaterial(getArguments(data, operatorEnd, trimmedEnd));
+        }
+    }
+
+    /**
+     * Rest of the line after the operator (trimmed).
+     */
+    private String getArguments(ByteBuffer data, int operatorEnd, int trimmedEnd) {
+        int start = operatorEnd;
+        while (start < trimmedEnd && (data.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        return toString(data, start, trimmedEnd);
+    }
+
+    /**
+     * Lesen einer Zeile, die ein Dreieck (oder Viereck, zwei Dreiecke) repräsentiert (Indices der
+     * Eckpunkte, Indices der Texturkoordinaten).
+     */
+    private void parseFacet(ByteBuffer data, int start, int end) {
+        int numberOfTokens = tokenize(data, start, end);
+        if (numberOfTokens != 4 && numberOfTokens != 5) {
+            return;
+        }
+        for (int corner = 0; corner < 3; corner++) {
+            parseCorner(data, tokenStarts[corner + 1], tokenEnds[corner + 1], corner);
+        }
+        visitTriangle(0, 1, 2);
+        if (numberOfTokens == 5) {
+            parseCorner(data, tokenStarts[4], tokenEnds[4], 3);
+            visitTriangle(0, 2, 3);
+        }
+    }
+
+    /**
+     * Parse a facet corner token v, v/vt, v//vn or v/vt/vn.
+     */
+    private void parseCorner(ByteBuffer data, int start, int end, int corner) {
+        int firstSlash = indexOf(data, start, end, (byte) '/');
+        int secondSlash = firstSlash < end ? indexOf(data, firstSlash + 1, end, (byte) '/') : end;
+        cornerVertexIndices[corner] = (firstSlash > start)
+                ? parseInt(data, start, firstSlash) : ObjVisitor.NO_INDEX;
+        cornerTexCoordIndices[corner] = (firstSlash < end && secondSlash > firstSlash + 1)
+                ? parseInt(data, firstSlash + 1, secondSlash) : ObjVisitor.NO_INDEX;
+    }
+
+    private void visitTriangle(int corner1, int corner2, int corner3) {
+        faceVertexIndices[0] = cornerVertexIndices[corner1];
+        faceVertexIndices[1] = cornerVertexIndices[corner2];
+        faceVertexIndices[2] = cornerVertexIndices[corner3];
+        faceTexCoordIndices[0] = cornerTexCoordIndices[corner1];
+        faceTexCoordIndices[1] = cornerTexCoordIndices[corner2];
+        faceTexCoordIndices[2] = cornerTexCoordIndices[corner3];
+        visitor.onFace(faceVertexIndices, faceTexCoordIndices);
+    }
+
+    /**
+     * Split the (trimmed) bytes start ... end - 1 at whitespace like String.split("\\s+").
+     * Returns the number of tokens, the tokens are stored in tokenStarts/tokenEnds.
+     */
+    private int tokenize(ByteBuffer data, int start, int end) {
+        int numberOfTokens = 0;
+        int position = start;
+        while (position < end) {
+            while (position < end && isWhitespace(data.get(position))) {
+                position++;
+            }
+            if (position == end) {
+                break;
+            }
+            int tokenStart = position;
+            while (position < end && !isWhitespace(data.get(position))) {
+                position++;
+            }
+            addToken(numberOfTokens++, tokenStart, position);
+        }
+        return numberOfTokens;
+    }
+
+    private void addToken(int index, int start, int end) {
+        if (index == tokenStarts.length) {
+            tokenStarts = Arrays.copyOf(tokenStarts, 2 * index);
+            tokenEnds = Arrays.copyOf(tokenEnds, 2 * index);
+        }
+        tokenStarts[index] = start;
+        tokenEnds[index] = end;
+    }
+
+    /**
+     * Whitespace as in the regular expression \s.
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+
+    private static boolean isOperator(ByteBuffer data, int start, int end, byte[] operator) {
+        if (end - start != operator.length) {
+            return false;
+        }
+        for (int i = 0; i < operator.length; i++) {
+            if (data.get(start + i) != operator[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(ByteBuffer data, int start, int end, byte b) {
+        int position = start;
+        while (position < end && data.get(position) != b) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Same result as Integer.parseInt() for the token, without creating a String for plain
+     * numbers.
+     */
+    private int parseInt(ByteBuffer data, int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (data.get(position) == '-' || data.get(position) == '+')) {
+            negative = data.get(position) == '-';
+            position++;
+        }
+        // up to 9 digits cannot overflow
+        if (position == end || end - position > 9) {
+            return Integer.parseInt(toString(data, start, end));
+        }
+        int value = 0;
+        for (; position < end; position++) {
+            int digit = data.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.parseInt(toString(data, start, end));
+            }
+            value = 10 * value + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Same result as Float.parseFloat() for the token, without creating a String for decimal
+     * numbers with up to 15 significant digits. The value is computed exactly rounded as double
+     * (digits and power of ten are exact doubles) and then rounded to float; if the double is
+     * exactly between two floats this double rounding might be wrong and the Java library is
+     * used instead.
+     */
+    private float parseFloat(ByteBuffer data, int start, int end) {
+        int position = start;
+        boolean negative = false;
+        if (position < end && (data.get(position) == '-' || data.get(position) == '+')) {
+            negative = data.get(position) == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int numberOfSignificantDigits = 0;
+        int numberOfDigits = 0;
+        int exponent = 0;
+        for (; position < end; position++) {
+            int digit = data.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            mantissa = 10 * mantissa + digit;
+            if (mantissa != 0) {
+                numberOfSignificantDigits++;
+            }
+            numberOfDigits++;
+        }
+        if (position < end && data.get(position) == '.') {
+            for (position++; position < end; position++) {
+                int digit = data.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                mantissa = 10 * mantissa + digit;
+                if (mantissa != 0) {
+                    numberOfSignificantDigits++;
+                }
+                numberOfDigits++;
+                exponent--;
+            }
+        }
+        if (position < end && (data.get(position) == 'e' || data.get(position) == 'E')) {
+            position++;
+            boolean negativeExponent = false;
+            if (position < end && (data.get(position) == '-' || data.get(position) == '+')) {
+                negativeExponent = data.get(position) == '-';
+                position++;
+            }
+            int exponentStart = position;
+            int explicitExponent = 0;
+            for (; position < end && position - exponentStart < 4; position++) {
+                int digit = data.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                explicitExponent = 10 * explicitExponent + digit;
+            }
+            if (position == exponentStart) {
+                numberOfDigits = 0;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (position != end || numberOfDigits == 0 || numberOfSignificantDigits > 15) {
+            return Float.parseFloat(toString(data, start, end));
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0f : 0.0f;
+        }
+        if (exponent < -22 || exponent > 22) {
+            return Float.parseFloat(toString(data, start, end));
+        }
+        double value = (exponent < 0) ? mantissa / POWERS_OF_TEN[-exponent]
+                : mantissa * POWERS_OF_TEN[exponent];
+        // Exactly between two floats (lower 29 of the 52 mantissa bits are 100...0)?
+        if ((Double.doubleToRawLongBits(value) & 0x1FFFFFFFL) == 0x10000000L) {
+            return Float.parseFloat(toString(data, start, end));
+        }
+        float result = (float) value;
+        return negative ? -result : result;
+    }
+
+    /**
+     * Create a String from the bytes start ... end - 1 (UTF-8).
+     */
+    private String toString(ByteBuffer data, int start, int end) {
+        int length = end - start;
+        if (tokenBytes.length < length) {
+            tokenBytes = new byte[length];
+        }
+        for (int i = 0; i < length; i++) {
+            tokenBytes[i] = data.get(start + i);
+        }
+        return new String(tokenBytes, 0, length, UTF8);
+    }
+}
@@ -17,84 +17,264 @@ import android.util.Log;
 import java.io.BufferedReader;
 import java.io.DataInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import edu.hawhamburg.shared.math.Vector;
 import edu.hawhamburg.shared.misc.AssetPath;
 import edu.hawhamburg.shared.misc.Constants;
-import edu.hawhamburg.shared.rendering.Texture;
 import edu.hawhamburg.shared.rendering.TextureManager;
 
 /**
  * Read OBJ file and fill triangle mesh with the content.
+ * <p>
+ * The OBJ file is parsed on byte level (memory mapped for files, read into a buffer for assets):
+ * the vertex, texture coordinate and facet lines are tokenized and parsed without creating
+ * Strings (see ObjChunk). Only the rare material lines (mtllib, usemtl) are converted to Strings.
+ * <p>
+ * With more than one thread, large files are split into line-aligned chunks which are parsed
+ * concurrently. The chunks are then added to the meshes in file order, so the result is the same
+ * as for sequential reading.
+ * <p>
+ * Optionally the meshes are stored in a binary cache file (see BinaryMeshCache, setUseCache()),
+ * which is read instead of parsing the OBJ file again as long as the OBJ file is unchanged.
  *
  * @author Philipp Jenke
  */
 public class ObjReader {
 
-    private static final String OP_MAT_LIB = "mtllib";
-    private static final String OP_VERTEX = "v";
-    private static final String OP_FACET = "f";
-    private static final String OP_TEXTURE_COORDINATE = "vt";
     private static final String OP_MAT_NEW_MAT = "newmtl";
     private static final String OP_MAT_KD = "Kd";
     private static final String OP_MAT_TEXTURE = "map_Kd";
-    private static final String OP_NEW_OBJECT = "o";
-    private static final String OP_USE_MTL = "usemtl";
     private static final Vector DEFAULT_COLOR = new Vector(0.5, 0.5, 0.5, 1);
 
+    /**
+     * Files are only split into chunks of at least this size (in bytes), smaller chunks do not
+     * pay off the thread overhead.
+     */
+    static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    /**
+     * Cache files are named like the OBJ file with this suffix.
+     */
+    public static final String CACHE_FILE_SUFFIX = ".mesh";
+
     // Subdirectory used to look for the material file (extracted from mesh file).
     private String directory = "";
 
+    // Read the material files from the file system instead of the assets.
+    private boolean readFromFileSystem = false;
+
     // State of the import process
     private ITriangleMesh currentMesh = null;
+    private PackedTriangleMesh currentPackedMesh = null;
     private Material currentMaterial = null;
     private Map<String, Material> materials = null;
     private List<ITriangleMesh> meshes = new ArrayList<ITriangleMesh>();
     private int vertexIndexOffset = 0;
     private int texCoordOffset = 0;
-    //private List<Vector> textureCoordinates = new ArrayList<Vector>();
+
+    // Create PackedTriangleMesh instead of TriangleMesh objects.
+    private final boolean createPackedMeshes;
+
+    // Maximum number of threads used to parse a file.
+    private final int numberOfThreads;
+
+    // Use the binary mesh cache.
+    private boolean useCache = false;
+
+    // Maximum distance of welded vertices, 0 if vertices are not welded.
+    private double weldEpsilon = 0;
+
+    // Reorder the triangles and vertices for the vertex cache.
+    private boolean optimizeVertexCache = false;
+
+    public ObjReader() {
+        this(false);
+    }
+
+    /**
+     * If createPackedMeshes is true, the meshes are created as PackedTriangleMesh (less memory
+     * for large meshes).
+     */
+    public ObjReader(boolean createPackedMeshes) {
+        this(createPackedMeshes, 1);
+    }
+
+    /**
+     * Large files are parsed with up to numberOfThreads threads (e.g.
+     * Runtime.getRuntime().availableProcessors()), 1 reads sequentially.
+     */
+    public ObjReader(boolean createPackedMeshes, int numberOfThreads) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + numberOfThreads);
+        }
+        this.createPackedMeshes = createPackedMeshes;
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * Use the binary mesh cache: the cache file of an OBJ file read from the file system is
+     * stored next to the OBJ file (filename + CACHE_FILE_SUFFIX). Assets cannot be written,
+     * their cache files are stored in the cache directory of the AssetPath (not cached if not
+     * set).
+     */
+    public void setUseCache(boolean useCache) {
+        this.useCache = useCache;
+    }
+
+    /**
+     * Weld the vertices of each mesh which are closer than weldEpsilon (see MeshWelder), 0
+     * (default) does not weld.
+     */
+    public void setWeldEpsilon(double weldEpsilon) {
+        if (weldEpsilon < 0) {
+            throw new IllegalArgumentException("Invalid weld epsilon: " + weldEpsilon);
+        }
+        this.weldEpsilon = weldEpsilon;
+    }
+
+    /**
+     * Reorder the triangles and vertices of each mesh for the vertex cache of the GPU (see
+     * MeshOptimizer), the cache miss ratios before and after are logged.
+     */
+    public void setOptimizeVertexCache(boolean optimizeVertexCache) {
+        this.optimizeVertexCache = optimizeVertexCache;
+    }
 
     /**
      * Lesen eines Dreiecksnetzes aus einer OBJ-Datei. Die Information wird in das
      * Dreiecksnetz 'mesh' geschrieben.
      * <p>
-     * Returns true if the mesh is successfully read.
+     * Returns the meshes read (a new list for each call, so the reader can be reused).
      */
     public List<ITriangleMesh> read(final String filename) {
-        // Setup
-        meshes.clear();
+        setup(filename, false);
+
+        // Read input
+        InputStream inputStream = getInputStream(filename);
+        ByteBuffer data;
+        try {
+            data = readFully(inputStream);
+        } catch (Exception e) {
+            System.out.println("Error reading from the OBJ file.");
+            return meshes;
+        }
+        File cacheDirectory = AssetPath.getInstance().getCacheDirectory();
+        File cacheFile = (useCache && cacheDirectory != null)
+                ? new File(cacheDirectory, filename.replace('/', '_') + CACHE_FILE_SUFFIX)
+                : null;
+        // Assets have no modification time, changes are detected by size and hash
+        return parse(data, filename, cacheFile, 0);
+    }
+
+    /**
+     * Same as read(String), but reads the OBJ file (and its material file) from the file system.
+     * The file is memory mapped, so it must be smaller than 2 GB.
+     */
+    public List<ITriangleMesh> read(final File file) {
+        setup(file.getPath(), true);
+
+        ByteBuffer data;
+        try {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                FileChannel channel = randomAccessFile.getChannel();
+                // A mapped buffer (as any ByteBuffer) is limited to 2 GB
+                if (channel.size() > Integer.MAX_VALUE) {
+                    Log.i(Constants.LOGTAG, "OBJ file too large (" + channel.size()
+                            + " bytes): " + file.getPath());
+                    return meshes;
+                }
+                data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } finally {
+                randomAccessFile.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading from the OBJ file.");
+            return meshes;
+        }
+        File cacheFile = useCache ? new File(file.getPath() + CACHE_FILE_SUFFIX) : null;
+        return parse(data, file.getPath(), cacheFile, file.lastModified());
+    }
+
+    private void setup(String filename, boolean readFromFileSystem) {
+        // The list is returned to the caller, it must not be changed by the next read
+        meshes = new ArrayList<ITriangleMesh>();
         directory = new File(filename).getParent() + "/";
-        currentMesh = new TriangleMesh();
-        meshes.add(currentMesh);
+        this.readFromFileSystem = readFromFileSystem;
+        setCurrentMesh(createMesh());
         materials = new HashMap<String, Material>();
+        currentMaterial = null;
         vertexIndexOffset = 0;
         texCoordOffset = 0;
-        //textureCoordinates.clear();
+    }
 
-        // Read input
-        //System.out.println("Trying to read OBJ file " + filename);
-        InputStream inputStream = getInputStream(filename);
-        try {
-            String strLine = "";
-            DataInputStream in = new DataInputStream(inputStream);
-            BufferedReader br = new BufferedReader(new InputStreamReader(in));
-            while ((strLine = br.readLine()) != null) {
-                parseLine(strLine);
+    /**
+     * Parse the OBJ content and post-process the meshes. If cacheFile is not null, the meshes are
+     * read from the cache file if it is valid for the content, otherwise the cache file is
+     * written.
+     */
+    private List<ITriangleMesh> parse(ByteBuffer data, String filename, File cacheFile,
+                                      long lastModified) {
+        long hash = 0;
+        if (cacheFile != null) {
+            hash = BinaryMeshCache.computeHash(data);
+            if (weldEpsilon > 0) {
+                // Welded meshes have their own cache entry
+                hash = 31 * hash + Double.doubleToLongBits(weldEpsilon);
             }
-            in.close();
+            if (optimizeVertexCache) {
+                hash = 31 * hash + 1;
+            }
+            List<ITriangleMesh> cachedMeshes = BinaryMeshCache.read(cacheFile, data.limit(),
+                    lastModified, hash, createPackedMeshes);
+            if (cachedMeshes != null) {
+                meshes.clear();
+                meshes.addAll(cachedMeshes);
+                for (ITriangleMesh mesh : meshes) {
+                    TextureManager.getInstance().preloadTexture(mesh.getTextureName());
+                }
+                Log.i(Constants.LOGTAG, "Read " + meshes.size() + " meshes from cache file "
+                        + cacheFile + ".");
+                return meshes;
+            }
+        }
+
+        List<ObjChunk> chunks;
+        try {
+            chunks = parseChunks(data);
         } catch (Exception e) {
             System.out.println("Error reading from the OBJ file.");
             return meshes;
         }
+        for (ObjChunk chunk : chunks) {
+            addChunk(chunk);
+            if (chunk.error != null) {
+                System.out.println("Error reading from the OBJ file.");
+                return meshes;
+            }
+        }
 
         // Post-process meshes
+        MeshWelder welder = (weldEpsilon > 0) ? new MeshWelder(weldEpsilon, numberOfThreads) : null;
+        MeshOptimizer optimizer = optimizeVertexCache ? new MeshOptimizer() : null;
         for (Iterator<ITriangleMesh> it = meshes.iterator(); it.hasNext(); ) {
             ITriangleMesh mesh = it.next();
             if (mesh.getNumberOfTriangles() == 0) {
@@ -102,32 +282,210 @@ public class ObjReader {
                 continue;
             }
 
-            // Required to assign the color to all facets.
-            //mesh.setColor(mesh.getColor());
-
+            if (welder != null) {
+                welder.weld(mesh);
+            }
             mesh.computeTriangleNormals();
+            TriangleMeshTools.computeVertexNormals(mesh, numberOfThreads);
+            if (optimizer != null) {
+                double acmr = optimizer.computeAcmr(mesh);
+                optimizer.optimize(mesh);
+                Log.i(Constants.LOGTAG, "Optimized vertex cache, cache miss ratio (ACMR) "
+                        + acmr + " -> " + optimizer.computeAcmr(mesh) + ".");
+            }
             Log.i(Constants.LOGTAG, "Successfully created triangle mesh with "
                     + mesh.getNumberOfVertices() + " vertices and "
                     + mesh.getNumberOfTriangles() + " triangles.");
         }
 
-//        for (ITriangleMesh mesh : meshes) {
-//            for (int i = 0; i < textureCoordinates.size(); i++) {
-//                mesh.addTextureCoordinate(textureCoordinates.get(i));
-//            }
-//        }
-
         if (meshes.size() == 0) {
             System.out.println("Could not find any meshes in OBJ file " + filename);
         }
+        if (cacheFile != null) {
+            BinaryMeshCache.write(cacheFile, data.limit(), lastModified, hash, meshes);
+        }
         return meshes;
     }
 
+    /**
+     * Split the content into line-aligned chunks and parse them, concurrently if there is more
+     * than one chunk.
+     */
+    private List<ObjChunk> parseChunks(final ByteBuffer data)
+            throws InterruptedException, ExecutionException {
+        final int length = data.limit();
+        final int numberOfChunks = Math.max(1, Math.min(numberOfThreads, length / MIN_CHUNK_SIZE));
+        List<ObjChunk> chunks = new ArrayList<ObjChunk>();
+        if (numberOfChunks == 1) {
+            ObjChunk chunk = new ObjChunk();
+            chunk.parse(data, 0, length);
+            chunks.add(chunk);
+            return chunks;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfChunks);
+        try {
+            List<Future<ObjChunk>> futures = new ArrayList<Future<ObjChunk>>();
+            for (int i = 0; i < numberOfChunks; i++) {
+                final int start = ObjParser.findNextLineStart(data,
+                        (int) ((long) i * length / numberOfChunks), length);
+                final int end = ObjParser.findNextLineStart(data,
+                        (int) ((long) (i + 1) * length / numberOfChunks), length);
+                futures.add(executor.submit(new Callable<ObjChunk>() {
+                    @Override
+                    public ObjChunk call() {
+                        ObjChunk chunk = new ObjChunk();
+                        chunk.parse(data.duplicate(), start, end);
+                        return chunk;
+                    }
+                }));
+            }
+            for (Future<ObjChunk> future : futures) {
+                chunks.add(future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return chunks;
+    }
+
+    /**
+     * Add the content of the chunk to the meshes, apply the statements in between.
+     */
+    private void addChunk(ObjChunk chunk) {
+        int vertexIndex = 0;
+        int texCoordIndex = 0;
+        int triangleIndex = 0;
+        for (int i = 0; i < chunk.numberOfStatements; i++) {
+            int numberOfVertices = chunk.statementCounts[3 * i];
+            int numberOfTextureCoordinates = chunk.statementCounts[3 * i + 1];
+            int numberOfTriangles = chunk.statementCounts[3 * i + 2];
+            addVertices(chunk, vertexIndex, numberOfVertices);
+            addTextureCoordinates(chunk, texCoordIndex, numberOfTextureCoordinates);
+            addTriangles(chunk, triangleIndex, numberOfTriangles);
+            vertexIndex = numberOfVertices;
+            texCoordIndex = numberOfTextureCoordinates;
+            triangleIndex = numberOfTriangles;
+
+            switch (chunk.statementTypes[i]) {
+                case ObjChunk.STATEMENT_NEW_OBJECT:
+                    // Neues (Teil-)Objekt
+                    vertexIndexOffset += currentMesh.getNumberOfVertices();
+                    texCoordOffset += currentMesh.getNumberOfTextureCoordinates();
+                    setCurrentMesh(createMesh());
+                    break;
+                case ObjChunk.STATEMENT_MATERIAL_LIBRARY:
+                    // Lesen der Materialdatei (Texturname)
+                    parseUseMaterial(trim(chunk.statementLines[i]));
+                    break;
+                case ObjChunk.STATEMENT_USE_MATERIAL:
+                    parseUseMtl(trim(chunk.statementLines[i]));
+                    break;
+            }
+        }
+        addVertices(chunk, vertexIndex, chunk.numberOfVertices);
+        addTextureCoordinates(chunk, texCoordIndex, chunk.numberOfTextureCoordinates);
+        addTriangles(chunk, triangleIndex, chunk.numberOfTriangles);
+    }
+
+    private void addVertices(ObjChunk chunk, int from, int to) {
+        float[] positions = chunk.positions;
+        if (currentPackedMesh != null) {
+            currentPackedMesh.ensureVertexCapacity(
+                    currentPackedMesh.getNumberOfVertices() + to - from);
+            for (int i = from; i < to; i++) {
+                currentPackedMesh.addVertex(positions[3 * i], positions[3 * i + 1],
+                        positions[3 * i + 2]);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                currentMesh.addVertex(new Vector(positions[3 * i], positions[3 * i + 1],
+                        positions[3 * i + 2]));
+            }
+        }
+    }
+
+    private void addTextureCoordinates(ObjChunk chunk, int from, int to) {
+        float[] textureCoordinates = chunk.textureCoordinates;
+        for (int i = from; i < to; i++) {
+            float u = textureCoordinates[2 * i];
+            float v = textureCoordinates[2 * i + 1];
+            if (currentPackedMesh != null) {
+                currentPackedMesh.addTextureCoordinate(u, 1 - v);
+            } else {
+                currentMesh.addTextureCoordinate(new Vector(u, 1 - v, 0));
+            }
+        }
+    }
+
+    private void addTriangles(ObjChunk chunk, int from, int to) {
+        Vector color = (currentMaterial != null) ? currentMaterial.getColor() : DEFAULT_COLOR;
+        int[] corners = chunk.corners;
+        if (currentPackedMesh != null) {
+            currentPackedMesh.ensureTriangleCapacity(
+                    currentPackedMesh.getNumberOfTriangles() + to - from);
+        }
+        for (int i = from; i < to; i++) {
+            int c = 6 * i;
+            int a = toVertexIndex(corners[c]);
+            int b = toVertexIndex(corners[c + 1]);
+            int d = toVertexIndex(corners[c + 2]);
+            int ta = toTexCoordIndex(corners[c + 3]);
+            int tb = toTexCoordIndex(corners[c + 4]);
+            int td = toTexCoordIndex(corners[c + 5]);
+            if (currentPackedMesh != null) {
+                currentPackedMesh.addTriangle(a, b, d, ta, tb, td);
+                if (color.getDimension() == 4) {
+                    currentPackedMesh.setTriangleColor(
+                            currentPackedMesh.getNumberOfTriangles() - 1,
+                            color.x(), color.y(), color.z(), color.w());
+                }
+            } else {
+                Triangle t = new Triangle(a, b, d, ta, tb, td);
+                t.setColor(color);
+                currentMesh.addTriangle(t);
+            }
+        }
+    }
+
+    /**
+     * OBJ vertex index (1-based, global) -> index in the current mesh.
+     */
+    private int toVertexIndex(int objIndex) {
+        return (objIndex == ObjVisitor.NO_INDEX) ? -1 : objIndex - 1 - vertexIndexOffset;
+    }
+
+    /**
+     * OBJ texture coordinate index (1-based, global) -> index in the current mesh.
+     */
+    private int toTexCoordIndex(int objIndex) {
+        return (objIndex == ObjVisitor.NO_INDEX) ? -1 : objIndex - 1 - texCoordOffset;
+    }
+
+    private ITriangleMesh createMesh() {
+        return createPackedMeshes ? new PackedTriangleMesh() : new TriangleMesh();
+    }
+
+    private void setCurrentMesh(ITriangleMesh mesh) {
+        currentMesh = mesh;
+        currentPackedMesh = (mesh instanceof PackedTriangleMesh) ? (PackedTriangleMesh) mesh : null;
+        meshes.add(mesh);
+    }
+
     /**
      * Get in input stream from a file.
      */
     private InputStream getInputStream(String filename) {
-        InputStream stream = AssetPath.getInstance().readTextFileToStream(filename);
+        InputStream stream = null;
+        if (readFromFileSystem) {
+            try {
+                stream = new FileInputStream(filename);
+            } catch (IOException e) {
+                stream = null;
+            }
+        } else {
+            stream = AssetPath.getInstance().readTextFileToStream(filename);
+        }
         if (stream == null) {
             Log.i(Constants.LOGTAG,
                     "Mesh file " + filename + " cannot be found.");
@@ -136,57 +494,44 @@ public class ObjReader {
     }
 
     /**
-     * Einlesen einer Zeile aus der OBJ-Datei.
+     * Read the complete stream into a buffer and close it.
      */
-    private void parseLine(String strLine) {
-        String line = trim(strLine);
-        String operator = getOperator(line);
-        if (operator.equals(OP_MAT_LIB)) {
-            // Lesen der Materialdatei (Texturname)
-            parseUseMaterial(line);
+    private static ByteBuffer readFully(InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            throw new IOException("No input stream.");
         }
-        if (operator.equals(OP_NEW_OBJECT)) {
-            // Neues (Teil-)Objekt
-            vertexIndexOffset += currentMesh.getNumberOfVertices();
-            texCoordOffset += currentMesh.getNumberOfTextureCoordinates();
-            currentMesh = new TriangleMesh();
-
-            meshes.add(currentMesh);
-        } else if (operator.equals(OP_USE_MTL)) {
-            String[] components = line.split("\\s+");
-            currentMaterial = null;
-            if (components.length > 1) {
-                String materalId = components[1];
-                // System.out.println("Assigned material: " + materalId);
-                Material mat = materials.get(materalId);
-                if (mat != null) {
-                    currentMaterial = mat;
-                    currentMesh.setTextureName(null);
-                    if (mat.getTextureFilename() != null
-                            && mat.getTextureFilename().length() > 0) {
-                        currentMesh.setTextureName(mat.getTextureFilename());
-                    }
+        try {
+            byte[] bytes = new byte[Math.max(inputStream.available(), 1 << 16)];
+            int length = 0;
+            int numberOfBytesRead;
+            while ((numberOfBytesRead = inputStream.read(bytes, length, bytes.length - length)) >= 0) {
+                length += numberOfBytesRead;
+                if (length == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, 2 * bytes.length);
                 }
             }
-        } else if (operator.equals(OP_VERTEX)) {
-            // Lesen eines Vertex
-            Vector position = parseVertex(line);
-            if (position != null) {
-                currentMesh.addVertex(position);
-            }
-        } else if (operator.equals(OP_FACET)) {
-            try {
-                // Lesen einer Facette (Dreieck)
-                parseFacet(line);
-            } catch (Exception e) {
-                System.out.println("Failed to parse facet.");
-            }
-        } else if (operator.equals(OP_TEXTURE_COORDINATE)) {
-            // Lesen einer Texturkoordinate
-            Vector t = parseTextureCoordinate(line);
-            if (t != null) {
-                currentMesh.addTextureCoordinate(t);
-                //textureCoordinates.add(t);
+            return ByteBuffer.wrap(bytes, 0, length);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Assign the material to the following facets.
+     */
+    private void parseUseMtl(String line) {
+        String[] components = line.split("\\s+");
+        currentMaterial = null;
+        if (components.length > 1) {
+            String materalId = components[1];
+            Material mat = materials.get(materalId);
+            if (mat != null) {
+                currentMaterial = mat;
+                currentMesh.setTextureName(null);
+                if (mat.getTextureFilename() != null
+                        && mat.getTextureFilename().length() > 0) {
+                    currentMesh.setTextureName(mat.getTextureFilename());
+                }
             }
         }
     }
@@ -205,7 +550,6 @@ public class ObjReader {
 
     private void parseMaterialFile(String materialFilename) {
         currentMaterial = null;
-        //System.out.println("Trying to read material file " + materialFilename);
         InputStream is = getInputStream(materialFilename);
         try {
             String strLine = "";
@@ -220,11 +564,6 @@ public class ObjReader {
                     "Error reading from the material file " + materialFilename + ".");
             return;
         }
-
-        // System.out.println("Materials:");
-        // for (Material mat : materials.values()) {
-        // System.out.println(" - " + mat);
-        // }
     }
 
     private void parseMaterialLine(String strLine) {
@@ -236,7 +575,6 @@ public class ObjReader {
                 String materialId = components[1];
                 currentMaterial = new Material(materialId);
                 materials.put(materialId, currentMaterial);
-                // System.out.println("Found material " + materialId);
             }
         } else if (operator.equals(OP_MAT_KD)) {
             String[] components = strLine.split("\\s+");
@@ -254,6 +592,8 @@ public class ObjReader {
                     textureFilename = textureFilename.trim();
                     if (textureFilename.length() != 0) {
                         currentMaterial.setTextureFilename(textureFilename);
+                        // Decode the texture while the rest of the file is parsed
+                        TextureManager.getInstance().preloadTexture(textureFilename);
                     }
                 }
             }
@@ -274,91 +614,6 @@ public class ObjReader {
         return line;
     }
 
-    /**
-     * Auslesen einer Zeile, die eine Texturkoordinate beinhaltet.
-     */
-    private Vector parseTextureCoordinate(String strLine) {
-        String line = trim(strLine);
-        String[] allCoords = line.split("\\s+");
-        float u = 0;
-        float v = 0;
-        if (allCoords.length >= 3) {
-            u = getFloatValue(allCoords[1]);
-            v = getFloatValue(allCoords[2]);
-            return new Vector(u, 1-v, 0);
-        }
-
-        return null;
-    }
-
-    /**
-     * String -> float.
-     */
-    private float getFloatValue(String string) {
-        if (string.length() == 0) {
-            return 0;
-        }
-        return Float.valueOf(string);
-    }
-
-    /**
-     * Lesen einer Zeile, die ein Dreieck repräsentiert (Indices der Eckpunkte,
-     * Indices der Texturkoordinaten).
-     */
-    private void parseFacet(String strLine) {
-        String[] allCoords = strLine.split("\\s+");
-        if (allCoords.length == 4) {
-            createTriangle(allCoords[1], allCoords[2], allCoords[3]);
-        } else if (allCoords.length == 5) {
-            createTriangle(allCoords[1], allCoords[2], allCoords[3]);
-            createTriangle(allCoords[1], allCoords[3], allCoords[4]);
-        }
-    }
-
-    private void createTriangle(String token1, String token2, String token3) {
-        Triangle t = new Triangle(getVertexIndexFromToken(token1),
-                getVertexIndexFromToken(token2), getVertexIndexFromToken(token3),
-                getTexCoordIndexFromToken(token1), getTexCoordIndexFromToken(token2),
-                getTexCoordIndexFromToken(token3));
-        t.setColor(DEFAULT_COLOR);
-        if (currentMaterial != null) {
-            t.setColor(currentMaterial.getColor());
-        }
-        currentMesh.addTriangle(t);
-    }
-
-    private int getVertexIndexFromToken(String token) {
-        String[] tokens = token.split("/");
-        if (tokens.length > 0 && tokens[0].length() > 0) {
-            return Integer.parseInt(tokens[0]) - 1 - vertexIndexOffset;
-        } else {
-            return -1;
-        }
-    }
-
-    private int getTexCoordIndexFromToken(String token) {
-        String[] tokens = token.split("/");
-        if (tokens.length > 1 && tokens[1].length() > 0) {
-            return Integer.parseInt(tokens[1]) - 1 - texCoordOffset;
-        } else {
-            return -1;
-        }
-    }
-
-    /**
-     * Lesen einer Zeile, die einen Vertex repräsentiert.
-     */
-    private Vector parseVertex(String strLine) {
-        String[] components = strLine.split("\\s+");
-        if (components.length >= 4) {
-            float x = Float.parseFloat(components[1]);
-            float y = Float.parseFloat(components[2]);
-            float z = Float.parseFloat(components[3]);
-            return new Vector(x, y, z);
-        }
-        return null;
-    }
-
     /**
      * Extract the operator char from a line.
      *
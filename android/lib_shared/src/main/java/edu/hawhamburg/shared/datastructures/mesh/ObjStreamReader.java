@@ -0,0 +1,110 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import edu.hawhamburg.shared.misc.AssetPath;
+import edu.hawhamburg.shared.misc.Constants;
+
+/**
+ * Streaming OBJ reader: the statements of the file are passed to an ObjVisitor while the file is
+ * read, nothing is stored. The file is read in blocks, so the memory consumption is constant (one
+ * block) independent of the file size, e.g. to compute the bounding box of a huge scan or to
+ * convert it into another format.
+ * <p>
+ * Uses the same parser as ObjReader (same syntax and number parsing). Material files are not
+ * read, the mtllib and usemtl statements are only passed to the visitor.
+ */
+public class ObjStreamReader {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    // Current block, lines which do not fit into the block are read into a larger buffer
+    private byte[] block = new byte[BLOCK_SIZE];
+
+    /**
+     * Read the OBJ file from the assets. Returns false if the file cannot be read.
+     */
+    public boolean read(String filename, ObjVisitor visitor) {
+        InputStream stream = AssetPath.getInstance().readTextFileToStream(filename);
+        if (stream == null) {
+            Log.i(Constants.LOGTAG, "Mesh file " + filename + " cannot be found.");
+            return false;
+        }
+        return read(stream, visitor);
+    }
+
+    /**
+     * Read the OBJ file from the file system. Returns false if the file cannot be read.
+     */
+    public boolean read(File file, ObjVisitor visitor) {
+        InputStream stream;
+        try {
+            stream = new FileInputStream(file);
+        } catch (IOException e) {
+            Log.i(Constants.LOGTAG, "Mesh file " + file + " cannot be found.");
+            return false;
+        }
+        return read(stream, visitor);
+    }
+
+    /**
+     * Read the OBJ content from the stream, the stream is closed afterwards. Returns false if the
+     * stream cannot be read or contains an invalid vertex or texture coordinate.
+     */
+    public boolean read(InputStream stream, ObjVisitor visitor) {
+        ObjParser parser = new ObjParser(visitor);
+        try {
+            try {
+                int length = 0;
+                while (true) {
+                    int numberOfBytesRead = stream.read(block, length, block.length - length);
+                    if (numberOfBytesRead < 0) {
+                        // last line (without line break)
+                        parser.parse(ByteBuffer.wrap(block), 0, length);
+                        return true;
+                    }
+                    length += numberOfBytesRead;
+
+                    // Parse all complete lines, keep the rest for the next block
+                    int lineStart = length;
+                    while (lineStart > 0 && block[lineStart - 1] != '\n'
+                            && block[lineStart - 1] != '\r') {
+                        lineStart--;
+                    }
+                    if (lineStart == 0 && length == block.length) {
+                        // Line longer than the block
+                        block = Arrays.copyOf(block, 2 * block.length);
+                        continue;
+                    }
+                    parser.parse(ByteBuffer.wrap(block), 0, lineStart);
+                    System.arraycopy(block, lineStart, block, 0, length - lineStart);
+                    length -= lineStart;
+                }
+            } finally {
+                stream.close();
+            }
+        } catch (IOException | NumberFormatException e) {
+            Log.i(Constants.LOGTAG, "Error reading from the OBJ file: " + e);
+            return false;
+        }
+    }
+}
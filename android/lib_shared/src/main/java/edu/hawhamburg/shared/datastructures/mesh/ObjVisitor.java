@@ -0,0 +1,57 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+/**
+ * Callbacks for the statements of an OBJ file, see ObjStreamReader. The methods are called in
+ * file order. Extend ObjVisitorAdapter to implement only some of them.
+ */
+public interface ObjVisitor {
+
+    /**
+     * Index value for a missing index in a face (e.g. no texture coordinate).
+     */
+    public static final int NO_INDEX = 0;
+
+    /**
+     * Vertex position (v).
+     */
+    public void onVertex(float x, float y, float z);
+
+    /**
+     * Texture coordinate (vt) as given in the file (ObjReader uses 1 - v).
+     */
+    public void onTexCoord(float u, float v);
+
+    /**
+     * Triangle (f), quads are split into two triangles (0, 1, 2) and (0, 2, 3). The indices are
+     * given as in the file (1-based, counted over all objects) or NO_INDEX. The arrays (length 3)
+     * are reused, they are only valid during the call.
+     */
+    public void onFace(int[] vertexIndices, int[] texCoordIndices);
+
+    /**
+     * Start of a new object (o).
+     */
+    public void onObject(String name);
+
+    /**
+     * Material library (mtllib), usually one filename relative to the OBJ file.
+     */
+    public void onMaterialLibrary(String filename);
+
+    /**
+     * Material for the following faces (usemtl).
+     */
+    public void onMaterial(String materialName);
+}
@@ -0,0 +1,43 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+/**
+ * ObjVisitor which ignores all statements.
+ */
+public class ObjVisitorAdapter implements ObjVisitor {
+
+    @Override
+    public void onVertex(float x, float y, float z) {
+    }
+
+    @Override
+    public void onTexCoord(float u, float v) {
+    }
+
+    @Override
+    public void onFace(int[] vertexIndices, int[] texCoordIndices) {
+    }
+
+    @Override
+    public void onObject(String name) {
+    }
+
+    @Override
+    public void onMaterialLibrary(String filename) {
+    }
+
+    @Override
+    public void onMaterial(String materialName) {
+    }
+}
@@ -0,0 +1,812 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.hawhamburg.shared.math.AxisAlignedBoundingBox;
+import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Vec3;
+import edu.hawhamburg.shared.math.Vec4;
+import edu.hawhamburg.shared.math.Vector;
+import edu.hawhamburg.shared.misc.Constants;
+import edu.hawhamburg.shared.rendering.Texture;
+import edu.hawhamburg.shared.rendering.TextureManager;
+
+/**
+ * Indexed triangle mesh in structure-of-arrays layout: all vertex and triangle attributes are
+ * stored in primitive arrays instead of one object per vertex/triangle.
+ * <p>
+ * The ITriangleMesh methods which return a Vertex, AbstractTriangle or Vector create a copy of
+ * the data, changes to these objects are not written back. Use the index based accessors (e.g.
+ * getPosition()/setPosition()) or the backing arrays (e.g. getPositions()) instead, they do not
+ * allocate.
+ * <p>
+ * Colors are stored per triangle (the vertex colors of TriangleMesh are not used for rendering).
+ * <p>
+ * Instances created with createInstance() share the arrays (copy-on-write): an array is only
+ * copied when one of the meshes changes it, so the backing arrays returned by the getters (e.g.
+ * getPositions()) must only be read. Use the edit methods (e.g. editPositions()) to change them.
+ */
+public class PackedTriangleMesh implements ITriangleMesh {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final float[] DEFAULT_COLOR = {0.5f, 0.5f, 0.5f, 1};
+
+    /**
+     * Groups of arrays which are copied together when a shared group is changed.
+     */
+    private static final int POSITIONS = 1;
+    private static final int NORMALS = 2;
+    private static final int TEXTURE_COORDINATES = 4;
+    private static final int TRIANGLE_INDICES = 8;
+    private static final int TRIANGLE_NORMALS = 16;
+    private static final int TRIANGLE_COLORS = 32;
+    private static final int ALL_ARRAYS = 63;
+
+    /**
+     * Vertex positions and normals (x, y, z).
+     */
+    private float[] positions = new float[3 * INITIAL_CAPACITY];
+    private float[] normals = new float[3 * INITIAL_CAPACITY];
+    private int numberOfVertices = 0;
+
+    /**
+     * Texture coordinates (u, v).
+     */
+    private float[] textureCoordinates = new float[2 * INITIAL_CAPACITY];
+    private int numberOfTextureCoordinates = 0;
+
+    /**
+     * Triangle vertex indices and texture coordinate indices (-1 if not set), three per
+     * triangle, normals (x, y, z) and colors (r, g, b, a).
+     */
+    private int[] vertexIndices = new int[3 * INITIAL_CAPACITY];
+    private int[] texCoordIndices = new int[3 * INITIAL_CAPACITY];
+    private float[] triangleNormals = new float[3 * INITIAL_CAPACITY];
+    private float[] triangleColors = new float[4 * INITIAL_CAPACITY];
+    private int numberOfTriangles = 0;
+
+    /**
+     * Array groups (see POSITIONS, ...) which may be shared with other instances.
+     */
+    private int sharedArrays = 0;
+
+    /**
+     * Texture object, leave null if no texture is used.
+     */
+    private String textureName = null;
+
+    /**
+     * Edges shared by two triangles, created on first use, null after the triangles changed.
+     */
+    private EdgeAdjacency edgeAdjacency = null;
+
+    /**
+     * Buffers of the silhouette computation: side of each triangle plane the position is on
+     * (1, -1 or 0) and the silhouette edges (two vertex indices per edge).
+     */
+    private byte[] faceSigns = new byte[0];
+    private int[] silhouette = new int[0];
+
+    public PackedTriangleMesh() {
+    }
+
+    public PackedTriangleMesh(String textureName) {
+        this.textureName = textureName;
+    }
+
+    /**
+     * Create a packed copy of the mesh.
+     */
+    public PackedTriangleMesh(ITriangleMesh mesh) {
+        ensureVertexCapacity(mesh.getNumberOfVertices());
+        ensureTriangleCapacity(mesh.getNumberOfTriangles());
+        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
+            Vertex vertex = mesh.getVertex(i);
+            int index = addVertex(vertex.getPosition());
+            setNormal(index, vertex.getNormal().x(), vertex.getNormal().y(),
+                    vertex.getNormal().z());
+        }
+        for (int i = 0; i < mesh.getNumberOfTextureCoordinates(); i++) {
+            addTextureCoordinate(mesh.getTextureCoordinate(i));
+        }
+        for (int i = 0; i < mesh.getNumberOfTriangles(); i++) {
+            addTriangle(mesh.getTriangle(i));
+        }
+        textureName = mesh.getTextureName();
+    }
+
+    /**
+     * Create an instance which shares all arrays with this mesh, e.g. to place a mesh several
+     * times with different colors. The arrays are copied on the first change (per group of
+     * arrays: positions, normals, texture coordinates, triangle indices, triangle normals and
+     * triangle colors), so each mesh only owns the attributes it changed. The texture name is
+     * copied.
+     */
+    public PackedTriangleMesh createInstance() {
+        PackedTriangleMesh instance = new PackedTriangleMesh(textureName);
+        instance.positions = positions;
+        instance.normals = normals;
+        instance.numberOfVertices = numberOfVertices;
+        instance.textureCoordinates = textureCoordinates;
+        instance.numberOfTextureCoordinates = numberOfTextureCoordinates;
+        instance.vertexIndices = vertexIndices;
+        instance.texCoordIndices = texCoordIndices;
+        instance.triangleNormals = triangleNormals;
+        instance.triangleColors = triangleColors;
+        instance.numberOfTriangles = numberOfTriangles;
+        instance.edgeAdjacency = edgeAdjacency;
+        instance.sharedArrays = ALL_ARRAYS;
+        sharedArrays = ALL_ARRAYS;
+        return instance;
+    }
+
+    /**
+     * Returns true if the array groups of the mesh are (possibly) shared with another instance,
+     * false if all arrays are owned by this mesh.
+     */
+    public boolean isShared() {
+        return sharedArrays != 0;
+    }
+
+    /**
+     * Copy the shared arrays of the groups (same capacity), so they can be changed.
+     */
+    private void own(int arrays) {
+        int copy = sharedArrays & arrays;
+        if (copy == 0) {
+            return;
+        }
+        if ((copy & POSITIONS) != 0) {
+            positions = Arrays.copyOf(positions, positions.length);
+        }
+        if ((copy & NORMALS) != 0) {
+            normals = Arrays.copyOf(normals, normals.length);
+        }
+        if ((copy & TEXTURE_COORDINATES) != 0) {
+            textureCoordinates = Arrays.copyOf(textureCoordinates, textureCoordinates.length);
+        }
+        if ((copy & TRIANGLE_INDICES) != 0) {
+            vertexIndices = Arrays.copyOf(vertexIndices, vertexIndices.length);
+            texCoordIndices = Arrays.copyOf(texCoordIndices, texCoordIndices.length);
+        }
+        if ((copy & TRIANGLE_NORMALS) != 0) {
+            triangleNormals = Arrays.copyOf(triangleNormals, triangleNormals.length);
+        }
+        if ((copy & TRIANGLE_COLORS) != 0) {
+            triangleColors = Arrays.copyOf(triangleColors, triangleColors.length);
+        }
+        sharedArrays &= ~copy;
+    }
+
+    @Override
+    public void clear() {
+        numberOfVertices = 0;
+        numberOfTextureCoordinates = 0;
+        numberOfTriangles = 0;
+        edgeAdjacency = null;
+    }
+
+    /**
+     * Make sure that numberOfVertices vertices can be stored without reallocation.
+     */
+    public void ensureVertexCapacity(int numberOfVertices) {
+        if (positions.length < 3 * numberOfVertices) {
+            int capacity = Math.max(numberOfVertices, positions.length / 3 * 2);
+            positions = Arrays.copyOf(positions, 3 * capacity);
+            normals = Arrays.copyOf(normals, 3 * capacity);
+            sharedArrays &= ~(POSITIONS | NORMALS);
+        }
+    }
+
+    /**
+     * Make sure that numberOfTextureCoordinates texture coordinates can be stored without
+     * reallocation.
+     */
+    public void ensureTextureCoordinateCapacity(int numberOfTextureCoordinates) {
+        if (textureCoordinates.length < 2 * numberOfTextureCoordinates) {
+            int capacity = Math.max(numberOfTextureCoordinates, textureCoordinates.length);
+            textureCoordinates = Arrays.copyOf(textureCoordinates, 2 * capacity);
+            sharedArrays &= ~TEXTURE_COORDINATES;
+        }
+    }
+
+    /**
+     * Make sure that numberOfTriangles triangles can be stored without reallocation.
+     */
+    public void ensureTriangleCapacity(int numberOfTriangles) {
+        if (vertexIndices.length < 3 * numberOfTriangles) {
+            int capacity = Math.max(numberOfTriangles, vertexIndices.length / 3 * 2);
+            vertexIndices = Arrays.copyOf(vertexIndices, 3 * capacity);
+            texCoordIndices = Arrays.copyOf(texCoordIndices, 3 * capacity);
+            triangleNormals = Arrays.copyOf(triangleNormals, 3 * capacity);
+            triangleColors = Arrays.copyOf(triangleColors, 4 * capacity);
+            sharedArrays &= ~(TRIANGLE_INDICES | TRIANGLE_NORMALS | TRIANGLE_COLORS);
+        }
+    }
+
+    /**
+     * Set the number of vertices, texture coordinates and triangles after the backing arrays
+     * have been filled directly (e.g. from BinaryMeshCache). The capacity must be ensured before.
+     */
+    void setSize(int numberOfVertices, int numberOfTextureCoordinates, int numberOfTriangles) {
+        this.numberOfVertices = numberOfVertices;
+        this.numberOfTextureCoordinates = numberOfTextureCoordinates;
+        this.numberOfTriangles = numberOfTriangles;
+        edgeAdjacency = null;
+    }
+
+    /**
+     * Call after the triangle vertex indices were changed in the backing array (see
+     * editTriangleVertexIndices()), so the cached adjacency is recomputed.
+     */
+    public void trianglesChanged() {
+        edgeAdjacency = null;
+    }
+
+    @Override
+    public int addVertex(Vector position) {
+        return addVertex(position.x(), position.y(), position.z());
+    }
+
+    public int addVertex(double x, double y, double z) {
+        ensureVertexCapacity(numberOfVertices + 1);
+        own(POSITIONS | NORMALS);
+        int index = numberOfVertices++;
+        setPosition(index, x, y, z);
+        setNormal(index, 0, 1, 0);
+        return index;
+    }
+
+    /**
+     * Returns a copy of the vertex, see class comment.
+     */
+    @Override
+    public Vertex getVertex(int index) {
+        checkVertexIndex(index);
+        Vertex vertex = new Vertex(new Vector(positions[3 * index], positions[3 * index + 1],
+                positions[3 * index + 2]));
+        vertex.getNormal().set(normals[3 * index], normals[3 * index + 1],
+                normals[3 * index + 2]);
+        return vertex;
+    }
+
+    /**
+     * Returns a copy of the vertex, see class comment.
+     */
+    @Override
+    public Vertex getVertex(AbstractTriangle triangle, int index) {
+        if (!(triangle instanceof Triangle)) {
+            return null;
+        }
+        return getVertex(((Triangle) triangle).getVertexIndex(index));
+    }
+
+    @Override
+    public int getNumberOfVertices() {
+        return numberOfVertices;
+    }
+
+    public Vec3 getPosition(int vertexIndex, Vec3 out) {
+        checkVertexIndex(vertexIndex);
+        return out.set(positions[3 * vertexIndex], positions[3 * vertexIndex + 1],
+                positions[3 * vertexIndex + 2]);
+    }
+
+    public void setPosition(int vertexIndex, double x, double y, double z) {
+        checkVertexIndex(vertexIndex);
+        own(POSITIONS);
+        positions[3 * vertexIndex] = (float) x;
+        positions[3 * vertexIndex + 1] = (float) y;
+        positions[3 * vertexIndex + 2] = (float) z;
+    }
+
+    public Vec3 getNormal(int vertexIndex, Vec3 out) {
+        checkVertexIndex(vertexIndex);
+        return out.set(normals[3 * vertexIndex], normals[3 * vertexIndex + 1],
+                normals[3 * vertexIndex + 2]);
+    }
+
+    public void setNormal(int vertexIndex, double x, double y, double z) {
+        checkVertexIndex(vertexIndex);
+        own(NORMALS);
+        normals[3 * vertexIndex] = (float) x;
+        normals[3 * vertexIndex + 1] = (float) y;
+        normals[3 * vertexIndex + 2] = (float) z;
+    }
+
+    @Override
+    public void addTriangle(int vertexIndex1, int vertexIndex2, int vertexIndex3) {
+        addTriangle(vertexIndex1, vertexIndex2, vertexIndex3, -1, -1, -1);
+    }
+
+    /**
+     * Copies indices, normal and color of the triangle (must be a Triangle).
+     */
+    @Override
+    public void addTriangle(AbstractTriangle t) {
+        if (!(t instanceof Triangle)) {
+            throw new IllegalArgumentException("Can only add Triangle objects.");
+        }
+        Triangle triangle = (Triangle) t;
+        addTriangle(triangle.getVertexIndex(0), triangle.getVertexIndex(1),
+                triangle.getVertexIndex(2), triangle.getTexCoordIndex(0),
+                triangle.getTexCoordIndex(1), triangle.getTexCoordIndex(2));
+        int index = numberOfTriangles - 1;
+        Vector normal = triangle.getNormal();
+        setTriangleNormal(index, normal.x(), normal.y(), normal.z());
+        Vector color = triangle.getColor();
+        if (color.getDimension() == 4) {
+            setTriangleColor(index, color.x(), color.y(), color.z(), color.w());
+        }
+    }
+
+    @Override
+    public void addTriangle(int vertexIndex1, int vertexIndex2, int vertexIndex3,
+                            int texCoordIndex1, int texCoordIndex2, int texCoordIndex3) {
+        ensureTriangleCapacity(numberOfTriangles + 1);
+        own(TRIANGLE_INDICES | TRIANGLE_NORMALS | TRIANGLE_COLORS);
+        int index = numberOfTriangles++;
+        vertexIndices[3 * index] = vertexIndex1;
+        vertexIndices[3 * index + 1] = vertexIndex2;
+        vertexIndices[3 * index + 2] = vertexIndex3;
+        texCoordIndices[3 * index] = texCoordIndex1;
+        texCoordIndices[3 * index + 1] = texCoordIndex2;
+        texCoordIndices[3 * index + 2] = texCoordIndex3;
+        setTriangleNormal(index, 1, 0, 0);
+        edgeAdjacency = null;
+        System.arraycopy(DEFAULT_COLOR, 0, triangleColors, 4 * index, 4);
+    }
+
+    @Override
+    public int getNumberOfTriangles() {
+        return numberOfTriangles;
+    }
+
+    /**
+     * Returns a copy of the triangle, see class comment.
+     */
+    @Override
+    public Triangle getTriangle(int triangleIndex) {
+        checkTriangleIndex(triangleIndex);
+        int i = 3 * triangleIndex;
+        Triangle triangle = new Triangle(vertexIndices[i], vertexIndices[i + 1],
+                vertexIndices[i + 2], texCoordIndices[i], texCoordIndices[i + 1],
+                texCoordIndices[i + 2], new Vector(triangleNormals[i], triangleNormals[i + 1],
+                triangleNormals[i + 2]));
+        int c = 4 * triangleIndex;
+        triangle.setColor(new Vector(triangleColors[c], triangleColors[c + 1],
+                triangleColors[c + 2], triangleColors[c + 3]));
+        return triangle;
+    }
+
+    /**
+     * Vertex index of a triangle corner, corner must be in 0, 1, 2.
+     */
+    public int getTriangleVertexIndex(int triangleIndex, int corner) {
+        checkTriangleIndex(triangleIndex);
+        return vertexIndices[3 * triangleIndex + corner];
+    }
+
+    /**
+     * Texture coordinate index of a triangle corner (-1 if not set), corner must be in 0, 1, 2.
+     */
+    public int getTriangleTexCoordIndex(int triangleIndex, int corner) {
+        checkTriangleIndex(triangleIndex);
+        return texCoordIndices[3 * triangleIndex + corner];
+    }
+
+    public Vec3 getTriangleNormal(int triangleIndex, Vec3 out) {
+        checkTriangleIndex(triangleIndex);
+        int i = 3 * triangleIndex;
+        return out.set(triangleNormals[i], triangleNormals[i + 1], triangleNormals[i + 2]);
+    }
+
+    public void setTriangleNormal(int triangleIndex, double x, double y, double z) {
+        checkTriangleIndex(triangleIndex);
+        own(TRIANGLE_NORMALS);
+        int i = 3 * triangleIndex;
+        triangleNormals[i] = (float) x;
+        triangleNormals[i + 1] = (float) y;
+        triangleNormals[i + 2] = (float) z;
+    }
+
+    /**
+     * Color in RGBA format.
+     */
+    public Vec4 getTriangleColor(int triangleIndex, Vec4 out) {
+        checkTriangleIndex(triangleIndex);
+        int i = 4 * triangleIndex;
+        return out.set(triangleColors[i], triangleColors[i + 1], triangleColors[i + 2],
+                triangleColors[i + 3]);
+    }
+
+    public void setTriangleColor(int triangleIndex, double r, double g, double b, double a) {
+        checkTriangleIndex(triangleIndex);
+        own(TRIANGLE_COLORS);
+        int i = 4 * triangleIndex;
+        triangleColors[i] = (float) r;
+        triangleColors[i + 1] = (float) g;
+        triangleColors[i + 2] = (float) b;
+        triangleColors[i + 3] = (float) a;
+    }
+
+    /**
+     * Backing array of the vertex positions (x, y, z), valid for the first
+     * 3 * getNumberOfVertices() entries. The array is replaced if vertices are added beyond the
+     * capacity. It may be shared with other instances, use editPositions() to change it.
+     */
+    public float[] getPositions() {
+        return positions;
+    }
+
+    /**
+     * Backing array of the vertex normals, same layout as getPositions().
+     */
+    public float[] getNormals() {
+        return normals;
+    }
+
+    /**
+     * Backing array of the texture coordinates (u, v), valid for the first
+     * 2 * getNumberOfTextureCoordinates() entries.
+     */
+    public float[] getTextureCoordinates() {
+        return textureCoordinates;
+    }
+
+    /**
+     * Backing array of the triangle vertex indices, three per triangle, valid for the first
+     * 3 * getNumberOfTriangles() entries, see editTriangleVertexIndices().
+     */
+    public int[] getTriangleVertexIndices() {
+        return vertexIndices;
+    }
+
+    /**
+     * Backing array of the triangle texture coordinate indices, same layout as
+     * getTriangleVertexIndices().
+     */
+    public int[] getTriangleTexCoordIndices() {
+        return texCoordIndices;
+    }
+
+    /**
+     * Backing array of the triangle normals (x, y, z), valid for the first
+     * 3 * getNumberOfTriangles() entries.
+     */
+    public float[] getTriangleNormals() {
+        return triangleNormals;
+    }
+
+    /**
+     * Backing array of the triangle colors (r, g, b, a), valid for the first
+     * 4 * getNumberOfTriangles() entries.
+     */
+    public float[] getTriangleColors() {
+        return triangleColors;
+    }
+
+    /**
+     * Same as getPositions(), but the array is copied first if it is shared with another
+     * instance, so it can be changed.
+     */
+    public float[] editPositions() {
+        own(POSITIONS);
+        return positions;
+    }
+
+    /**
+     * Same as getNormals(), see editPositions().
+     */
+    public float[] editNormals() {
+        own(NORMALS);
+        return normals;
+    }
+
+    /**
+     * Same as getTextureCoordinates(), see editPositions().
+     */
+    public float[] editTextureCoordinates() {
+        own(TEXTURE_COORDINATES);
+        return textureCoordinates;
+    }
+
+    /**
+     * Same as getTriangleVertexIndices(), see editPositions(). Call trianglesChanged() after
+     * changing it.
+     */
+    public int[] editTriangleVertexIndices() {
+        own(TRIANGLE_INDICES);
+        return vertexIndices;
+    }
+
+    /**
+     * Same as getTriangleTexCoordIndices(), see editPositions().
+     */
+    public int[] editTriangleTexCoordIndices() {
+        own(TRIANGLE_INDICES);
+        return texCoordIndices;
+    }
+
+    /**
+     * Same as getTriangleNormals(), see editPositions().
+     */
+    public float[] editTriangleNormals() {
+        own(TRIANGLE_NORMALS);
+        return triangleNormals;
+    }
+
+    /**
+     * Same as getTriangleColors(), see editPositions().
+     */
+    public float[] editTriangleColors() {
+        own(TRIANGLE_COLORS);
+        return triangleColors;
+    }
+
+    @Override
+    public void computeTriangleNormals() {
+        own(TRIANGLE_NORMALS);
+        for (int triangleIndex = 0; triangleIndex < numberOfTriangles; triangleIndex++) {
+            int a = 3 * vertexIndices[3 * triangleIndex];
+            int b = 3 * vertexIndices[3 * triangleIndex + 1];
+            int c = 3 * vertexIndices[3 * triangleIndex + 2];
+            float abX = positions[b] - positions[a];
+            float abY = positions[b + 1] - positions[a + 1];
+            float abZ = positions[b + 2] - positions[a + 2];
+            float acX = positions[c] - positions[a];
+            float acY = positions[c + 1] - positions[a + 1];
+            float acZ = positions[c + 2] - positions[a + 2];
+            float nX = abY * acZ - abZ * acY;
+            float nY = abZ * acX - abX * acZ;
+            float nZ = abX * acY - abY * acX;
+            float norm = (float) Math.sqrt(nX * nX + nY * nY + nZ * nZ);
+            if (norm > 1e-5) {
+                nX /= norm;
+                nY /= norm;
+                nZ /= norm;
+            }
+            int n = 3 * triangleIndex;
+            triangleNormals[n] = nX;
+            triangleNormals[n + 1] = nY;
+            triangleNormals[n + 2] = nZ;
+        }
+    }
+
+    @Override
+    public void computeVertexNormals() {
+        TriangleMeshTools.computeVertexNormals(this, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns a copy of the texture coordinate.
+     */
+    @Override
+    public Vector getTextureCoordinate(int index) {
+        if (index < 0 || index >= numberOfTextureCoordinates) {
+            throw new IndexOutOfBoundsException("Invalid texture coordinate index " + index);
+        }
+        return new Vector(textureCoordinates[2 * index], textureCoordinates[2 * index + 1]);
+    }
+
+    @Override
+    public void addTextureCoordinate(Vector t) {
+        addTextureCoordinate(t.x(), t.y());
+    }
+
+    public int addTextureCoordinate(double u, double v) {
+        if (textureCoordinates.length < 2 * (numberOfTextureCoordinates + 1)) {
+            textureCoordinates = Arrays.copyOf(textureCoordinates, 2 * textureCoordinates.length);
+            sharedArrays &= ~TEXTURE_COORDINATES;
+        }
+        own(TEXTURE_COORDINATES);
+        int index = numberOfTextureCoordinates++;
+        textureCoordinates[2 * index] = (float) u;
+        textureCoordinates[2 * index + 1] = (float) v;
+        return index;
+    }
+
+    @Override
+    public int getNumberOfTextureCoordinates() {
+        return numberOfTextureCoordinates;
+    }
+
+    @Override
+    public Texture getTexture() {
+        return TextureManager.getInstance().getTexture(textureName);
+    }
+
+    @Override
+    public boolean hasTexture() {
+        return textureName != null;
+    }
+
+    @Override
+    public String getTextureName() {
+        return textureName;
+    }
+
+    @Override
+    public void setTextureName(String textureFilename) {
+        this.textureName = textureFilename;
+    }
+
+    @Override
+    public void createShadowPolygons(Vector lightPosition, float extend,
+                                     ITriangleMesh shadowPolygonMesh) {
+        shadowPolygonMesh.clear();
+        Vector color = new Vector(0.25, 0.025, 0.75, 0.5);
+        Vec3 light = new Vec3(lightPosition);
+        Vec3 v0 = new Vec3();
+        Vec3 v1 = new Vec3();
+        Vec3 dv = new Vec3();
+        int numberOfSilhouetteEdges = computeSilhouette(lightPosition, 1);
+        for (int i = 0; i < numberOfSilhouetteEdges; i++) {
+            getPosition(silhouette[2 * i], v0);
+            getPosition(silhouette[2 * i + 1], v1);
+            int v0Index = shadowPolygonMesh.addVertex(v0.toVector());
+            int v1Index = shadowPolygonMesh.addVertex(v1.toVector());
+            Vec3.subtract(v0, light, dv).normalize();
+            int v0DashIndex = shadowPolygonMesh.addVertex(
+                    Vec3.addScaled(dv, extend, v0).toVector());
+            Vec3.subtract(v1, light, dv).normalize();
+            int v1DashIndex = shadowPolygonMesh.addVertex(
+                    Vec3.addScaled(dv, extend, v1).toVector());
+            Triangle t1 = new Triangle(v0Index, v0DashIndex, v1DashIndex);
+            t1.setColor(color);
+            Triangle t2 = new Triangle(v0Index, v1DashIndex, v1Index);
+            t2.setColor(color);
+            shadowPolygonMesh.addTriangle(t1);
+            shadowPolygonMesh.addTriangle(t2);
+        }
+        shadowPolygonMesh.computeTriangleNormals();
+    }
+
+    /**
+     * Compute the silhouette (list of edges) for a given position, see TriangleMesh.
+     */
+    public List<Edge> getSilhouette(Vector position) {
+        int numberOfSilhouetteEdges = computeSilhouette(position, 1);
+        List<Edge> silhouetteEdges = new ArrayList<Edge>(numberOfSilhouetteEdges);
+        for (int i = 0; i < numberOfSilhouetteEdges; i++) {
+            silhouetteEdges.add(new Edge(silhouette[2 * i], silhouette[2 * i + 1]));
+        }
+        return silhouetteEdges;
+    }
+
+    @Override
+    public int computeSilhouette(Vector position, int numberOfThreads) {
+        EdgeAdjacency edgeAdjacency = getEdgeAdjacency();
+        if (faceSigns.length < numberOfTriangles) {
+            faceSigns = new byte[numberOfTriangles];
+        }
+        if (silhouette.length < 2 * edgeAdjacency.getNumberOfEdges()) {
+            silhouette = new int[2 * edgeAdjacency.getNumberOfEdges()];
+        }
+        final float px = (float) position.x();
+        final float py = (float) position.y();
+        final float pz = (float) position.z();
+        int numberOfRanges = ParallelRanges.getNumberOfRanges(numberOfTriangles,
+                TriangleMeshTools.MIN_TRIANGLES_PER_THREAD, numberOfThreads);
+        if (numberOfRanges == 1) {
+            computeFaceSigns(0, numberOfTriangles, px, py, pz);
+        } else {
+            ParallelRanges.run(numberOfTriangles, numberOfRanges, new ParallelRanges.RangeTask() {
+                @Override
+                public void run(int range, int start, int end) {
+                    computeFaceSigns(start, end, px, py, pz);
+                }
+            });
+        }
+        return edgeAdjacency.computeSilhouette(faceSigns, silhouette, numberOfThreads);
+    }
+
+    private void computeFaceSigns(int start, int end, float px, float py, float pz) {
+        for (int i = start; i < end; i++) {
+            faceSigns[i] = (byte) Math.signum(getSignedDistance(i, px, py, pz));
+        }
+    }
+
+    @Override
+    public int[] getSilhouetteVertexIndices() {
+        return silhouette;
+    }
+
+    /**
+     * Edges shared by two triangles of the mesh, computed on first use.
+     */
+    public EdgeAdjacency getEdgeAdjacency() {
+        if (edgeAdjacency == null) {
+            edgeAdjacency = new EdgeAdjacency(vertexIndices, numberOfTriangles);
+        }
+        return edgeAdjacency;
+    }
+
+    /**
+     * Distance of the point to the triangle plane (scaled by the norm of the normal).
+     */
+    private double getSignedDistance(int triangleIndex, float px, float py, float pz) {
+        int n = 3 * triangleIndex;
+        int v = 3 * vertexIndices[n];
+        return triangleNormals[n] * (px - positions[v])
+                + triangleNormals[n + 1] * (py - positions[v + 1])
+                + triangleNormals[n + 2] * (pz - positions[v + 2]);
+    }
+
+    /**
+     * Apply the transformation to all vertex positions. Normals are not updated.
+     */
+    public void transformPositions(Matrix transformation) {
+        own(POSITIONS);
+        transformation.transformPoints(positions, positions, numberOfVertices);
+    }
+
+    @Override
+    public AxisAlignedBoundingBox getBoundingBox() {
+        if (numberOfVertices == 0) {
+            return new AxisAlignedBoundingBox();
+        }
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY,
+                minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY,
+                maxZ = Float.NEGATIVE_INFINITY;
+        for (int i = 0, n = 3 * numberOfVertices; i < n; i += 3) {
+            minX = Math.min(minX, positions[i]);
+            minY = Math.min(minY, positions[i + 1]);
+            minZ = Math.min(minZ, positions[i + 2]);
+            maxX = Math.max(maxX, positions[i]);
+            maxY = Math.max(maxY, positions[i + 1]);
+            maxZ = Math.max(maxZ, positions[i + 2]);
+        }
+        return new AxisAlignedBoundingBox(new Vector(minX, minY, minZ),
+                new Vector(maxX, maxY, maxZ));
+    }
+
+    @Override
+    public void setColor(Vector color) {
+        if (color.getDimension() != 4) {
+            Log.i(Constants.LOGTAG, "Color must be in RGBA format.");
+            return;
+        }
+        for (int i = 0; i < numberOfTriangles; i++) {
+            setTriangleColor(i, color.x(), color.y(), color.z(), color.w());
+        }
+    }
+
+    @Override
+    public void setTransparency(double alpha) {
+        own(TRIANGLE_COLORS);
+        for (int i = 0; i < numberOfTriangles; i++) {
+            triangleColors[4 * i + 3] = (float) alpha;
+        }
+    }
+
+    private void checkVertexIndex(int index) {
+        if (index < 0 || index >= numberOfVertices) {
+            throw new IndexOutOfBoundsException("Invalid vertex index " + index);
+        }
+    }
+
+    private void checkTriangleIndex(int index) {
+        if (index < 0 || index >= numberOfTriangles) {
+            throw new IndexOutOfBoundsException("Invalid triangle index " + index);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a computation on the index range 0 ... n - 1 split into consecutive ranges, one thread per
+ * range.
+ */
+class ParallelRanges {
+
+    /**
+     * Part of a computation on the index range start ... end - 1. range is the number of the
+     * range (0 ... number of ranges - 1).
+     */
+    interface RangeTask {
+        public void run(int range, int start, int end);
+    }
+
+    private ParallelRanges() {
+    }
+
+    /**
+     * Number of ranges used for n indices: at most numberOfThreads, each with at least
+     * minRangeSize indices (at least one range).
+     */
+    static int getNumberOfRanges(int n, int minRangeSize, int numberOfThreads) {
+        return Math.max(1, Math.min(numberOfThreads, n / minRangeSize));
+    }
+
+    /**
+     * Run the task on numberOfRanges ranges of the indices 0 ... n - 1, concurrently if there is
+     * more than one range. Returns when all ranges are done.
+     */
+    static void run(int n, int numberOfRanges, final RangeTask task) {
+        if (numberOfRanges == 1) {
+            task.run(0, 0, n);
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfRanges);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < numberOfRanges; i++) {
+                final int range = i;
+                final int start = (int) ((long) i * n / numberOfRanges);
+                final int end = (int) ((long) (i + 1) * n / numberOfRanges);
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        task.run(range, start, end);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            throw new IllegalStateException("Interrupted while waiting for the threads.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Computation failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import edu.hawhamburg.shared.math.Vec3;
+import edu.hawhamburg.shared.math.Vector;
+
+/**
+ * Shadow volume of a mesh for a point light: the silhouette edges extruded away from the light,
+ * two triangles per edge, stored in packed render arrays (three vertices per triangle; same
+ * geometry as ITriangleMesh.createShadowPolygons()). The volume is only recomputed if the light
+ * position in the coordinate system of the mesh changed since the last update, so both stencil
+ * passes of a frame and frames with static mesh and light use the same arrays.
+ */
+public class ShadowVolume {
+
+    /**
+     * Color of the shadow polygons (visible in the debug rendering).
+     */
+    private static final float[] COLOR = {0.25f, 0.025f, 0.75f, 0.5f};
+
+    /**
+     * Length of the extrusion.
+     */
+    private final float extend;
+
+    /**
+     * Render arrays (positions and normals: xyz, colors: rgba, texture coordinates: uv), only
+     * enlarged.
+     */
+    private float[] positions = new float[0];
+    private float[] normals = new float[0];
+    private float[] colors = new float[0];
+    private float[] texCoords = new float[0];
+    private int numberOfVertices = 0;
+
+    /**
+     * Light position of the current volume, invalid before the first update and after
+     * invalidate().
+     */
+    private final Vec3 lightPosition = new Vec3();
+    private boolean valid = false;
+
+    /**
+     * Temporary vectors of the extrusion.
+     */
+    private final Vec3 v0 = new Vec3();
+    private final Vec3 v1 = new Vec3();
+    private final Vec3 v0Dash = new Vec3();
+    private final Vec3 v1Dash = new Vec3();
+    private final Vec3 e1 = new Vec3();
+    private final Vec3 e2 = new Vec3();
+    private final Vec3 normal = new Vec3();
+
+    public ShadowVolume(float extend) {
+        this.extend = extend;
+    }
+
+    /**
+     * Recompute the volume of the mesh if the light position (in the coordinate system of the
+     * mesh) differs from the one of the last update or the volume was invalidated. Returns true
+     * if the volume was recomputed.
+     */
+    public boolean update(ITriangleMesh mesh, Vec3 lightPosition) {
+        if (valid && this.lightPosition.x == lightPosition.x
+                && this.lightPosition.y == lightPosition.y
+                && this.lightPosition.z == lightPosition.z) {
+            return false;
+        }
+        this.lightPosition.set(lightPosition);
+        valid = true;
+
+        int numberOfSilhouetteEdges = mesh.computeSilhouette(lightPosition.toVector(), 1);
+        int[] silhouette = mesh.getSilhouetteVertexIndices();
+        ensureCapacity(6 * numberOfSilhouetteEdges);
+        numberOfVertices = 0;
+        for (int i = 0; i < numberOfSilhouetteEdges; i++) {
+            getPosition(mesh, silhouette[2 * i], v0);
+            getPosition(mesh, silhouette[2 * i + 1], v1);
+            extrude(v0, v0Dash);
+            extrude(v1, v1Dash);
+            addTriangle(v0, v0Dash, v1Dash);
+            addTriangle(v0, v1Dash, v1);
+        }
+        return true;
+    }
+
+    /**
+     * Recompute the volume at the next update(), e.g. after the vertex positions changed.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Number of vertices in the render arrays (three per triangle).
+     */
+    public int getNumberOfVertices() {
+        return numberOfVertices;
+    }
+
+    public float[] getPositions() {
+        return positions;
+    }
+
+    public float[] getNormals() {
+        return normals;
+    }
+
+    public float[] getColors() {
+        return colors;
+    }
+
+    public float[] getTextureCoordinates() {
+        return texCoords;
+    }
+
+    private void ensureCapacity(int numberOfVertices) {
+        if (positions.length >= 3 * numberOfVertices) {
+            return;
+        }
+        // grow by at least 50 % (the silhouette size changes with the light position)
+        int capacity = Math.max(numberOfVertices, positions.length / 2);
+        positions = new float[3 * capacity];
+        normals = new float[3 * capacity];
+        colors = new float[4 * capacity];
+        texCoords = new float[2 * capacity];
+        for (int i = 0; i < capacity; i++) {
+            System.arraycopy(COLOR, 0, colors, 4 * i, 4);
+        }
+    }
+
+    private static void getPosition(ITriangleMesh mesh, int vertexIndex, Vec3 out) {
+        if (mesh instanceof PackedTriangleMesh) {
+            ((PackedTriangleMesh) mesh).getPosition(vertexIndex, out);
+        } else {
+            Vector position = mesh.getVertex(vertexIndex).getPosition();
+            out.set(position);
+        }
+    }
+
+    /**
+     * Move the vertex by extend away from the light.
+     */
+    private void extrude(Vec3 v, Vec3 out) {
+        Vec3.subtract(v, lightPosition, out).normalize();
+        Vec3.multiply(out, extend, out);
+        Vec3.add(out, v, out);
+    }
+
+    private void addTriangle(Vec3 a, Vec3 b, Vec3 c) {
+        Vec3.subtract(b, a, e1);
+        Vec3.subtract(c, a, e2);
+        Vec3.cross(e1, e2, normal);
+        if (normal.getNorm() > 1e-5) {
+            normal.normalize();
+        }
+        addVertex(a);
+        addVertex(b);
+        addVertex(c);
+    }
+
+    private void addVertex(Vec3 position) {
+        int i = numberOfVertices++;
+        positions[3 * i] = (float) position.x;
+        positions[3 * i + 1] = (float) position.y;
+        positions[3 * i + 2] = (float) position.z;
+        normals[3 * i] = (float) normal.x;
+        normals[3 * i + 1] = (float) normal.y;
+        normals[3 * i + 2] = (float) normal.z;
+    }
+}
@@ -15,11 +15,11 @@ package edu.hawhamburg.shared.datastructures.mesh;
 import android.util.Log;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
 
 import edu.hawhamburg.shared.math.AxisAlignedBoundingBox;
+import edu.hawhamburg.shared.math.Vec3;
 import edu.hawhamburg.shared.math.Vector;
 import edu.hawhamburg.shared.misc.Constants;
 import edu.hawhamburg.shared.rendering.Texture;
@@ -50,6 +50,36 @@ public class TriangleMesh implements ITriangleMesh {
      */
     private String textureName = null;
 
+    /**
+     * Vertices whose position changed since the last computeDirtyNormals() call.
+     */
+    private final BitSet dirtyVertices = new BitSet();
+
+    /**
+     * Triangles incident to each vertex, created on first use, null after the topology changed.
+     */
+    private VertexTriangleAdjacency adjacency = null;
+
+    /**
+     * Edges shared by two triangles, created on first use, null after the topology changed.
+     */
+    private EdgeAdjacency edgeAdjacency = null;
+
+    /**
+     * Buffers of the silhouette computation: side of each triangle plane the position is on
+     * (1, -1 or 0) and the silhouette edges (two vertex indices per edge).
+     */
+    private byte[] faceSigns = new byte[0];
+    private int[] silhouette = new int[0];
+
+    // Temporary objects for the normal computations
+    private final Vec3 a = new Vec3();
+    private final Vec3 ab = new Vec3();
+    private final Vec3 ac = new Vec3();
+    private final Vec3 normal = new Vec3();
+    private final BitSet dirtyTriangles = new BitSet();
+    private final BitSet dirtyNormalVertices = new BitSet();
+
     public TriangleMesh() {
     }
 
@@ -81,17 +111,24 @@ public class TriangleMesh implements ITriangleMesh {
         vertices.clear();
         triangles.clear();
         textureCoordinates.clear();
+        dirtyVertices.clear();
+        adjacency = null;
+        edgeAdjacency = null;
     }
 
     @Override
     public void addTriangle(int vertexIndex1, int vertexIndex2, int vertexIndex3) {
         triangles.add(new Triangle(vertexIndex1, vertexIndex2, vertexIndex3));
+        adjacency = null;
+        edgeAdjacency = null;
     }
 
     @Override
     public void addTriangle(AbstractTriangle t) {
         if (t instanceof Triangle) {
             triangles.add((Triangle) t);
+            adjacency = null;
+            edgeAdjacency = null;
         } else {
             throw new IllegalArgumentException("Can only add Triangle objects.");
         }
@@ -100,11 +137,13 @@ public class TriangleMesh implements ITriangleMesh {
     @Override
     public int addVertex(Vector position) {
         vertices.add(new Vertex(position));
+        adjacency = null;
         return vertices.size() - 1;
     }
 
     public int addVertex(Vertex vertex) {
         vertices.add(vertex);
+        adjacency = null;
         return vertices.size() - 1;
     }
 
@@ -146,17 +185,110 @@ public class TriangleMesh implements ITriangleMesh {
     @Override
     public void computeTriangleNormals() {
         for (int triangleIndex = 0; triangleIndex < getNumberOfTriangles(); triangleIndex++) {
-            Triangle t = triangles.get(triangleIndex);
-            Vector a = vertices.get(t.getVertexIndex(0)).getPosition();
-            Vector b = vertices.get(t.getVertexIndex(1)).getPosition();
-            Vector c = vertices.get(t.getVertexIndex(2)).getPosition();
-            Vector normal = b.subtract(a).cross(c.subtract(a));
-            double norm = normal.getNorm();
-            if (norm > 1e-5) {
-                normal.multiply(1.0 / norm);
+            computeTriangleNormal(triangles.get(triangleIndex));
+        }
+    }
+
+    private void computeTriangleNormal(Triangle t) {
+        Vec3 normal = computeTriangleCross(t, ab);
+        if (normal.getNorm() > 1e-5) {
+            normal.normalize();
+        }
+        normal.copyTo(t.getNormal());
+    }
+
+    /**
+     * Cross product of the triangle edges (length is twice the area).
+     */
+    private Vec3 computeTriangleCross(Triangle t, Vec3 result) {
+        a.set(vertices.get(t.getVertexIndex(0)).getPosition());
+        Vec3.subtract(result.set(vertices.get(t.getVertexIndex(1)).getPosition()), a, result);
+        Vec3.subtract(ac.set(vertices.get(t.getVertexIndex(2)).getPosition()), a, ac);
+        return Vec3.cross(result, ac, result);
+    }
+
+    /**
+     * Set the position of the vertex and mark it as changed if the position is different, see
+     * computeDirtyNormals(). Returns true if the position changed.
+     */
+    public boolean setVertexPosition(int vertexIndex, Vec3 position) {
+        Vector current = vertices.get(vertexIndex).getPosition();
+        if (current.x() == position.x && current.y() == position.y
+                && current.z() == position.z) {
+            return false;
+        }
+        position.copyTo(current);
+        dirtyVertices.set(vertexIndex);
+        return true;
+    }
+
+    /**
+     * Mark the vertex as changed (e.g. after changing its position directly).
+     */
+    public void markVertexDirty(int vertexIndex) {
+        dirtyVertices.set(vertexIndex);
+    }
+
+    /**
+     * Recompute the triangle normals of all triangles incident to the changed vertices (see
+     * setVertexPosition()) and the vertex normals of their vertices (same weighting as
+     * computeVertexNormals()). The cost is proportional to the number of changed vertices, not
+     * to the size of the mesh. Returns the number of updated triangles, 0 if nothing changed.
+     */
+    public int computeDirtyNormals() {
+        if (dirtyVertices.isEmpty()) {
+            return 0;
+        }
+        VertexTriangleAdjacency adjacency = getVertexTriangleAdjacency();
+
+        for (int v = dirtyVertices.nextSetBit(0); v >= 0; v = dirtyVertices.nextSetBit(v + 1)) {
+            for (int i = 0; i < adjacency.getNumberOfTriangles(v); i++) {
+                dirtyTriangles.set(adjacency.getTriangle(v, i));
             }
-            t.setNormal(normal);
         }
+        int numberOfTriangles = 0;
+        for (int t = dirtyTriangles.nextSetBit(0); t >= 0; t = dirtyTriangles.nextSetBit(t + 1)) {
+            Triangle triangle = triangles.get(t);
+            computeTriangleNormal(triangle);
+            for (int j = 0; j < 3; j++) {
+                dirtyNormalVertices.set(triangle.getVertexIndex(j));
+            }
+            numberOfTriangles++;
+        }
+        for (int v = dirtyNormalVertices.nextSetBit(0); v >= 0;
+             v = dirtyNormalVertices.nextSetBit(v + 1)) {
+            normal.set(0, 0, 0);
+            for (int i = 0; i < adjacency.getNumberOfTriangles(v); i++) {
+                Vec3.add(normal, computeTriangleCross(triangles.get(adjacency.getTriangle(v, i)),
+                        ab), normal);
+            }
+            if (normal.getNorm() > 1e-10) {
+                normal.normalize();
+            } else {
+                normal.set(0, 1, 0);
+            }
+            normal.copyTo(vertices.get(v).getNormal());
+        }
+
+        dirtyVertices.clear();
+        dirtyTriangles.clear();
+        dirtyNormalVertices.clear();
+        return numberOfTriangles;
+    }
+
+    /**
+     * Triangles incident to each vertex, recreated after the topology changed.
+     */
+    public VertexTriangleAdjacency getVertexTriangleAdjacency() {
+        if (adjacency == null) {
+            adjacency = new VertexTriangleAdjacency(this);
+        }
+        return adjacency;
+    }
+
+    @Override
+    public void computeVertexNormals() {
+        TriangleMeshTools.computeVertexNormals(this, Runtime.getRuntime().availableProcessors());
     }
 
     @Override
@@ -174,16 +306,17 @@ public class TriangleMesh implements ITriangleMesh {
                             int texCoordIndex3) {
         triangles
                 .add(new Triangle(vertexIndex1, vertexIndex2, vertexIndex3, texCoordIndex1, texCoordIndex2, texCoordIndex3));
+        adjacency = null;
+        edgeAdjacency = null;
     }
 
     @Override
     public void createShadowPolygons(Vector lightPosition, float extend, ITriangleMesh shadowPolygonMesh) {
         shadowPolygonMesh.clear();
-        List<Edge> silhouetteEdges = getSilhouette(lightPosition);
-        for (int i = 0; i < silhouetteEdges.size(); i++) {
-            Edge edge = silhouetteEdges.get(i);
-            Vector v0 = getVertex(edge.a).getPosition();
-            Vector v1 = getVertex(edge.b).getPosition();
+        int numberOfSilhouetteEdges = computeSilhouette(lightPosition, 1);
+        for (int i = 0; i < numberOfSilhouetteEdges; i++) {
+            Vector v0 = getVertex(silhouette[2 * i]).getPosition();
+            Vector v1 = getVertex(silhouette[2 * i + 1]).getPosition();
             Vector dv0 = v0.subtract(lightPosition).getNormalized().multiply(extend);
             Vector dv1 = v1.subtract(lightPosition).getNormalized().multiply(extend);
             Vector v0Dash = v0.add(dv0);
@@ -218,49 +351,67 @@ public class TriangleMesh implements ITriangleMesh {
      * Compute the silhouette (list of edges) for a given position
      */
     public List<Edge> getSilhouette(Vector position) {
-        List<Edge> silhouetteEdges = new ArrayList<Edge>();
-        Map<Edge, Integer> edge2FacetMap = new HashMap<Edge, Integer>();
-        for (int triangleIndex = 0; triangleIndex < triangles.size(); triangleIndex++) {
-            Triangle t = triangles.get(triangleIndex);
-            for (int i = 0; i < 3; i++) {
-                int a = t.getVertexIndex(i);
-                int b = t.getVertexIndex((i + 1) % 3);
-                Edge edge = new Edge(a, b);
-                if (edge2FacetMap.containsKey(edge)) {
-                    // Opposite egde found
-                    int oppositeTriangle = edge2FacetMap.get(edge);
-                    if (isSilhouetteEdge(position, triangleIndex, oppositeTriangle, edge)) {
-                        silhouetteEdges.add(edge);
-                    }
-                    // Debugging: if edge map is empty in the end, then the surface is
-                    // closed.
-                    edge2FacetMap.remove(edge);
-                } else {
-                    // Opposite edge not yet found
-                    edge2FacetMap.put(edge, triangleIndex);
-                }
-            }
+        int numberOfSilhouetteEdges = computeSilhouette(position, 1);
+        List<Edge> silhouetteEdges = new ArrayList<Edge>(numberOfSilhouetteEdges);
+        for (int i = 0; i < numberOfSilhouetteEdges; i++) {
+            silhouetteEdges.add(new Edge(silhouette[2 * i], silhouette[2 * i + 1]));
         }
-        // System.out
-        // .println("Created " + silhouetteEdges.size() + " silhouette edges.");
         return silhouetteEdges;
     }
 
+    @Override
+    public int computeSilhouette(Vector position, int numberOfThreads) {
+        EdgeAdjacency edgeAdjacency = getEdgeAdjacency();
+        if (faceSigns.length < triangles.size()) {
+            faceSigns = new byte[triangles.size()];
+        }
+        if (silhouette.length < 2 * edgeAdjacency.getNumberOfEdges()) {
+            silhouette = new int[2 * edgeAdjacency.getNumberOfEdges()];
+        }
+        final double px = position.x();
+        final double py = position.y();
+        final double pz = position.z();
+        int numberOfRanges = ParallelRanges.getNumberOfRanges(triangles.size(),
+                TriangleMeshTools.MIN_TRIANGLES_PER_THREAD, numberOfThreads);
+        if (numberOfRanges == 1) {
+            computeFaceSigns(0, triangles.size(), px, py, pz);
+        } else {
+            ParallelRanges.run(triangles.size(), numberOfRanges, new ParallelRanges.RangeTask() {
+                @Override
+                public void run(int range, int start, int end) {
+                    computeFaceSigns(start, end, px, py, pz);
+                }
+            });
+        }
+        return edgeAdjacency.computeSilhouette(faceSigns, silhouette, numberOfThreads);
+    }
+
     /**
-     * Returns true if the edge between the two given triangles is a silhouette
-     * edge for the given position.
+     * Side of the triangle planes the position is on.
      */
-    private boolean isSilhouetteEdge(Vector position, int triangle1Index, int triangle2Index, Edge edge) {
-        Triangle t1 = triangles.get(triangle1Index);
-        Triangle t2 = triangles.get(triangle2Index);
-        Vertex v1 = vertices.get(t1.getVertexIndex(0));
-        Vertex v2 = vertices.get(t2.getVertexIndex(0));
-        double d1 = t1.getNormal().multiply(position) - t1.getNormal().multiply(v1.getPosition());
-        double d2 = t2.getNormal().multiply(position) - t2.getNormal().multiply(v2.getPosition());
-        if (d1 < 0) {
-            edge.Flip();
+    private void computeFaceSigns(int start, int end, double px, double py, double pz) {
+        for (int i = start; i < end; i++) {
+            Triangle t = triangles.get(i);
+            Vector n = t.getNormal();
+            Vector v = vertices.get(t.getVertexIndex(0)).getPosition();
+            double d = n.x() * (px - v.x()) + n.y() * (py - v.y()) + n.z() * (pz - v.z());
+            faceSigns[i] = (byte) Math.signum(d);
         }
-        return d1 * d2 < 0;
+    }
+
+    @Override
+    public int[] getSilhouetteVertexIndices() {
+        return silhouette;
+    }
+
+    /**
+     * Edges shared by two triangles of the mesh, computed on first use.
+     */
+    public EdgeAdjacency getEdgeAdjacency() {
+        if (edgeAdjacency == null) {
+            edgeAdjacency = new EdgeAdjacency(this);
+        }
+        return edgeAdjacency;
     }
 
     @Override
@@ -296,6 +447,11 @@ public class TriangleMesh implements ITriangleMesh {
         return bb;
     }
 
+    @Override
+    public String getTextureName() {
+        return textureName;
+    }
+
     @Override
     public void setTextureName(String textureFilename) {
         this.textureName = textureFilename;
@@ -12,12 +12,113 @@
  */
 package edu.hawhamburg.shared.datastructures.mesh;
 
+import edu.hawhamburg.shared.datastructures.LruCache;
 import edu.hawhamburg.shared.math.Vector;
 
 /**
  * Create some simple triangle meshes.
+ * <p>
+ * The create methods generate the mesh on each call. The get methods (e.g. getSphere()) generate
+ * a primitive only once for its parameters and return instances of the cached mesh.
  */
 public class TriangleMeshFactory {
+
+    /**
+     * Maximum number of cached primitive meshes (least recently used are removed).
+     */
+    public static final int PRIMITIVE_CACHE_SIZE = 32;
+
+    /**
+     * Generated primitive meshes, keyed by shape and parameters. The cached meshes are never
+     * changed, only instances of them are returned.
+     */
+    private static final LruCache<String, PackedTriangleMesh> primitiveCache =
+            new LruCache<String, PackedTriangleMesh>(PRIMITIVE_CACHE_SIZE);
+
+    /**
+     * Generates a primitive into an empty mesh.
+     */
+    private interface Primitive {
+        void create(PackedTriangleMesh mesh);
+    }
+
+    /**
+     * Return an instance of the cached primitive, the primitive is created if it is not cached.
+     */
+    private static PackedTriangleMesh getPrimitive(String key, Primitive primitive) {
+        synchronized (primitiveCache) {
+            PackedTriangleMesh mesh = primitiveCache.get(key);
+            if (mesh == null) {
+                mesh = new PackedTriangleMesh();
+                primitive.create(mesh);
+                primitiveCache.put(key, mesh);
+            }
+            return mesh.createInstance();
+        }
+    }
+
+    /**
+     * Cached version of createSphere(): the sphere is generated once for radius and resolution,
+     * the returned mesh shares its arrays with the cached mesh (see
+     * PackedTriangleMesh.createInstance()). Changes of the returned mesh (e.g. setColor()) only
+     * copy the changed arrays and do not affect the cache. Thread-safe.
+     */
+    public static PackedTriangleMesh getSphere(final double radius, final int resolution) {
+        return getPrimitive("sphere " + radius + " " + resolution, new Primitive() {
+            @Override
+            public void create(PackedTriangleMesh mesh) {
+                createSphere(mesh, radius, resolution);
+            }
+        });
+    }
+
+    /**
+     * Cached version of createCylinder(), see getSphere().
+     */
+    public static PackedTriangleMesh getCylinder(final double radius, final double height,
+                                                 final int resCircle, final int resHeight) {
+        return getPrimitive("cylinder " + radius + " " + height + " " + resCircle + " "
+                + resHeight, new Primitive() {
+            @Override
+            public void create(PackedTriangleMesh mesh) {
+                createCylinder(mesh, radius, height, resCircle, resHeight);
+            }
+        });
+    }
+
+    /**
+     * Cached version of createCube(), see getSphere().
+     */
+    public static PackedTriangleMesh getCube() {
+        return getPrimitive("cube", new Primitive() {
+            @Override
+            public void create(PackedTriangleMesh mesh) {
+                createCube(mesh);
+            }
+        });
+    }
+
+    /**
+     * Cached version of createPlane(), see getSphere().
+     */
+    public static PackedTriangleMesh getPlane(final Vector center, final Vector normal,
+                                              final double sideLength) {
+        return getPrimitive("plane " + center.x() + " " + center.y() + " " + center.z() + " "
+                + normal.x() + " " + normal.y() + " " + normal.z() + " " + sideLength,
+                new Primitive() {
+                    @Override
+                    public void create(PackedTriangleMesh mesh) {
+                        createPlane(mesh, center, normal, sideLength);
+                    }
+                });
+    }
+
+    /**
+     * Remove all cached primitives (instances returned before are not affected).
+     */
+    public static void clearPrimitiveCache() {
+        primitiveCache.clear();
+    }
     /**
      * Create a cylinder mesh.
      */
@@ -5,6 +5,7 @@ import android.util.Log;
 import java.util.Arrays;
 import java.util.List;
 
+import edu.hawhamburg.shared.math.Matrix;
 import edu.hawhamburg.shared.math.Vector;
 import edu.hawhamburg.shared.misc.Constants;
 
@@ -15,6 +16,12 @@ import edu.hawhamburg.shared.misc.Constants;
  */
 public class TriangleMeshTools {
 
+    /**
+     * Vertex normals are only computed in parallel for at least this number of triangles per
+     * thread, smaller ranges do not pay off the thread overhead.
+     */
+    static final int MIN_TRIANGLES_PER_THREAD = 1 << 15;
+
     /**
      * Recale mesh to max dimension 1 and center at origin.
      */
@@ -36,15 +43,9 @@ public class TriangleMeshTools {
             }
         }
 
-        Vector center = ll.add(ur).multiply(0.5);
-        Vector diag = ur.subtract(ll);
-        double scale = Math.max(diag.x(), Math.max(diag.y(), diag.z()));
-
+        Matrix transformation = createUnitBoxTransformation(ll, ur);
         for (ITriangleMesh mesh : meshes) {
-            for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
-                Vertex vertex = mesh.getVertex(i);
-                vertex.getPosition().copy((vertex.getPosition().subtract(center)).multiply(1.0 / scale));
-            }
+            transformPositions(mesh, transformation);
             mesh.computeTriangleNormals();
         }
         Log.i(Constants.LOGTAG, "Successfully fit mesh into unit box.");
@@ -68,16 +69,213 @@ public class TriangleMeshTools {
             }
         }
 
+        transformPositions(mesh, createUnitBoxTransformation(ll, ur));
+        mesh.computeTriangleNormals();
+        Log.i(Constants.LOGTAG, "Successfully fit mesh into unit box.");
+    }
+
+    /**
+     * Transformation which moves the center of the box to the origin and scales the max dimension
+     * to 1.
+     */
+    private static Matrix createUnitBoxTransformation(Vector ll, Vector ur) {
         Vector center = ll.add(ur).multiply(0.5);
         Vector diag = ur.subtract(ll);
-        double scale = Math.max(diag.x(), Math.max(diag.y(), diag.z()));
+        double scale = 1.0 / Math.max(diag.x(), Math.max(diag.y(), diag.z()));
+        return new Matrix(scale, 0, 0, -scale * center.x(),
+                0, scale, 0, -scale * center.y(),
+                0, 0, scale, -scale * center.z(),
+                0, 0, 0, 1);
+    }
 
+    /**
+     * Apply the transformation to all vertex positions of the mesh. Normals are not updated.
+     */
+    public static void transformPositions(ITriangleMesh mesh, Matrix transformation) {
+        if (mesh instanceof PackedTriangleMesh) {
+            ((PackedTriangleMesh) mesh).transformPositions(transformation);
+            return;
+        }
+        double[] positions = new double[3 * mesh.getNumberOfVertices()];
+        copyPositions(mesh, 0, mesh.getNumberOfVertices(), positions);
+        transformation.transformPoints(positions, positions, mesh.getNumberOfVertices());
         for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
-            Vertex vertex = mesh.getVertex(i);
-            vertex.getPosition().copy((vertex.getPosition().subtract(center)).multiply(1.0 / scale));
+            Vector position = mesh.getVertex(i).getPosition();
+            position.set(0, positions[3 * i]);
+            position.set(1, positions[3 * i + 1]);
+            position.set(2, positions[3 * i + 2]);
+        }
+    }
+
+    /**
+     * Copy the positions of the vertices first ... first + count - 1 into dst as packed
+     * (x, y, z) triples.
+     */
+    public static void copyPositions(ITriangleMesh mesh, int first, int count, double[] dst) {
+        if (mesh instanceof PackedTriangleMesh) {
+            float[] positions = ((PackedTriangleMesh) mesh).getPositions();
+            for (int i = 0; i < 3 * count; i++) {
+                dst[i] = positions[3 * first + i];
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            Vector position = mesh.getVertex(first + i).getPosition();
+            dst[3 * i] = position.x();
+            dst[3 * i + 1] = position.y();
+            dst[3 * i + 2] = position.z();
+        }
+    }
+
+    /**
+     * Vertex indices of the triangles (three per triangle). The array of a PackedTriangleMesh is
+     * returned directly (do not modify, may be longer), other meshes are copied.
+     */
+    public static int[] getTriangleVertexIndices(ITriangleMesh mesh) {
+        if (mesh instanceof PackedTriangleMesh) {
+            return ((PackedTriangleMesh) mesh).getTriangleVertexIndices();
+        }
+        int[] vertexIndices = new int[3 * mesh.getNumberOfTriangles()];
+        for (int i = 0; i < mesh.getNumberOfTriangles(); i++) {
+            Triangle t = (Triangle) mesh.getTriangle(i);
+            for (int j = 0; j < 3; j++) {
+                vertexIndices[3 * i + j] = t.getVertexIndex(j);
+            }
+        }
+        return vertexIndices;
+    }
+
+    /**
+     * Compute the vertex normals of the mesh as the normalized sum of the area-weighted normals
+     * of the adjacent triangles. Large meshes are processed with up to numberOfThreads threads.
+     */
+    public static void computeVertexNormals(ITriangleMesh mesh, int numberOfThreads) {
+        if (mesh instanceof PackedTriangleMesh) {
+            PackedTriangleMesh packedMesh = (PackedTriangleMesh) mesh;
+            computeVertexNormals(packedMesh.getPositions(), packedMesh.getNumberOfVertices(),
+                    packedMesh.getTriangleVertexIndices(), packedMesh.getNumberOfTriangles(),
+                    packedMesh.editNormals(), numberOfThreads);
+            return;
+        }
+
+        int numberOfVertices = mesh.getNumberOfVertices();
+        float[] positions = new float[3 * numberOfVertices];
+        for (int i = 0; i < numberOfVertices; i++) {
+            Vector position = mesh.getVertex(i).getPosition();
+            positions[3 * i] = (float) position.x();
+            positions[3 * i + 1] = (float) position.y();
+            positions[3 * i + 2] = (float) position.z();
+        }
+        int numberOfTriangles = mesh.getNumberOfTriangles();
+        int[] vertexIndices = new int[3 * numberOfTriangles];
+        for (int i = 0; i < numberOfTriangles; i++) {
+            Triangle t = (Triangle) mesh.getTriangle(i);
+            vertexIndices[3 * i] = t.getVertexIndex(0);
+            vertexIndices[3 * i + 1] = t.getVertexIndex(1);
+            vertexIndices[3 * i + 2] = t.getVertexIndex(2);
+        }
+        float[] normals = new float[3 * numberOfVertices];
+        computeVertexNormals(positions, numberOfVertices, vertexIndices, numberOfTriangles,
+                normals, numberOfThreads);
+        for (int i = 0; i < numberOfVertices; i++) {
+            mesh.getVertex(i).getNormal().set(normals[3 * i], normals[3 * i + 1],
+                    normals[3 * i + 2]);
+        }
+    }
+
+    /**
+     * Compute the vertex normals (x, y, z) from the packed positions (x, y, z) and triangle
+     * vertex indices (three per triangle), see computeVertexNormals(ITriangleMesh, int).
+     * Vertices without triangles get the normal (0, 1, 0).
+     * <p>
+     * Each thread accumulates the triangle normals of its triangle range into its own array, the
+     * arrays are summed and normalized per vertex range afterwards, so no synchronization is
+     * required.
+     */
+    public static void computeVertexNormals(final float[] positions, int numberOfVertices,
+                                            final int[] vertexIndices, int numberOfTriangles,
+                                            final float[] normals, int numberOfThreads) {
+        int numberOfRanges = ParallelRanges.getNumberOfRanges(numberOfTriangles,
+                MIN_TRIANGLES_PER_THREAD, numberOfThreads);
+        final float[][] accumulators = new float[numberOfRanges][];
+        accumulators[0] = normals;
+        for (int i = 1; i < numberOfRanges; i++) {
+            accumulators[i] = new float[3 * numberOfVertices];
+        }
+        Arrays.fill(normals, 0, 3 * numberOfVertices, 0);
+
+        ParallelRanges.run(numberOfTriangles, numberOfRanges, new ParallelRanges.RangeTask() {
+            @Override
+            public void run(int range, int start, int end) {
+                accumulateTriangleNormals(positions, vertexIndices, start, end,
+                        accumulators[range]);
+            }
+        });
+        ParallelRanges.run(numberOfVertices, numberOfRanges, new ParallelRanges.RangeTask() {
+            @Override
+            public void run(int range, int start, int end) {
+                sumAndNormalize(accumulators, start, end);
+            }
+        });
+    }
+
+    /**
+     * Add the cross product of the edges (length is twice the area) of the triangles start ...
+     * end - 1 to the normals of their vertices.
+     */
+    private static void accumulateTriangleNormals(float[] positions, int[] vertexIndices,
+                                                  int start, int end, float[] normals) {
+        for (int triangleIndex = start; triangleIndex < end; triangleIndex++) {
+            int a = 3 * vertexIndices[3 * triangleIndex];
+            int b = 3 * vertexIndices[3 * triangleIndex + 1];
+            int c = 3 * vertexIndices[3 * triangleIndex + 2];
+            float abX = positions[b] - positions[a];
+            float abY = positions[b + 1] - positions[a + 1];
+            float abZ = positions[b + 2] - positions[a + 2];
+            float acX = positions[c] - positions[a];
+            float acY = positions[c + 1] - positions[a + 1];
+            float acZ = positions[c + 2] - positions[a + 2];
+            float nX = abY * acZ - abZ * acY;
+            float nY = abZ * acX - abX * acZ;
+            float nZ = abX * acY - abY * acX;
+            normals[a] += nX;
+            normals[a + 1] += nY;
+            normals[a + 2] += nZ;
+            normals[b] += nX;
+            normals[b + 1] += nY;
+            normals[b + 2] += nZ;
+            normals[c] += nX;
+            normals[c + 1] += nY;
+            normals[c + 2] += nZ;
+        }
+    }
+
+    /**
+     * Sum the accumulated normals of the vertices start ... end - 1 into the first accumulator
+     * and normalize them.
+     */
+    private static void sumAndNormalize(float[][] accumulators, int start, int end) {
+        float[] normals = accumulators[0];
+        for (int i = 3 * start; i < 3 * end; i += 3) {
+            float x = normals[i];
+            float y = normals[i + 1];
+            float z = normals[i + 2];
+            for (int j = 1; j < accumulators.length; j++) {
+                x += accumulators[j][i];
+                y += accumulators[j][i + 1];
+                z += accumulators[j][i + 2];
+            }
+            float norm = (float) Math.sqrt(x * x + y * y + z * z);
+            if (norm > 1e-10) {
+                normals[i] = x / norm;
+                normals[i + 1] = y / norm;
+                normals[i + 2] = z / norm;
+            } else {
+                normals[i] = 0;
+                normals[i + 1] = 1;
+                normals[i + 2] = 0;
+            }
         }
-        mesh.computeTriangleNormals();
-        Log.i(Constants.LOGTAG, "Successfully fit mesh into unit box.");
     }
 
     /**
@@ -132,11 +330,9 @@ public class TriangleMeshTools {
             }
         }
 
+        Matrix translation = Matrix.createTranslationMatrix4(new Vector(0, -yMin, 0));
         for (ITriangleMesh mesh : meshes) {
-            for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
-                Vertex vertex = mesh.getVertex(i);
-                vertex.getPosition().set(1, vertex.getPosition().y() - yMin);
-            }
+            transformPositions(mesh, translation);
             mesh.computeTriangleNormals();
         }
         Log.i(Constants.LOGTAG, "Successfully placed object on x-z-plane.");
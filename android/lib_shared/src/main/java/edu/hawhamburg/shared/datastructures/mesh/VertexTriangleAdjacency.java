@@ -0,0 +1,75 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.datastructures.mesh;
+
+/**
+ * Triangles incident to each vertex of a mesh, stored in two int arrays (the triangles of all
+ * vertices in one array, ordered by vertex, and the start of each vertex in this array). The
+ * adjacency is not updated when the triangles of the mesh change.
+ */
+public class VertexTriangleAdjacency {
+
+    /**
+     * Incident triangles of vertex i: triangles[offsets[i]] ... triangles[offsets[i + 1] - 1].
+     */
+    private final int[] offsets;
+    private final int[] triangles;
+
+    /**
+     * Create the adjacency from the triangle vertex indices (three per triangle).
+     */
+    public VertexTriangleAdjacency(int numberOfVertices, int[] vertexIndices,
+                                   int numberOfTriangles) {
+        offsets = new int[numberOfVertices + 1];
+        triangles = new int[3 * numberOfTriangles];
+
+        // Count the triangles per vertex, then fill the ranges of the vertices
+        for (int i = 0; i < 3 * numberOfTriangles; i++) {
+            offsets[vertexIndices[i] + 1]++;
+        }
+        for (int i = 0; i < numberOfVertices; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = new int[numberOfVertices];
+        System.arraycopy(offsets, 0, next, 0, numberOfVertices);
+        for (int i = 0; i < 3 * numberOfTriangles; i++) {
+            triangles[next[vertexIndices[i]]++] = i / 3;
+        }
+    }
+
+    /**
+     * Create the adjacency of the current triangles of the mesh.
+     */
+    public VertexTriangleAdjacency(ITriangleMesh mesh) {
+        this(mesh.getNumberOfVertices(), TriangleMeshTools.getTriangleVertexIndices(mesh),
+                mesh.getNumberOfTriangles());
+    }
+
+    public int getNumberOfVertices() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Number of triangles incident to the vertex.
+     */
+    public int getNumberOfTriangles(int vertexIndex) {
+        return offsets[vertexIndex + 1] - offsets[vertexIndex];
+    }
+
+    /**
+     * Index of the i-th triangle incident to the vertex (ascending triangle indices).
+     */
+    public int getTriangle(int vertexIndex, int i) {
+        return triangles[offsets[vertexIndex] + i];
+    }
+}
@@ -3,12 +3,14 @@ package edu.hawhamburg.shared.datastructures.skeleton;
 import java.util.ArrayList;
 import java.util.List;
 
+import edu.hawhamburg.shared.math.DualQuaternion;
 import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Quaternion;
 import edu.hawhamburg.shared.math.Vector;
 
 /**
  * Representation of a bone. Its starting position is implicitly given by the parent bone.
- * The orientation of the bone is given by its matrix currentRotationAtStartJoint (combined with its parent orientations).
+ * The orientation of the bone is given by its quaternion currentRotationAtStartJoint (combined with its parent orientations).
  * The length of the bone points into its x-direction.
  *
  * @author Philipp Jenke
@@ -16,14 +18,14 @@ import edu.hawhamburg.shared.math.Vector;
 
 public class Bone {
     /**
-     * Orientation matrix of the start position.
+     * Orientation of the start position.
      */
-    private Matrix currentRotationAtStartJoint = Matrix.createIdentityMatrix4();
+    private final Quaternion currentRotationAtStartJoint = new Quaternion();
 
     /**
-     * Rest state orientation matrix of the start position.
+     * Rest state orientation of the start position.
      */
-    private Matrix restStateRotationAtStartJoint = Matrix.createIdentityMatrix4();
+    private final Quaternion restStateRotationAtStartJoint = new Quaternion();
 
     /**
      * Bone length
@@ -65,15 +67,31 @@ public class Bone {
      * Returns the combined transformation for the bone coming from the tree (at the start point).
      */
     public Matrix getTransformationAtStart() {
-        return parent.getTransformationAtEnd().multiply(currentRotationAtStartJoint);
+        return getDualQuaternionAtStart().toMatrix();
     }
 
     /**
      * Returns the combined transformation for the bone coming from the tree (at the end point).
      */
     public Matrix getTransformationAtEnd() {
-        return getTransformationAtStart().multiply(
-                Matrix.createTranslationMatrix4(new Vector(length, 0, 0)));
+        return getDualQuaternionAtEnd().toMatrix();
+    }
+
+    /**
+     * Same as getTransformationAtStart(), but as rigid transformation in dual quaternion form.
+     */
+    public DualQuaternion getDualQuaternionAtStart() {
+        DualQuaternion rotation = new DualQuaternion().set(currentRotationAtStartJoint, 0, 0, 0);
+        return DualQuaternion.multiply(parent.getDualQuaternionAtEnd(), rotation, rotation);
+    }
+
+    /**
+     * Same as getTransformationAtEnd(), but as rigid transformation in dual quaternion form.
+     */
+    public DualQuaternion getDualQuaternionAtEnd() {
+        DualQuaternion transformation = getDualQuaternionAtStart();
+        return DualQuaternion.multiply(transformation,
+                new DualQuaternion().setTranslation(length, 0, 0), transformation);
     }
 
     /***
@@ -95,32 +113,57 @@ public class Bone {
     }
 
     /**
-     * Sets the rotation of the bone (at the starting joint).
+     * Sets the rotation of the bone (at the starting joint). Only the rotation part (upper 3x3
+     * block) of the matrix is used, it must be orthonormal.
      */
     public void setRotation(Matrix rotation) {
-        this.currentRotationAtStartJoint = rotation;
+        currentRotationAtStartJoint.setFromMatrix(rotation);
+    }
+
+    /**
+     * Sets the rotation of the bone (at the starting joint) as unit quaternion.
+     */
+    public void setRotation(Quaternion rotation) {
+        currentRotationAtStartJoint.set(rotation);
     }
 
     /**
      * Preserves the current rotation as the rest state rotation.
      */
     public void setRestState() {
-        restStateRotationAtStartJoint = new Matrix(currentRotationAtStartJoint);
+        restStateRotationAtStartJoint.set(currentRotationAtStartJoint);
     }
 
     /**
      * [RestState] Returns the combined transformation for the bone coming from the tree (at the start point).
      */
     public Matrix getRestStateTransformationAtStart() {
-        return parent.getRestStateTransformationAtEnd().multiply(restStateRotationAtStartJoint);
+        return getRestStateDualQuaternionAtStart().toMatrix();
     }
 
     /**
      * [RestState] Returns the combined transformation for the bone coming from the tree (at the end point).
      */
     public Matrix getRestStateTransformationAtEnd() {
-        return getRestStateTransformationAtStart().multiply(
-                Matrix.createTranslationMatrix4(new Vector(length, 0, 0)));
+        return getRestStateDualQuaternionAtEnd().toMatrix();
+    }
+
+    /**
+     * [RestState] Same as getRestStateTransformationAtStart(), but as dual quaternion.
+     */
+    public DualQuaternion getRestStateDualQuaternionAtStart() {
+        DualQuaternion rotation = new DualQuaternion().set(restStateRotationAtStartJoint, 0, 0, 0);
+        return DualQuaternion.multiply(parent.getRestStateDualQuaternionAtEnd(), rotation,
+                rotation);
+    }
+
+    /**
+     * [RestState] Same as getRestStateTransformationAtEnd(), but as dual quaternion.
+     */
+    public DualQuaternion getRestStateDualQuaternionAtEnd() {
+        DualQuaternion transformation = getRestStateDualQuaternionAtStart();
+        return DualQuaternion.multiply(transformation,
+                new DualQuaternion().setTranslation(length, 0, 0), transformation);
     }
 
     /***
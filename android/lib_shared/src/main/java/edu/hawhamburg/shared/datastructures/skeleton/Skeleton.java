@@ -3,7 +3,7 @@ package edu.hawhamburg.shared.datastructures.skeleton;
 import java.util.Iterator;
 import java.util.List;
 
-import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.DualQuaternion;
 import edu.hawhamburg.shared.math.Vector;
 
 /**
@@ -25,13 +25,13 @@ public class Skeleton extends Bone {
     }
 
     @Override
-    public Matrix getTransformationAtStart() {
-        return Matrix.createTranslationMatrix4(origin);
+    public DualQuaternion getDualQuaternionAtStart() {
+        return new DualQuaternion().setTranslation(origin.x(), origin.y(), origin.z());
     }
 
     @Override
-    public Matrix getRestStateTransformationAtStart() {
-        return getTransformationAtStart();
+    public DualQuaternion getRestStateDualQuaternionAtStart() {
+        return getDualQuaternionAtStart();
     }
 
     /**
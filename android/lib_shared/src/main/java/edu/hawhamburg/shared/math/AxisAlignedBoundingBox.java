@@ -1,8 +1,5 @@
 package edu.hawhamburg.shared.math;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Represents an axis-aligned bounding box with lower left and upper right corner.
  *
@@ -70,23 +67,23 @@ public class AxisAlignedBoundingBox {
     }
 
     public void transform(Matrix transformation) {
-        List<Vector> transformedPoints = new ArrayList<>();
-        transformedPoints.add(transformation.multiply(new Vector(ll.x(), ll.y(), ll.z(), 1)).xyz());
-        transformedPoints.add(transformation.multiply(new Vector(ll.x(), ur.y(), ll.z(), 1)).xyz());
-        transformedPoints.add(transformation.multiply(new Vector(ur.x(), ur.y(), ll.z(), 1)).xyz());
-        transformedPoints.add(transformation.multiply(new Vector(ur.x(), ll.y(), ll.z(), 1)).xyz());
-
-        transformedPoints.add(transformation.multiply(new Vector(ll.x(), ll.y(), ur.z(), 1)).xyz());
-        transformedPoints.add(transformation.multiply(new Vector(ll.x(), ur.y(), ur.z(), 1)).xyz());
-        transformedPoints.add(transformation.multiply(new Vector(ur.x(), ur.y(), ur.z(), 1)).xyz());
-        transformedPoints.add(transformation.multiply(new Vector(ur.x(), ll.y(), ur.z(), 1)).xyz());
+        double[] corners = {
+                ll.x(), ll.y(), ll.z(),
+                ll.x(), ur.y(), ll.z(),
+                ur.x(), ur.y(), ll.z(),
+                ur.x(), ll.y(), ll.z(),
+                ll.x(), ll.y(), ur.z(),
+                ll.x(), ur.y(), ur.z(),
+                ur.x(), ur.y(), ur.z(),
+                ur.x(), ll.y(), ur.z()};
+        transformation.transformPoints(corners, corners, 8);
 
         ll = new Vector(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
         ur = new Vector(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
-        for (Vector v : transformedPoints) {
+        for (int corner = 0; corner < 8; corner++) {
             for (int i = 0; i < 3; i++) {
-                ll.set(i, Math.min(ll.get(i), v.get(i)));
-                ur.set(i, Math.max(ur.get(i), v.get(i)));
+                ll.set(i, Math.min(ll.get(i), corners[3 * corner + i]));
+                ur.set(i, Math.max(ur.get(i), corners[3 * corner + i]));
             }
         }
     }
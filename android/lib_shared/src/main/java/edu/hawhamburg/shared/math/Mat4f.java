@@ -0,0 +1,123 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.math;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Float precision 4x4 matrix backed by a direct FloatBuffer, so that it can be passed to
+ * glUniformMatrix4fv() without any conversion or copy. The values are stored in the same order as
+ * Matrix.floatData(): value (row, column) at index 4 * row + column.
+ */
+public final class Mat4f {
+
+    private static final int FLOAT_SIZE_IN_BYTES = 4;
+
+    private final FloatBuffer buffer;
+
+    /**
+     * Create identity matrix.
+     */
+    public Mat4f() {
+        buffer = ByteBuffer.allocateDirect(16 * FLOAT_SIZE_IN_BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        setIdentity();
+    }
+
+    public Mat4f(Matrix other) {
+        this();
+        set(other);
+    }
+
+    public float get(int rowIndex, int columnIndex) {
+        return buffer.get(4 * rowIndex + columnIndex);
+    }
+
+    public Mat4f set(int rowIndex, int columnIndex, float value) {
+        buffer.put(4 * rowIndex + columnIndex, value);
+        return this;
+    }
+
+    public Mat4f setIdentity() {
+        for (int i = 0; i < 16; i++) {
+            buffer.put(i, (i % 5 == 0) ? 1 : 0);
+        }
+        return this;
+    }
+
+    /**
+     * Copy 16 float values in the order of Matrix.floatData() (e.g. a matrix from the
+     * android.opengl.Matrix utilities).
+     */
+    public Mat4f set(float[] data) {
+        if (data.length != 16) {
+            throw new IllegalArgumentException();
+        }
+        buffer.position(0);
+        buffer.put(data);
+        buffer.position(0);
+        return this;
+    }
+
+    /**
+     * Convert a 4x4 Matrix.
+     */
+    public Mat4f set(Matrix m) {
+        if (m.getNumberOfRows() != 4 || m.getNumberOfColumns() != 4) {
+            throw new IllegalArgumentException();
+        }
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                buffer.put(4 * row + col, (float) m.get(row, col));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Convert a 4x4 Matrix and transpose it on the fly.
+     */
+    public Mat4f setTransposed(Matrix m) {
+        if (m.getNumberOfRows() != 4 || m.getNumberOfColumns() != 4) {
+            throw new IllegalArgumentException();
+        }
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                buffer.put(4 * col + row, (float) m.get(row, col));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Buffer with the 16 values (position 0), for glUniformMatrix4fv().
+     */
+    public FloatBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public String toString() {
+        String content = "";
+        for (int rowIndex = 0; rowIndex < 4; rowIndex++) {
+            for (int columnIndex = 0; columnIndex < 4; columnIndex++) {
+                content += String.format("%4.3f ", get(rowIndex, columnIndex));
+            }
+            content += "\n";
+        }
+        return content;
+    }
+}
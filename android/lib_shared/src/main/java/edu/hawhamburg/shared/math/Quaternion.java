@@ -0,0 +1,238 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.math;
+
+/**
+ * Quaternion w + xi + yj + zk. Unit quaternions represent rotations. Like Vec3, the operations
+ * write their result into a destination object.
+ */
+public final class Quaternion {
+
+    public double w;
+    public double x;
+    public double y;
+    public double z;
+
+    /**
+     * Create identity rotation.
+     */
+    public Quaternion() {
+        setIdentity();
+    }
+
+    public Quaternion(double w, double x, double y, double z) {
+        set(w, x, y, z);
+    }
+
+    public Quaternion(Quaternion other) {
+        set(other);
+    }
+
+    /**
+     * Create rotation from axis and angle, see setFromAxisAngle().
+     */
+    public Quaternion(Vector axis, double angle) {
+        setFromAxisAngle(axis.x(), axis.y(), axis.z(), angle);
+    }
+
+    public Quaternion set(double w, double x, double y, double z) {
+        this.w = w;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    public Quaternion set(Quaternion other) {
+        return set(other.w, other.x, other.y, other.z);
+    }
+
+    public Quaternion setIdentity() {
+        return set(1, 0, 0, 0);
+    }
+
+    /**
+     * Rotation around the axis (does not need to be normalized) by the angle (radians).
+     */
+    public Quaternion setFromAxisAngle(double axisX, double axisY, double axisZ, double angle) {
+        double norm = Math.sqrt(axisX * axisX + axisY * axisY + axisZ * axisZ);
+        if (norm < MathHelpers.EPSILON) {
+            return setIdentity();
+        }
+        double s = Math.sin(angle / 2) / norm;
+        return set(Math.cos(angle / 2), axisX * s, axisY * s, axisZ * s);
+    }
+
+    /**
+     * Rotation angle (radians, in [0, 2pi]) of a unit quaternion.
+     */
+    public double getAngle() {
+        return 2 * Math.acos(Math.max(-1, Math.min(1, w)));
+    }
+
+    /**
+     * Normalized rotation axis of a unit quaternion, x-axis for the identity rotation.
+     */
+    public Vec3 getAxis(Vec3 out) {
+        double norm = Math.sqrt(x * x + y * y + z * z);
+        if (norm < MathHelpers.EPSILON) {
+            return out.set(1, 0, 0);
+        }
+        return out.set(x / norm, y / norm, z / norm);
+    }
+
+    /**
+     * Set from the rotation part (upper 3x3 block) of a 3x3 or 4x4 matrix. The block must be
+     * orthonormal.
+     */
+    public Quaternion setFromMatrix(Matrix m) {
+        if (m.getNumberOfRows() < 3 || m.getNumberOfColumns() < 3) {
+            throw new IllegalArgumentException();
+        }
+        return setFromRotation(m.get(0, 0), m.get(0, 1), m.get(0, 2),
+                m.get(1, 0), m.get(1, 1), m.get(1, 2),
+                m.get(2, 0), m.get(2, 1), m.get(2, 2));
+    }
+
+    /**
+     * Set from the rotation part (upper 3x3 block) of a Mat4. The block must be orthonormal.
+     */
+    public Quaternion setFromMatrix(Mat4 m) {
+        return setFromRotation(m.m00, m.m01, m.m02, m.m10, m.m11, m.m12, m.m20, m.m21, m.m22);
+    }
+
+    /**
+     * Conversion of a rotation matrix, uses the largest diagonal element for numerical stability.
+     */
+    private Quaternion setFromRotation(double m00, double m01, double m02,
+                                       double m10, double m11, double m12,
+                                       double m20, double m21, double m22) {
+        double trace = m00 + m11 + m22;
+        if (trace > 0) {
+            double s = 0.5 / Math.sqrt(trace + 1);
+            set(0.25 / s, (m21 - m12) * s, (m02 - m20) * s, (m10 - m01) * s);
+        } else if (m00 > m11 && m00 > m22) {
+            double s = 2 * Math.sqrt(1 + m00 - m11 - m22);
+            set((m21 - m12) / s, 0.25 * s, (m01 + m10) / s, (m02 + m20) / s);
+        } else if (m11 > m22) {
+            double s = 2 * Math.sqrt(1 + m11 - m00 - m22);
+            set((m02 - m20) / s, (m01 + m10) / s, 0.25 * s, (m12 + m21) / s);
+        } else {
+            double s = 2 * Math.sqrt(1 + m22 - m00 - m11);
+            set((m10 - m01) / s, (m02 + m20) / s, (m12 + m21) / s, 0.25 * s);
+        }
+        return normalize();
+    }
+
+    /**
+     * Write the rotation into the upper 3x3 block of out, the rest is set to identity.
+     */
+    public Mat4 toMat4(Mat4 out) {
+        double xx = x * x, yy = y * y, zz = z * z;
+        double xy = x * y, xz = x * z, yz = y * z;
+        double wx = w * x, wy = w * y, wz = w * z;
+        return out.set(1 - 2 * (yy + zz), 2 * (xy - wz), 2 * (xz + wy), 0,
+                2 * (xy + wz), 1 - 2 * (xx + zz), 2 * (yz - wx), 0,
+                2 * (xz - wy), 2 * (yz + wx), 1 - 2 * (xx + yy), 0,
+                0, 0, 0, 1);
+    }
+
+    /**
+     * Create a 4x4 homogenious rotation matrix.
+     */
+    public Matrix toMatrix() {
+        return toMat4(new Mat4()).toMatrix();
+    }
+
+    public double dot(Quaternion other) {
+        return w * other.w + x * other.x + y * other.y + z * other.z;
+    }
+
+    public double getNorm() {
+        return Math.sqrt(dot(this));
+    }
+
+    /**
+     * Normalize to a unit quaternion, zero quaternions are left unchanged.
+     */
+    public Quaternion normalize() {
+        double norm = getNorm();
+        if (norm > MathHelpers.EPSILON) {
+            set(w / norm, x / norm, y / norm, z / norm);
+        }
+        return this;
+    }
+
+    /**
+     * Conjugate, for unit quaternions this is the inverse rotation.
+     */
+    public Quaternion conjugate() {
+        return set(w, -x, -y, -z);
+    }
+
+    /**
+     * Rotate v (must be a unit quaternion), out may be v.
+     */
+    public Vec3 rotate(Vec3 v, Vec3 out) {
+        // v + 2 * q.xyz x (q.xyz x v + w * v)
+        double cx = y * v.z - z * v.y + w * v.x;
+        double cy = z * v.x - x * v.z + w * v.y;
+        double cz = x * v.y - y * v.x + w * v.z;
+        return out.set(v.x + 2 * (y * cz - z * cy),
+                v.y + 2 * (z * cx - x * cz),
+                v.z + 2 * (x * cy - y * cx));
+    }
+
+    /**
+     * out = a * b (first rotate by b, then by a), out may be a or b.
+     */
+    public static Quaternion multiply(Quaternion a, Quaternion b, Quaternion out) {
+        return out.set(a.w * b.w - a.x * b.x - a.y * b.y - a.z * b.z,
+                a.w * b.x + a.x * b.w + a.y * b.z - a.z * b.y,
+                a.w * b.y - a.x * b.z + a.y * b.w + a.z * b.x,
+                a.w * b.z + a.x * b.y - a.y * b.x + a.z * b.w);
+    }
+
+    /**
+     * Spherical linear interpolation between the unit quaternions a (t = 0) and b (t = 1) along
+     * the shorter arc, out may be a or b.
+     */
+    public static Quaternion slerp(Quaternion a, Quaternion b, double t, Quaternion out) {
+        double cosTheta = a.dot(b);
+        double sign = 1;
+        if (cosTheta < 0) {
+            // q and -q are the same rotation, use the shorter arc
+            cosTheta = -cosTheta;
+            sign = -1;
+        }
+        double wa;
+        double wb;
+        if (cosTheta > 1 - MathHelpers.EPSILON) {
+            // almost identical: linear interpolation avoids the division by sin(theta) ~ 0
+            wa = 1 - t;
+            wb = t * sign;
+        } else {
+            double theta = Math.acos(cosTheta);
+            double sinTheta = Math.sin(theta);
+            wa = Math.sin((1 - t) * theta) / sinTheta;
+            wb = Math.sin(t * theta) / sinTheta * sign;
+        }
+        return out.set(wa * a.w + wb * b.w, wa * a.x + wb * b.x, wa * a.y + wb * b.y,
+                wa * a.z + wb * b.z).normalize();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("( %4.3f + %4.3fi + %4.3fj + %4.3fk )", w, x, y, z);
+    }
+}
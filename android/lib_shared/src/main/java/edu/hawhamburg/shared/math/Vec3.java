@@ -0,0 +1,160 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.math;
+
+/**
+ * Fixed-size 3D vector with scalar fields. In contrast to Vector, the static operations write
+ * their result into a destination object (which may be one of the arguments), so that hot loops
+ * do not need to allocate.
+ */
+public final class Vec3 {
+
+    public double x;
+    public double y;
+    public double z;
+
+    public Vec3() {
+    }
+
+    public Vec3(double x, double y, double z) {
+        set(x, y, z);
+    }
+
+    public Vec3(Vec3 other) {
+        set(other);
+    }
+
+    /**
+     * Create from the first three coordinates of a Vector.
+     */
+    public Vec3(Vector other) {
+        set(other);
+    }
+
+    public Vec3 set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    public Vec3 set(Vec3 other) {
+        return set(other.x, other.y, other.z);
+    }
+
+    /**
+     * Copy the first three coordinates of a Vector.
+     */
+    public Vec3 set(Vector other) {
+        if (other.getDimension() < 3) {
+            throw new IllegalArgumentException();
+        }
+        return set(other.get(0), other.get(1), other.get(2));
+    }
+
+    /**
+     * Write the coordinates into a Vector with dimension 3 (or more).
+     */
+    public void copyTo(Vector other) {
+        if (other.getDimension() < 3) {
+            throw new IllegalArgumentException();
+        }
+        other.set(0, x);
+        other.set(1, y);
+        other.set(2, z);
+    }
+
+    /**
+     * Create a new 3D Vector with the coordinates.
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    public double dot(Vec3 other) {
+        return x * other.x + y * other.y + z * other.z;
+    }
+
+    public double getSqrNorm() {
+        return x * x + y * y + z * z;
+    }
+
+    public double getNorm() {
+        return Math.sqrt(getSqrNorm());
+    }
+
+    /**
+     * Squared distance to another point.
+     */
+    public double getSqrDistance(Vec3 other) {
+        double dx = x - other.x;
+        double dy = y - other.y;
+        double dz = z - other.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Normalize the vector, zero vectors are left unchanged.
+     */
+    public Vec3 normalize() {
+        double norm = getNorm();
+        if (norm > MathHelpers.EPSILON) {
+            x /= norm;
+            y /= norm;
+            z /= norm;
+        }
+        return this;
+    }
+
+    /**
+     * out = a + b
+     */
+    public static Vec3 add(Vec3 a, Vec3 b, Vec3 out) {
+        return out.set(a.x + b.x, a.y + b.y, a.z + b.z);
+    }
+
+    /**
+     * out = a - b
+     */
+    public static Vec3 subtract(Vec3 a, Vec3 b, Vec3 out) {
+        return out.set(a.x - b.x, a.y - b.y, a.z - b.z);
+    }
+
+    /**
+     * out = a * factor
+     */
+    public static Vec3 multiply(Vec3 a, double factor, Vec3 out) {
+        return out.set(a.x * factor, a.y * factor, a.z * factor);
+    }
+
+    /**
+     * out = out + a * factor
+     */
+    public static Vec3 addScaled(Vec3 a, double factor, Vec3 out) {
+        return out.set(out.x + a.x * factor, out.y + a.y * factor, out.z + a.z * factor);
+    }
+
+    /**
+     * out = a x b, out may be a or b.
+     */
+    public static Vec3 cross(Vec3 a, Vec3 b, Vec3 out) {
+        return out.set(a.y * b.z - a.z * b.y,
+                a.z * b.x - a.x * b.z,
+                a.x * b.y - a.y * b.x);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("( %4.3f %4.3f %4.3f )", x, y, z);
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.math;
+
+/**
+ * Fixed-size 4D (homogenious) vector with scalar fields, see Vec3.
+ */
+public final class Vec4 {
+
+    public double x;
+    public double y;
+    public double z;
+    public double w;
+
+    public Vec4() {
+    }
+
+    public Vec4(double x, double y, double z, double w) {
+        set(x, y, z, w);
+    }
+
+    public Vec4(Vec4 other) {
+        set(other);
+    }
+
+    /**
+     * Create from a 4D Vector.
+     */
+    public Vec4(Vector other) {
+        set(other);
+    }
+
+    /**
+     * Create a homogenious point (w = 1).
+     */
+    public Vec4(Vec3 point) {
+        set(point.x, point.y, point.z, 1);
+    }
+
+    public Vec4 set(double x, double y, double z, double w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        return this;
+    }
+
+    public Vec4 set(Vec4 other) {
+        return set(other.x, other.y, other.z, other.w);
+    }
+
+    /**
+     * Copy the coordinates of a 4D Vector.
+     */
+    public Vec4 set(Vector other) {
+        if (other.getDimension() != 4) {
+            throw new IllegalArgumentException();
+        }
+        return set(other.get(0), other.get(1), other.get(2), other.get(3));
+    }
+
+    /**
+     * Write the coordinates into a 4D Vector.
+     */
+    public void copyTo(Vector other) {
+        if (other.getDimension() != 4) {
+            throw new IllegalArgumentException();
+        }
+        other.set(0, x);
+        other.set(1, y);
+        other.set(2, z);
+        other.set(3, w);
+    }
+
+    /**
+     * Create a new 4D Vector with the coordinates.
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z, w);
+    }
+
+    /**
+     * Write the first three coordinates into out.
+     */
+    public Vec3 xyz(Vec3 out) {
+        return out.set(x, y, z);
+    }
+
+    public double dot(Vec4 other) {
+        return x * other.x + y * other.y + z * other.z + w * other.w;
+    }
+
+    /**
+     * out = a + b
+     */
+    public static Vec4 add(Vec4 a, Vec4 b, Vec4 out) {
+        return out.set(a.x + b.x, a.y + b.y, a.z + b.z, a.w + b.w);
+    }
+
+    /**
+     * out = a - b
+     */
+    public static Vec4 subtract(Vec4 a, Vec4 b, Vec4 out) {
+        return out.set(a.x - b.x, a.y - b.y, a.z - b.z, a.w - b.w);
+    }
+
+    /**
+     * out = a * factor
+     */
+    public static Vec4 multiply(Vec4 a, double factor, Vec4 out) {
+        return out.set(a.x * factor, a.y * factor, a.z * factor, a.w * factor);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("( %4.3f %4.3f %4.3f %4.3f )", x, y, z, w);
+    }
+}
@@ -15,6 +15,8 @@ package edu.hawhamburg.shared.misc;
 import android.content.res.AssetManager;
 import android.util.Log;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Scanner;
@@ -29,6 +31,17 @@ public class AssetPath {
 
   private AssetManager assetManager;
 
+  /**
+   * Used instead of the AssetManager if set, allows to read assets on a plain JVM (e.g. in
+   * benchmarks).
+   */
+  private File assetDirectory;
+
+  /**
+   * Directory for files created from the assets (e.g. mesh cache files), null if not available.
+   */
+  private File cacheDirectory;
+
   private AssetPath(){
 
   }
@@ -44,14 +57,32 @@ public class AssetPath {
     this.assetManager = assetManager;
   }
 
+  /**
+   * Read the assets from a directory in the file system instead of the AssetManager.
+   */
+  public void init(File assetDirectory){
+    this.assetDirectory = assetDirectory;
+  }
+
+  /**
+   * Set the directory for files created from the assets, e.g. Context.getCacheDir().
+   */
+  public void setCacheDirectory(File cacheDirectory){
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  public File getCacheDirectory(){
+    return cacheDirectory;
+  }
+
   public String readTextFileToString(String relativeFilename){
 
-    if ( assetManager == null){
+    if ( assetManager == null && assetDirectory == null){
       Log.i(Constants.LOGTAG, "AssetManager must be set first!");
     }
 
     try {
-      InputStream stream = assetManager.open(relativeFilename);
+      InputStream stream = open(relativeFilename);
       Scanner s = new Scanner(stream).useDelimiter("\\A");
       String result = s.hasNext() ? s.next() : "";
       stream.close();
@@ -64,11 +95,18 @@ public class AssetPath {
 
   public InputStream readTextFileToStream(String relativeFilename){
     try {
-      InputStream stream = assetManager.open(relativeFilename);
+      InputStream stream = open(relativeFilename);
       return stream;
     } catch (IOException e) {
       Log.e(Constants.LOGTAG, "Failed to open file " + relativeFilename + " in assets folder.");
       return null;
     }
   }
+
+  private InputStream open(String relativeFilename) throws IOException {
+    if (assetDirectory != null) {
+      return new FileInputStream(new File(assetDirectory, relativeFilename));
+    }
+    return assetManager.open(relativeFilename);
+  }
 }
@@ -1,18 +1,17 @@
 package edu.hawhamburg.shared.misc;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import edu.hawhamburg.shared.datastructures.mesh.ITriangleMesh;
 import edu.hawhamburg.shared.datastructures.mesh.TriangleMesh;
 import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshFactory;
-import edu.hawhamburg.shared.datastructures.mesh.Vertex;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshTools;
 import edu.hawhamburg.shared.datastructures.skeleton.Bone;
 import edu.hawhamburg.shared.datastructures.skeleton.Skeleton;
 import edu.hawhamburg.shared.datastructures.skeleton.SkeletonNode;
 import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Vec3;
 import edu.hawhamburg.shared.math.Vector;
 import edu.hawhamburg.shared.scenegraph.InnerNode;
 import edu.hawhamburg.shared.scenegraph.TriangleMeshNode;
@@ -35,25 +34,42 @@ public class SkeletonScene extends Scene {
     private List<Bone> allBones;
 
     private TriangleMesh mesh;
-    private TriangleMesh meshAtRestState;
     private TriangleMeshNode meshNode;
 
     private ShowBones showBones = ShowBones.BONES_ONLY;
     private SkeletonNode skeletonNode;
 
-    // structures with constant values to reduce computations at each frame
+    // structures with constant values to reduce computations at each frame (indexed by vertex
+    // index and by the bone index in allBones)
     /**
-     * Map with the nearest bone for each vertex of mesh
+     * Vertex positions of the mesh at rest state as packed (x, y, z) triples (instead of a copy
+     * of the whole mesh, the triangles are not needed).
      */
-    private Map<Vertex, Bone> vertexToNearestBoneMap;
+    private double[] restPositions;
     /**
-     * Map with translations to get a vertex position at a bone coordinate system.
+     * Index of the nearest bone for each vertex of mesh
      */
-    private Map<Bone, Map<Vertex, Vector>> boneToVertexToTranslationMap;
+    private int[] vertexToNearestBone;
     /**
-     * Map with weights of each bone for each vertex
+     * Vertex positions in the coordinate system of each bone as packed (x, y, z) triples:
+     * [bone][3 * vertex + coordinate].
      */
-    private Map<Vertex, Map<Bone, Double>> vertexToBoneToWeightMap;
+    private double[][] boneToVertexPositionsInBoneSystem;
+    /**
+     * Normalized weights of each bone for each vertex: [vertex][bone].
+     */
+    private double[][] vertexToBoneWeights;
+
+    /**
+     * Vertex positions transformed by the current transformation of each bone, same layout as
+     * boneToVertexPositionsInBoneSystem, updated once per frame.
+     */
+    private double[][] boneToVertexPositions;
+
+    /**
+     * Temporary object for the per-vertex computations.
+     */
+    private final Vec3 newPosition = new Vec3();
 
     private enum ShowBones {
         BONES_ONLY, MESH_AND_BONES, MESH_ONLY;
@@ -117,62 +133,67 @@ public class SkeletonScene extends Scene {
 
         // help structures with constant values for each frame
         allBones = Arrays.asList(trunkBone, cylinderTop, cylinderMiddle, cylinderBottom);
-        meshAtRestState = new TriangleMesh(mesh);
-        vertexToNearestBoneMap = defineNearestBones();
-        boneToVertexToTranslationMap = defineTranslationsToBoneCoordinateSystems();
-        vertexToBoneToWeightMap = defineWeights();
+        restPositions = new double[3 * mesh.getNumberOfVertices()];
+        TriangleMeshTools.copyPositions(mesh, 0, mesh.getNumberOfVertices(), restPositions);
+        vertexToNearestBone = defineNearestBones();
+        boneToVertexPositionsInBoneSystem = defineTranslationsToBoneCoordinateSystems();
+        vertexToBoneWeights = defineWeights();
+        boneToVertexPositions = new double[allBones.size()][3 * mesh.getNumberOfVertices()];
     }
 
     /**
      * Defines for each vertex of the mesh its nearest bone.
      */
-    private Map<Vertex, Bone> defineNearestBones() {
-        Map<Vertex, Bone> vertexToNearestBoneMap = new HashMap<>();
-        for (int i = 0; i < meshAtRestState.getNumberOfVertices(); i++) {
-            Vertex vertex = meshAtRestState.getVertex(i);
-            Bone nearestBone = getNearestBone(vertex.getPosition(), allBones);
-            vertexToNearestBoneMap.put(vertex, nearestBone);
+    private int[] defineNearestBones() {
+        int[] vertexToNearestBone = new int[mesh.getNumberOfVertices()];
+        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
+            Bone nearestBone = getNearestBone(getRestPosition(i), allBones);
+            vertexToNearestBone[i] = allBones.indexOf(nearestBone);
         }
-        return vertexToNearestBoneMap;
+        return vertexToNearestBone;
     }
 
-    private Map<Bone, Map<Vertex, Vector>> defineTranslationsToBoneCoordinateSystems() {
-        Map<Bone, Map<Vertex, Vector>> boneToVertexToTranslationMap = new HashMap<>();
-        for (Bone bone : allBones) {
-            HashMap<Vertex, Vector> vertexToTranslationMap = new HashMap<>();
-            boneToVertexToTranslationMap.put(bone, vertexToTranslationMap);
-
-            for (int i = 0; i < meshAtRestState.getNumberOfVertices(); i++) {
-                Vertex vertex = meshAtRestState.getVertex(i);
-                // translation to get a vertex position at the coordinate system of the current bone
-                Matrix inverseTransformation = bone.getRestStateTransformationAtEnd()
-                        .getInverse();
-                Vector homogeniousPosition = Vector.makeHomogenious(vertex.getPosition());
-                Vector translation = inverseTransformation.multiply(homogeniousPosition);
-
-                vertexToTranslationMap.put(vertex, translation);
-            }
+    private double[][] defineTranslationsToBoneCoordinateSystems() {
+        int numberOfVertices = mesh.getNumberOfVertices();
+
+        double[][] boneToVertexPositionsInBoneSystem = new double[allBones.size()][];
+        for (int boneIndex = 0; boneIndex < allBones.size(); boneIndex++) {
+            // translation to get a vertex position at the coordinate system of the current bone
+            Matrix inverseTransformation = allBones.get(boneIndex)
+                    .getRestStateTransformationAtEnd()
+                    .getInverse();
+            double[] positions = new double[3 * numberOfVertices];
+            inverseTransformation.transformPoints(restPositions, positions, numberOfVertices);
+            boneToVertexPositionsInBoneSystem[boneIndex] = positions;
         }
-        return boneToVertexToTranslationMap;
+        return boneToVertexPositionsInBoneSystem;
     }
 
-    private Map<Vertex, Map<Bone, Double>> defineWeights() {
-        double deviation = 0.1;
+    private Vector getRestPosition(int vertexIndex) {
+        return new Vector(restPositions[3 * vertexIndex], restPositions[3 * vertexIndex + 1],
+                restPositions[3 * vertexIndex + 2]);
+    }
 
-        Map<Vertex, Map<Bone, Double>> vertexToBoneToWeightMap = new HashMap<>();
-        for (int i = 0; i < meshAtRestState.getNumberOfVertices(); i++) {
-            Vertex vertex = meshAtRestState.getVertex(i);
-            Map<Bone, Double> boneToWidthMap = new HashMap<>();
-            vertexToBoneToWeightMap.put(vertex, boneToWidthMap);
+    private double[][] defineWeights() {
+        double deviation = 0.1;
 
-            for (Bone bone : allBones) {
-                double distance = getDistanceBetween(vertex.getPosition(), bone);
-                double weight = 1 / Math.sqrt(2 * Math.PI * deviation * deviation)
+        double[][] vertexToBoneWeights = new double[mesh.getNumberOfVertices()][];
+        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
+            Vector restPosition = getRestPosition(i);
+            double[] weights = new double[allBones.size()];
+            double weightSum = 0;
+            for (int boneIndex = 0; boneIndex < allBones.size(); boneIndex++) {
+                double distance = getDistanceBetween(restPosition, allBones.get(boneIndex));
+                weights[boneIndex] = 1 / Math.sqrt(2 * Math.PI * deviation * deviation)
                         * Math.exp(- distance * distance / (2 * deviation * deviation));
-                boneToWidthMap.put(bone, weight);
+                weightSum += weights[boneIndex];
+            }
+            for (int boneIndex = 0; boneIndex < allBones.size(); boneIndex++) {
+                weights[boneIndex] /= weightSum;
             }
+            vertexToBoneWeights[i] = weights;
         }
-        return vertexToBoneToWeightMap;
+        return vertexToBoneWeights;
     }
 
     private void updateRenderSettings() {
@@ -211,49 +232,47 @@ public class SkeletonScene extends Scene {
         cylinderBottom.setRotation(Matrix.createRotationMatrix4(new Vector(0, 1, 0), 3 * angle));
 
         // Update mesh based on skeleton
-        for (int i = 0; i < meshAtRestState.getNumberOfVertices(); i++) {
-            Vertex vertex = meshAtRestState.getVertex(i);
-            Vector newPosition = IS_TRANSFORMATION_WITH_NEAREST_BONE
-                    ? getVertexPositionNearest(vertex)
-                    : getVertexPositionWeighted(vertex);
-            mesh.getVertex(i)
-                    .getPosition()
-                    .copy(newPosition);
+        for (int boneIndex = 0; boneIndex < allBones.size(); boneIndex++) {
+            allBones.get(boneIndex).getTransformationAtEnd().transformPoints(
+                    boneToVertexPositionsInBoneSystem[boneIndex], boneToVertexPositions[boneIndex],
+                    mesh.getNumberOfVertices());
+        }
+        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
+            if (IS_TRANSFORMATION_WITH_NEAREST_BONE) {
+                getVertexPositionNearest(i, newPosition);
+            } else {
+                getVertexPositionWeighted(i, newPosition);
+            }
+            mesh.setVertexPosition(i, newPosition);
         }
 
-        mesh.computeTriangleNormals();
-        meshNode.updateVbo();
+        // Only the normals around the moved vertices are recomputed
+        if (mesh.computeDirtyNormals() > 0) {
+            meshNode.updateVbo();
+        }
     }
 
-    private Vector getVertexPositionNearest(Vertex vertex) {
-        Bone nearestBone = vertexToNearestBoneMap.get(vertex);
-        return getVertexPosition(vertex, nearestBone);
+    private Vec3 getVertexPositionNearest(int vertexIndex, Vec3 result) {
+        return getVertexPosition(vertexIndex, vertexToNearestBone[vertexIndex], result);
     }
 
-    private Vector getVertexPositionWeighted(Vertex vertex) {
-        double weightSum = 0;
-        Vector vertexPositionSum = new Vector(3);
-
-        Map<Bone, Double> boneToWeightMap = vertexToBoneToWeightMap.get(vertex);
-        for (Bone bone : allBones) {
-            Vector vertexPositionFromBone = getVertexPosition(vertex, bone);
-            double weight = boneToWeightMap.get(bone);
-
-            weightSum += weight;
-            vertexPositionSum = vertexPositionSum.add(
-                    vertexPositionFromBone.multiply(weight));
+    private Vec3 getVertexPositionWeighted(int vertexIndex, Vec3 result) {
+        double[] weights = vertexToBoneWeights[vertexIndex];
+        result.set(0, 0, 0);
+        for (int boneIndex = 0; boneIndex < weights.length; boneIndex++) {
+            double[] positions = boneToVertexPositions[boneIndex];
+            double weight = weights[boneIndex];
+            result.x += positions[3 * vertexIndex] * weight;
+            result.y += positions[3 * vertexIndex + 1] * weight;
+            result.z += positions[3 * vertexIndex + 2] * weight;
         }
-
-        return vertexPositionSum.multiply(1/weightSum);
+        return result;
     }
 
-    private Vector getVertexPosition(Vertex vertex, Bone bone) {
-        Vector translationToBoneSystem = boneToVertexToTranslationMap
-                .get(bone)
-                .get(vertex);
-        return bone.getTransformationAtEnd()
-                .multiply(translationToBoneSystem)
-                .xyz();
+    private Vec3 getVertexPosition(int vertexIndex, int boneIndex, Vec3 result) {
+        double[] positions = boneToVertexPositions[boneIndex];
+        return result.set(positions[3 * vertexIndex], positions[3 * vertexIndex + 1],
+                positions[3 * vertexIndex + 2]);
     }
 
     private Bone getNearestBone(Vector point, List<Bone> bones) {
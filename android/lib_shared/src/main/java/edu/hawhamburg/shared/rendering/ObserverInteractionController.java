@@ -12,7 +12,8 @@
  */
 package edu.hawhamburg.shared.rendering;
 
-import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Quaternion;
+import edu.hawhamburg.shared.math.Vec3;
 import edu.hawhamburg.shared.math.Vector;
 import edu.hawhamburg.shared.scenegraph.Camera;
 
@@ -34,16 +35,16 @@ public class ObserverInteractionController implements InteractionController {
         Vector eye = cam.getEye();
         Vector ref = cam.getRef();
         Vector up = cam.getUp();
-        Vector dir = eye.subtract(ref);
+        Vec3 offset = new Vec3(eye.subtract(ref));
         // Rotate around up-vector
-        eye = Matrix.createRotationMatrix3(up, alpha).multiply(dir).add(ref);
+        new Quaternion(up, alpha).rotate(offset, offset);
         // Rotate around side-vector
-        dir = eye.subtract(ref);
-        Vector side = dir.cross(up);
+        Vector side = offset.toVector().cross(up);
         side.normalize();
-        eye = Matrix.createRotationMatrix3(side, -beta).multiply(dir).add(ref);
+        new Quaternion(side, -beta).rotate(offset, offset);
+        eye = offset.toVector().add(ref);
         // Fix up-vector
-        dir = ref.subtract(eye);
+        Vector dir = ref.subtract(eye);
         side = dir.cross(up);
         side.normalize();
         up = side.cross(dir);
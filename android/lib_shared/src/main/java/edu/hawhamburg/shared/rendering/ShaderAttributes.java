@@ -14,6 +14,7 @@ package edu.hawhamburg.shared.rendering;
 
 import android.opengl.GLES20;
 
+import edu.hawhamburg.shared.math.Mat4f;
 import edu.hawhamburg.shared.math.Matrix;
 import edu.hawhamburg.shared.math.Vector;
 import edu.hawhamburg.shared.rendering.Shader.ShaderMode;
@@ -39,6 +40,12 @@ public class ShaderAttributes {
   private static int locationNormal = -1;
   private static int locationTexCoords = -1;
 
+  /**
+   * Reused for the conversion of double precision matrices, the uniform is set immediately, so
+   * one instance is sufficient.
+   */
+  private final Mat4f conversionMatrix = new Mat4f();
+
   /**
    * Singleton instance
    */
@@ -117,24 +124,36 @@ public class ShaderAttributes {
   }
 
   public void setModelMatrixParameter(Matrix modelMatrix) {
+    setModelMatrixParameter(conversionMatrix.set(modelMatrix));
+  }
+
+  public void setModelMatrixParameter(Mat4f modelMatrix) {
     if (locationModelMatrix >= 0) {
-      GLES20.glUniformMatrix4fv(locationModelMatrix, 1, false, modelMatrix.floatData(), 0);
+      GLES20.glUniformMatrix4fv(locationModelMatrix, 1, false, modelMatrix.getBuffer());
       // System.out.println("model matrix " + modelMatrix);
       Shader.checkGlError();
     }
   }
 
   public void setViewMatrixParameter(Matrix viewMatrix) {
+    setViewMatrixParameter(conversionMatrix.set(viewMatrix));
+  }
+
+  public void setViewMatrixParameter(Mat4f viewMatrix) {
     if (locationViewMatrix >= 0) {
-      GLES20.glUniformMatrix4fv(locationViewMatrix, 1, false, viewMatrix.floatData(), 0);
+      GLES20.glUniformMatrix4fv(locationViewMatrix, 1, false, viewMatrix.getBuffer());
       // System.out.println("view matrix " + viewMatrix);
       Shader.checkGlError();
     }
   }
 
   public void setProjectionMatrixParameter(Matrix projectionMatrix) {
+    setProjectionMatrixParameter(conversionMatrix.set(projectionMatrix));
+  }
+
+  public void setProjectionMatrixParameter(Mat4f projectionMatrix) {
     if (locationProjectionMatrix >= 0) {
-      GLES20.glUniformMatrix4fv(locationProjectionMatrix, 1, false, projectionMatrix.floatData(), 0);
+      GLES20.glUniformMatrix4fv(locationProjectionMatrix, 1, false, projectionMatrix.getBuffer());
       // System.out.println("projection matrix " + projectionMatrix);
       Shader.checkGlError();
     }
@@ -19,6 +19,12 @@ import android.util.Log;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import edu.hawhamburg.shared.misc.Constants;
 
@@ -31,6 +37,16 @@ public class TextureManager {
 
     private Map<String, Texture> textures = new HashMap<String, Texture>();
 
+    /**
+     * Textures which are currently decoded in the background (see preloadTexture()).
+     */
+    private Map<String, Future<Texture>> pendingTextures = new HashMap<String, Future<Texture>>();
+
+    /**
+     * Executor for decoding the preloaded textures, created on first use.
+     */
+    private ExecutorService decodeExecutor = null;
+
     private static TextureManager instance = null;
 
     private Context context = null;
@@ -54,9 +70,71 @@ public class TextureManager {
     }
 
     /**
-     * Return the texure for the texture name.
+     * Return the texure for the texture name. Returns null while the texture is still decoded in
+     * the background (see preloadTexture()), so the first frames do not block on decoding.
+     * Textures which have not been preloaded are decoded synchronously.
      */
-    public Texture getTexture(String textureName) {
+    public synchronized Texture getTexture(String textureName) {
+        Texture texture = textures.get(textureName);
+        if (texture != null) {
+            return texture;
+        }
+
+        Future<Texture> pendingTexture = pendingTextures.get(textureName);
+        if (pendingTexture != null) {
+            if (!pendingTexture.isDone()) {
+                return null;
+            }
+            pendingTextures.remove(textureName);
+            try {
+                texture = pendingTexture.get();
+            } catch (InterruptedException e) {
+                Log.i(Constants.LOGTAG, "Interrupted while loading texture " + textureName + ".");
+            } catch (ExecutionException e) {
+                Log.i(Constants.LOGTAG, "Failed to load texture " + textureName + ".");
+            }
+        } else {
+            texture = decodeTexture(textureName);
+        }
+        if (texture != null) {
+            textures.put(textureName, texture);
+        }
+        return texture;
+    }
+
+    /**
+     * Start decoding the texture bitmap in the background, so that getTexture() does not block
+     * when the texture is used first. The upload to the GPU still happens at the first bind() on
+     * the GL thread. Does nothing if the texture is already loaded or no context is set.
+     */
+    public synchronized void preloadTexture(final String textureName) {
+        if (context == null || modulePackageName == null || textureName == null
+                || textures.containsKey(textureName) || pendingTextures.containsKey(textureName)) {
+            return;
+        }
+        if (decodeExecutor == null) {
+            decodeExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "TextureManager");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        pendingTextures.put(textureName, decodeExecutor.submit(new Callable<Texture>() {
+            @Override
+            public Texture call() {
+                return decodeTexture(textureName);
+            }
+        }));
+    }
+
+    /**
+     * Decode the bitmap of the texture from the resources, returns null if the texture cannot be
+     * found.
+     */
+    private Texture decodeTexture(String textureName) {
         if (context == null) {
             Log.i(Constants.LOGTAG, "Context must be set first!");
             return null;
@@ -75,22 +153,18 @@ public class TextureManager {
             noExtensionFilename = noExtensionFilename.substring(0, index).trim();
         }
 
-        if (!textures.containsKey(textureName)) {
-            // Try to create the texture
-            int resourceId = context.getResources().getIdentifier(noExtensionFilename, Constants.TEXURE_DIR, modulePackageName);
-
-            if (resourceId == 0) {
-                Log.i(Constants.LOGTAG, "Invalid resource id, did not load texture " + textureName);
-                return null;
-            }
+        // Try to create the texture
+        int resourceId = context.getResources().getIdentifier(noExtensionFilename, Constants.TEXURE_DIR, modulePackageName);
 
-            final BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inScaled = false;   // No pre-scaling
-            final Bitmap bitmap = BitmapFactory.decodeResource(context.getResources(), resourceId, options);
-            Log.i(Constants.LOGTAG, "Successfully read texture bitmap from " + textureName + ".");
-            Texture texture = new Texture(bitmap);
-            textures.put(textureName, texture);
+        if (resourceId == 0) {
+            Log.i(Constants.LOGTAG, "Invalid resource id, did not load texture " + textureName);
+            return null;
         }
-        return textures.get(textureName);
+
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false;   // No pre-scaling
+        final Bitmap bitmap = BitmapFactory.decodeResource(context.getResources(), resourceId, options);
+        Log.i(Constants.LOGTAG, "Successfully read texture bitmap from " + textureName + ".");
+        return new Texture(bitmap);
     }
 }
@@ -32,10 +32,39 @@ public class VertexBufferObject {
     private static final String LOGTAG = "WP Computer Graphics AR";
 
     /**
-     * List containing the fragment vertices to be rendered
+     * List containing the fragment vertices to be rendered. Released after the data is copied
+     * into the float buffers, only the float copy is kept.
      */
     private List<RenderVertex> renderVertices = null;
 
+    /**
+     * Alternative to renderVertices: packed arrays (3 floats per position/normal, 4 per color, 2
+     * per texture coordinate) and the number of vertices in them. Released after the upload.
+     */
+    private float[] positionData = null;
+    private float[] normalData = null;
+    private float[] colorData = null;
+    private float[] texCoordsData = null;
+    private int numberOfVerticesInData = 0;
+
+    /**
+     * Optional indices for the packed arrays (e.g. three per triangle) and their number. Without
+     * indices the vertices are drawn in their order.
+     */
+    private int[] indexData = null;
+    private int numberOfIndicesInData = 0;
+
+    /**
+     * Number of vertices in the buffers.
+     */
+    private int numberOfVertices = 0;
+
+    /**
+     * Number of indices in the index buffer, true if it contains 0 ... numberOfVertices - 1.
+     */
+    private int numberOfIndices = 0;
+    private boolean hasSequentialIndices = false;
+
     /**
      * Use this primitive type for rendering. Attentions: This implies the number
      * of vertices, normals and colors required; e.g. triangles require three
@@ -52,85 +81,198 @@ public class VertexBufferObject {
     private FloatBuffer texCoordsBuffer = null;
     private IntBuffer indexBuffer = null;
 
+    /**
+     * Staging array for the conversion into the float buffers, reused for all buffers and
+     * updates.
+     */
+    private float[] data = new float[0];
+
     public VertexBufferObject() {
     }
 
     /**
      * Set the data for the Buffer. The format is described together with the
-     * vertices, normals and colors attributes.
+     * vertices, normals and colors attributes. The buffers are refilled at the next draw(), call
+     * setup() again to update them.
      */
     public void setup(List<RenderVertex> renderVertices, int primitiveType) {
         this.renderVertices = renderVertices;
+        this.positionData = null;
+        this.indexData = null;
         this.primitiveType = primitiveType;
     }
 
     /**
-     * Init VBO, called only once (or if the date changed).
+     * Set the data for the buffers from packed arrays (positions and normals: xyz, colors: rgba,
+     * texture coordinates: uv), which avoids one RenderVertex per vertex. The arrays are copied at
+     * the next draw(), so they must not be changed until then.
+     */
+    public void setup(float[] positions, float[] normals, float[] colors, float[] texCoords,
+                      int numberOfVertices, int primitiveType) {
+        if (positions.length < 3 * numberOfVertices || normals.length < 3 * numberOfVertices
+                || colors.length < 4 * numberOfVertices || texCoords.length < 2 * numberOfVertices) {
+            throw new IllegalArgumentException("Arrays too small for " + numberOfVertices + " vertices.");
+        }
+        this.renderVertices = null;
+        this.positionData = positions;
+        this.normalData = normals;
+        this.colorData = colors;
+        this.texCoordsData = texCoords;
+        this.numberOfVerticesInData = numberOfVertices;
+        this.indexData = null;
+        this.primitiveType = primitiveType;
+    }
+
+    /**
+     * Same as setup(float[], float[], float[], float[], int, int), but the primitives are given by
+     * numberOfIndices indices into the vertices, so a vertex can be shared by several primitives
+     * (transformed only once if it is still in the vertex cache of the GPU).
+     */
+    public void setup(float[] positions, float[] normals, float[] colors, float[] texCoords,
+                      int numberOfVertices, int[] indices, int numberOfIndices,
+                      int primitiveType) {
+        if (indices.length < numberOfIndices) {
+            throw new IllegalArgumentException("Array too small for " + numberOfIndices + " indices.");
+        }
+        setup(positions, normals, colors, texCoords, numberOfVertices, primitiveType);
+        this.indexData = indices;
+        this.numberOfIndicesInData = numberOfIndices;
+    }
+
+    /**
+     * Init VBO, called only once (or if the date changed). Existing buffers are reused if they
+     * have the required size.
      */
     private void init() {
+        if (positionData != null) {
+            initFromData();
+            return;
+        }
         if (renderVertices == null || renderVertices.size() == 0) {
+            // Nothing to draw (the buffers are kept for reuse)
+            renderVertices = null;
+            numberOfVertices = 0;
+            numberOfIndices = 0;
             return;
         }
 
-        positionBuffer = createPositionBuffer();
-        normalBuffer = createNormalBuffer();
-        colorBuffer = createColorBuffer();
-        texCoordsBuffer = createTexCoordsBuffer();
-        indexBuffer = createIndexBuffer();
+        numberOfVertices = renderVertices.size();
+        if (data.length < numberOfVertices * 4) {
+            data = new float[numberOfVertices * 4];
+        }
+        positionBuffer = fillPositionBuffer(reuseOrCreate(positionBuffer, numberOfVertices * 3));
+        normalBuffer = fillNormalBuffer(reuseOrCreate(normalBuffer, numberOfVertices * 3));
+        colorBuffer = fillColorBuffer(reuseOrCreate(colorBuffer, numberOfVertices * 4));
+        texCoordsBuffer = fillTexCoordsBuffer(reuseOrCreate(texCoordsBuffer, numberOfVertices * 2));
+        initSequentialIndexBuffer();
+        // the float buffers contain all required information
+        renderVertices = null;
         Shader.checkGlError();
-        //Log.i(Constants.LOGTAG, "Created VBO buffers for " + renderVertices.size() + " render vertices.");
+        //Log.i(Constants.LOGTAG, "Created VBO buffers for " + numberOfVertices + " render vertices.");
     }
 
     /**
-     * Create position buffer from data.
+     * Init VBO from the packed arrays given in setup().
      */
-    private FloatBuffer createPositionBuffer() {
-        int dataLength = renderVertices.size() * 3 * FLOAT_SIZE_IN_BYTES;
-        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(dataLength);
-        float[] data = new float[renderVertices.size() * 3];
-        for (int i = 0; i < renderVertices.size(); i++) {
+    private void initFromData() {
+        numberOfVertices = numberOfVerticesInData;
+        numberOfIndices = 0;
+        if (numberOfVertices > 0) {
+            positionBuffer = fillBuffer(reuseOrCreate(positionBuffer, numberOfVertices * 3), positionData);
+            normalBuffer = fillBuffer(reuseOrCreate(normalBuffer, numberOfVertices * 3), normalData);
+            colorBuffer = fillBuffer(reuseOrCreate(colorBuffer, numberOfVertices * 4), colorData);
+            texCoordsBuffer = fillBuffer(reuseOrCreate(texCoordsBuffer, numberOfVertices * 2), texCoordsData);
+            if (indexData != null) {
+                numberOfIndices = numberOfIndicesInData;
+                indexBuffer = reuseOrCreate(indexBuffer, numberOfIndices);
+                indexBuffer.put(indexData, 0, numberOfIndices);
+                indexBuffer.position(0);
+                hasSequentialIndices = false;
+            } else {
+                initSequentialIndexBuffer();
+            }
+        }
+        positionData = null;
+        normalData = null;
+        colorData = null;
+        texCoordsData = null;
+        indexData = null;
+        Shader.checkGlError();
+    }
+
+    /**
+     * Copy the first capacity() values of data into the buffer.
+     */
+    private static FloatBuffer fillBuffer(FloatBuffer floatBuffer, float[] data) {
+        floatBuffer.put(data, 0, floatBuffer.capacity());
+        floatBuffer.position(0);
+        return floatBuffer;
+    }
+
+    /**
+     * Return the buffer if it has the given size, otherwise a new direct buffer.
+     */
+    private static FloatBuffer reuseOrCreate(FloatBuffer buffer, int numberOfFloats) {
+        if (buffer != null && buffer.capacity() == numberOfFloats) {
+            buffer.position(0);
+            return buffer;
+        }
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(numberOfFloats * FLOAT_SIZE_IN_BYTES);
+        byteBuffer.order(ByteOrder.nativeOrder());
+        return byteBuffer.asFloatBuffer();
+    }
+
+    /**
+     * Return the buffer if it has the given size, otherwise a new direct buffer.
+     */
+    private static IntBuffer reuseOrCreate(IntBuffer buffer, int numberOfInts) {
+        if (buffer != null && buffer.capacity() == numberOfInts) {
+            buffer.position(0);
+            return buffer;
+        }
+        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(numberOfInts * INT_SIZE_IN_BYTES);
+        byteBuffer.order(ByteOrder.nativeOrder());
+        return byteBuffer.asIntBuffer();
+    }
+
+    /**
+     * Fill position buffer from data.
+     */
+    private FloatBuffer fillPositionBuffer(FloatBuffer floatBuffer) {
+        for (int i = 0; i < numberOfVertices; i++) {
             RenderVertex rv = renderVertices.get(i);
             if (rv.position == null) {
                 System.out.println("Fehler!");
             }
-            data[i * 3] = (float) renderVertices.get(i).position.x();
-            data[i * 3 + 1] = (float) renderVertices.get(i).position.y();
-            data[i * 3 + 2] = (float) renderVertices.get(i).position.z();
+            data[i * 3] = (float) rv.position.x();
+            data[i * 3 + 1] = (float) rv.position.y();
+            data[i * 3 + 2] = (float) rv.position.z();
         }
-        byteBuffer.order(ByteOrder.nativeOrder());
-        FloatBuffer floatBuffer = byteBuffer.asFloatBuffer();
-        floatBuffer.put(data);
+        floatBuffer.put(data, 0, numberOfVertices * 3);
         floatBuffer.position(0);
         return floatBuffer;
     }
 
     /**
-     * Create normal buffer from data.
+     * Fill normal buffer from data.
      */
-    private FloatBuffer createNormalBuffer() {
-        int dataLength = renderVertices.size() * 3 * FLOAT_SIZE_IN_BYTES;
-        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(dataLength);
-        float[] data = new float[renderVertices.size() * 3];
-        for (int i = 0; i < renderVertices.size(); i++) {
-            data[i * 3] = (float) renderVertices.get(i).normal.x();
-            data[i * 3 + 1] = (float) renderVertices.get(i).normal.y();
-            data[i * 3 + 2] = (float) renderVertices.get(i).normal.z();
+    private FloatBuffer fillNormalBuffer(FloatBuffer floatBuffer) {
+        for (int i = 0; i < numberOfVertices; i++) {
+            Vector normal = renderVertices.get(i).normal;
+            data[i * 3] = (float) normal.x();
+            data[i * 3 + 1] = (float) normal.y();
+            data[i * 3 + 2] = (float) normal.z();
         }
-        byteBuffer.order(ByteOrder.nativeOrder());
-        FloatBuffer floatBuffer = byteBuffer.asFloatBuffer();
-        floatBuffer.put(data);
+        floatBuffer.put(data, 0, numberOfVertices * 3);
         floatBuffer.position(0);
         return floatBuffer;
     }
 
     /**
-     * Create color buffer from data.
+     * Fill color buffer from data.
      */
-    private FloatBuffer createColorBuffer() {
-        int dataLength = renderVertices.size() * 4 * FLOAT_SIZE_IN_BYTES;
-        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(dataLength);
-        float[] data = new float[renderVertices.size() * 4];
-        for (int i = 0; i < renderVertices.size(); i++) {
+    private FloatBuffer fillColorBuffer(FloatBuffer floatBuffer) {
+        for (int i = 0; i < numberOfVertices; i++) {
             Vector color = renderVertices.get(i).color;
             if (color.getDimension() < 4) {
                 Log.i(Constants.LOGTAG, "Invalid color vector, must be RGBA format.");
@@ -141,57 +283,75 @@ public class VertexBufferObject {
             data[i * 4 + 2] = (float) color.z();
             data[i * 4 + 3] = (float) color.w();
         }
-        byteBuffer.order(ByteOrder.nativeOrder());
-        FloatBuffer floatBuffer = byteBuffer.asFloatBuffer();
-        floatBuffer.put(data);
+        floatBuffer.put(data, 0, numberOfVertices * 4);
         floatBuffer.position(0);
         return floatBuffer;
     }
 
     /**
-     * Create texture coordinates buffer from data.
+     * Fill texture coordinates buffer from data.
      */
-    private FloatBuffer createTexCoordsBuffer() {
-        int dataLength = renderVertices.size() * 2 * FLOAT_SIZE_IN_BYTES;
-        ByteBuffer byteBuffer = ByteBuffer.allocateDirect(dataLength);
-        float[] data = new float[renderVertices.size() * 2];
-        for (int i = 0; i < renderVertices.size(); i++) {
-            data[i * 2] = (float) renderVertices.get(i).texCoords.x();
-            data[i * 2 + 1] = (float) renderVertices.get(i).texCoords.y();
+    private FloatBuffer fillTexCoordsBuffer(FloatBuffer floatBuffer) {
+        for (int i = 0; i < numberOfVertices; i++) {
+            Vector texCoords = renderVertices.get(i).texCoords;
+            data[i * 2] = (float) texCoords.x();
+            data[i * 2 + 1] = (float) texCoords.y();
         }
-        byteBuffer.order(ByteOrder.nativeOrder());
-        FloatBuffer floatBuffer = byteBuffer.asFloatBuffer();
-        floatBuffer.put(data);
+        floatBuffer.put(data, 0, numberOfVertices * 2);
         floatBuffer.position(0);
         return floatBuffer;
     }
 
-    private IntBuffer createIndexBuffer() {
-        ByteBuffer ibb =
-                ByteBuffer.allocateDirect(renderVertices.size() * INT_SIZE_IN_BYTES);
-        ibb.order(ByteOrder.nativeOrder());
-        IntBuffer indicesBuf = ibb.asIntBuffer();
-        for (int i = 0; i < renderVertices.size(); i++) {
-            indicesBuf.put(i);
+    /**
+     * Use the indices 0 ... numberOfVertices - 1 (only refilled if required).
+     */
+    private void initSequentialIndexBuffer() {
+        numberOfIndices = numberOfVertices;
+        if (hasSequentialIndices && indexBuffer != null
+                && indexBuffer.capacity() == numberOfVertices) {
+            return;
         }
-        indicesBuf.position(0);
-        return indicesBuf;
+        indexBuffer = reuseOrCreate(indexBuffer, numberOfVertices);
+        for (int i = 0; i < numberOfVertices; i++) {
+            indexBuffer.put(i);
+        }
+        indexBuffer.position(0);
+        hasSequentialIndices = true;
     }
 
     /**
      * Draw using the VBO
      */
     public void draw() {
-        if (positionBuffer == null || normalBuffer == null || colorBuffer == null) {
+        draw(null);
+    }
+
+    /**
+     * Draw using the VBO, but with the same color for all vertices instead of the color buffer
+     * (constant vertex attribute). This allows to share the VBO between objects of different
+     * colors and to change the color without updating the buffers. The color buffer is used
+     * if color is null.
+     */
+    public void draw(Vector color) {
+        if (renderVertices != null || positionData != null || positionBuffer == null) {
             init();
         }
+        if (numberOfIndices == 0) {
+            return;
+        }
 
+        int colorLocation = ShaderAttributes.getInstance().getColorLocation();
         GLES20.glEnableVertexAttribArray(
                 ShaderAttributes.getInstance().getVertexLocation());
         GLES20.glEnableVertexAttribArray(
                 ShaderAttributes.getInstance().getNormalLocation());
-        GLES20.glEnableVertexAttribArray(
-                ShaderAttributes.getInstance().getColorLocation());
+        if (color == null) {
+            GLES20.glEnableVertexAttribArray(colorLocation);
+        } else {
+            GLES20.glDisableVertexAttribArray(colorLocation);
+            GLES20.glVertexAttrib4f(colorLocation, (float) color.x(), (float) color.y(),
+                    (float) color.z(), color.getDimension() < 4 ? 1 : (float) color.w());
+        }
         GLES20.glEnableVertexAttribArray(
                 ShaderAttributes.getInstance().getTexCoordsLocation());
 
@@ -202,14 +362,15 @@ public class VertexBufferObject {
             GLES20.glVertexAttribPointer(
                     ShaderAttributes.getInstance().getNormalLocation(), 3, GLES20.GL_FLOAT,
                     false, 0, normalBuffer);
-            GLES20.glVertexAttribPointer(
-                    ShaderAttributes.getInstance().getColorLocation(), 4, GLES20.GL_FLOAT,
-                    false, 0, colorBuffer);
+            if (color == null) {
+                GLES20.glVertexAttribPointer(colorLocation, 4, GLES20.GL_FLOAT,
+                        false, 0, colorBuffer);
+            }
             GLES20.glVertexAttribPointer(
                     ShaderAttributes.getInstance().getTexCoordsLocation(), 2, GLES20.GL_FLOAT,
                     false, 0, texCoordsBuffer);
 
-            GLES20.glDrawElements(primitiveType, renderVertices.size(),
+            GLES20.glDrawElements(primitiveType, numberOfIndices,
                     GLES20.GL_UNSIGNED_INT, indexBuffer);
         } catch (Exception e) {
             Log.i(LOGTAG, "Fehler: " + e);
@@ -233,12 +394,19 @@ public class VertexBufferObject {
     }
 
     /**
-     * Delete all buffers.
+     * Number of indices drawn by draw() (0 if there is nothing to draw).
+     */
+    int getNumberOfIndices() {
+        return numberOfIndices;
+    }
+
+    /**
+     * Does nothing: the buffers are refilled at the next draw() after each setup(), which is the
+     * only way to change the data (the data is released after the upload).
+     *
+     * @deprecated Call setup() with the new data instead.
      */
+    @Deprecated
     public void invalidate() {
-        positionBuffer = null;
-        normalBuffer = null;
-        colorBuffer = null;
-        texCoordsBuffer = null;
     }
 }
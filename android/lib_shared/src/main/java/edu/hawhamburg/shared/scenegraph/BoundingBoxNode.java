@@ -102,19 +102,21 @@ public class BoundingBoxNode extends LeafNode {
     public void drawGL(RenderMode mode, Matrix modelMatrix) {
         ShaderAttributes.getInstance().setShaderModeParameter(Shader.ShaderMode.NO_LIGHTING);
         if (mode == RenderMode.REGULAR) {
-            vbo.draw();
+            vbo.draw(color);
         }
     }
 
     public void setBoundingBox(AxisAlignedBoundingBox bbox) {
         this.bbox = bbox;
-        vbo.invalidate();
         createVbo();
     }
 
+    /**
+     * Set the color of the lines, the VBO is not changed (the color is a constant vertex
+     * attribute).
+     */
     public void setColor(Vector color) {
         this.color.copy(color);
-        vbo.invalidate();
     }
 
     @Override
@@ -12,6 +12,7 @@
  */
 package edu.hawhamburg.shared.scenegraph;
 
+import edu.hawhamburg.shared.math.Mat4f;
 import edu.hawhamburg.shared.math.Matrix;
 import edu.hawhamburg.shared.math.Vector;
 import edu.hawhamburg.shared.rendering.ShaderAttributes;
@@ -33,6 +34,13 @@ public class Camera {
     private Matrix projectionMatrix;
     private Matrix viewMatrix;
 
+    /**
+     * Float copies of the projection and view matrix for the shader, updated only when the
+     * matrices are set (instead of converting them for each leaf node in each frame).
+     */
+    private final Mat4f floatProjectionMatrix = new Mat4f();
+    private final Mat4f floatViewMatrix = new Mat4f();
+
     private Vector eye = new Vector(0,0,0);
     private Vector ref = new Vector(0, 0, -1);
     private Vector up = new Vector(0,1,0);
@@ -73,6 +81,13 @@ public class Camera {
         return projectionMatrix;
     }
 
+    /**
+     * Float version of the projection matrix, do not modify.
+     */
+    public Mat4f getFloatProjectionMatrix() {
+        return floatProjectionMatrix;
+    }
+
     public void setClipping(float zNear, float zFar) {
         this.zNear = zNear;
         this.zFar = zFar;
@@ -90,6 +105,7 @@ public class Camera {
 
     public void setProjectionMatrix(Matrix projectionMatrix) {
         this.projectionMatrix = projectionMatrix;
+        floatProjectionMatrix.set(projectionMatrix);
     }
 
     public int getHeight() {
@@ -104,8 +120,16 @@ public class Camera {
         return viewMatrix;
     }
 
+    /**
+     * Float version of the view matrix, do not modify.
+     */
+    public Mat4f getFloatViewMatrix() {
+        return floatViewMatrix;
+    }
+
     public void setViewMatrix(Matrix viewMatrix) {
         this.viewMatrix = viewMatrix;
+        floatViewMatrix.set(viewMatrix);
     }
 
     public void setViewMatrixFromEyeRefUp() {
@@ -114,6 +138,7 @@ public class Camera {
                 (float)eye.z(), (float)ref.x(), (float)ref.y(), (float)ref.z(), (float)up.x(),
                 (float)up.y(), (float)up.z());
         viewMatrix = new Matrix(viewMatrixData);
+        floatViewMatrix.set(viewMatrixData);
     }
 
     public void setup(Vector eye, Vector ref, Vector up) {
@@ -35,6 +35,13 @@ public abstract class INode {
      */
     protected boolean isShadowee = false;
 
+    /**
+     * Transformation for which the cached inverse was computed (row-based) and the cached
+     * inverse itself, see getInverseTransformation().
+     */
+    private double[] cachedTransformation = null;
+    private Matrix cachedInverseTransformation = null;
+
     /**
      * This enum allows to pass different render mode states to the drawing
      * routines. The default state is REGULAR.
@@ -77,6 +84,39 @@ public abstract class INode {
      */
     public abstract Matrix getTransformation();
 
+    /**
+     * Return the inverse of the combined transformation. The inverse is cached and only
+     * recomputed if the transformation changed since the last call. The returned matrix is the
+     * cached one and must not be changed (copy it if required).
+     */
+    public Matrix getInverseTransformation() {
+        Matrix transformation = getTransformation();
+        if (transformation == null) {
+            return null;
+        }
+        if (!isCachedTransformation(transformation)) {
+            cachedInverseTransformation = transformation.getInverse();
+            cachedTransformation = transformation.data();
+        }
+        return cachedInverseTransformation;
+    }
+
+    private boolean isCachedTransformation(Matrix transformation) {
+        if (cachedTransformation == null || cachedTransformation.length
+                != transformation.getNumberOfRows() * transformation.getNumberOfColumns()) {
+            return false;
+        }
+        int numberOfColumns = transformation.getNumberOfColumns();
+        for (int row = 0; row < transformation.getNumberOfRows(); row++) {
+            for (int col = 0; col < numberOfColumns; col++) {
+                if (cachedTransformation[row * numberOfColumns + col] != transformation.get(row, col)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public void setActive(boolean active) {
         this.active = active;
     }
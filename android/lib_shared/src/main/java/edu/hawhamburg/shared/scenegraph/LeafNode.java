@@ -40,12 +40,12 @@ public abstract class LeafNode extends INode {
 
             // Projection matrix
             ShaderAttributes.getInstance().setProjectionMatrixParameter(
-                    Camera.getInstance().getProjectionMatrix());
+                    Camera.getInstance().getFloatProjectionMatrix());
             //Log.i(LOGTAG, "projection (cg):\n " + Camera.getInstance().getProjectionMatrix().toString());
 
             // View matrix
-            Matrix viewMatrix = Camera.getInstance().getViewMatrix();
-            ShaderAttributes.getInstance().setViewMatrixParameter(viewMatrix);
+            ShaderAttributes.getInstance().setViewMatrixParameter(
+                    Camera.getInstance().getFloatViewMatrix());
 
             drawGL(mode, openGLModelMatrix);
         }
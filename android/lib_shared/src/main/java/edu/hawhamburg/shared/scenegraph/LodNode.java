@@ -0,0 +1,207 @@
+/**
+ * Diese Datei gehört zum Android/Java Framework zur Veranstaltung "Computergrafik für
+ * Augmented Reality" von Prof. Dr. Philipp Jenke an der Hochschule für Angewandte
+ * Wissenschaften (HAW) Hamburg. Weder Teile der Software noch das Framework als Ganzes dürfen
+ * ohne die Einwilligung von Philipp Jenke außerhalb von Forschungs- und Lehrprojekten an der HAW
+ * Hamburg verwendet werden.
+ * <p>
+ * This file is part of the Android/Java framework for the course "Computer graphics for augmented
+ * reality" by Prof. Dr. Philipp Jenke at the University of Applied (UAS) Sciences Hamburg. Neither
+ * parts of the framework nor the complete framework may be used outside of research or student
+ * projects at the UAS Hamburg.
+ */
+package edu.hawhamburg.shared.scenegraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.hawhamburg.shared.datastructures.mesh.ITriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.MeshSimplifier;
+import edu.hawhamburg.shared.math.AxisAlignedBoundingBox;
+import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Vector;
+
+/**
+ * Level of detail node: holds several meshes of the same object with decreasing detail, only
+ * one of them is rendered. The level is chosen by the screen-space error: the geometric error of
+ * a level (in object units) projected onto the screen at the distance of the object must not
+ * exceed the pixel threshold, the coarsest such level is used.
+ * <p>
+ * To avoid popping when the object is close to a switching distance, a coarser level is only
+ * chosen if its error is clearly below the threshold (see setHysteresis()).
+ */
+public class LodNode extends InnerNode {
+
+    /**
+     * Levels ordered from the finest to the coarsest with their geometric errors.
+     */
+    private final List<TriangleMeshNode> levels = new ArrayList<TriangleMeshNode>();
+    private final List<Double> errors = new ArrayList<Double>();
+
+    /**
+     * Maximum projected error in pixels.
+     */
+    private double pixelThreshold = 1;
+
+    /**
+     * A coarser level is selected if its error is below (1 - hysteresis) * pixelThreshold.
+     */
+    private double hysteresis = 0.25;
+
+    /**
+     * Currently rendered level.
+     */
+    private int currentLevel = 0;
+
+    /**
+     * Bounding sphere of the finest level (object coordinates).
+     */
+    private Vector center = null;
+    private double radius = 0;
+
+    // Combined view and model matrix, computed in each frame
+    private final double[] modelView = new double[16];
+
+    public LodNode() {
+    }
+
+    /**
+     * Create the levels of the mesh (level 0) and simplified versions with the given ratios of
+     * the triangles (decreasing, e.g. 0.5, 0.25, 0.1), see MeshSimplifier.
+     */
+    public LodNode(ITriangleMesh mesh, double... ratios) {
+        addLevel(new TriangleMeshNode(mesh), 0);
+        MeshSimplifier simplifier = new MeshSimplifier(mesh);
+        for (double ratio : ratios) {
+            ITriangleMesh level = simplifier.simplify((int) (ratio * mesh.getNumberOfTriangles()));
+            addLevel(new TriangleMeshNode(level), simplifier.getMaxError());
+        }
+    }
+
+    /**
+     * Add the next coarser level with its geometric error (e.g. MeshSimplifier.getMaxError()),
+     * the errors must not decrease.
+     */
+    public void addLevel(TriangleMeshNode node, double error) {
+        if (!errors.isEmpty() && error < errors.get(errors.size() - 1)) {
+            throw new IllegalArgumentException("Errors of the levels must not decrease.");
+        }
+        addChild(node);
+        levels.add(node);
+        errors.add(error);
+        if (center == null) {
+            AxisAlignedBoundingBox box = node.getBoundingBox();
+            center = box.getCenter();
+            radius = box.getExtend().getNorm() / 2;
+        }
+    }
+
+    public int getNumberOfLevels() {
+        return levels.size();
+    }
+
+    /**
+     * Mesh of the level (0: finest level), e.g. to reuse a simplified level for collisions.
+     */
+    public ITriangleMesh getLevelMesh(int level) {
+        return levels.get(level).getMesh();
+    }
+
+    public int getCurrentLevel() {
+        return currentLevel;
+    }
+
+    public void setPixelThreshold(double pixelThreshold) {
+        this.pixelThreshold = pixelThreshold;
+    }
+
+    public void setHysteresis(double hysteresis) {
+        this.hysteresis = hysteresis;
+    }
+
+    @Override
+    public void traverse(RenderMode mode, Matrix modelMatrix) {
+        if (!isActive() || levels.isEmpty()) {
+            return;
+        }
+        // The level is only updated in the regular pass. The shadow passes are rendered before
+        // the regular pass (see Scene), so they use the level of the previous frame.
+        if (mode == RenderMode.REGULAR) {
+            updateCurrentLevel(modelMatrix);
+        }
+        levels.get(currentLevel).traverse(mode, modelMatrix);
+    }
+
+    /**
+     * Select the level for the current camera and model matrix.
+     */
+    private void updateCurrentLevel(Matrix modelMatrix) {
+        Camera camera = Camera.getInstance();
+        if (camera.getHeight() == 0) {
+            currentLevel = 0;
+            return;
+        }
+        // The camera stores the view matrix transposed (OpenGL column-major order)
+        Matrix viewMatrix = camera.getViewMatrix();
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                double value = 0;
+                for (int k = 0; k < 4; k++) {
+                    value += viewMatrix.get(k, row) * modelMatrix.get(k, col);
+                }
+                modelView[4 * row + col] = value;
+            }
+        }
+
+        // Distance of the bounding sphere from the eye (origin of the view coordinates)
+        double distance = 0;
+        for (int row = 0; row < 3; row++) {
+            double coordinate = modelView[4 * row] * center.x()
+                    + modelView[4 * row + 1] * center.y() + modelView[4 * row + 2] * center.z()
+                    + modelView[4 * row + 3];
+            distance += coordinate * coordinate;
+        }
+        double scale = getScale();
+        distance = Math.max(Math.sqrt(distance) - scale * radius, camera.getZNear());
+
+        double pixelsPerUnit = scale * camera.getHeight()
+                / (2 * Math.tan(camera.getFovyRadiens() / 2) * distance);
+        currentLevel = selectLevel(currentLevel, pixelsPerUnit);
+    }
+
+    /**
+     * Largest scale factor of the model-view transformation.
+     */
+    private double getScale() {
+        double scale = 0;
+        for (int col = 0; col < 3; col++) {
+            double sqrNorm = 0;
+            for (int row = 0; row < 3; row++) {
+                sqrNorm += modelView[4 * row + col] * modelView[4 * row + col];
+            }
+            scale = Math.max(scale, sqrNorm);
+        }
+        return Math.sqrt(scale);
+    }
+
+    /**
+     * Level to render if the current level is currentLevel and one object unit is projected to
+     * pixelsPerUnit pixels.
+     */
+    int selectLevel(int currentLevel, double pixelsPerUnit) {
+        int level = Math.min(currentLevel, levels.size() - 1);
+        if (errors.get(level) * pixelsPerUnit > pixelThreshold) {
+            // Error too large: finer level
+            while (level > 0 && errors.get(level) * pixelsPerUnit > pixelThreshold) {
+                level--;
+            }
+            return level;
+        }
+        // Coarser level only if its error is clearly below the threshold
+        while (level + 1 < levels.size()
+                && errors.get(level + 1) * pixelsPerUnit <= (1 - hysteresis) * pixelThreshold) {
+            level++;
+        }
+        return level;
+    }
+}
@@ -13,6 +13,8 @@
 package edu.hawhamburg.shared.scenegraph;
 
 import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Quaternion;
+import edu.hawhamburg.shared.math.Vec3;
 import edu.hawhamburg.shared.math.Vector;
 
 /**
@@ -27,6 +29,11 @@ public class RotationNode extends InnerNode {
      */
     private Matrix rotationMatrix;
 
+    /**
+     * Same rotation as unit quaternion, cheap to compose and interpolate.
+     */
+    private final Quaternion rotation = new Quaternion();
+
     private Vector axis;
     private double angle;
 
@@ -49,8 +56,23 @@ public class RotationNode extends InnerNode {
         update();
     }
 
+    /**
+     * Set the rotation from a unit quaternion, axis and angle are updated accordingly.
+     */
+    public void setRotation(Quaternion rotation) {
+        this.rotation.set(rotation);
+        angle = rotation.getAngle();
+        axis = rotation.getAxis(new Vec3()).toVector();
+        rotationMatrix = rotation.toMatrix();
+    }
+
+    public Quaternion getRotation() {
+        return new Quaternion(rotation);
+    }
+
     private void update() {
-        rotationMatrix = Matrix.createRotationMatrix4(axis, angle);
+        rotation.setFromAxisAngle(axis.x(), axis.y(), axis.z(), angle);
+        rotationMatrix = rotation.toMatrix();
     }
 
     public void traverse(RenderMode mode, Matrix modelMatrix) {
@@ -17,6 +17,7 @@ import android.opengl.GLES20;
 import java.util.ArrayList;
 import java.util.List;
 
+import edu.hawhamburg.shared.datastructures.LruCache;
 import edu.hawhamburg.shared.math.AxisAlignedBoundingBox;
 import edu.hawhamburg.shared.math.Matrix;
 import edu.hawhamburg.shared.math.Vector;
@@ -32,6 +33,18 @@ import edu.hawhamburg.shared.rendering.VertexBufferObject;
  */
 public class SphereNode extends LeafNode {
 
+    /**
+     * Maximum number of cached sphere VBOs.
+     */
+    public static final int VBO_CACHE_SIZE = 16;
+
+    /**
+     * VBOs of the spheres, keyed by radius and resolution and shared by all nodes with these
+     * parameters (the color is not part of the VBO, see drawGL()).
+     */
+    private static final LruCache<String, VertexBufferObject> vboCache =
+            new LruCache<String, VertexBufferObject>(VBO_CACHE_SIZE);
+
     /**
      * Sphere radius.
      */
@@ -45,7 +58,7 @@ public class SphereNode extends LeafNode {
     private Vector color = new Vector(0.75, 0.25, 0.25, 1);
 
     /**
-     * VBO.
+     * VBO, shared with other nodes of the same radius and resolution.
      */
     private VertexBufferObject vbo;
 
@@ -55,8 +68,15 @@ public class SphereNode extends LeafNode {
     public SphereNode(double radius, int resolution) {
         this.radius = radius;
         this.resolution = resolution;
-        vbo = new VertexBufferObject();
-        createVbo();
+        synchronized (vboCache) {
+            String key = radius + " " + resolution;
+            vbo = vboCache.get(key);
+            if (vbo == null) {
+                vbo = new VertexBufferObject();
+                createVbo();
+                vboCache.put(key, vbo);
+            }
+        }
     }
 
     private void createVbo() {
@@ -82,7 +102,7 @@ public class SphereNode extends LeafNode {
     public void drawGL(RenderMode mode, Matrix modelMatrix) {
         ShaderAttributes.getInstance().setShaderModeParameter(Shader.ShaderMode.PHONG);
         if (mode == RenderMode.REGULAR) {
-            vbo.draw();
+            vbo.draw(color);
         }
     }
 
@@ -109,9 +129,12 @@ public class SphereNode extends LeafNode {
         renderVertices.add(new RenderVertex(p0, normal, color));
     }
 
+    /**
+     * Set the color of the sphere, the VBO is not changed (the color is a constant vertex
+     * attribute).
+     */
     public void setColor(Vector color) {
         this.color = color;
-        createVbo();
     }
 
     @Override
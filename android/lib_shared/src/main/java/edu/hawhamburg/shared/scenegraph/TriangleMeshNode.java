@@ -16,10 +16,14 @@ import android.opengl.GLES20;
 
 import edu.hawhamburg.shared.datastructures.mesh.AbstractTriangle;
 import edu.hawhamburg.shared.datastructures.mesh.ITriangleMesh;
-import edu.hawhamburg.shared.datastructures.mesh.TriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.MeshSimplifier;
+import edu.hawhamburg.shared.datastructures.mesh.PackedTriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.ShadowVolume;
 import edu.hawhamburg.shared.datastructures.mesh.Vertex;
 import edu.hawhamburg.shared.math.AxisAlignedBoundingBox;
+import edu.hawhamburg.shared.math.Mat4;
 import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Vec3;
 import edu.hawhamburg.shared.math.Vector;
 import edu.hawhamburg.shared.rendering.RenderVertex;
 import edu.hawhamburg.shared.rendering.Shader;
@@ -29,6 +33,7 @@ import edu.hawhamburg.shared.rendering.TextureManager;
 import edu.hawhamburg.shared.rendering.VertexBufferObject;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -49,14 +54,29 @@ public class TriangleMeshNode extends LeafNode {
     private ITriangleMesh mesh;
 
     /**
-     * This node is used to render the shadow polygon mesh
+     * Optional low-polygon (closed) version of the mesh, only used for the shadow volume. The
+     * shadow volume of the mesh itself is used if null.
      */
-    private TriangleMeshNode shadowPolygonNode = null;
+    private ITriangleMesh shadowProxyMesh = null;
 
     /**
-     * This is the shadow polygon mesh.
+     * Shadow volume of the mesh, only recomputed if the light position in model coordinates
+     * changed (both stencil passes of a frame use the same volume).
      */
-    private TriangleMesh shadowPolygonMesh = new TriangleMesh();
+    private ShadowVolume shadowVolume = new ShadowVolume(500);
+
+    /**
+     * VBO: shadow volume
+     */
+    private VertexBufferObject vboShadowVolume = new VertexBufferObject();
+
+    /**
+     * Model matrix, its inverse and the light position in model coordinates of the shadow
+     * volume passes, reused for each pass.
+     */
+    private final Mat4 shadowModelMatrix = new Mat4();
+    private final Mat4 shadowInverseModelMatrix = new Mat4();
+    private final Vec3 shadowLightPosition = new Vec3();
 
     /**
      * Debugging: Show normals.
@@ -78,9 +98,28 @@ public class TriangleMeshNode extends LeafNode {
      */
     private VertexBufferObject vboNormals = new VertexBufferObject();
 
+    /**
+     * Render data for PackedTriangleMesh meshes (three vertices per triangle), reused for all
+     * updates.
+     */
+    private float[] packedPositions = new float[0];
+    private float[] packedNormals = new float[0];
+    private float[] packedColors = new float[0];
+    private float[] packedTexCoords = new float[0];
+
+    /**
+     * Indexed render data for per-vertex normals: corners with the same vertex, texture
+     * coordinate and color share a render vertex. The render vertices of a mesh vertex are
+     * linked: firstRenderVertices[vertex], nextRenderVertices[renderVertex], ...
+     */
+    private int[] packedIndices = new int[0];
+    private int[] firstRenderVertices = new int[0];
+    private int[] nextRenderVertices = new int[0];
+    private int[] renderTexCoordIndices = new int[0];
+
     public TriangleMeshNode(ITriangleMesh mesh) {
         this.mesh = mesh;
-        vbo.setup(createRenderVertices(), GLES20.GL_TRIANGLES);
+        setupVbo();
         vboNormals.setup(createRenderVerticesNormals(), GLES20.GL_LINES);
     }
 
@@ -92,6 +131,122 @@ public class TriangleMeshNode extends LeafNode {
         updateVbo();
     }
 
+    /**
+     * Pass the mesh data to the vbo, packed meshes are passed as arrays.
+     */
+    private void setupVbo() {
+        if (mesh instanceof PackedTriangleMesh) {
+            setupVbo((PackedTriangleMesh) mesh);
+        } else {
+            vbo.setup(createRenderVertices(), GLES20.GL_TRIANGLES);
+        }
+    }
+
+    /**
+     * Same as createRenderVertices(), but writes the render data directly into arrays.
+     */
+    private void setupVbo(PackedTriangleMesh packedMesh) {
+        int numberOfRenderVertices = 3 * packedMesh.getNumberOfTriangles();
+        ensureRenderVertexCapacity(numberOfRenderVertices);
+        if (renderNormals == RenderNormals.PER_VERTEX_NORMAL) {
+            setupIndexedVbo(packedMesh);
+            return;
+        }
+        float[] positions = packedMesh.getPositions();
+        float[] texCoords = packedMesh.getTextureCoordinates();
+        int[] vertexIndices = packedMesh.getTriangleVertexIndices();
+        int[] texCoordIndices = packedMesh.getTriangleTexCoordIndices();
+        float[] triangleNormals = packedMesh.getTriangleNormals();
+        float[] triangleColors = packedMesh.getTriangleColors();
+        for (int i = 0; i < numberOfRenderVertices; i++) {
+            int triangleIndex = i / 3;
+            System.arraycopy(positions, 3 * vertexIndices[i], packedPositions, 3 * i, 3);
+            System.arraycopy(triangleNormals, 3 * triangleIndex, packedNormals, 3 * i, 3);
+            System.arraycopy(triangleColors, 4 * triangleIndex, packedColors, 4 * i, 4);
+            copyTexCoords(texCoords, texCoordIndices[i], i);
+        }
+        vbo.setup(packedPositions, packedNormals, packedColors, packedTexCoords,
+                numberOfRenderVertices, GLES20.GL_TRIANGLES);
+    }
+
+    /**
+     * Indexed variant of setupVbo(PackedTriangleMesh) for per-vertex normals: each mesh vertex
+     * becomes one render vertex (more only at texture or color seams), so the GPU can reuse
+     * transformed vertices (see MeshOptimizer for a cache-friendly triangle order).
+     */
+    private void setupIndexedVbo(PackedTriangleMesh packedMesh) {
+        int numberOfCorners = 3 * packedMesh.getNumberOfTriangles();
+        int numberOfVertices = packedMesh.getNumberOfVertices();
+        if (packedIndices.length < numberOfCorners) {
+            packedIndices = new int[numberOfCorners];
+            nextRenderVertices = new int[numberOfCorners];
+            renderTexCoordIndices = new int[numberOfCorners];
+        }
+        if (firstRenderVertices.length < numberOfVertices) {
+            firstRenderVertices = new int[numberOfVertices];
+        }
+        Arrays.fill(firstRenderVertices, 0, numberOfVertices, -1);
+        float[] positions = packedMesh.getPositions();
+        float[] vertexNormals = packedMesh.getNormals();
+        float[] texCoords = packedMesh.getTextureCoordinates();
+        int[] vertexIndices = packedMesh.getTriangleVertexIndices();
+        int[] texCoordIndices = packedMesh.getTriangleTexCoordIndices();
+        float[] triangleColors = packedMesh.getTriangleColors();
+        int numberOfRenderVertices = 0;
+        for (int i = 0; i < numberOfCorners; i++) {
+            int triangleIndex = i / 3;
+            int vertexIndex = vertexIndices[i];
+            int renderVertex = firstRenderVertices[vertexIndex];
+            while (renderVertex >= 0 && (renderTexCoordIndices[renderVertex] != texCoordIndices[i]
+                    || !hasColor(renderVertex, triangleColors, triangleIndex))) {
+                renderVertex = nextRenderVertices[renderVertex];
+            }
+            if (renderVertex < 0) {
+                renderVertex = numberOfRenderVertices++;
+                nextRenderVertices[renderVertex] = firstRenderVertices[vertexIndex];
+                firstRenderVertices[vertexIndex] = renderVertex;
+                renderTexCoordIndices[renderVertex] = texCoordIndices[i];
+                System.arraycopy(positions, 3 * vertexIndex, packedPositions,
+                        3 * renderVertex, 3);
+                System.arraycopy(vertexNormals, 3 * vertexIndex, packedNormals,
+                        3 * renderVertex, 3);
+                System.arraycopy(triangleColors, 4 * triangleIndex, packedColors,
+                        4 * renderVertex, 4);
+                copyTexCoords(texCoords, texCoordIndices[i], renderVertex);
+            }
+            packedIndices[i] = renderVertex;
+        }
+        vbo.setup(packedPositions, packedNormals, packedColors, packedTexCoords,
+                numberOfRenderVertices, packedIndices, numberOfCorners, GLES20.GL_TRIANGLES);
+    }
+
+    private void ensureRenderVertexCapacity(int numberOfRenderVertices) {
+        if (packedPositions.length < 3 * numberOfRenderVertices) {
+            packedPositions = new float[3 * numberOfRenderVertices];
+            packedNormals = new float[3 * numberOfRenderVertices];
+            packedColors = new float[4 * numberOfRenderVertices];
+            packedTexCoords = new float[2 * numberOfRenderVertices];
+        }
+    }
+
+    private void copyTexCoords(float[] texCoords, int texCoordIndex, int renderVertex) {
+        if (texCoordIndex >= 0) {
+            System.arraycopy(texCoords, 2 * texCoordIndex, packedTexCoords, 2 * renderVertex, 2);
+        } else {
+            packedTexCoords[2 * renderVertex] = 0;
+            packedTexCoords[2 * renderVertex + 1] = 0;
+        }
+    }
+
+    private boolean hasColor(int renderVertex, float[] triangleColors, int triangleIndex) {
+        for (int j = 0; j < 4; j++) {
+            if (packedColors[4 * renderVertex + j] != triangleColors[4 * triangleIndex + j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Create vbo data for mesh rendering
      */
@@ -143,7 +298,7 @@ public class TriangleMeshNode extends LeafNode {
         if (mesh.hasTexture()) {
             Texture texture = mesh.getTexture();
             if (texture != null) {
-                mesh.getTexture().bind();
+                texture.bind();
                 ShaderAttributes.getInstance().setShaderModeParameter(Shader.ShaderMode.TEXTURE);
             } else {
                 ShaderAttributes.getInstance().setShaderModeParameter(Shader.ShaderMode.PHONG);
@@ -152,25 +307,12 @@ public class TriangleMeshNode extends LeafNode {
             ShaderAttributes.getInstance().setShaderModeParameter(Shader.ShaderMode.PHONG);
         }
 
-        // Compute transformed light position
-        Vector lightPosition = new Vector(1, 1, 1);
-//        if (getRootNode() != null) {
-//            Matrix invertedTransformation = modelMatrix.getInverse();
-//            invertedTransformation = invertedTransformation.getTransposed();
-//            Vector light4 = new Vector(getRootNode().getLightPosition().x(),
-//                    getRootNode().getLightPosition().y(),
-//                    getRootNode().getLightPosition().z(), 1);
-//            Vector transformedLight = invertedTransformation.multiply(light4);
-//            lightPosition =
-//                    transformedLight.xyz().multiply(1.0f / transformedLight.w());
-//        }
-
         if (mode == RenderMode.REGULAR) {
             drawRegular();
         } else if (mode == RenderMode.DEBUG_SHADOW_VOLUME) {
-            drawShadowVolume(modelMatrix, lightPosition);
+            drawShadowVolume(modelMatrix);
         } else if (mode == RenderMode.SHADOW_VOLUME) {
-            drawShadowVolume(modelMatrix, lightPosition);
+            drawShadowVolume(modelMatrix);
         } else if (mode == RenderMode.DARK) {
             ShaderAttributes.getInstance().setShaderModeParameter(Shader.ShaderMode.AMBIENT_ONLY);
             drawRegular();
@@ -188,17 +330,71 @@ public class TriangleMeshNode extends LeafNode {
     }
 
     /**
-     * Render the shadow volumes.
+     * Render the shadow volume for the light of the scene (given in world coordinates, (1, 1, 1)
+     * if the node is not part of a scene). openGLModelMatrix is the transposed model matrix (as
+     * passed to drawGL()). The volume is only recomputed if the light position in model
+     * coordinates changed.
      */
-    public void drawShadowVolume(Matrix modelMatrix,
-                                 Vector lightPosition) {
-        mesh.createShadowPolygons(lightPosition, 500, shadowPolygonMesh);
-        if (shadowPolygonNode == null) {
-            shadowPolygonNode = new TriangleMeshNode(shadowPolygonMesh);
-            shadowPolygonNode.setParentNode(this);
-            shadowPolygonNode.vbo.setup(shadowPolygonNode.createRenderVertices(), GLES20.GL_TRIANGLES);
+    public void drawShadowVolume(Matrix openGLModelMatrix) {
+        RootNode rootNode = getRootNode();
+        if (rootNode != null) {
+            shadowLightPosition.set(rootNode.getLightPosition());
+        } else {
+            shadowLightPosition.set(1, 1, 1);
         }
-        shadowPolygonNode.traverse(RenderMode.REGULAR, modelMatrix);
+        setTransposed(openGLModelMatrix, shadowModelMatrix);
+        if (!Mat4.invert(shadowModelMatrix, shadowInverseModelMatrix)) {
+            return;
+        }
+        shadowInverseModelMatrix.transformPoint(shadowLightPosition, shadowLightPosition);
+        drawShadowVolume(shadowLightPosition);
+    }
+
+    /**
+     * Render the shadow volume for the light position given in model coordinates.
+     */
+    public void drawShadowVolume(Vec3 lightPosition) {
+        ShaderAttributes.getInstance().setShaderModeParameter(Shader.ShaderMode.PHONG);
+        ITriangleMesh shadowCaster = (shadowProxyMesh != null) ? shadowProxyMesh : mesh;
+        if (shadowVolume.update(shadowCaster, lightPosition)) {
+            vboShadowVolume.setup(shadowVolume.getPositions(), shadowVolume.getNormals(),
+                    shadowVolume.getColors(), shadowVolume.getTextureCoordinates(),
+                    shadowVolume.getNumberOfVertices(), GLES20.GL_TRIANGLES);
+        }
+        vboShadowVolume.draw();
+    }
+
+    private static void setTransposed(Matrix matrix, Mat4 out) {
+        out.set(matrix.get(0, 0), matrix.get(1, 0), matrix.get(2, 0), matrix.get(3, 0),
+                matrix.get(0, 1), matrix.get(1, 1), matrix.get(2, 1), matrix.get(3, 1),
+                matrix.get(0, 2), matrix.get(1, 2), matrix.get(2, 2), matrix.get(3, 2),
+                matrix.get(0, 3), matrix.get(1, 3), matrix.get(2, 3), matrix.get(3, 3));
+    }
+
+    /**
+     * Use the proxy mesh (null: the mesh itself) to create the shadow volume, the mesh is still
+     * used for the lit rendering. The proxy must have the coordinate system of the mesh and
+     * should be closed and welded, otherwise the shadow volume has holes.
+     */
+    public void setShadowProxyMesh(ITriangleMesh shadowProxyMesh) {
+        this.shadowProxyMesh = shadowProxyMesh;
+        shadowVolume.invalidate();
+    }
+
+    /**
+     * Create the shadow proxy mesh by simplification of the mesh to about ratio times its
+     * triangles, see MeshSimplifier.createShadowProxy(). Call again if the mesh changed.
+     */
+    public void createShadowProxyMesh(double ratio) {
+        setShadowProxyMesh(MeshSimplifier.createShadowProxy(mesh, ratio));
+    }
+
+    public ITriangleMesh getShadowProxyMesh() {
+        return shadowProxyMesh;
+    }
+
+    public ITriangleMesh getMesh() {
+        return mesh;
     }
 
     public void setShowNormals(boolean showNormals) {
@@ -207,13 +403,13 @@ public class TriangleMeshNode extends LeafNode {
 
     public void setRenderNormals(RenderNormals renderNormals) {
         this.renderNormals = renderNormals;
-        vbo.setup(createRenderVertices(), GLES20.GL_TRIANGLES);
+        setupVbo();
     }
 
     public void updateVbo() {
-        vbo.setup(createRenderVertices(), GLES20.GL_TRIANGLES);
+        setupVbo();
         vboNormals.setup(createRenderVerticesNormals(), GLES20.GL_LINES);
-        vbo.invalidate();
+        shadowVolume.invalidate();
     }
 
     @Override
@@ -5,6 +5,8 @@ import org.junit.Test;
 import edu.hawhamburg.shared.math.AxisAlignedBoundingBox;
 import edu.hawhamburg.shared.math.Matrix;
 import edu.hawhamburg.shared.math.Vector;
+import edu.hawhamburg.shared.scenegraph.BoundingBoxNode;
+import edu.hawhamburg.shared.scenegraph.TranslationNode;
 
 import static org.junit.Assert.*;
 
@@ -53,4 +55,22 @@ public class CollisionUtilsTest {
                 new Vector(7, 1, 0));
         assertTrue(CollisionUtils.doBoxesCollide(box1, transformation1, box2, transformation2));
     }
+
+    @Test
+    public void doBoxesCollide_nodes() {
+        AxisAlignedBoundingBox box = new AxisAlignedBoundingBox(new Vector(0, 0, 0),
+                new Vector(1, 1, 1));
+        TranslationNode translationNode1 = new TranslationNode(new Vector(0, 0, 0));
+        BoundingBoxNode boxNode1 = new BoundingBoxNode(box);
+        translationNode1.addChild(boxNode1);
+        TranslationNode translationNode2 = new TranslationNode(new Vector(0.5, 0.5, 0));
+        BoundingBoxNode boxNode2 = new BoundingBoxNode(box);
+        translationNode2.addChild(boxNode2);
+        assertTrue(CollisionUtils.doBoxesCollide(boxNode1, boxNode2));
+
+        // the cached inverse of node 1 must be updated
+        translationNode1.setTranslation(new Vector(2, 0, 0));
+        assertFalse(CollisionUtils.doBoxesCollide(boxNode1, boxNode2));
+        assertEquals(-2, boxNode1.getInverseTransformation().get(0, 3), 1e-9);
+    }
 }
@@ -0,0 +1,100 @@
+package edu.hawhamburg.shared.datastructures.halfedge;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import edu.hawhamburg.shared.datastructures.mesh.PackedTriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshFactory;
+import edu.hawhamburg.shared.math.Vector;
+
+import static org.junit.Assert.*;
+
+public class IndexedHalfEdgeMeshTest {
+
+    /**
+     * Grid of n x n quads (two triangles each) in the x-y-plane.
+     */
+    private static TriangleMesh createGrid(int n) {
+        TriangleMesh mesh = new TriangleMesh();
+        for (int i = 0; i <= n; i++) {
+            for (int j = 0; j <= n; j++) {
+                mesh.addVertex(new Vector(i, j, 0));
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int v = i * (n + 1) + j;
+                mesh.addTriangle(v, v + n + 1, v + n + 2);
+                mesh.addTriangle(v, v + n + 2, v + 1);
+            }
+        }
+        return mesh;
+    }
+
+    @Test
+    public void closedMesh() {
+        PackedTriangleMesh sphere = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(sphere, 0.5, 10);
+        IndexedHalfEdgeMesh mesh = new IndexedHalfEdgeMesh(sphere);
+        assertEquals(3 * sphere.getNumberOfTriangles(), mesh.getNumberOfHalfEdges());
+        assertEquals(0, mesh.getNumberOfBoundaryHalfEdges());
+        int valenceSum = 0;
+        int[] neighbors = new int[32];
+        for (int v = 0; v < mesh.getNumberOfVertices(); v++) {
+            assertFalse(mesh.isBoundaryVertex(v));
+            assertEquals(mesh.getValence(v), mesh.getOneRing(v, neighbors));
+            valenceSum += mesh.getValence(v);
+        }
+        // Each edge is counted twice, Euler characteristic of the sphere is 2
+        assertEquals(mesh.getNumberOfHalfEdges(), valenceSum);
+        assertEquals(2, mesh.getNumberOfVertices() - valenceSum / 2 + mesh.getNumberOfFacets());
+
+        for (int h = 0; h < mesh.getNumberOfHalfEdges(); h++) {
+            int opposite = mesh.getOpposite(h);
+            assertEquals(h, mesh.getOpposite(opposite));
+            assertEquals(mesh.getStartVertex(h), mesh.getEndVertex(opposite));
+            assertEquals(h, mesh.getNext(mesh.getNext(mesh.getNext(h))));
+            assertEquals(h, mesh.getPrevious(mesh.getNext(h)));
+        }
+    }
+
+    @Test
+    public void boundary() {
+        IndexedHalfEdgeMesh mesh = new IndexedHalfEdgeMesh(createGrid(3));
+        assertEquals(18, mesh.getNumberOfFacets());
+        assertEquals(12, mesh.getNumberOfBoundaryHalfEdges());
+
+        // Corner (0, 0): neighbors (1, 0), (1, 1), (0, 1)
+        int[] neighbors = new int[8];
+        assertTrue(mesh.isBoundaryVertex(0));
+        assertEquals(3, mesh.getValence(0));
+        assertEquals(3, mesh.getOneRing(0, neighbors));
+        int[] ring = Arrays.copyOf(neighbors, 3);
+        Arrays.sort(ring);
+        assertArrayEquals(new int[]{1, 4, 5}, ring);
+
+        // Interior vertex (1, 1)
+        int v = 5;
+        assertFalse(mesh.isBoundaryVertex(v));
+        assertEquals(6, mesh.getValence(v));
+        assertEquals(6, mesh.getOneRing(v, neighbors));
+        ring = Arrays.copyOf(neighbors, 6);
+        Arrays.sort(ring);
+        assertArrayEquals(new int[]{0, 1, 4, 6, 9, 10}, ring);
+
+        // Outgoing half-edges of a boundary vertex start at the boundary
+        int h = mesh.getOutgoingHalfEdge(1);
+        assertTrue(mesh.isBoundary(h));
+        assertEquals(1, mesh.getStartVertex(h));
+    }
+
+    @Test
+    public void largeMesh() {
+        IndexedHalfEdgeMesh mesh = new IndexedHalfEdgeMesh(createGrid(300));
+        assertEquals(2 * 300 * 300, mesh.getNumberOfFacets());
+        assertEquals(4 * 300, mesh.getNumberOfBoundaryHalfEdges());
+        assertEquals(6, mesh.getValence(150 * 301 + 150));
+    }
+}
@@ -0,0 +1,153 @@
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.hawhamburg.shared.math.Vector;
+
+import static org.junit.Assert.*;
+
+public class EdgeAdjacencyTest {
+
+    /**
+     * Silhouette computed with an edge map (the former implementation of getSilhouette()).
+     */
+    private static List<Edge> computeSilhouetteWithEdgeMap(TriangleMesh mesh, Vector position) {
+        List<Edge> silhouetteEdges = new ArrayList<Edge>();
+        Map<Edge, Integer> edge2FacetMap = new HashMap<Edge, Integer>();
+        for (int triangleIndex = 0; triangleIndex < mesh.getNumberOfTriangles(); triangleIndex++) {
+            Triangle t = mesh.getTriangle(triangleIndex);
+            for (int i = 0; i < 3; i++) {
+                Edge edge = new Edge(t.getVertexIndex(i), t.getVertexIndex((i + 1) % 3));
+                if (edge2FacetMap.containsKey(edge)) {
+                    double d1 = getSignedDistance(mesh, triangleIndex, position);
+                    double d2 = getSignedDistance(mesh, edge2FacetMap.get(edge), position);
+                    if (d1 < 0) {
+                        edge.Flip();
+                    }
+                    if (d1 * d2 < 0) {
+                        silhouetteEdges.add(edge);
+                    }
+                    edge2FacetMap.remove(edge);
+                } else {
+                    edge2FacetMap.put(edge, triangleIndex);
+                }
+            }
+        }
+        return silhouetteEdges;
+    }
+
+    private static double getSignedDistance(TriangleMesh mesh, int triangleIndex,
+                                            Vector position) {
+        Triangle t = mesh.getTriangle(triangleIndex);
+        Vector v = mesh.getVertex(t.getVertexIndex(0)).getPosition();
+        return t.getNormal().multiply(position) - t.getNormal().multiply(v);
+    }
+
+    private static void assertSameEdges(List<Edge> expected, List<Edge> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).a, actual.get(i).a);
+            assertEquals(expected.get(i).b, actual.get(i).b);
+        }
+    }
+
+    @Test
+    public void create_cube() {
+        TriangleMesh cube = new TriangleMesh();
+        TriangleMeshFactory.createCube(cube);
+        EdgeAdjacency adjacency = new EdgeAdjacency(cube);
+
+        assertEquals(18, adjacency.getNumberOfEdges());
+        assertEquals(0, adjacency.getNumberOfBoundaryEdges());
+        for (int e = 0; e < adjacency.getNumberOfEdges(); e++) {
+            Triangle t = cube.getTriangle(adjacency.getTriangle(e, 1));
+            int a = adjacency.getStartVertex(e);
+            int b = adjacency.getEndVertex(e);
+            boolean found = false;
+            for (int i = 0; i < 3; i++) {
+                found |= (t.getVertexIndex(i) == b && t.getVertexIndex((i + 1) % 3) == a)
+                        || (t.getVertexIndex(i) == a && t.getVertexIndex((i + 1) % 3) == b);
+            }
+            assertTrue(found);
+        }
+    }
+
+    @Test
+    public void create_boundaryEdges() {
+        TriangleMesh mesh = new TriangleMesh();
+        mesh.addVertex(new Vector(0, 0, 0));
+        mesh.addVertex(new Vector(1, 0, 0));
+        mesh.addVertex(new Vector(1, 1, 0));
+        mesh.addVertex(new Vector(0, 1, 0));
+        mesh.addTriangle(0, 1, 2);
+        mesh.addTriangle(0, 2, 3);
+        EdgeAdjacency adjacency = new EdgeAdjacency(mesh);
+
+        assertEquals(1, adjacency.getNumberOfEdges());
+        assertEquals(4, adjacency.getNumberOfBoundaryEdges());
+        assertEquals(1, adjacency.getTriangle(0, 0));
+        assertEquals(0, adjacency.getTriangle(0, 1));
+    }
+
+    @Test
+    public void getSilhouette_sameAsEdgeMap() {
+        TriangleMesh sphere = new TriangleMesh();
+        TriangleMeshFactory.createSphere(sphere, 0.5, 20);
+        Vector[] positions = {new Vector(1, 2, 1), new Vector(-3, 0.5, 2), new Vector(0, 0, 5)};
+        for (Vector position : positions) {
+            assertSameEdges(computeSilhouetteWithEdgeMap(sphere, position),
+                    sphere.getSilhouette(position));
+        }
+    }
+
+    @Test
+    public void computeSilhouette_packedMeshSameAsTriangleMesh() {
+        TriangleMesh mesh = new TriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 20);
+        PackedTriangleMesh packedMesh = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(packedMesh, 0.5, 20);
+        Vector lightPosition = new Vector(1, 2, 1);
+
+        int numberOfEdges = mesh.computeSilhouette(lightPosition, 1);
+        assertTrue(numberOfEdges > 0);
+        assertEquals(numberOfEdges, packedMesh.computeSilhouette(lightPosition, 1));
+        int[] silhouette = Arrays.copyOf(mesh.getSilhouetteVertexIndices(), 2 * numberOfEdges);
+        assertTrue(Arrays.equals(silhouette,
+                Arrays.copyOf(packedMesh.getSilhouetteVertexIndices(), 2 * numberOfEdges)));
+    }
+
+    @Test
+    public void computeSilhouette_parallel() {
+        PackedTriangleMesh sphere = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(sphere, 0.5, 300);
+        assertTrue(sphere.getEdgeAdjacency().getNumberOfEdges()
+                > 4 * EdgeAdjacency.MIN_EDGES_PER_THREAD);
+        Vector lightPosition = new Vector(1, 2, 1);
+
+        int numberOfEdges = sphere.computeSilhouette(lightPosition, 1);
+        int[] silhouette = Arrays.copyOf(sphere.getSilhouetteVertexIndices(), 2 * numberOfEdges);
+        assertEquals(numberOfEdges, sphere.computeSilhouette(lightPosition, 4));
+        assertTrue(Arrays.equals(silhouette,
+                Arrays.copyOf(sphere.getSilhouetteVertexIndices(), 2 * numberOfEdges)));
+    }
+
+    @Test
+    public void addTriangle_updatesAdjacency() {
+        PackedTriangleMesh mesh = new PackedTriangleMesh();
+        mesh.addVertex(new Vector(0, 0, 0));
+        mesh.addVertex(new Vector(1, 0, 0));
+        mesh.addVertex(new Vector(1, 1, 0));
+        mesh.addVertex(new Vector(0, 1, 0));
+        mesh.addTriangle(0, 1, 2);
+        assertEquals(0, mesh.getEdgeAdjacency().getNumberOfEdges());
+
+        mesh.addTriangle(0, 2, 3);
+        assertEquals(1, mesh.getEdgeAdjacency().getNumberOfEdges());
+    }
+}
@@ -0,0 +1,124 @@
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import edu.hawhamburg.shared.math.Vec3;
+import edu.hawhamburg.shared.math.Vector;
+
+import static org.junit.Assert.*;
+
+public class MeshOptimizerTest {
+
+    /**
+     * Mesh with the triangles in random order.
+     */
+    private static PackedTriangleMesh createShuffledSphere() {
+        PackedTriangleMesh sphere = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(sphere, 0.5, 40);
+        int[] vertexIndices = sphere.getTriangleVertexIndices();
+        Random random = new Random(1);
+        for (int i = sphere.getNumberOfTriangles() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            for (int k = 0; k < 3; k++) {
+                int swap = vertexIndices[3 * i + k];
+                vertexIndices[3 * i + k] = vertexIndices[3 * j + k];
+                vertexIndices[3 * j + k] = swap;
+            }
+        }
+        return sphere;
+    }
+
+    @Test
+    public void optimize_packedMesh() {
+        PackedTriangleMesh mesh = createShuffledSphere();
+        long[] triangles = sortedTriangles(mesh);
+        MeshOptimizer optimizer = new MeshOptimizer();
+        double acmr = optimizer.computeAcmr(mesh);
+        assertTrue(acmr > 2.5);
+
+        optimizer.optimize(mesh);
+        assertTrue(optimizer.computeAcmr(mesh) < 0.8);
+        assertTrue(optimizer.computeAtvr(mesh) < 1.6);
+
+        // Same triangles (by position)
+        assertTrue(Arrays.equals(triangles, sortedTriangles(mesh)));
+    }
+
+    @Test
+    public void optimize_triangleMesh() {
+        TriangleMesh mesh = new TriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 20);
+        mesh.getTriangle(7).setColor(new Vector(1, 0, 0, 1));
+        Vector color = mesh.getTriangle(7).getColor();
+        Vector position = mesh.getVertex(mesh.getTriangle(7).getVertexIndex(0)).getPosition();
+        int numberOfTriangles = mesh.getNumberOfTriangles();
+
+        new MeshOptimizer().optimize(mesh);
+        assertEquals(numberOfTriangles, mesh.getNumberOfTriangles());
+        int numberOfRedTriangles = 0;
+        for (int i = 0; i < mesh.getNumberOfTriangles(); i++) {
+            Triangle t = mesh.getTriangle(i);
+            if (t.getColor().x() == 1) {
+                numberOfRedTriangles++;
+                assertEquals(color, t.getColor());
+                boolean hasPosition = false;
+                for (int j = 0; j < 3; j++) {
+                    hasPosition |= mesh.getVertex(t.getVertexIndex(j)).getPosition()
+                            .subtract(position).getNorm() < 1e-9;
+                }
+                assertTrue(hasPosition);
+            }
+        }
+        assertEquals(1, numberOfRedTriangles);
+    }
+
+    @Test
+    public void computeVertexMap() {
+        int[] vertexIndices = {3, 1, 4, 4, 1, 0};
+        int[] vertexMap = new int[6];
+        assertEquals(4, new MeshOptimizer().computeVertexMap(vertexIndices, 2, 6, vertexMap));
+        assertArrayEquals(new int[]{3, 1, 4, 0, 2, 5}, vertexMap);
+    }
+
+    @Test
+    public void computeAcmr() {
+        // Strip of 4 triangles: each triangle adds one vertex
+        int[] vertexIndices = {0, 1, 2, 2, 1, 3, 2, 3, 4, 4, 3, 5};
+        MeshOptimizer optimizer = new MeshOptimizer(4);
+        assertEquals(1.5, optimizer.computeAcmr(vertexIndices, 4, 6), 1e-9);
+        assertEquals(1, optimizer.computeAtvr(vertexIndices, 4, 6), 1e-9);
+
+        // FIFO cache of 4 vertices: vertex 0 is evicted by vertex 4 and transformed again
+        int[] fan = {0, 1, 2, 0, 2, 3, 0, 3, 4, 0, 4, 5};
+        assertEquals(7 / 6.0, optimizer.computeAtvr(fan, 4, 6), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCacheSize() {
+        new MeshOptimizer(2);
+    }
+
+    /**
+     * Sorted keys of the triangles computed from the rounded coordinates of their vertices
+     * (independent of the order of the triangles and vertices).
+     */
+    private static long[] sortedTriangles(PackedTriangleMesh mesh) {
+        long[] keys = new long[mesh.getNumberOfTriangles()];
+        Vec3 position = new Vec3();
+        for (int i = 0; i < keys.length; i++) {
+            long[] corners = new long[3];
+            for (int j = 0; j < 3; j++) {
+                mesh.getPosition(mesh.getTriangleVertexIndex(i, j), position);
+                corners[j] = Math.round(position.x * 1e4) * 31 * 31
+                        + Math.round(position.y * 1e4) * 31 + Math.round(position.z * 1e4);
+            }
+            Arrays.sort(corners);
+            keys[i] = (corners[0] * 31 + corners[1]) * 31 + corners[2];
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+}
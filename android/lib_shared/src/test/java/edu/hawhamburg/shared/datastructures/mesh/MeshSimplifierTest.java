@@ -0,0 +1,140 @@
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import edu.hawhamburg.shared.datastructures.halfedge.IndexedHalfEdgeMesh;
+import edu.hawhamburg.shared.math.Vec3;
+import edu.hawhamburg.shared.math.Vector;
+
+import static org.junit.Assert.*;
+
+public class MeshSimplifierTest {
+
+    @Test
+    public void simplify_sphere() {
+        TriangleMesh sphere = new TriangleMesh();
+        TriangleMeshFactory.createSphere(sphere, 0.5, 40);
+        int numberOfTriangles = sphere.getNumberOfTriangles();
+        MeshSimplifier simplifier = new MeshSimplifier(sphere);
+
+        PackedTriangleMesh mesh = simplifier.simplify(numberOfTriangles / 10);
+        assertTrue(mesh.getNumberOfTriangles() <= numberOfTriangles / 10);
+        assertTrue(mesh.getNumberOfTriangles() > numberOfTriangles / 20);
+        assertEquals(0, new IndexedHalfEdgeMesh(mesh).getNumberOfBoundaryHalfEdges());
+
+        // Vertices stay close to the sphere
+        Vec3 position = new Vec3();
+        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
+            mesh.getPosition(i, position);
+            assertEquals(0.5, Math.sqrt(position.x * position.x + position.y * position.y
+                    + position.z * position.z), 0.05);
+        }
+        assertTrue(simplifier.getMaxError() > 0);
+        assertTrue(simplifier.getMaxError() < 0.05);
+    }
+
+    @Test
+    public void simplify_keepsBoundary() {
+        // Grid of 10 x 10 quads in the x-y-plane
+        TriangleMesh grid = new TriangleMesh();
+        int n = 10;
+        for (int i = 0; i <= n; i++) {
+            for (int j = 0; j <= n; j++) {
+                grid.addVertex(new Vector(i, j, 0));
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int v = i * (n + 1) + j;
+                grid.addTriangle(v, v + n + 1, v + n + 2);
+                grid.addTriangle(v, v + n + 2, v + 1);
+            }
+        }
+
+        PackedTriangleMesh mesh = new MeshSimplifier(grid).simplify(50);
+        assertTrue(mesh.getNumberOfTriangles() <= 50);
+        assertTrue(new IndexedHalfEdgeMesh(mesh).getNumberOfBoundaryHalfEdges() >= 4);
+
+        // Vertices stay in the square, the corners are kept
+        Vec3 position = new Vec3();
+        int numberOfCorners = 0;
+        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
+            mesh.getPosition(i, position);
+            assertEquals(0, position.z, 1e-6);
+            assertTrue(position.x > -1e-6 && position.x < n + 1e-6);
+            assertTrue(position.y > -1e-6 && position.y < n + 1e-6);
+            if ((Math.abs(position.x) < 1e-6 || Math.abs(position.x - n) < 1e-6)
+                    && (Math.abs(position.y) < 1e-6 || Math.abs(position.y - n) < 1e-6)) {
+                numberOfCorners++;
+            }
+        }
+        assertEquals(4, numberOfCorners);
+    }
+
+    @Test
+    public void createLodChain() {
+        TriangleMesh sphere = new TriangleMesh();
+        TriangleMeshFactory.createSphere(sphere, 0.5, 40);
+        List<PackedTriangleMesh> meshes =
+                MeshSimplifier.createLodChain(sphere, 0.5, 0.25, 0.1);
+
+        assertEquals(3, meshes.size());
+        int previous = sphere.getNumberOfTriangles();
+        for (PackedTriangleMesh mesh : meshes) {
+            assertTrue(mesh.getNumberOfTriangles() < previous);
+            previous = mesh.getNumberOfTriangles();
+        }
+        assertTrue(meshes.get(2).getNumberOfTriangles() <= sphere.getNumberOfTriangles() / 10);
+    }
+
+    @Test
+    public void simplify_keepsTriangleColors() {
+        TriangleMesh sphere = new TriangleMesh();
+        TriangleMeshFactory.createSphere(sphere, 0.5, 20);
+        PackedTriangleMesh packedSphere = new PackedTriangleMesh(sphere);
+        for (int i = 0; i < packedSphere.getNumberOfTriangles(); i++) {
+            packedSphere.setTriangleColor(i, 1, 0, 0, 1);
+        }
+
+        PackedTriangleMesh mesh = new MeshSimplifier(packedSphere).simplify(100);
+        for (int i = 0; i < mesh.getNumberOfTriangles(); i++) {
+            assertEquals(1, mesh.getTriangleColors()[4 * i], 0);
+            assertEquals(0, mesh.getTriangleColors()[4 * i + 1], 0);
+        }
+    }
+
+    @Test
+    public void createShadowProxy_weldsSeams() {
+        TriangleMesh sphere = new TriangleMesh();
+        TriangleMeshFactory.createSphere(sphere, 0.5, 40);
+        // Each triangle with its own vertices (like a mesh split at all texture seams)
+        TriangleMesh soup = new TriangleMesh();
+        for (int i = 0; i < sphere.getNumberOfTriangles(); i++) {
+            Triangle t = sphere.getTriangle(i);
+            soup.addTriangle(soup.addVertex(sphere.getVertex(t.getVertexIndex(0)).getPosition()),
+                    soup.addVertex(sphere.getVertex(t.getVertexIndex(1)).getPosition()),
+                    soup.addVertex(sphere.getVertex(t.getVertexIndex(2)).getPosition()));
+        }
+        soup.computeTriangleNormals();
+
+        PackedTriangleMesh proxy = MeshSimplifier.createShadowProxy(soup, 0.1);
+        assertTrue(proxy.getNumberOfTriangles() <= sphere.getNumberOfTriangles() / 10 + 1);
+        assertTrue(proxy.getNumberOfTriangles() > sphere.getNumberOfTriangles() / 20);
+        assertEquals(0, proxy.getEdgeAdjacency().getNumberOfBoundaryEdges());
+
+        Vector lightPosition = new Vector(1, 2, 1);
+        int numberOfProxyEdges = proxy.computeSilhouette(lightPosition, 1);
+        assertTrue(numberOfProxyEdges > 0);
+        assertTrue(numberOfProxyEdges < sphere.computeSilhouette(lightPosition, 1));
+        assertEquals(0, soup.computeSilhouette(lightPosition, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createShadowProxy_invalidRatio() {
+        TriangleMesh cube = new TriangleMesh();
+        TriangleMeshFactory.createCube(cube);
+        MeshSimplifier.createShadowProxy(cube, 0);
+    }
+}
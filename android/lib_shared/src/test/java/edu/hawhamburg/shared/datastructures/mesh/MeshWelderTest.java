@@ -0,0 +1,114 @@
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import edu.hawhamburg.shared.math.Vector;
+
+import static org.junit.Assert.*;
+
+public class MeshWelderTest {
+
+    private static final double EPSILON = 1e-4;
+
+    /**
+     * Each triangle of the mesh with its own three vertices, moved by up to offset.
+     */
+    private static void createTriangleSoup(ITriangleMesh mesh, ITriangleMesh soup, double offset) {
+        for (int i = 0; i < mesh.getNumberOfTriangles(); i++) {
+            Triangle t = (Triangle) mesh.getTriangle(i);
+            int[] indices = new int[3];
+            for (int j = 0; j < 3; j++) {
+                Vector position = mesh.getVertex(t.getVertexIndex(j)).getPosition();
+                double d = ((i + j) % 3 - 1) * offset;
+                indices[j] = soup.addVertex(position.add(new Vector(d, -d, d)));
+            }
+            soup.addTriangle(indices[0], indices[1], indices[2]);
+        }
+    }
+
+    @Test
+    public void weld_triangleMesh() {
+        TriangleMesh cube = new TriangleMesh();
+        TriangleMeshFactory.createCube(cube);
+        TriangleMesh soup = new TriangleMesh();
+        createTriangleSoup(cube, soup, EPSILON / 4);
+        assertEquals(36, soup.getNumberOfVertices());
+
+        assertEquals(28, new MeshWelder(EPSILON).weld(soup));
+        assertEquals(8, soup.getNumberOfVertices());
+        assertEquals(12, soup.getNumberOfTriangles());
+        soup.computeTriangleNormals();
+        Vector lightPosition = new Vector(3, 2, 1);
+        assertEquals(cube.getSilhouette(lightPosition).size(),
+                soup.getSilhouette(lightPosition).size());
+    }
+
+    @Test
+    public void weld_packedMesh() {
+        TriangleMesh cube = new TriangleMesh();
+        TriangleMeshFactory.createCube(cube);
+        PackedTriangleMesh soup = new PackedTriangleMesh();
+        createTriangleSoup(cube, soup, EPSILON / 4);
+        soup.setTriangleColor(5, 1, 0, 0, 1);
+
+        assertEquals(28, new MeshWelder(EPSILON).weld(soup));
+        assertEquals(8, soup.getNumberOfVertices());
+        assertEquals(12, soup.getNumberOfTriangles());
+        assertEquals(1, soup.getTriangleColors()[4 * 5], 0);
+        for (int i = 0; i < 3 * soup.getNumberOfTriangles(); i++) {
+            assertTrue(soup.getTriangleVertexIndices()[i] < 8);
+        }
+    }
+
+    @Test
+    public void weld_removesDegenerateTriangles() {
+        TriangleMesh mesh = new TriangleMesh();
+        mesh.addVertex(new Vector(0, 0, 0));
+        mesh.addVertex(new Vector(1, 0, 0));
+        mesh.addVertex(new Vector(0, 1, 0));
+        mesh.addVertex(new Vector(1, EPSILON / 2, 0));
+        mesh.addTriangle(0, 1, 2);
+        mesh.addTriangle(0, 1, 3);
+
+        assertEquals(1, new MeshWelder(EPSILON).weld(mesh));
+        assertEquals(3, mesh.getNumberOfVertices());
+        assertEquals(1, mesh.getNumberOfTriangles());
+    }
+
+    @Test
+    public void weld_keepsDistantVertices() {
+        TriangleMesh cube = new TriangleMesh();
+        TriangleMeshFactory.createCube(cube);
+
+        assertEquals(0, new MeshWelder(EPSILON).weld(cube));
+        assertEquals(8, cube.getNumberOfVertices());
+    }
+
+    @Test
+    public void computeVertexMap_parallel() {
+        TriangleMesh sphere = new TriangleMesh();
+        TriangleMeshFactory.createSphere(sphere, 0.5, 120);
+        PackedTriangleMesh soup = new PackedTriangleMesh();
+        createTriangleSoup(sphere, soup, EPSILON / 4);
+        int numberOfVertices = soup.getNumberOfVertices();
+        assertTrue(numberOfVertices > 4 * MeshWelder.MIN_VERTICES_PER_THREAD);
+        double[] positions = new double[3 * numberOfVertices];
+        TriangleMeshTools.copyPositions(soup, 0, numberOfVertices, positions);
+
+        int[] vertexMap = new int[numberOfVertices];
+        int numberOfWeldedVertices = new MeshWelder(EPSILON).computeVertexMap(positions,
+                numberOfVertices, vertexMap);
+        int[] parallelVertexMap = new int[numberOfVertices];
+        assertEquals(numberOfWeldedVertices, new MeshWelder(EPSILON, 4).computeVertexMap(
+                positions, numberOfVertices, parallelVertexMap));
+        assertTrue(Arrays.equals(vertexMap, parallelVertexMap));
+        assertTrue(numberOfWeldedVertices <= sphere.getNumberOfVertices());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidEpsilon() {
+        new MeshWelder(0);
+    }
+}
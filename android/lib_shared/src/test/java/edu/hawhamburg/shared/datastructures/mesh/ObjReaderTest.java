@@ -0,0 +1,213 @@
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ObjReaderTest {
+
+    private static final String OBJ = "# comment\r\n"
+            + "v 1 0 0\r\n"
+            + "v 0 1.5 0\n"
+            + "  v\t0  0 -2.5e-1 \n"
+            + "v 1 1 0\n"
+            + "vt 0.25 0.75\n"
+            + "f 1/1 2/1 3/1\n"
+            + "f 1 2 3 4\n"
+            + "f 1 x 3\n"
+            + "o second\n"
+            + "v 0 0 1\n"
+            + "v 1 0 1\n"
+            + "v 0 1 1\n"
+            + "f 5//1 6//1 7//1\n";
+
+    private File writeObjFile() throws IOException {
+        return writeObjFile(OBJ);
+    }
+
+    private File writeObjFile(String content) throws IOException {
+        File file = File.createTempFile("mesh", ".obj");
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(content.getBytes("UTF-8"));
+        out.close();
+        return file;
+    }
+
+    /**
+     * Several objects, each a grid of quads; large enough to be split into chunks.
+     */
+    private String createLargeObj() {
+        StringBuilder obj = new StringBuilder();
+        int n = 40;
+        for (int object = 0; object < 4; object++) {
+            obj.append("o object").append(object).append('\n');
+            int offset = object * n * n;
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    obj.append("v ").append(i * 0.1).append(' ').append(j * 0.01).append(' ')
+                            .append(object).append('\n');
+                    obj.append("vt ").append(i / (double) n).append(' ')
+                            .append(j / (double) n).append('\n');
+                }
+            }
+            for (int i = 0; i + 1 < n; i++) {
+                for (int j = 0; j + 1 < n; j++) {
+                    int a = offset + i * n + j + 1;
+                    obj.append("f ").append(a).append('/').append(a).append(' ')
+                            .append(a + n).append('/').append(a + n).append(' ')
+                            .append(a + n + 1).append('/').append(a + n + 1).append(' ')
+                            .append(a + 1).append('/').append(a + 1).append('\n');
+                }
+            }
+        }
+        return obj.toString();
+    }
+
+    @Test
+    public void read() throws IOException {
+        List<ITriangleMesh> meshes = new ObjReader().read(writeObjFile());
+        assertEquals(2, meshes.size());
+
+        ITriangleMesh mesh = meshes.get(0);
+        assertEquals(4, mesh.getNumberOfVertices());
+        assertEquals(3, mesh.getNumberOfTriangles());
+        assertEquals(-0.25, mesh.getVertex(2).getPosition().z(), 0);
+        assertEquals(0.25, mesh.getTextureCoordinate(0).x(), 0);
+        assertEquals(0.25, mesh.getTextureCoordinate(0).y(), 0);
+        Triangle t = (Triangle) mesh.getTriangle(0);
+        assertEquals(1, t.getVertexIndex(1));
+        assertEquals(0, t.getTexCoordIndex(1));
+        t = (Triangle) mesh.getTriangle(2);
+        assertEquals(0, t.getVertexIndex(0));
+        assertEquals(2, t.getVertexIndex(1));
+        assertEquals(3, t.getVertexIndex(2));
+        assertEquals(-1, t.getTexCoordIndex(2));
+
+        // Index offset of the second object
+        t = (Triangle) meshes.get(1).getTriangle(0);
+        assertEquals(0, t.getVertexIndex(0));
+        assertEquals(2, t.getVertexIndex(2));
+        assertEquals(-1, t.getTexCoordIndex(0));
+    }
+
+    @Test
+    public void read_reusedReader() throws IOException {
+        ObjReader reader = new ObjReader();
+        List<ITriangleMesh> meshes = reader.read(writeObjFile());
+        List<ITriangleMesh> otherMeshes = reader.read(writeObjFile("v 0 0 0\nv 1 0 0\nv 0 1 0\n"
+                + "f 1 2 3\n"));
+        assertEquals(2, meshes.size());
+        assertEquals(1, otherMeshes.size());
+    }
+
+    @Test
+    public void read_packed() throws IOException {
+        List<ITriangleMesh> meshes = new ObjReader(true).read(writeObjFile());
+        assertEquals(2, meshes.size());
+        PackedTriangleMesh mesh = (PackedTriangleMesh) meshes.get(0);
+        assertEquals(3, mesh.getNumberOfTriangles());
+        assertEquals(1.5f, mesh.getPositions()[4], 0);
+        assertEquals(3, mesh.getTriangleVertexIndex(2, 2));
+    }
+
+    @Test
+    public void read_parallel() throws IOException {
+        String obj = createLargeObj();
+        assertTrue(obj.length() > 4 * ObjReader.MIN_CHUNK_SIZE);
+        File file = writeObjFile(obj);
+        List<ITriangleMesh> expected = new ObjReader(true).read(file);
+        List<ITriangleMesh> meshes = new ObjReader(true, 8).read(file);
+
+        assertEquals(4, meshes.size());
+        for (int m = 0; m < meshes.size(); m++) {
+            PackedTriangleMesh expectedMesh = (PackedTriangleMesh) expected.get(m);
+            PackedTriangleMesh mesh = (PackedTriangleMesh) meshes.get(m);
+            assertEquals(expectedMesh.getNumberOfVertices(), mesh.getNumberOfVertices());
+            assertEquals(expectedMesh.getNumberOfTriangles(), mesh.getNumberOfTriangles());
+            assertEquals(expectedMesh.getNumberOfTextureCoordinates(),
+                    mesh.getNumberOfTextureCoordinates());
+            for (int i = 0; i < 3 * mesh.getNumberOfVertices(); i++) {
+                assertEquals(expectedMesh.getPositions()[i], mesh.getPositions()[i], 0);
+            }
+            for (int i = 0; i < 3 * mesh.getNumberOfTriangles(); i++) {
+                assertEquals(expectedMesh.getTriangleVertexIndices()[i],
+                        mesh.getTriangleVertexIndices()[i]);
+                assertEquals(expectedMesh.getTriangleTexCoordIndices()[i],
+                        mesh.getTriangleTexCoordIndices()[i]);
+            }
+        }
+        // Indices are relative to the object
+        assertEquals(0, ((PackedTriangleMesh) meshes.get(3)).getTriangleVertexIndex(0, 0));
+    }
+
+    @Test
+    public void read_cache() throws IOException {
+        File file = writeObjFile();
+        File cacheFile = new File(file.getPath() + ObjReader.CACHE_FILE_SUFFIX);
+        cacheFile.deleteOnExit();
+        ObjReader reader = new ObjReader(true);
+        reader.setUseCache(true);
+        reader.read(file);
+        assertTrue(cacheFile.isFile());
+
+        for (boolean packed : new boolean[]{true, false}) {
+            reader = new ObjReader(packed);
+            reader.setUseCache(true);
+            List<ITriangleMesh> meshes = reader.read(file);
+            assertEquals(2, meshes.size());
+            ITriangleMesh mesh = meshes.get(0);
+            assertEquals(packed, mesh instanceof PackedTriangleMesh);
+            assertEquals(4, mesh.getNumberOfVertices());
+            assertEquals(3, mesh.getNumberOfTriangles());
+            assertEquals(-0.25, mesh.getVertex(2).getPosition().z(), 0);
+            assertEquals(0.25, mesh.getTextureCoordinate(0).y(), 0);
+            ITriangleMesh expectedMesh = new ObjReader(packed).read(file).get(0);
+            assertEquals(expectedMesh.getTriangle(0).getNormal(), mesh.getTriangle(0).getNormal());
+            assertEquals(expectedMesh.getVertex(1).getNormal(), mesh.getVertex(1).getNormal());
+        }
+
+        // Changed content (same size) invalidates the cache
+        File changedFile = writeObjFile(OBJ.replace("v 1 1 0", "v 1 2 0"));
+        assertTrue(changedFile.renameTo(file));
+        ObjReader changedReader = new ObjReader(true);
+        changedReader.setUseCache(true);
+        ITriangleMesh mesh = changedReader.read(file).get(0);
+        assertEquals(2, mesh.getVertex(3).getPosition().y(), 0);
+    }
+
+    @Test
+    public void read_weld() throws IOException {
+        File file = writeObjFile("v 0 0 0\nv 1 0 0\nv 0 1 0\n"
+                + "v 1 0 0.00001\nv 0 1 0\nv 1 1 0\nf 1 2 3\nf 4 6 5\n");
+        for (boolean packed : new boolean[]{true, false}) {
+            ObjReader reader = new ObjReader(packed);
+            reader.setWeldEpsilon(1e-4);
+            ITriangleMesh mesh = reader.read(file).get(0);
+            assertEquals(4, mesh.getNumberOfVertices());
+            assertEquals(2, mesh.getNumberOfTriangles());
+        }
+        assertEquals(6, new ObjReader().read(file).get(0).getNumberOfVertices());
+    }
+
+    @Test
+    public void read_optimizeVertexCache() throws IOException {
+        // Unused vertex 1, vertices in reverse order of their use
+        File file = writeObjFile("v 9 9 9\nv 1 1 0\nv 0 1 0\nv 1 0 0\nv 0 0 0\n"
+                + "f 5 4 3\nf 4 2 3\n");
+        for (boolean packed : new boolean[]{true, false}) {
+            ObjReader reader = new ObjReader(packed);
+            reader.setOptimizeVertexCache(true);
+            ITriangleMesh mesh = reader.read(file).get(0);
+            assertEquals(5, mesh.getNumberOfVertices());
+            assertEquals(2, mesh.getNumberOfTriangles());
+            assertEquals(9, mesh.getVertex(4).getPosition().x(), 0);
+            assertEquals(1, new MeshOptimizer().computeAtvr(mesh), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ObjStreamReaderTest {
+
+    private static final String OBJ = "mtllib mesh.mtl\n"
+            + "o first\n"
+            + "v 1 0 0\n"
+            + "v 0 1.5 0\r\n"
+            + "v 0 0 -2.5e-1\n"
+            + "v 1 1 0\n"
+            + "vt 0.25 0.75\n"
+            + "usemtl red\n"
+            + "f 1/1 2/1 3/1 4/1\n"
+            + "f 1 x 3\n"
+            + "f 4//1 2//1 1//1";
+
+    private static class RecordingVisitor extends ObjVisitorAdapter {
+        private int numberOfVertices = 0;
+        private float minZ = Float.MAX_VALUE;
+        private List<String> statements = new ArrayList<String>();
+
+        @Override
+        public void onVertex(float x, float y, float z) {
+            numberOfVertices++;
+            minZ = Math.min(minZ, z);
+        }
+
+        @Override
+        public void onFace(int[] vertexIndices, int[] texCoordIndices) {
+            statements.add(Arrays.toString(vertexIndices) + Arrays.toString(texCoordIndices));
+        }
+
+        @Override
+        public void onObject(String name) {
+            statements.add("o " + name);
+        }
+
+        @Override
+        public void onMaterialLibrary(String filename) {
+            statements.add("mtllib " + filename);
+        }
+
+        @Override
+        public void onMaterial(String materialName) {
+            statements.add("usemtl " + materialName);
+        }
+    }
+
+    @Test
+    public void read() throws UnsupportedEncodingException {
+        RecordingVisitor visitor = new RecordingVisitor();
+        assertTrue(new ObjStreamReader().read(
+                new ByteArrayInputStream(OBJ.getBytes("UTF-8")), visitor));
+        assertEquals(4, visitor.numberOfVertices);
+        assertEquals(-0.25f, visitor.minZ, 0);
+        assertEquals(Arrays.asList("mtllib mesh.mtl", "o first", "usemtl red",
+                "[1, 2, 3][1, 1, 1]", "[1, 3, 4][1, 1, 1]", "[4, 2, 1][0, 0, 0]"),
+                visitor.statements);
+    }
+
+    @Test
+    public void read_invalidVertex() throws UnsupportedEncodingException {
+        RecordingVisitor visitor = new RecordingVisitor();
+        assertFalse(new ObjStreamReader().read(
+                new ByteArrayInputStream("v 1 0 0\nv 1 a 0\nv 0 0 0\n".getBytes("UTF-8")),
+                visitor));
+        assertEquals(1, visitor.numberOfVertices);
+    }
+}
@@ -0,0 +1,163 @@
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import edu.hawhamburg.shared.math.Matrix;
+import edu.hawhamburg.shared.math.Vec3;
+import edu.hawhamburg.shared.math.Vector;
+
+import static org.junit.Assert.*;
+
+public class PackedTriangleMeshTest {
+
+    private static final double FLOAT_EPSILON = 1e-5;
+
+    @Test
+    public void createSphere_sameAsTriangleMesh() {
+        TriangleMesh mesh = new TriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 12);
+        PackedTriangleMesh packedMesh = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(packedMesh, 0.5, 12);
+
+        assertEquals(mesh.getNumberOfVertices(), packedMesh.getNumberOfVertices());
+        assertEquals(mesh.getNumberOfTriangles(), packedMesh.getNumberOfTriangles());
+        Vec3 normal = new Vec3();
+        for (int i = 0; i < mesh.getNumberOfTriangles(); i++) {
+            Triangle t = mesh.getTriangle(i);
+            for (int j = 0; j < 3; j++) {
+                assertEquals(t.getVertexIndex(j), packedMesh.getTriangleVertexIndex(i, j));
+            }
+            packedMesh.getTriangleNormal(i, normal);
+            assertEquals(0, normal.toVector().subtract(t.getNormal()).getNorm(), FLOAT_EPSILON);
+        }
+
+        Vector lightPosition = new Vector(1, 2, 1);
+        assertEquals(mesh.getSilhouette(lightPosition).size(),
+                packedMesh.getSilhouette(lightPosition).size());
+    }
+
+    @Test
+    public void copy() {
+        TriangleMesh mesh = new TriangleMesh();
+        TriangleMeshFactory.createCylinder(mesh, 0.5, 1, 8, 4);
+        PackedTriangleMesh packedMesh = new PackedTriangleMesh(mesh);
+
+        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
+            assertEquals(mesh.getVertex(i).getPosition(), packedMesh.getVertex(i).getPosition());
+        }
+        Triangle t = packedMesh.getTriangle(3);
+        assertEquals(mesh.getTriangle(3).getColor(), t.getColor());
+        assertEquals(mesh.getTriangle(3).getVertexIndex(2), t.getVertexIndex(2));
+    }
+
+    @Test
+    public void transformPositions() {
+        PackedTriangleMesh packedMesh = new PackedTriangleMesh();
+        TriangleMeshFactory.createCube(packedMesh);
+        TriangleMeshTools.transformPositions(packedMesh,
+                Matrix.createTranslationMatrix4(new Vector(1, 2, 3)));
+
+        Vec3 position = packedMesh.getPosition(0, new Vec3());
+        assertEquals(0.5, position.x, FLOAT_EPSILON);
+        assertEquals(1.5, position.y, FLOAT_EPSILON);
+        assertEquals(2.5, position.z, FLOAT_EPSILON);
+        assertEquals(3.5, packedMesh.getBoundingBox().getUR().z(), FLOAT_EPSILON);
+    }
+
+    @Test
+    public void computeVertexNormals_sphere() {
+        TriangleMesh mesh = new TriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 12);
+        PackedTriangleMesh packedMesh = new PackedTriangleMesh(mesh);
+        mesh.computeVertexNormals();
+        packedMesh.computeVertexNormals();
+
+        Vec3 normal = new Vec3();
+        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
+            Vertex vertex = mesh.getVertex(i);
+            Vector expectedNormal = vertex.getPosition().getNormalized();
+            assertEquals(1, vertex.getNormal().multiply(expectedNormal), 0.05);
+            packedMesh.getNormal(i, normal);
+            assertEquals(0, normal.toVector().subtract(vertex.getNormal()).getNorm(),
+                    FLOAT_EPSILON);
+        }
+    }
+
+    @Test
+    public void computeVertexNormals_parallel() {
+        PackedTriangleMesh packedMesh = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(packedMesh, 0.5, 300);
+        assertTrue(packedMesh.getNumberOfTriangles()
+                > 4 * TriangleMeshTools.MIN_TRIANGLES_PER_THREAD);
+        TriangleMeshTools.computeVertexNormals(packedMesh, 1);
+        float[] normals = Arrays.copyOf(packedMesh.getNormals(),
+                3 * packedMesh.getNumberOfVertices());
+
+        TriangleMeshTools.computeVertexNormals(packedMesh, 4);
+        for (int i = 0; i < normals.length; i++) {
+            assertEquals(normals[i], packedMesh.getNormals()[i], FLOAT_EPSILON);
+        }
+    }
+
+    @Test
+    public void createInstance_sharesArrays() {
+        PackedTriangleMesh mesh = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 12);
+        PackedTriangleMesh instance = mesh.createInstance();
+
+        assertTrue(instance.isShared());
+        assertEquals(mesh.getNumberOfVertices(), instance.getNumberOfVertices());
+        assertEquals(mesh.getNumberOfTriangles(), instance.getNumberOfTriangles());
+        assertSame(mesh.getPositions(), instance.getPositions());
+        assertSame(mesh.getTriangleVertexIndices(), instance.getTriangleVertexIndices());
+        assertSame(mesh.getTriangleColors(), instance.getTriangleColors());
+    }
+
+    @Test
+    public void createInstance_copyOnWrite() {
+        PackedTriangleMesh mesh = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 12);
+        Vec3 position = mesh.getPosition(0, new Vec3());
+        PackedTriangleMesh instance = mesh.createInstance();
+
+        // Only the changed attributes are copied
+        instance.setColor(new Vector(1, 0, 0, 1));
+        assertNotSame(mesh.getTriangleColors(), instance.getTriangleColors());
+        assertEquals(0.5, mesh.getTriangleColors()[0], 0);
+        assertEquals(1, instance.getTriangleColors()[0], 0);
+        assertSame(mesh.getPositions(), instance.getPositions());
+
+        instance.setPosition(0, 2, 3, 4);
+        assertNotSame(mesh.getPositions(), instance.getPositions());
+        assertEquals(0, position.getSqrDistance(mesh.getPosition(0, new Vec3())), 0);
+        assertSame(mesh.getTriangleVertexIndices(), instance.getTriangleVertexIndices());
+
+        // Changes of the original mesh do not affect the instance
+        mesh.computeVertexNormals();
+        mesh.addVertex(1, 1, 1);
+        assertEquals(mesh.getNumberOfVertices() - 1, instance.getNumberOfVertices());
+        assertEquals(2, instance.getPosition(0, new Vec3()).x, FLOAT_EPSILON);
+    }
+
+    @Test
+    public void createInstance_appendDoesNotOverwrite() {
+        PackedTriangleMesh mesh = new PackedTriangleMesh();
+        mesh.addVertex(0, 0, 0);
+        mesh.addVertex(1, 0, 0);
+        mesh.addVertex(0, 1, 0);
+        mesh.addTriangle(0, 1, 2);
+        PackedTriangleMesh instance = mesh.createInstance();
+
+        // Both meshes have capacity left in the shared arrays
+        mesh.addVertex(5, 5, 5);
+        mesh.addTriangle(0, 2, 3);
+        instance.addVertex(7, 7, 7);
+        instance.addTriangle(3, 1, 0);
+        assertEquals(5, mesh.getPosition(3, new Vec3()).x, 0);
+        assertEquals(7, instance.getPosition(3, new Vec3()).x, 0);
+        assertEquals(0, mesh.getTriangleVertexIndex(1, 0));
+        assertEquals(3, instance.getTriangleVertexIndex(1, 0));
+    }
+}
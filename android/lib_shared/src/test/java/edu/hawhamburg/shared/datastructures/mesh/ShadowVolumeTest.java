@@ -0,0 +1,64 @@
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import org.junit.Test;
+
+import edu.hawhamburg.shared.math.Vec3;
+import edu.hawhamburg.shared.math.Vector;
+
+import static org.junit.Assert.*;
+
+public class ShadowVolumeTest {
+
+    private static final double FLOAT_EPSILON = 1e-3;
+
+    private static void assertSameAsShadowPolygons(ITriangleMesh mesh, Vec3 lightPosition) {
+        TriangleMesh shadowPolygonMesh = new TriangleMesh();
+        mesh.createShadowPolygons(lightPosition.toVector(), 500, shadowPolygonMesh);
+        ShadowVolume shadowVolume = new ShadowVolume(500);
+        assertTrue(shadowVolume.update(mesh, lightPosition));
+
+        assertEquals(3 * shadowPolygonMesh.getNumberOfTriangles(),
+                shadowVolume.getNumberOfVertices());
+        float[] positions = shadowVolume.getPositions();
+        float[] normals = shadowVolume.getNormals();
+        for (int i = 0; i < shadowVolume.getNumberOfVertices(); i++) {
+            Triangle t = shadowPolygonMesh.getTriangle(i / 3);
+            Vector position = shadowPolygonMesh.getVertex(t.getVertexIndex(i % 3)).getPosition();
+            for (int j = 0; j < 3; j++) {
+                assertEquals(position.get(j), positions[3 * i + j], FLOAT_EPSILON);
+                assertEquals(t.getNormal().get(j), normals[3 * i + j], FLOAT_EPSILON);
+            }
+            assertEquals(0.5, shadowVolume.getColors()[4 * i + 3], FLOAT_EPSILON);
+        }
+    }
+
+    @Test
+    public void update_sameAsShadowPolygons() {
+        TriangleMesh mesh = new TriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 12);
+        assertSameAsShadowPolygons(mesh, new Vec3(1, 2, 1));
+
+        PackedTriangleMesh packedMesh = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(packedMesh, 0.5, 12);
+        assertSameAsShadowPolygons(packedMesh, new Vec3(-2, 1, 3));
+    }
+
+    @Test
+    public void update_onlyIfLightPositionChanged() {
+        PackedTriangleMesh mesh = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 12);
+        ShadowVolume shadowVolume = new ShadowVolume(500);
+        Vec3 lightPosition = new Vec3(1, 2, 1);
+
+        assertTrue(shadowVolume.update(mesh, lightPosition));
+        int numberOfVertices = shadowVolume.getNumberOfVertices();
+        assertTrue(numberOfVertices > 0);
+        assertFalse(shadowVolume.update(mesh, new Vec3(1, 2, 1)));
+        assertEquals(numberOfVertices, shadowVolume.getNumberOfVertices());
+
+        assertTrue(shadowVolume.update(mesh, lightPosition.set(1, 2, 2)));
+        assertFalse(shadowVolume.update(mesh, lightPosition));
+        shadowVolume.invalidate();
+        assertTrue(shadowVolume.update(mesh, lightPosition));
+    }
+}
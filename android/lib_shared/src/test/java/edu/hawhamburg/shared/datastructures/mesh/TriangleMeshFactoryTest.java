@@ -0,0 +1,55 @@
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import edu.hawhamburg.shared.math.Vector;
+
+import static org.junit.Assert.*;
+
+public class TriangleMeshFactoryTest {
+
+    @Test
+    public void getSphere_sameAsCreateSphere() {
+        PackedTriangleMesh expected = new PackedTriangleMesh();
+        TriangleMeshFactory.createSphere(expected, 0.5, 12);
+        PackedTriangleMesh sphere = TriangleMeshFactory.getSphere(0.5, 12);
+
+        assertEquals(expected.getNumberOfVertices(), sphere.getNumberOfVertices());
+        assertEquals(expected.getNumberOfTriangles(), sphere.getNumberOfTriangles());
+        assertTrue(Arrays.equals(expected.getPositions(), sphere.getPositions()));
+    }
+
+    @Test
+    public void getSphere_sharesCachedArrays() {
+        PackedTriangleMesh sphere1 = TriangleMeshFactory.getSphere(0.5, 12);
+        PackedTriangleMesh sphere2 = TriangleMeshFactory.getSphere(0.5, 12);
+        PackedTriangleMesh otherSphere = TriangleMeshFactory.getSphere(0.5, 13);
+
+        assertNotSame(sphere1, sphere2);
+        assertSame(sphere1.getPositions(), sphere2.getPositions());
+        assertNotSame(sphere1.getPositions(), otherSphere.getPositions());
+    }
+
+    @Test
+    public void getSphere_changesDoNotAffectCache() {
+        PackedTriangleMesh sphere = TriangleMeshFactory.getSphere(0.5, 12);
+        float[] colors = sphere.getTriangleColors();
+        float red = colors[0];
+        sphere.setColor(new Vector(red == 1 ? 0 : 1, 0, 0, 1));
+
+        assertEquals(red, TriangleMeshFactory.getSphere(0.5, 12).getTriangleColors()[0], 0);
+        assertSame(sphere.getPositions(), TriangleMeshFactory.getSphere(0.5, 12).getPositions());
+    }
+
+    @Test
+    public void getPlane_keyedByParameters() {
+        PackedTriangleMesh plane = TriangleMeshFactory.getPlane(new Vector(0, 0, 0),
+                new Vector(0, 1, 0), 1);
+        assertSame(plane.getPositions(), TriangleMeshFactory.getPlane(new Vector(0, 0, 0),
+                new Vector(0, 1, 0), 1).getPositions());
+        assertNotSame(plane.getPositions(), TriangleMeshFactory.getPlane(new Vector(0, 0, 0),
+                new Vector(0, 1, 0), 2).getPositions());
+    }
+}
@@ -0,0 +1,67 @@
+package edu.hawhamburg.shared.datastructures.mesh;
+
+import org.junit.Test;
+
+import edu.hawhamburg.shared.math.Vec3;
+
+import static org.junit.Assert.*;
+
+public class TriangleMeshTest {
+
+    private static final double FLOAT_EPSILON = 1e-5;
+
+    @Test
+    public void computeDirtyNormals_sameAsFullRecomputation() {
+        TriangleMesh mesh = new TriangleMesh();
+        TriangleMeshFactory.createCylinder(mesh, 0.5, 1, 8, 10);
+        mesh.computeVertexNormals();
+        assertEquals(0, mesh.computeDirtyNormals());
+
+        // Bend the upper part of the cylinder
+        Vec3 position = new Vec3();
+        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
+            position.set(mesh.getVertex(i).getPosition());
+            if (position.y > 0.8) {
+                position.x += 0.2 * (position.y - 0.8);
+            }
+            mesh.setVertexPosition(i, position);
+        }
+        int numberOfTriangles = mesh.computeDirtyNormals();
+        assertTrue(numberOfTriangles > 0);
+        assertTrue(numberOfTriangles < mesh.getNumberOfTriangles());
+
+        TriangleMesh expectedMesh = new TriangleMesh(mesh);
+        expectedMesh.computeTriangleNormals();
+        expectedMesh.computeVertexNormals();
+        for (int i = 0; i < mesh.getNumberOfTriangles(); i++) {
+            assertEquals(0, expectedMesh.getTriangle(i).getNormal()
+                    .subtract(mesh.getTriangle(i).getNormal()).getNorm(), FLOAT_EPSILON);
+        }
+        for (int i = 0; i < mesh.getNumberOfVertices(); i++) {
+            assertEquals(0, expectedMesh.getVertex(i).getNormal()
+                    .subtract(mesh.getVertex(i).getNormal()).getNorm(), FLOAT_EPSILON);
+        }
+        assertEquals(0, mesh.computeDirtyNormals());
+    }
+
+    @Test
+    public void vertexTriangleAdjacency() {
+        TriangleMesh mesh = new TriangleMesh();
+        TriangleMeshFactory.createCube(mesh);
+        VertexTriangleAdjacency adjacency = mesh.getVertexTriangleAdjacency();
+
+        int sum = 0;
+        for (int v = 0; v < mesh.getNumberOfVertices(); v++) {
+            for (int i = 0; i < adjacency.getNumberOfTriangles(v); i++) {
+                Triangle t = mesh.getTriangle(adjacency.getTriangle(v, i));
+                assertTrue(t.getVertexIndex(0) == v || t.getVertexIndex(1) == v
+                        || t.getVertexIndex(2) == v);
+            }
+            sum += adjacency.getNumberOfTriangles(v);
+        }
+        assertEquals(3 * mesh.getNumberOfTriangles(), sum);
+
+        mesh.addTriangle(0, 1, 2);
+        assertNotSame(adjacency, mesh.getVertexTriangleAdjacency());
+    }
+}
@@ -0,0 +1,74 @@
+package edu.hawhamburg.shared.math;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MatrixTest {
+
+    private Matrix rigid = Matrix.createTranslationMatrix4(new Vector(2, -3, 5))
+            .multiply(Matrix.createRotationMatrix4(new Vector(0, 0.6, 0.8), 0.7));
+    private Matrix affine = rigid.multiply(Matrix.createScaleMatrix4(new Vector(2, 0.5, 3)));
+    private Matrix projective = new Matrix(2, 0, 1, 0,
+                                           0, 3, 0, 1,
+                                           1, 0, 4, 0,
+                                           0, 1, 0, 2);
+
+    @Test
+    public void getInverse_rigid() {
+        assertTrue(new Mat4(rigid).isRigid());
+        assertEquals(Matrix.createIdentityMatrix4(), rigid.multiply(rigid.getInverse()));
+    }
+
+    @Test
+    public void getInverse_affine() {
+        assertFalse(new Mat4(affine).isRigid());
+        assertTrue(new Mat4(affine).isAffine());
+        assertEquals(Matrix.createIdentityMatrix4(), affine.multiply(affine.getInverse()));
+    }
+
+    @Test
+    public void getInverse_general() {
+        assertFalse(new Mat4(projective).isAffine());
+        assertEquals(Matrix.createIdentityMatrix4(), projective.multiply(projective.getInverse()));
+        assertEquals(Matrix.createIdentityMatrix4(), projective.getInverse().multiply(projective));
+    }
+
+    @Test
+    public void getDeterminant() {
+        assertEquals(1, rigid.getDeterminant(), MathHelpers.EPSILON);
+        assertEquals(3, affine.getDeterminant(), MathHelpers.EPSILON);
+        assertEquals(35, projective.getDeterminant(), MathHelpers.EPSILON);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void getInverse_singular() {
+        new Matrix(1, 2, 3, 4,
+                   2, 4, 6, 8,
+                   0, 0, 1, 0,
+                   0, 0, 0, 1).getInverse();
+    }
+
+    @Test
+    public void transformPoints() {
+        double[] points = {1, 2, 3, -4, 0.5, 7};
+        double[] transformed = new double[6];
+        affine.transformPoints(points, transformed, 2);
+        for (int i = 0; i < 2; i++) {
+            Vector expected = affine.multiply(new Vector(points[3 * i], points[3 * i + 1],
+                    points[3 * i + 2], 1)).xyz();
+            assertEquals(expected, new Vector(transformed[3 * i], transformed[3 * i + 1],
+                    transformed[3 * i + 2]));
+        }
+    }
+
+    @Test
+    public void transformDirections() {
+        float[] directions = {1, 0, 0, 0, 1, 0};
+        affine.transformDirections(directions, directions, 2);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(affine.get(i, 0), directions[i], 1e-5);
+            assertEquals(affine.get(i, 1), directions[3 + i], 1e-5);
+        }
+    }
+}
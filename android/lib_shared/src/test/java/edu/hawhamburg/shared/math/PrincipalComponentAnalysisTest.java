@@ -0,0 +1,72 @@
+package edu.hawhamburg.shared.math;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PrincipalComponentAnalysisTest {
+
+    @Test
+    public void applyPCA_plane() {
+        // points in the plane z = 2, spread more in x than in y
+        PrincipalComponentAnalysis pca = new PrincipalComponentAnalysis();
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            pca.add(new Vector(1 + 4 * random.nextDouble(), 2 * random.nextDouble(), 2));
+        }
+        pca.applyPCA();
+        assertEquals(0, pca.getEigenValues().get(0), 1e-9);
+        assertTrue(pca.getEigenValues().get(1) < pca.getEigenValues().get(2));
+        assertEquals(1, Math.abs(pca.getEigenVector(0).z()), 1e-9);
+        assertEquals(1, Math.abs(pca.getEigenVector(2).x()), 0.1);
+        assertEquals(2, pca.getCentroid().z(), 1e-9);
+    }
+
+    @Test
+    public void applyPCA_eigenDecomposition() {
+        PrincipalComponentAnalysis pca = new PrincipalComponentAnalysis();
+        Random random = new Random(7);
+        Matrix covariance = new Matrix(0, 0, 0, 0, 0, 0, 0, 0, 0);
+        Vector[] points = new Vector[50];
+        Vector centroid = new Vector(0, 0, 0);
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Vector(random.nextGaussian(), 3 * random.nextGaussian() + 0.5
+                    * random.nextDouble(), random.nextGaussian() - random.nextDouble());
+            pca.add(points[i]);
+            centroid = centroid.add(points[i].multiply(1.0 / points.length));
+        }
+        for (Vector p : points) {
+            Vector d = p.subtract(centroid);
+            covariance = covariance.add(d.innerProduct(d));
+        }
+        pca.applyPCA();
+        for (int i = 0; i < 3; i++) {
+            Vector v = pca.getEigenVector(i);
+            assertEquals(1, v.getNorm(), 1e-9);
+            Vector mv = covariance.multiply(v);
+            Vector lv = v.multiply(pca.getEigenValues().get(i));
+            assertEquals(0, mv.subtract(lv).getNorm(), 1e-9);
+        }
+    }
+
+    @Test
+    public void merge() {
+        PrincipalComponentAnalysis all = new PrincipalComponentAnalysis();
+        PrincipalComponentAnalysis first = new PrincipalComponentAnalysis();
+        PrincipalComponentAnalysis second = new PrincipalComponentAnalysis();
+        Random random = new Random(3);
+        for (int i = 0; i < 40; i++) {
+            Vector p = new Vector(random.nextDouble(), 2 * random.nextDouble(), -random.nextDouble());
+            all.add(p);
+            (i < 15 ? first : second).add(p);
+        }
+        first.merge(second);
+        all.applyPCA();
+        first.applyPCA();
+        assertEquals(all.getCount(), first.getCount());
+        assertEquals(all.getCentroid(), first.getCentroid());
+        assertEquals(all.getEigenValues(), first.getEigenValues());
+    }
+}
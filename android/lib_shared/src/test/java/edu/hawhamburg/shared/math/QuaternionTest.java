@@ -0,0 +1,68 @@
+package edu.hawhamburg.shared.math;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QuaternionTest {
+
+    private Vector axis = new Vector(0, 0.6, 0.8);
+
+    @Test
+    public void toMatrix() {
+        Quaternion q = new Quaternion(axis, 0.7);
+        assertEquals(Matrix.createRotationMatrix4(axis, 0.7), q.toMatrix());
+    }
+
+    @Test
+    public void setFromMatrix() {
+        for (double angle = -3; angle <= 3; angle += 0.5) {
+            Matrix rotation = Matrix.createRotationMatrix4(axis, angle);
+            assertEquals(rotation, new Quaternion().setFromMatrix(rotation).toMatrix());
+        }
+    }
+
+    @Test
+    public void rotate() {
+        Quaternion q = new Quaternion(axis, 1.2);
+        Vec3 v = q.rotate(new Vec3(1, 2, 3), new Vec3());
+        assertEquals(Matrix.createRotationMatrix3(axis, 1.2).multiply(new Vector(1, 2, 3)),
+                v.toVector());
+    }
+
+    @Test
+    public void multiply() {
+        Quaternion a = new Quaternion(axis, 0.3);
+        Quaternion b = new Quaternion(new Vector(1, 0, 0), -1.1);
+        Quaternion ab = Quaternion.multiply(a, b, new Quaternion());
+        assertEquals(a.toMatrix().multiply(b.toMatrix()), ab.toMatrix());
+    }
+
+    @Test
+    public void slerp() {
+        Quaternion a = new Quaternion(axis, 0.2);
+        Quaternion b = new Quaternion(axis, 1.0);
+        Quaternion half = Quaternion.slerp(a, b, 0.5, new Quaternion());
+        assertEquals(0.6, half.getAngle(), MathHelpers.EPSILON);
+        assertEquals(Matrix.createRotationMatrix4(axis, 0.6), half.toMatrix());
+    }
+
+    @Test
+    public void dualQuaternion_multiply() {
+        DualQuaternion a = new DualQuaternion(new Quaternion(axis, 0.3), new Vector(1, 2, 3));
+        DualQuaternion b = new DualQuaternion(new Quaternion(new Vector(1, 0, 0), -1.1),
+                new Vector(-2, 0.5, 4));
+        DualQuaternion ab = DualQuaternion.multiply(a, b, new DualQuaternion());
+        assertEquals(a.toMatrix().multiply(b.toMatrix()), ab.toMatrix());
+
+        Vec3 p = ab.transformPoint(new Vec3(0.5, -1, 2), new Vec3());
+        assertEquals(ab.toMatrix().multiply(new Vector(0.5, -1, 2, 1)).xyz(), p.toVector());
+    }
+
+    @Test
+    public void dualQuaternion_setFromMatrix() {
+        Matrix rigid = Matrix.createTranslationMatrix4(new Vector(2, -3, 5))
+                .multiply(Matrix.createRotationMatrix4(axis, 2.5));
+        assertEquals(rigid, new DualQuaternion().setFromMatrix(rigid).toMatrix());
+    }
+}
@@ -0,0 +1,33 @@
+package edu.hawhamburg.shared.rendering;
+
+import android.opengl.GLES20;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.hawhamburg.shared.math.Vector;
+
+import static org.junit.Assert.*;
+
+public class VertexBufferObjectTest {
+
+    @Test
+    public void setup_emptyAfterMesh() {
+        List<RenderVertex> renderVertices = new ArrayList<RenderVertex>();
+        Vector normal = new Vector(0, 0, 1);
+        Vector color = new Vector(1, 0, 0, 1);
+        renderVertices.add(new RenderVertex(new Vector(0, 0, 0), normal, color));
+        renderVertices.add(new RenderVertex(new Vector(1, 0, 0), normal, color));
+        renderVertices.add(new RenderVertex(new Vector(0, 1, 0), normal, color));
+        VertexBufferObject vbo = new VertexBufferObject();
+        vbo.setup(renderVertices, GLES20.GL_TRIANGLES);
+        vbo.draw();
+        assertEquals(3, vbo.getNumberOfIndices());
+
+        vbo.setup(new ArrayList<RenderVertex>(), GLES20.GL_TRIANGLES);
+        vbo.draw();
+        assertEquals(0, vbo.getNumberOfIndices());
+    }
+}
@@ -0,0 +1,96 @@
+package edu.hawhamburg.shared.scenegraph;
+
+import org.junit.Test;
+
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMesh;
+import edu.hawhamburg.shared.datastructures.mesh.TriangleMeshFactory;
+import edu.hawhamburg.shared.math.Matrix;
+
+import static org.junit.Assert.*;
+
+public class LodNodeTest {
+
+    /**
+     * Node with three levels with the errors 0, 0.01 and 0.1.
+     */
+    private static LodNode createNode() {
+        TriangleMesh mesh = new TriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 10);
+        LodNode node = new LodNode();
+        node.addLevel(new TriangleMeshNode(mesh), 0);
+        node.addLevel(new TriangleMeshNode(mesh), 0.01);
+        node.addLevel(new TriangleMeshNode(mesh), 0.1);
+        node.setPixelThreshold(1);
+        node.setHysteresis(0.25);
+        return node;
+    }
+
+    @Test
+    public void selectLevel() {
+        LodNode node = createNode();
+        assertEquals(0, node.selectLevel(0, 1000));
+        assertEquals(1, node.selectLevel(0, 50));
+        assertEquals(2, node.selectLevel(0, 5));
+        assertEquals(0, node.selectLevel(2, 1000));
+        assertEquals(1, node.selectLevel(2, 50));
+    }
+
+    @Test
+    public void selectLevel_hysteresis() {
+        LodNode node = createNode();
+        // Error of level 1 is 0.9 pixels: below the threshold, but not clearly
+        assertEquals(0, node.selectLevel(0, 90));
+        assertEquals(1, node.selectLevel(1, 90));
+        assertEquals(1, node.selectLevel(0, 70));
+        assertEquals(0, node.selectLevel(1, 110));
+    }
+
+    @Test
+    public void createLevels() {
+        TriangleMesh mesh = new TriangleMesh();
+        TriangleMeshFactory.createSphere(mesh, 0.5, 40);
+        LodNode node = new LodNode(mesh, 0.25, 0.05);
+        assertEquals(3, node.getNumberOfLevels());
+        assertEquals(0, node.getCurrentLevel());
+        assertSame(mesh, node.getLevelMesh(0));
+        assertEquals((int) (0.25 * mesh.getNumberOfTriangles()),
+                node.getLevelMesh(1).getNumberOfTriangles());
+        assertEquals(2, node.selectLevel(0, 1e-3));
+    }
+
+    @Test
+    public void traverse_cameraDistance() {
+        Camera camera = Camera.getInstance();
+        Matrix viewMatrix = camera.getViewMatrix();
+        int width = camera.getWidth();
+        int height = camera.getHeight();
+        try {
+            // One unit is about 6.5 pixels at the distance 10 (level 2), the finest level is
+            // required close to the sphere
+            camera.setScreenSize(100, 100);
+            LodNode node = createNode();
+
+            // Eye at (10, 0, 0) looking at the origin, up (0, 1, 0): setLookAtM() result in
+            // column-major order
+            camera.setViewMatrix(new Matrix(new float[]{0, 0, 1, 0, 0, 1, 0, 0, -1, 0, 0, 0,
+                    0, 0, -10, 1}));
+            node.traverse(INode.RenderMode.REGULAR, Matrix.createIdentityMatrix4());
+            assertEquals(2, node.getCurrentLevel());
+
+            // Eye at (0.5, 0, 0), i.e. at the surface of the sphere
+            camera.setViewMatrix(new Matrix(new float[]{0, 0, 1, 0, 0, 1, 0, 0, -1, 0, 0, 0,
+                    0, 0, -0.5f, 1}));
+            node.traverse(INode.RenderMode.REGULAR, Matrix.createIdentityMatrix4());
+            assertEquals(0, node.getCurrentLevel());
+        } finally {
+            camera.setViewMatrix(viewMatrix);
+            camera.setScreenSize(width, height);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decreasingErrors() {
+        LodNode node = createNode();
+        node.addLevel(new TriangleMeshNode(new TriangleMesh()), 0.05);
+    }
+}
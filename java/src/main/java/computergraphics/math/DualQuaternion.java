@@ -0,0 +1,179 @@
+package computergraphics.math;
+
+/**
+ * Unit dual quaternion real + eps * dual representing a rigid transformation (rotation followed
+ * by a translation). Composing two of them costs 48 multiplications instead of the 64 of a 4x4
+ * matrix product, and the result stays rigid without re-orthonormalization.
+ */
+public final class DualQuaternion {
+
+  /**
+   * Rotation part.
+   */
+  public final Quaternion real = new Quaternion();
+
+  /**
+   * Translation part, 0.5 * t * real.
+   */
+  public final Quaternion dual = new Quaternion(0, 0, 0, 0);
+
+  /**
+   * Create identity transformation.
+   */
+  public DualQuaternion() {
+  }
+
+  public DualQuaternion(DualQuaternion other) {
+    set(other);
+  }
+
+  /**
+   * Create from rotation and translation, see set(Quaternion, double, double, double).
+   */
+  public DualQuaternion(Quaternion rotation, Vector translation) {
+    set(rotation, translation.x(), translation.y(), translation.z());
+  }
+
+  public DualQuaternion set(DualQuaternion other) {
+    real.set(other.real);
+    dual.set(other.dual);
+    return this;
+  }
+
+  public DualQuaternion setIdentity() {
+    real.setIdentity();
+    dual.set(0, 0, 0, 0);
+    return this;
+  }
+
+  /**
+   * Transformation which first rotates (unit quaternion) and then translates by (tx, ty, tz).
+   */
+  public DualQuaternion set(Quaternion rotation, double tx, double ty, double tz) {
+    real.set(rotation);
+    // dual = 0.5 * (0, t) * real
+    dual.set(-0.5 * (tx * real.x + ty * real.y + tz * real.z),
+        0.5 * (tx * real.w + ty * real.z - tz * real.y),
+        0.5 * (-tx * real.z + ty * real.w + tz * real.x),
+        0.5 * (tx * real.y - ty * real.x + tz * real.w));
+    return this;
+  }
+
+  /**
+   * Pure translation.
+   */
+  public DualQuaternion setTranslation(double tx, double ty, double tz) {
+    real.setIdentity();
+    dual.set(0, 0.5 * tx, 0.5 * ty, 0.5 * tz);
+    return this;
+  }
+
+  /**
+   * Set from a rigid 4x4 matrix.
+   */
+  public DualQuaternion setFromMatrix(Matrix m) {
+    if (m.getNumberOfRows() != 4 || m.getNumberOfColumns() != 4) {
+      throw new IllegalArgumentException();
+    }
+    Quaternion rotation = new Quaternion().setFromMatrix(m);
+    return set(rotation, m.get(0, 3), m.get(1, 3), m.get(2, 3));
+  }
+
+  /**
+   * Write the translation into out.
+   */
+  public Vec3 getTranslation(Vec3 out) {
+    // t = 2 * dual * conjugate(real)
+    Quaternion r = real;
+    Quaternion d = dual;
+    return out.set(2 * (-d.w * r.x + d.x * r.w - d.y * r.z + d.z * r.y),
+        2 * (-d.w * r.y + d.x * r.z + d.y * r.w - d.z * r.x),
+        2 * (-d.w * r.z - d.x * r.y + d.y * r.x + d.z * r.w));
+  }
+
+  /**
+   * Write the transformation as rigid matrix into out.
+   */
+  public Mat4 toMat4(Mat4 out) {
+    real.toMat4(out);
+    Quaternion r = real;
+    Quaternion d = dual;
+    out.m03 = 2 * (-d.w * r.x + d.x * r.w - d.y * r.z + d.z * r.y);
+    out.m13 = 2 * (-d.w * r.y + d.x * r.z + d.y * r.w - d.z * r.x);
+    out.m23 = 2 * (-d.w * r.z - d.x * r.y + d.y * r.x + d.z * r.w);
+    return out;
+  }
+
+  /**
+   * Create a 4x4 homogenious transformation matrix.
+   */
+  public Matrix toMatrix() {
+    return toMat4(new Mat4()).toMatrix();
+  }
+
+  /**
+   * out = rotation * p + translation, out may be p.
+   */
+  public Vec3 transformPoint(Vec3 p, Vec3 out) {
+    real.rotate(p, out);
+    Quaternion r = real;
+    Quaternion d = dual;
+    return out.set(out.x + 2 * (-d.w * r.x + d.x * r.w - d.y * r.z + d.z * r.y),
+        out.y + 2 * (-d.w * r.y + d.x * r.z + d.y * r.w - d.z * r.x),
+        out.z + 2 * (-d.w * r.z - d.x * r.y + d.y * r.x + d.z * r.w));
+  }
+
+  /**
+   * Normalize to a unit dual quaternion (unit real part, dual part orthogonal to it).
+   */
+  public DualQuaternion normalize() {
+    double norm = real.getNorm();
+    if (norm < MathHelpers.EPSILON) {
+      return this;
+    }
+    real.set(real.w / norm, real.x / norm, real.y / norm, real.z / norm);
+    dual.set(dual.w / norm, dual.x / norm, dual.y / norm, dual.z / norm);
+    double d = real.dot(dual);
+    dual.set(dual.w - d * real.w, dual.x - d * real.x, dual.y - d * real.y,
+        dual.z - d * real.z);
+    return this;
+  }
+
+  /**
+   * out = a * b (first transform by b, then by a), out may be a or b.
+   */
+  public static DualQuaternion multiply(DualQuaternion a, DualQuaternion b,
+                      DualQuaternion out) {
+    // dual = a.real * b.dual + a.dual * b.real, computed before out.real is overwritten
+    Quaternion ar = a.real, ad = a.dual, br = b.real, bd = b.dual;
+    double dw = ar.w * bd.w - ar.x * bd.x - ar.y * bd.y - ar.z * bd.z
+        + ad.w * br.w - ad.x * br.x - ad.y * br.y - ad.z * br.z;
+    double dx = ar.w * bd.x + ar.x * bd.w + ar.y * bd.z - ar.z * bd.y
+        + ad.w * br.x + ad.x * br.w + ad.y * br.z - ad.z * br.y;
+    double dy = ar.w * bd.y - ar.x * bd.z + ar.y * bd.w + ar.z * bd.x
+        + ad.w * br.y - ad.x * br.z + ad.y * br.w + ad.z * br.x;
+    double dz = ar.w * bd.z + ar.x * bd.y - ar.y * bd.x + ar.z * bd.w
+        + ad.w * br.z + ad.x * br.y - ad.y * br.x + ad.z * br.w;
+    Quaternion.multiply(ar, br, out.real);
+    out.dual.set(dw, dx, dy, dz);
+    return out;
+  }
+
+  /**
+   * Interpolate between a (t = 0) and b (t = 1): slerp of the rotations and linear
+   * interpolation of the translations. out may be a or b.
+   */
+  public static DualQuaternion slerp(DualQuaternion a, DualQuaternion b, double t,
+                     DualQuaternion out) {
+    Vec3 ta = a.getTranslation(new Vec3());
+    Vec3 tb = b.getTranslation(new Vec3());
+    Quaternion rotation = Quaternion.slerp(a.real, b.real, t, new Quaternion());
+    return out.set(rotation, ta.x + t * (tb.x - ta.x), ta.y + t * (tb.y - ta.y),
+        ta.z + t * (tb.z - ta.z));
+  }
+
+  @Override
+  public String toString() {
+    return real + " + eps " + dual;
+  }
+}
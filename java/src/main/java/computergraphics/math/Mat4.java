@@ -0,0 +1,407 @@
+package computergraphics.math;
+
+/**
+ * Fixed-size 4x4 matrix with scalar fields (mRowColumn). Operations write into a destination
+ * object instead of allocating a new one, see Vec3.
+ */
+public final class Mat4 {
+
+  public double m00, m01, m02, m03;
+  public double m10, m11, m12, m13;
+  public double m20, m21, m22, m23;
+  public double m30, m31, m32, m33;
+
+  /**
+   * Create identity matrix.
+   */
+  public Mat4() {
+    setIdentity();
+  }
+
+  public Mat4(Mat4 other) {
+    set(other);
+  }
+
+  /**
+   * Create from a 4x4 Matrix.
+   */
+  public Mat4(Matrix other) {
+    set(other);
+  }
+
+  public Mat4 set(double m00, double m01, double m02, double m03,
+          double m10, double m11, double m12, double m13,
+          double m20, double m21, double m22, double m23,
+          double m30, double m31, double m32, double m33) {
+    this.m00 = m00;
+    this.m01 = m01;
+    this.m02 = m02;
+    this.m03 = m03;
+    this.m10 = m10;
+    this.m11 = m11;
+    this.m12 = m12;
+    this.m13 = m13;
+    this.m20 = m20;
+    this.m21 = m21;
+    this.m22 = m22;
+    this.m23 = m23;
+    this.m30 = m30;
+    this.m31 = m31;
+    this.m32 = m32;
+    this.m33 = m33;
+    return this;
+  }
+
+  public Mat4 set(Mat4 o) {
+    return set(o.m00, o.m01, o.m02, o.m03,
+        o.m10, o.m11, o.m12, o.m13,
+        o.m20, o.m21, o.m22, o.m23,
+        o.m30, o.m31, o.m32, o.m33);
+  }
+
+  /**
+   * Copy the values of a 4x4 Matrix.
+   */
+  public Mat4 set(Matrix o) {
+    if (o.getNumberOfRows() != 4 || o.getNumberOfColumns() != 4) {
+      throw new IllegalArgumentException();
+    }
+    return set(o.get(0, 0), o.get(0, 1), o.get(0, 2), o.get(0, 3),
+        o.get(1, 0), o.get(1, 1), o.get(1, 2), o.get(1, 3),
+        o.get(2, 0), o.get(2, 1), o.get(2, 2), o.get(2, 3),
+        o.get(3, 0), o.get(3, 1), o.get(3, 2), o.get(3, 3));
+  }
+
+  public Mat4 setIdentity() {
+    return set(1, 0, 0, 0,
+        0, 1, 0, 0,
+        0, 0, 1, 0,
+        0, 0, 0, 1);
+  }
+
+  /**
+   * Write the values into a 4x4 Matrix.
+   */
+  public void copyTo(Matrix o) {
+    if (o.getNumberOfRows() != 4 || o.getNumberOfColumns() != 4) {
+      throw new IllegalArgumentException();
+    }
+    o.set(0, 0, m00);
+    o.set(0, 1, m01);
+    o.set(0, 2, m02);
+    o.set(0, 3, m03);
+    o.set(1, 0, m10);
+    o.set(1, 1, m11);
+    o.set(1, 2, m12);
+    o.set(1, 3, m13);
+    o.set(2, 0, m20);
+    o.set(2, 1, m21);
+    o.set(2, 2, m22);
+    o.set(2, 3, m23);
+    o.set(3, 0, m30);
+    o.set(3, 1, m31);
+    o.set(3, 2, m32);
+    o.set(3, 3, m33);
+  }
+
+  /**
+   * Create a new 4x4 Matrix with the values.
+   */
+  public Matrix toMatrix() {
+    return new Matrix(m00, m01, m02, m03,
+        m10, m11, m12, m13,
+        m20, m21, m22, m23,
+        m30, m31, m32, m33);
+  }
+
+  /**
+   * out = a * b, out may be a or b.
+   */
+  public static Mat4 multiply(Mat4 a, Mat4 b, Mat4 out) {
+    return out.set(
+        a.m00 * b.m00 + a.m01 * b.m10 + a.m02 * b.m20 + a.m03 * b.m30,
+        a.m00 * b.m01 + a.m01 * b.m11 + a.m02 * b.m21 + a.m03 * b.m31,
+        a.m00 * b.m02 + a.m01 * b.m12 + a.m02 * b.m22 + a.m03 * b.m32,
+        a.m00 * b.m03 + a.m01 * b.m13 + a.m02 * b.m23 + a.m03 * b.m33,
+        a.m10 * b.m00 + a.m11 * b.m10 + a.m12 * b.m20 + a.m13 * b.m30,
+        a.m10 * b.m01 + a.m11 * b.m11 + a.m12 * b.m21 + a.m13 * b.m31,
+        a.m10 * b.m02 + a.m11 * b.m12 + a.m12 * b.m22 + a.m13 * b.m32,
+        a.m10 * b.m03 + a.m11 * b.m13 + a.m12 * b.m23 + a.m13 * b.m33,
+        a.m20 * b.m00 + a.m21 * b.m10 + a.m22 * b.m20 + a.m23 * b.m30,
+        a.m20 * b.m01 + a.m21 * b.m11 + a.m22 * b.m21 + a.m23 * b.m31,
+        a.m20 * b.m02 + a.m21 * b.m12 + a.m22 * b.m22 + a.m23 * b.m32,
+        a.m20 * b.m03 + a.m21 * b.m13 + a.m22 * b.m23 + a.m23 * b.m33,
+        a.m30 * b.m00 + a.m31 * b.m10 + a.m32 * b.m20 + a.m33 * b.m30,
+        a.m30 * b.m01 + a.m31 * b.m11 + a.m32 * b.m21 + a.m33 * b.m31,
+        a.m30 * b.m02 + a.m31 * b.m12 + a.m32 * b.m22 + a.m33 * b.m32,
+        a.m30 * b.m03 + a.m31 * b.m13 + a.m32 * b.m23 + a.m33 * b.m33);
+  }
+
+  /**
+   * An affine matrix has (0, 0, 0, 1) as last row.
+   */
+  public boolean isAffine() {
+    return m30 == 0 && m31 == 0 && m32 == 0 && m33 == 1;
+  }
+
+  /**
+   * A rigid matrix is affine and its upper 3x3 block is orthonormal (rotation/reflection).
+   */
+  public boolean isRigid() {
+    return isAffine()
+        && MathHelpers.equals(m00 * m00 + m01 * m01 + m02 * m02, 1)
+        && MathHelpers.equals(m10 * m10 + m11 * m11 + m12 * m12, 1)
+        && MathHelpers.equals(m20 * m20 + m21 * m21 + m22 * m22, 1)
+        && MathHelpers.equals(m00 * m10 + m01 * m11 + m02 * m12, 0)
+        && MathHelpers.equals(m00 * m20 + m01 * m21 + m02 * m22, 0)
+        && MathHelpers.equals(m10 * m20 + m11 * m21 + m12 * m22, 0);
+  }
+
+  public double getDeterminant() {
+    if (isAffine()) {
+      return m00 * (m11 * m22 - m12 * m21)
+          - m01 * (m10 * m22 - m12 * m20)
+          + m02 * (m10 * m21 - m11 * m20);
+    }
+    double s0 = m00 * m11 - m10 * m01;
+    double s1 = m00 * m12 - m10 * m02;
+    double s2 = m00 * m13 - m10 * m03;
+    double s3 = m01 * m12 - m11 * m02;
+    double s4 = m01 * m13 - m11 * m03;
+    double s5 = m02 * m13 - m12 * m03;
+    double c5 = m22 * m33 - m32 * m23;
+    double c4 = m21 * m33 - m31 * m23;
+    double c3 = m21 * m32 - m31 * m22;
+    double c2 = m20 * m33 - m30 * m23;
+    double c1 = m20 * m32 - m30 * m22;
+    double c0 = m20 * m31 - m30 * m21;
+    return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+  }
+
+  /**
+   * out = inverse of m, out may be m. Rigid and affine matrices use the cheaper special cases
+   * (transposed rotation and negated translation, resp. inverse of the 3x3 block), all other
+   * matrices the closed-form cofactor expansion.
+   *
+   * @return false if m is singular, out is not changed in this case.
+   */
+  public static boolean invert(Mat4 m, Mat4 out) {
+    if (m.isRigid()) {
+      invertRigid(m, out);
+      return true;
+    } else if (m.isAffine()) {
+      return invertAffine(m, out);
+    } else {
+      return invertGeneral(m, out);
+    }
+  }
+
+  /**
+   * Inverse of a rigid transformation: R^T and -R^T * t. Expects m.isRigid().
+   */
+  private static void invertRigid(Mat4 m, Mat4 out) {
+    double tx = m.m03;
+    double ty = m.m13;
+    double tz = m.m23;
+    out.set(m.m00, m.m10, m.m20, -(m.m00 * tx + m.m10 * ty + m.m20 * tz),
+        m.m01, m.m11, m.m21, -(m.m01 * tx + m.m11 * ty + m.m21 * tz),
+        m.m02, m.m12, m.m22, -(m.m02 * tx + m.m12 * ty + m.m22 * tz),
+        0, 0, 0, 1);
+  }
+
+  /**
+   * Inverse of an affine transformation: A^-1 and -A^-1 * t. Expects m.isAffine().
+   */
+  private static boolean invertAffine(Mat4 m, Mat4 out) {
+    double c00 = m.m11 * m.m22 - m.m12 * m.m21;
+    double c01 = m.m12 * m.m20 - m.m10 * m.m22;
+    double c02 = m.m10 * m.m21 - m.m11 * m.m20;
+    double det = m.m00 * c00 + m.m01 * c01 + m.m02 * c02;
+    if (det == 0) {
+      return false;
+    }
+    double invDet = 1.0 / det;
+    double i00 = c00 * invDet;
+    double i01 = (m.m02 * m.m21 - m.m01 * m.m22) * invDet;
+    double i02 = (m.m01 * m.m12 - m.m02 * m.m11) * invDet;
+    double i10 = c01 * invDet;
+    double i11 = (m.m00 * m.m22 - m.m02 * m.m20) * invDet;
+    double i12 = (m.m02 * m.m10 - m.m00 * m.m12) * invDet;
+    double i20 = c02 * invDet;
+    double i21 = (m.m01 * m.m20 - m.m00 * m.m21) * invDet;
+    double i22 = (m.m00 * m.m11 - m.m01 * m.m10) * invDet;
+    double tx = m.m03;
+    double ty = m.m13;
+    double tz = m.m23;
+    out.set(i00, i01, i02, -(i00 * tx + i01 * ty + i02 * tz),
+        i10, i11, i12, -(i10 * tx + i11 * ty + i12 * tz),
+        i20, i21, i22, -(i20 * tx + i21 * ty + i22 * tz),
+        0, 0, 0, 1);
+    return true;
+  }
+
+  /**
+   * Closed-form inverse (adjugate / determinant) of an arbitrary 4x4 matrix.
+   */
+  private static boolean invertGeneral(Mat4 m, Mat4 out) {
+    double s0 = m.m00 * m.m11 - m.m10 * m.m01;
+    double s1 = m.m00 * m.m12 - m.m10 * m.m02;
+    double s2 = m.m00 * m.m13 - m.m10 * m.m03;
+    double s3 = m.m01 * m.m12 - m.m11 * m.m02;
+    double s4 = m.m01 * m.m13 - m.m11 * m.m03;
+    double s5 = m.m02 * m.m13 - m.m12 * m.m03;
+    double c5 = m.m22 * m.m33 - m.m32 * m.m23;
+    double c4 = m.m21 * m.m33 - m.m31 * m.m23;
+    double c3 = m.m21 * m.m32 - m.m31 * m.m22;
+    double c2 = m.m20 * m.m33 - m.m30 * m.m23;
+    double c1 = m.m20 * m.m32 - m.m30 * m.m22;
+    double c0 = m.m20 * m.m31 - m.m30 * m.m21;
+    double det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+    if (det == 0) {
+      return false;
+    }
+    double invDet = 1.0 / det;
+    out.set((m.m11 * c5 - m.m12 * c4 + m.m13 * c3) * invDet,
+        (-m.m01 * c5 + m.m02 * c4 - m.m03 * c3) * invDet,
+        (m.m31 * s5 - m.m32 * s4 + m.m33 * s3) * invDet,
+        (-m.m21 * s5 + m.m22 * s4 - m.m23 * s3) * invDet,
+        (-m.m10 * c5 + m.m12 * c2 - m.m13 * c1) * invDet,
+        (m.m00 * c5 - m.m02 * c2 + m.m03 * c1) * invDet,
+        (-m.m30 * s5 + m.m32 * s2 - m.m33 * s1) * invDet,
+        (m.m20 * s5 - m.m22 * s2 + m.m23 * s1) * invDet,
+        (m.m10 * c4 - m.m11 * c2 + m.m13 * c0) * invDet,
+        (-m.m00 * c4 + m.m01 * c2 - m.m03 * c0) * invDet,
+        (m.m30 * s4 - m.m31 * s2 + m.m33 * s0) * invDet,
+        (-m.m20 * s4 + m.m21 * s2 - m.m23 * s0) * invDet,
+        (-m.m10 * c3 + m.m11 * c1 - m.m12 * c0) * invDet,
+        (m.m00 * c3 - m.m01 * c1 + m.m02 * c0) * invDet,
+        (-m.m30 * s3 + m.m31 * s1 - m.m32 * s0) * invDet,
+        (m.m20 * s3 - m.m21 * s1 + m.m22 * s0) * invDet);
+    return true;
+  }
+
+  /**
+   * out = M * v, out may be v.
+   */
+  public Vec4 transform(Vec4 v, Vec4 out) {
+    return out.set(
+        m00 * v.x + m01 * v.y + m02 * v.z + m03 * v.w,
+        m10 * v.x + m11 * v.y + m12 * v.z + m13 * v.w,
+        m20 * v.x + m21 * v.y + m22 * v.z + m23 * v.w,
+        m30 * v.x + m31 * v.y + m32 * v.z + m33 * v.w);
+  }
+
+  /**
+   * out = (M * (p, 1)).xyz, out may be p. Same as multiply(makeHomogenious(p)).xyz() on Matrix,
+   * i.e. there is no division by w.
+   */
+  public Vec3 transformPoint(Vec3 p, Vec3 out) {
+    return out.set(
+        m00 * p.x + m01 * p.y + m02 * p.z + m03,
+        m10 * p.x + m11 * p.y + m12 * p.z + m13,
+        m20 * p.x + m21 * p.y + m22 * p.z + m23);
+  }
+
+  /**
+   * out = (M * (d, 0)).xyz, out may be d.
+   */
+  public Vec3 transformDirection(Vec3 d, Vec3 out) {
+    return out.set(
+        m00 * d.x + m01 * d.y + m02 * d.z,
+        m10 * d.x + m11 * d.y + m12 * d.z,
+        m20 * d.x + m21 * d.y + m22 * d.z);
+  }
+
+  /**
+   * Transform count points stored as packed (x, y, z) triples: dst = (M * (src, 1)).xyz, no
+   * division by w. src and dst may be the same array.
+   */
+  public void transformPoints(double[] src, double[] dst, int count) {
+    checkBounds(src.length, count);
+    checkBounds(dst.length, count);
+    // Coefficients in locals, the loop body is unrolled per coordinate
+    final double a00 = m00, a01 = m01, a02 = m02, a03 = m03;
+    final double a10 = m10, a11 = m11, a12 = m12, a13 = m13;
+    final double a20 = m20, a21 = m21, a22 = m22, a23 = m23;
+    for (int i = 0, n = 3 * count; i < n; i += 3) {
+      double x = src[i];
+      double y = src[i + 1];
+      double z = src[i + 2];
+      dst[i] = a00 * x + a01 * y + a02 * z + a03;
+      dst[i + 1] = a10 * x + a11 * y + a12 * z + a13;
+      dst[i + 2] = a20 * x + a21 * y + a22 * z + a23;
+    }
+  }
+
+  /**
+   * Float variant of transformPoints(double[], double[], int).
+   */
+  public void transformPoints(float[] src, float[] dst, int count) {
+    checkBounds(src.length, count);
+    checkBounds(dst.length, count);
+    final float a00 = (float) m00, a01 = (float) m01, a02 = (float) m02, a03 = (float) m03;
+    final float a10 = (float) m10, a11 = (float) m11, a12 = (float) m12, a13 = (float) m13;
+    final float a20 = (float) m20, a21 = (float) m21, a22 = (float) m22, a23 = (float) m23;
+    for (int i = 0, n = 3 * count; i < n; i += 3) {
+      float x = src[i];
+      float y = src[i + 1];
+      float z = src[i + 2];
+      dst[i] = a00 * x + a01 * y + a02 * z + a03;
+      dst[i + 1] = a10 * x + a11 * y + a12 * z + a13;
+      dst[i + 2] = a20 * x + a21 * y + a22 * z + a23;
+    }
+  }
+
+  /**
+   * Transform count directions stored as packed (x, y, z) triples: dst = (M * (src, 0)).xyz.
+   * src and dst may be the same array.
+   */
+  public void transformDirections(double[] src, double[] dst, int count) {
+    checkBounds(src.length, count);
+    checkBounds(dst.length, count);
+    final double a00 = m00, a01 = m01, a02 = m02;
+    final double a10 = m10, a11 = m11, a12 = m12;
+    final double a20 = m20, a21 = m21, a22 = m22;
+    for (int i = 0, n = 3 * count; i < n; i += 3) {
+      double x = src[i];
+      double y = src[i + 1];
+      double z = src[i + 2];
+      dst[i] = a00 * x + a01 * y + a02 * z;
+      dst[i + 1] = a10 * x + a11 * y + a12 * z;
+      dst[i + 2] = a20 * x + a21 * y + a22 * z;
+    }
+  }
+
+  /**
+   * Float variant of transformDirections(double[], double[], int).
+   */
+  public void transformDirections(float[] src, float[] dst, int count) {
+    checkBounds(src.length, count);
+    checkBounds(dst.length, count);
+    final float a00 = (float) m00, a01 = (float) m01, a02 = (float) m02;
+    final float a10 = (float) m10, a11 = (float) m11, a12 = (float) m12;
+    final float a20 = (float) m20, a21 = (float) m21, a22 = (float) m22;
+    for (int i = 0, n = 3 * count; i < n; i += 3) {
+      float x = src[i];
+      float y = src[i + 1];
+      float z = src[i + 2];
+      dst[i] = a00 * x + a01 * y + a02 * z;
+      dst[i + 1] = a10 * x + a11 * y + a12 * z;
+      dst[i + 2] = a20 * x + a21 * y + a22 * z;
+    }
+  }
+
+  private static void checkBounds(int arrayLength, int count) {
+    if (count < 0 || 3 * count > arrayLength) {
+      throw new IllegalArgumentException();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%4.3f %4.3f %4.3f %4.3f \n%4.3f %4.3f %4.3f %4.3f \n"
+            + "%4.3f %4.3f %4.3f %4.3f \n%4.3f %4.3f %4.3f %4.3f \n",
+        m00, m01, m02, m03, m10, m11, m12, m13,
+        m20, m21, m22, m23, m30, m31, m32, m33);
+  }
+}
@@ -344,6 +344,15 @@ public class Matrix {
           b * g - a * h, a * e - b * d).multiply(1.0 / det);
       return inverse;
     } else {
+      if (getNumberOfRows() == 4) {
+        // Closed form with fast paths for rigid and affine matrices, see
+        // Mat4.invert()
+        Mat4 inverse = new Mat4(this);
+        if (Mat4.invert(inverse, inverse)) {
+          return inverse.toMatrix();
+        }
+        // Singular: Jama reports the error
+      }
       Jama.Matrix M = new Jama.Matrix(values);
       Jama.Matrix invM = M.inverse();
       Matrix result = new Matrix(getNumberOfRows(), getNumberOfColumns());
@@ -357,6 +366,36 @@ public class Matrix {
     }
   }
 
+  /**
+   * Transform count points stored as packed (x, y, z) triples with this 4x4
+   * matrix (no division by w). src and dst may be the same array.
+   */
+  public void transformPoints(double[] src, double[] dst, int count) {
+    new Mat4(this).transformPoints(src, dst, count);
+  }
+
+  /**
+   * Float variant of transformPoints(double[], double[], int).
+   */
+  public void transformPoints(float[] src, float[] dst, int count) {
+    new Mat4(this).transformPoints(src, dst, count);
+  }
+
+  /**
+   * Transform count directions stored as packed (x, y, z) triples with this
+   * 4x4 matrix (translation is ignored). src and dst may be the same array.
+   */
+  public void transformDirections(double[] src, double[] dst, int count) {
+    new Mat4(this).transformDirections(src, dst, count);
+  }
+
+  /**
+   * Float variant of transformDirections(double[], double[], int).
+   */
+  public void transformDirections(float[] src, float[] dst, int count) {
+    new Mat4(this).transformDirections(src, dst, count);
+  }
+
   /**
    * Compute and return the matrix determinant. Matrix must be squared.
    * 
@@ -373,6 +412,8 @@ public class Matrix {
           - get(0, 2) * get(1, 1) * get(2, 0)
           - get(0, 1) * get(1, 0) * get(2, 2)
           - get(0, 0) * get(1, 2) * get(2, 1);
+    } else if (getNumberOfColumns() == 4) {
+      return new Mat4(this).getDeterminant();
     } else {
       Jama.Matrix M = new Jama.Matrix(values);
       return M.det();
@@ -5,16 +5,14 @@
  */
 package computergraphics.math;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import Jama.EigenvalueDecomposition;
-
 /**
  * Apply a principle component analysis on a list of points in 3-space.
  * 
+ * The points are not stored: the analysis only accumulates the number of points, their mean and
+ * the sums of the squared deviations from the mean (Welford's streaming update). Partial
+ * analyses (e.g. of worker threads) can be combined with merge().
+ *
  * @author Philipp Jenke
- * 
  */
 public class PrincipalComponentAnalysis {
   /**
@@ -30,9 +28,20 @@ public class PrincipalComponentAnalysis {
   private Vector[] eigenVectors = new Vector[3];
 
   /**
-   * Container for the points.
+   * Number of added points.
+   */
+  private long count = 0;
+
+  /**
+   * Running mean of the added points.
+   */
+  private double meanX = 0, meanY = 0, meanZ = 0;
+
+  /**
+   * Co-moments: sums of the products of the deviations from the mean (upper triangle of the
+   * symmetric covariance matrix times count).
    */
-  List<Vector> points = new ArrayList<Vector>();
+  private double cXX = 0, cXY = 0, cXZ = 0, cYY = 0, cYZ = 0, cZZ = 0;
 
   /**
    * Constructor
@@ -44,7 +53,62 @@ public class PrincipalComponentAnalysis {
    * Add an additional point.
    */
   public void add(Vector point) {
-    points.add(point);
+    add(point.x(), point.y(), point.z());
+  }
+
+  /**
+   * Add an additional point.
+   */
+  public void add(double x, double y, double z) {
+    count++;
+    double dx = x - meanX;
+    double dy = y - meanY;
+    double dz = z - meanZ;
+    meanX += dx / count;
+    meanY += dy / count;
+    meanZ += dz / count;
+    // deviation from the old mean times deviation from the new mean
+    double ex = x - meanX;
+    double ey = y - meanY;
+    double ez = z - meanZ;
+    cXX += dx * ex;
+    cXY += dx * ey;
+    cXZ += dx * ez;
+    cYY += dy * ey;
+    cYZ += dy * ez;
+    cZZ += dz * ez;
+  }
+
+  /**
+   * Add all points of the other analysis, same result as if they were added to this analysis
+   * directly.
+   */
+  public void merge(PrincipalComponentAnalysis other) {
+    if (other.count == 0) {
+      return;
+    }
+    long n = count + other.count;
+    double dx = other.meanX - meanX;
+    double dy = other.meanY - meanY;
+    double dz = other.meanZ - meanZ;
+    double f = (double) count * other.count / n;
+    cXX += other.cXX + dx * dx * f;
+    cXY += other.cXY + dx * dy * f;
+    cXZ += other.cXZ + dx * dz * f;
+    cYY += other.cYY + dy * dy * f;
+    cYZ += other.cYZ + dy * dz * f;
+    cZZ += other.cZZ + dz * dz * f;
+    meanX += dx * other.count / n;
+    meanY += dy * other.count / n;
+    meanZ += dz * other.count / n;
+    count = n;
+  }
+
+  /**
+   * Number of added points.
+   */
+  public long getCount() {
+    return count;
   }
 
   /**
@@ -52,40 +116,22 @@ public class PrincipalComponentAnalysis {
    */
   public void applyPCA() {
 
-    if (points.size() < 3) {
+    if (count < 3) {
       System.out.println("Need a least 3 points for PCA");
       return;
     }
 
-    // Compute centroid
-    centroid = new Vector(0, 0, 0);
-    for (Vector p : points) {
-      centroid = centroid.add(p);
-    }
-    centroid = centroid.multiply(1.0 / points.size());
+    centroid = new Vector(meanX, meanY, meanZ);
 
-    // Compute the covariance matrix
-    Matrix M = new Matrix(0, 0, 0, 0, 0, 0, 0, 0, 0);
-    for (Vector p : points) {
-      Vector d = p.subtract(centroid);
-      M = M.add(d.innerProduct(d));
-    }
+    // Eigen decomposition of the (unnormalized) covariance matrix
+    double[] values = new double[3];
+    double[][] vectors = new double[3][3];
+    SymmetricEigenSolver3.solve(cXX, cXY, cXZ, cYY, cYZ, cZZ, values, vectors);
 
-    // Singular value decomposition
-    Jama.Matrix jamaM = new Jama.Matrix(3, 3);
-    for (int rowIndex = 0; rowIndex < 3; rowIndex++) {
-      for (int colIndex = 0; colIndex < 3; colIndex++) {
-        jamaM.set(colIndex, rowIndex, M.get(colIndex, rowIndex));
-      }
+    for (int i = 0; i < 3; i++) {
+      eigenVectors[i] = new Vector(vectors[0][i], vectors[1][i], vectors[2][i]);
     }
-    EigenvalueDecomposition e = jamaM.eig();
-    Jama.Matrix V = e.getV();
-    Jama.Matrix D = e.getD();
-
-    eigenVectors[0] = new Vector(V.get(0, 0), V.get(1, 0), V.get(2, 0));
-    eigenVectors[1] = new Vector(V.get(0, 1), V.get(1, 1), V.get(2, 1));
-    eigenVectors[2] = new Vector(V.get(0, 2), V.get(1, 2), V.get(2, 2));
-    eigenValues = new Vector(D.get(0, 0), D.get(1, 1), D.get(2, 2));
+    eigenValues = new Vector(values[0], values[1], values[2]);
 
   }
 
@@ -112,10 +158,12 @@ public class PrincipalComponentAnalysis {
   }
 
   /**
-   * Clear list of points.
+   * Remove all points.
    */
   public void clear() {
-    points.clear();
+    count = 0;
+    meanX = meanY = meanZ = 0;
+    cXX = cXY = cXZ = cYY = cYZ = cZZ = 0;
   }
 
 }
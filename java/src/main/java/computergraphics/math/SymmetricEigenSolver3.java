@@ -0,0 +1,104 @@
+package computergraphics.math;
+
+/**
+ * Eigen decomposition of a symmetric 3x3 matrix with the cyclic Jacobi method. Replaces the
+ * general Jama decomposition for covariance matrices, converges in a few sweeps for 3x3.
+ */
+public final class SymmetricEigenSolver3 {
+
+  /**
+   * Upper bound for the number of sweeps, in practice less than 10 are required.
+   */
+  private static final int MAX_SWEEPS = 50;
+
+  private SymmetricEigenSolver3() {
+  }
+
+  /**
+   * Decompose the symmetric matrix
+   * <pre>
+   * a00 a01 a02
+   * a01 a11 a12
+   * a02 a12 a22
+   * </pre>
+   * The eigenvalues are written into eigenValues in ascending order, the corresponding
+   * normalized eigenvectors into the columns of eigenVectors (eigenVectors[row][column]).
+   */
+  public static void solve(double a00, double a01, double a02, double a11, double a12,
+               double a22, double[] eigenValues, double[][] eigenVectors) {
+    if (eigenValues.length != 3 || eigenVectors.length != 3) {
+      throw new IllegalArgumentException();
+    }
+    double[][] a = new double[][]{
+        {a00, a01, a02},
+        {a01, a11, a12},
+        {a02, a12, a22}};
+    double[][] v = eigenVectors;
+    for (int row = 0; row < 3; row++) {
+      for (int col = 0; col < 3; col++) {
+        v[row][col] = (row == col) ? 1 : 0;
+      }
+    }
+
+    double scale = Math.abs(a00) + Math.abs(a11) + Math.abs(a22)
+        + 2 * (Math.abs(a01) + Math.abs(a02) + Math.abs(a12));
+    for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+      double offDiagonal = Math.abs(a[0][1]) + Math.abs(a[0][2]) + Math.abs(a[1][2]);
+      if (offDiagonal <= 1e-15 * scale) {
+        break;
+      }
+      rotate(a, v, 0, 1);
+      rotate(a, v, 0, 2);
+      rotate(a, v, 1, 2);
+    }
+
+    // Sort ascending (insertion sort on three elements)
+    for (int i = 0; i < 3; i++) {
+      eigenValues[i] = a[i][i];
+    }
+    for (int i = 1; i < 3; i++) {
+      for (int j = i; j > 0 && eigenValues[j - 1] > eigenValues[j]; j--) {
+        double tmp = eigenValues[j];
+        eigenValues[j] = eigenValues[j - 1];
+        eigenValues[j - 1] = tmp;
+        for (int row = 0; row < 3; row++) {
+          tmp = v[row][j];
+          v[row][j] = v[row][j - 1];
+          v[row][j - 1] = tmp;
+        }
+      }
+    }
+  }
+
+  /**
+   * Jacobi rotation a = J^T * a * J which eliminates a[p][q], v = v * J.
+   */
+  private static void rotate(double[][] a, double[][] v, int p, int q) {
+    double apq = a[p][q];
+    if (apq == 0) {
+      return;
+    }
+    double theta = (a[q][q] - a[p][p]) / (2 * apq);
+    double t = (theta >= 0 ? 1 : -1) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+    double c = 1 / Math.sqrt(t * t + 1);
+    double s = t * c;
+    for (int k = 0; k < 3; k++) {
+      double akp = a[k][p];
+      double akq = a[k][q];
+      a[k][p] = c * akp - s * akq;
+      a[k][q] = s * akp + c * akq;
+    }
+    for (int k = 0; k < 3; k++) {
+      double apk = a[p][k];
+      double aqk = a[q][k];
+      a[p][k] = c * apk - s * aqk;
+      a[q][k] = s * apk + c * aqk;
+    }
+    for (int k = 0; k < 3; k++) {
+      double vkp = v[k][p];
+      double vkq = v[k][q];
+      v[k][p] = c * vkp - s * vkq;
+      v[k][q] = s * vkp + c * vkq;
+    }
+  }
+}